@@ -0,0 +1,85 @@
+package minecrafttransportsimulator.packloading;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link JSONParser#validateFields(Object, String, int)} against the reflection-based validation
+ * it replaced, over a generated pack of definitions.  Run via the jmh task.  Scores are the time to validate
+ * the whole pack once.  {@link JSONValidationTest} checks that both give the same results.
+ *
+ * @author don_bruce
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+    @Param({"2000", "10000"})
+    public int definitionCount;
+
+    private List<Object> definitions;
+    private PrintStream errorStream;
+
+    @Setup
+    public void setup() throws IOException {
+        definitions = GeneratedValidationPack.generate(definitionCount);
+
+        //Both paths print stack traces for missing sub-fields, which would swamp the actual validation time.
+        errorStream = System.err;
+        System.setErr(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+        }));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setErr(errorStream);
+    }
+
+    @Benchmark
+    public int validationPlans() {
+        int failedCount = 0;
+        for (Object definition : definitions) {
+            try {
+                JSONParser.validateFields(definition, "/", 1);
+            } catch (NullPointerException e) {
+                ++failedCount;
+            }
+        }
+        return failedCount;
+    }
+
+    @Benchmark
+    public int reflection() {
+        int failedCount = 0;
+        for (Object definition : definitions) {
+            try {
+                LegacyFieldValidator.validateFields(definition, "/", 1);
+            } catch (NullPointerException e) {
+                ++failedCount;
+            }
+        }
+        return failedCount;
+    }
+}
@@ -36,6 +36,7 @@ public class AnimationSwitchbox {
     private final TransformationMatrix helperOffsetOperationMatrix = new TransformationMatrix();
     private boolean inhibitAnimations;
     private boolean switchboxEnabled;
+    private boolean hasRun;
     private long lastTickRun;
     private float lastPartialTickRun;
 
@@ -43,12 +44,15 @@ public class AnimationSwitchbox {
         this.entity = entity;
         this.applyAfter = applyAfter;
         for (JSONAnimationDefinition animation : animations) {
-            clocks.add(new DurationDelayClock(animation));
+            DurationDelayClock clock = new DurationDelayClock(animation);
+            clock.bindVariable(entity);
+            clocks.add(clock);
         }
     }
 
     public boolean runSwitchbox(float partialTicks, boolean forceSameTick) {
         if (forceSameTick || lastTickRun != entity.ticksExisted || lastPartialTickRun != partialTicks) {
+            hasRun = true;
             lastTickRun = entity.ticksExisted;
             lastPartialTickRun = partialTicks;
 
@@ -132,6 +136,19 @@ public class AnimationSwitchbox {
         }
     }
 
+    /**
+     * Like {@link #runSwitchbox(float, boolean)}, but only runs once every passed-in number of ticks.
+     * Between runs, partial ticks are ignored and the results of the last run are kept.
+     * Used for things that are too small on screen for their animations to be seen moving smoothly.
+     */
+    public boolean runSwitchboxThrottled(float partialTicks, int tickInterval) {
+        if (tickInterval > 1 && hasRun && entity.ticksExisted - lastTickRun < tickInterval) {
+            return switchboxEnabled;
+        } else {
+            return runSwitchbox(partialTicks, false);
+        }
+    }
+
     public void runTranslation(DurationDelayClock clock, float partialTicks) {
         //Found translation.  This gets applied in the translation axis direction directly.
         double variableValue = entity.getAnimatedVariableValue(clock, clock.animationAxisMagnitude, partialTicks);
@@ -0,0 +1,135 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Cache of block collision boxes for a world.  Getting the collision boxes for a block from MC is slow, as
+ * it has to work out the block's shape and move it to the block's position each time.  Vehicles check the same
+ * blocks every tick, so we store the boxes here, as flat arrays of min XYZ then max XYZ for each box, in world coordinates.
+ * <br><br>
+ * Boxes are stored with the block state they were made for, and are only returned if that's still the block's state.
+ * This way, changed blocks are never read from the cache, even if we miss the event for the change.  Block change events
+ * are still used to clear the block and its neighbors, as some blocks, like fences, change shape when their neighbors do.
+ * Boxes are stored in 16x16x16 sections, which are removed when the chunk they are in is unloaded.
+ *
+ * @author don_bruce
+ */
+public class BlockCollisionCache {
+    /**
+     * Returned, and stored, for blocks that don't have any collision boxes.
+     **/
+    public static final double[] NO_BOXES = new double[0];
+    private static final int SECTION_SIZE = 16 * 16 * 16;
+
+    private final Map<Long, Section> sections = new HashMap<>();
+    private long lastSectionKey;
+    private Section lastSection;
+
+    /**
+     * Returns the collision boxes for the block at the passed-in position, or null if they aren't cached
+     * for the passed-in state.  If the block doesn't have any boxes, {@link #NO_BOXES} is returned.
+     */
+    public double[] getBoxes(int x, int y, int z, Object state) {
+        Section section = getSection(x, y, z, false);
+        if (section != null) {
+            int index = getIndex(x, y, z);
+            if (section.states[index] == state) {
+                return section.boxes[index];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sets the collision boxes for the block at the passed-in position, for the passed-in state.
+     */
+    public void setBoxes(int x, int y, int z, Object state, double[] boxes) {
+        Section section = getSection(x, y, z, true);
+        int index = getIndex(x, y, z);
+        section.states[index] = state;
+        section.boxes[index] = boxes;
+    }
+
+    /**
+     * Removes the block at the passed-in position from the cache, as well as its neighbors.
+     * Should be called whenever a block is changed.
+     */
+    public void onBlockChanged(int x, int y, int z) {
+        removeBlock(x, y, z);
+        removeBlock(x - 1, y, z);
+        removeBlock(x + 1, y, z);
+        removeBlock(x, y - 1, z);
+        removeBlock(x, y + 1, z);
+        removeBlock(x, y, z - 1);
+        removeBlock(x, y, z + 1);
+    }
+
+    /**
+     * Removes all sections in the passed-in chunk from the cache.  Should be called when the chunk is unloaded.
+     */
+    public void onChunkUnloaded(int chunkX, int chunkZ) {
+        Iterator<Section> iterator = sections.values().iterator();
+        while (iterator.hasNext()) {
+            Section section = iterator.next();
+            if (section.sectionX == chunkX && section.sectionZ == chunkZ) {
+                iterator.remove();
+            }
+        }
+        lastSection = null;
+    }
+
+    /**
+     * Removes all blocks from the cache.
+     */
+    public void clear() {
+        sections.clear();
+        lastSection = null;
+    }
+
+    private void removeBlock(int x, int y, int z) {
+        Section section = getSection(x, y, z, false);
+        if (section != null) {
+            int index = getIndex(x, y, z);
+            section.states[index] = null;
+            section.boxes[index] = null;
+        }
+    }
+
+    private Section getSection(int x, int y, int z, boolean create) {
+        int sectionX = x >> 4;
+        int sectionY = y >> 4;
+        int sectionZ = z >> 4;
+        long key = ((long) sectionX & 0x3FFFFF) << 42 | ((long) sectionY & 0xFFFFF) << 22 | ((long) sectionZ & 0x3FFFFF);
+        if (lastSection == null || lastSectionKey != key) {
+            Section section = sections.get(key);
+            if (section == null) {
+                if (!create) {
+                    return null;
+                }
+                section = new Section(sectionX, sectionZ);
+                sections.put(key, section);
+            }
+            lastSection = section;
+            lastSectionKey = key;
+        }
+        return lastSection;
+    }
+
+    private static int getIndex(int x, int y, int z) {
+        return (y & 15) << 8 | (z & 15) << 4 | (x & 15);
+    }
+
+    private static class Section {
+        private final int sectionX;
+        private final int sectionZ;
+        private final Object[] states = new Object[SECTION_SIZE];
+        private final double[][] boxes = new double[SECTION_SIZE][];
+
+        private Section(int sectionX, int sectionZ) {
+            this.sectionX = sectionX;
+            this.sectionZ = sectionZ;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Bounding volume hierarchy over a set of {@link BoundingBox}es.  Used by entities with lots of boxes to
+ * quickly find the few boxes that a path or area could hit, rather than checking every box.
+ * <br><br>
+ * The hierarchy only needs to be re-built when the set of boxes changes.  If the boxes just move, as they do
+ * every tick on a moving entity, the existing nodes are re-fit around them instead, which is much cheaper.
+ * Both of these are done lazily on the next query, so entities that are never queried never pay for them.
+ * Boxes returned by queries are only candidates: they still need to be checked for an actual hit.
+ * <br><br>
+ * Nodes are stored in arrays in depth-first order, so a node's left child is always the next node,
+ * and children always come after their parents.  This lets us re-fit in a single backwards pass.
+ * The bounds of the boxes themselves are copied into a flat array in one pass at the start of each re-fit,
+ * so fitting nodes reads sequential memory rather than chasing each box and its center point.
+ *
+ * @author don_bruce
+ */
+public class BoundingBoxHierarchy {
+    private static final int MAX_LEAF_BOXES = 4;
+    private static final Comparator<BoundingBox> X_SORTER = Comparator.comparingDouble(box -> box.globalCenter.x);
+    private static final Comparator<BoundingBox> Y_SORTER = Comparator.comparingDouble(box -> box.globalCenter.y);
+    private static final Comparator<BoundingBox> Z_SORTER = Comparator.comparingDouble(box -> box.globalCenter.z);
+
+    private BoundingBox[] boxes = new BoundingBox[0];
+    private int boxCount;
+    /**
+     * Min XYZ, then max XYZ, for each box in {@link #boxes}, at the same index.
+     **/
+    private double[] boxBounds = new double[0];
+
+    /**
+     * Min XYZ, then max XYZ, for each node.
+     **/
+    private double[] nodeBounds = new double[0];
+    /**
+     * For leaf nodes, the index of the first box in {@link #boxes}.  For other nodes, the index of the right child.
+     **/
+    private int[] nodeIndexes = new int[0];
+    /**
+     * For leaf nodes, the number of boxes.  For other nodes, 0.
+     **/
+    private int[] nodeBoxCounts = new int[0];
+    private int nodeCount;
+    private int[] nodeStack = new int[0];
+
+    private boolean needsRebuild;
+    private boolean needsRefit;
+
+    /**
+     * Sets the boxes in this hierarchy.  This re-builds the hierarchy, so should only be called
+     * when boxes are added or removed.  If they just move, call {@link #markBoxesMoved()} instead.
+     */
+    public void setBoxes(Collection<BoundingBox> newBoxes) {
+        if (boxes.length < newBoxes.size()) {
+            boxes = new BoundingBox[newBoxes.size()];
+            boxBounds = new double[newBoxes.size() * 6];
+        } else if (boxCount > newBoxes.size()) {
+            Arrays.fill(boxes, newBoxes.size(), boxCount, null);
+        }
+        boxCount = 0;
+        for (BoundingBox box : newBoxes) {
+            boxes[boxCount++] = box;
+        }
+        needsRebuild = true;
+    }
+
+    /**
+     * Marks the boxes in this hierarchy as having moved, so the hierarchy is re-fit to them.
+     */
+    public void markBoxesMoved() {
+        needsRefit = true;
+    }
+
+    /**
+     * Adds all boxes that the line from the start to end point may intersect to the passed-in list.
+     */
+    public void getBoxesOnPath(Point3D start, Point3D end, List<BoundingBox> result) {
+        if (prepareForQuery()) {
+            double deltaX = end.x - start.x;
+            double deltaY = end.y - start.y;
+            double deltaZ = end.z - start.z;
+            int stackSize = 0;
+            nodeStack[stackSize++] = 0;
+            while (stackSize > 0) {
+                int node = nodeStack[--stackSize];
+                int boundsIndex = node * 6;
+                double minTime = 0;
+                double maxTime = 1;
+
+                //Clip the line to the slab of each axis in turn.  If nothing is left, we missed.
+                minTime = Math.max(minTime, getSlabEntry(start.x, deltaX, nodeBounds[boundsIndex], nodeBounds[boundsIndex + 3]));
+                maxTime = Math.min(maxTime, getSlabExit(start.x, deltaX, nodeBounds[boundsIndex], nodeBounds[boundsIndex + 3]));
+                if (minTime > maxTime) {
+                    continue;
+                }
+                minTime = Math.max(minTime, getSlabEntry(start.y, deltaY, nodeBounds[boundsIndex + 1], nodeBounds[boundsIndex + 4]));
+                maxTime = Math.min(maxTime, getSlabExit(start.y, deltaY, nodeBounds[boundsIndex + 1], nodeBounds[boundsIndex + 4]));
+                if (minTime > maxTime) {
+                    continue;
+                }
+                minTime = Math.max(minTime, getSlabEntry(start.z, deltaZ, nodeBounds[boundsIndex + 2], nodeBounds[boundsIndex + 5]));
+                maxTime = Math.min(maxTime, getSlabExit(start.z, deltaZ, nodeBounds[boundsIndex + 2], nodeBounds[boundsIndex + 5]));
+                if (minTime > maxTime) {
+                    continue;
+                }
+                stackSize = visitNode(node, stackSize, result);
+            }
+        }
+    }
+
+    /**
+     * Adds all boxes that intersect the passed-in bounds to the passed-in list.
+     */
+    public void getBoxesInBounds(BoundingBox bounds, List<BoundingBox> result) {
+        if (prepareForQuery()) {
+            double minX = bounds.globalCenter.x - bounds.widthRadius;
+            double minY = bounds.globalCenter.y - bounds.heightRadius;
+            double minZ = bounds.globalCenter.z - bounds.depthRadius;
+            double maxX = bounds.globalCenter.x + bounds.widthRadius;
+            double maxY = bounds.globalCenter.y + bounds.heightRadius;
+            double maxZ = bounds.globalCenter.z + bounds.depthRadius;
+            int stackSize = 0;
+            nodeStack[stackSize++] = 0;
+            while (stackSize > 0) {
+                int node = nodeStack[--stackSize];
+                int boundsIndex = node * 6;
+                if (nodeBounds[boundsIndex] <= maxX && nodeBounds[boundsIndex + 3] >= minX && nodeBounds[boundsIndex + 1] <= maxY && nodeBounds[boundsIndex + 4] >= minY && nodeBounds[boundsIndex + 2] <= maxZ && nodeBounds[boundsIndex + 5] >= minZ) {
+                    stackSize = visitNode(node, stackSize, result);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the boxes of the passed-in node to the list if it's a leaf, or its children to the stack if not.
+     * Returns the new stack size.
+     */
+    private int visitNode(int node, int stackSize, List<BoundingBox> result) {
+        if (nodeBoxCounts[node] != 0) {
+            for (int i = nodeIndexes[node], end = i + nodeBoxCounts[node]; i < end; ++i) {
+                result.add(boxes[i]);
+            }
+        } else {
+            nodeStack[stackSize++] = nodeIndexes[node];
+            nodeStack[stackSize++] = node + 1;
+        }
+        return stackSize;
+    }
+
+    private static double getSlabEntry(double start, double delta, double min, double max) {
+        if (delta == 0) {
+            return start >= min && start <= max ? 0 : Double.POSITIVE_INFINITY;
+        } else {
+            return delta > 0 ? (min - start) / delta : (max - start) / delta;
+        }
+    }
+
+    private static double getSlabExit(double start, double delta, double min, double max) {
+        if (delta == 0) {
+            return start >= min && start <= max ? 1 : Double.NEGATIVE_INFINITY;
+        } else {
+            return delta > 0 ? (max - start) / delta : (min - start) / delta;
+        }
+    }
+
+    /**
+     * Re-builds or re-fits the hierarchy if required.  Returns false if there are no boxes to query.
+     */
+    private boolean prepareForQuery() {
+        if (needsRebuild) {
+            rebuild();
+            needsRebuild = false;
+            needsRefit = false;
+        } else if (needsRefit) {
+            refit();
+            needsRefit = false;
+        }
+        return boxCount > 0;
+    }
+
+    private void rebuild() {
+        //A binary tree with at least one box per leaf can't have more than twice as many nodes as boxes.
+        int maxNodes = Math.max(1, boxCount * 2);
+        if (nodeBoxCounts.length < maxNodes) {
+            nodeBounds = new double[maxNodes * 6];
+            nodeIndexes = new int[maxNodes];
+            nodeBoxCounts = new int[maxNodes];
+            nodeStack = new int[maxNodes];
+        }
+        nodeCount = 0;
+        if (boxCount > 0) {
+            buildNode(0, boxCount);
+            refit();
+        }
+    }
+
+    /**
+     * Builds a node for the passed-in range of boxes, and all nodes below it.  Boxes are split
+     * in half along the longest axis of their centers until there are few enough for a leaf.
+     * This only sets up the structure: nodes need to be re-fit after to set their bounds.
+     */
+    private void buildNode(int startIndex, int endIndex) {
+        int node = nodeCount++;
+        if (endIndex - startIndex <= MAX_LEAF_BOXES) {
+            nodeIndexes[node] = startIndex;
+            nodeBoxCounts[node] = endIndex - startIndex;
+        } else {
+            double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, minZ = Double.MAX_VALUE;
+            double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE, maxZ = -Double.MAX_VALUE;
+            for (int i = startIndex; i < endIndex; ++i) {
+                Point3D center = boxes[i].globalCenter;
+                minX = Math.min(minX, center.x);
+                minY = Math.min(minY, center.y);
+                minZ = Math.min(minZ, center.z);
+                maxX = Math.max(maxX, center.x);
+                maxY = Math.max(maxY, center.y);
+                maxZ = Math.max(maxZ, center.z);
+            }
+            double spanX = maxX - minX;
+            double spanY = maxY - minY;
+            double spanZ = maxZ - minZ;
+            if (spanX >= spanY && spanX >= spanZ) {
+                Arrays.sort(boxes, startIndex, endIndex, X_SORTER);
+            } else if (spanY >= spanZ) {
+                Arrays.sort(boxes, startIndex, endIndex, Y_SORTER);
+            } else {
+                Arrays.sort(boxes, startIndex, endIndex, Z_SORTER);
+            }
+
+            int middleIndex = (startIndex + endIndex) / 2;
+            nodeBoxCounts[node] = 0;
+            buildNode(startIndex, middleIndex);
+            nodeIndexes[node] = nodeCount;
+            buildNode(middleIndex, endIndex);
+        }
+    }
+
+    /**
+     * Re-fits all nodes to the current positions of their boxes.  Children are always after their
+     * parents, so going backwards ensures children are fit before the parents that use them.
+     */
+    private void refit() {
+        for (int i = 0, boundsIndex = 0; i < boxCount; ++i, boundsIndex += 6) {
+            BoundingBox box = boxes[i];
+            boxBounds[boundsIndex] = box.globalCenter.x - box.widthRadius;
+            boxBounds[boundsIndex + 1] = box.globalCenter.y - box.heightRadius;
+            boxBounds[boundsIndex + 2] = box.globalCenter.z - box.depthRadius;
+            boxBounds[boundsIndex + 3] = box.globalCenter.x + box.widthRadius;
+            boxBounds[boundsIndex + 4] = box.globalCenter.y + box.heightRadius;
+            boxBounds[boundsIndex + 5] = box.globalCenter.z + box.depthRadius;
+        }
+        for (int node = nodeCount - 1; node >= 0; --node) {
+            if (nodeBoxCounts[node] != 0) {
+                fitNode(node, nodeIndexes[node], nodeIndexes[node] + nodeBoxCounts[node]);
+            } else {
+                int boundsIndex = node * 6;
+                int leftIndex = (node + 1) * 6;
+                int rightIndex = nodeIndexes[node] * 6;
+                for (int i = 0; i < 3; ++i) {
+                    nodeBounds[boundsIndex + i] = Math.min(nodeBounds[leftIndex + i], nodeBounds[rightIndex + i]);
+                    nodeBounds[boundsIndex + 3 + i] = Math.max(nodeBounds[leftIndex + 3 + i], nodeBounds[rightIndex + 3 + i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets the bounds of the passed-in node to encompass the passed-in range of boxes.
+     * Uses the bounds in {@link #boxBounds}, so those must be current.
+     */
+    private void fitNode(int node, int startIndex, int endIndex) {
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, minZ = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE, maxZ = -Double.MAX_VALUE;
+        for (int boxIndex = startIndex * 6, endBoxIndex = endIndex * 6; boxIndex < endBoxIndex; boxIndex += 6) {
+            minX = Math.min(minX, boxBounds[boxIndex]);
+            minY = Math.min(minY, boxBounds[boxIndex + 1]);
+            minZ = Math.min(minZ, boxBounds[boxIndex + 2]);
+            maxX = Math.max(maxX, boxBounds[boxIndex + 3]);
+            maxY = Math.max(maxY, boxBounds[boxIndex + 4]);
+            maxZ = Math.max(maxZ, boxBounds[boxIndex + 5]);
+        }
+        int boundsIndex = node * 6;
+        nodeBounds[boundsIndex] = minX;
+        nodeBounds[boundsIndex + 1] = minY;
+        nodeBounds[boundsIndex + 2] = minZ;
+        nodeBounds[boundsIndex + 3] = maxX;
+        nodeBounds[boundsIndex + 4] = maxY;
+        nodeBounds[boundsIndex + 5] = maxZ;
+    }
+}
@@ -0,0 +1,109 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.Arrays;
+
+import minecrafttransportsimulator.entities.instances.EntityBullet;
+
+/**
+ * Stage that advances the motion of all bullets in a world together, rather than one at a time in each bullet's update.
+ * Before entities are ticked, the motion, drag, and gravity of every bullet that will apply them this tick are copied
+ * into flat arrays, and the drag and gravity step is done for all of them in one pass over those arrays.  This keeps
+ * sustained fire, with hundreds of bullets in flight, to a few linear passes over packed data.
+ * <br><br>
+ * Bullets still resolve hits one at a time in their update, in the same order as before, as each hit test has to see
+ * the world as it is when that bullet ticks.  When a bullet gets to the point in its update where it would apply drag
+ * and gravity, it takes its motion from this stage instead.  The stage does the same operations as the bullet would, in
+ * the same order, and bullet motion isn't changed by anything else between the stage and the bullet's update, so the
+ * resulting motion, and therefore every hit, is identical.  Bullets that weren't staged, such as ones fired this tick,
+ * apply drag and gravity themselves.
+ *
+ * @author don_bruce
+ */
+public class BulletMotionStage {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private EntityBullet[] bullets = new EntityBullet[INITIAL_CAPACITY];
+    private double[] motionX = new double[INITIAL_CAPACITY];
+    private double[] motionY = new double[INITIAL_CAPACITY];
+    private double[] motionZ = new double[INITIAL_CAPACITY];
+    private double[] slowdownSpeeds = new double[INITIAL_CAPACITY];
+    private double[] gravitationalVelocities = new double[INITIAL_CAPACITY];
+    private int bulletCount;
+
+    /**
+     * Adds the bullet to this stage, if it will apply drag and gravity in its next update.
+     * Should only be called for bullets that will be updated this tick.
+     */
+    public void addBullet(EntityBullet bullet) {
+        if (bullet.isValid && bullet.willApplyForcesNextUpdate()) {
+            if (bulletCount == bullets.length) {
+                int newCapacity = bulletCount * 2;
+                bullets = Arrays.copyOf(bullets, newCapacity);
+                motionX = Arrays.copyOf(motionX, newCapacity);
+                motionY = Arrays.copyOf(motionY, newCapacity);
+                motionZ = Arrays.copyOf(motionZ, newCapacity);
+                slowdownSpeeds = Arrays.copyOf(slowdownSpeeds, newCapacity);
+                gravitationalVelocities = Arrays.copyOf(gravitationalVelocities, newCapacity);
+            }
+            bullets[bulletCount] = bullet;
+            motionX[bulletCount] = bullet.motion.x;
+            motionY[bulletCount] = bullet.motion.y;
+            motionZ[bulletCount] = bullet.motion.z;
+            slowdownSpeeds[bulletCount] = bullet.definition.bullet.slowdownSpeed;
+            gravitationalVelocities[bulletCount] = bullet.definition.bullet.gravitationalVelocity;
+            bullet.motionStageIndex = bulletCount;
+            bullet.motionStageTick = bullet.ticksExisted + 1;
+            ++bulletCount;
+        }
+    }
+
+    /**
+     * Applies drag and gravity to all bullets added since the last call.  The results are held until
+     * the bullets get them via {@link #getMotion(int, Point3D)} in their updates.
+     */
+    public void run() {
+        applyForces(motionX, motionY, motionZ, slowdownSpeeds, gravitationalVelocities, bulletCount);
+        //Don't hold onto bullets past this tick, they may be removed.
+        Arrays.fill(bullets, 0, bulletCount, null);
+        bulletCount = 0;
+    }
+
+    /**
+     * Sets the passed-in motion to the motion calculated for the bullet at the passed-in index.
+     * Only valid in the tick the bullet was staged for.
+     */
+    public void getMotion(int index, Point3D motion) {
+        motion.set(motionX[index], motionY[index], motionZ[index]);
+    }
+
+    /**
+     * Applies drag, then gravity, to the first count motions in the arrays.  This does the same operations, in the same order,
+     * as normalizing a copy of the motion with {@link Point3D#normalize()}, scaling it by the negative slowdown speed, and adding
+     * it to the motion, then subtracting gravity from the Y motion.  This keeps the results identical down to the last bit.
+     */
+    static void applyForces(double[] motionX, double[] motionY, double[] motionZ, double[] slowdownSpeeds, double[] gravitationalVelocities, int count) {
+        for (int i = 0; i < count; ++i) {
+            double x = motionX[i];
+            double y = motionY[i];
+            double z = motionZ[i];
+            double slowdownSpeed = slowdownSpeeds[i];
+            if (slowdownSpeed > 0) {
+                double dragX = x;
+                double dragY = y;
+                double dragZ = z;
+                double length = Math.sqrt(x * x + y * y + z * z);
+                if (length > 1.0E-8D) {
+                    dragX /= length;
+                    dragY /= length;
+                    dragZ /= length;
+                }
+                x += dragX * -slowdownSpeed;
+                y += dragY * -slowdownSpeed;
+                z += dragZ * -slowdownSpeed;
+            }
+            motionX[i] = x;
+            motionY[i] = y - gravitationalVelocities[i];
+            motionZ[i] = z;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package minecrafttransportsimulator.baseclasses;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -13,6 +14,7 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 import minecrafttransportsimulator.entities.components.AEntityA_Base;
 import minecrafttransportsimulator.entities.components.AEntityC_Renderable;
 import minecrafttransportsimulator.entities.components.AEntityD_Definable;
+import minecrafttransportsimulator.entities.components.AEntityE_Interactable;
 import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
 import minecrafttransportsimulator.entities.components.AEntityG_Towable;
 import minecrafttransportsimulator.entities.instances.APart;
@@ -25,6 +27,10 @@ import minecrafttransportsimulator.jsondefs.JSONCollisionGroup.CollisionType;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
 import minecrafttransportsimulator.mcinterface.IWrapperNBT;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
+import minecrafttransportsimulator.rendering.AModelParser;
+import minecrafttransportsimulator.rendering.RenderCullingStage;
+import minecrafttransportsimulator.rendering.RenderFrameMetrics;
+import minecrafttransportsimulator.systems.ConfigSystem;
 
 /**
  * Class that manages entities in a world.
@@ -33,13 +39,29 @@ import minecrafttransportsimulator.mcinterface.InterfaceManager;
  * @author don_bruce
  */
 public abstract class EntityManager {
+    /**
+     * How many ticks an entity has to be idle for before it is put to sleep.
+     **/
+    public static final int TICKS_BEFORE_SLEEP = 100;
+    /**
+     * How often sleeping entities are updated, in ticks.
+     **/
+    public static final int SLEEP_TICK_INTERVAL = 20;
+
     public final ConcurrentLinkedQueue<AEntityA_Base> allEntities = new ConcurrentLinkedQueue<>();
     private final ConcurrentLinkedQueue<AEntityA_Base> allTickableEntities = new ConcurrentLinkedQueue<>();
     public final ConcurrentLinkedQueue<AEntityC_Renderable> renderableEntities = new ConcurrentLinkedQueue<>();
+    public final RenderCullingStage renderCullingStage = new RenderCullingStage();
+    public final RenderFrameMetrics renderFrameMetrics = new RenderFrameMetrics();
     private final ConcurrentHashMap<Class<? extends AEntityA_Base>, ConcurrentLinkedQueue<? extends AEntityA_Base>> entitiesByClass = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<UUID, AEntityA_Base> trackedEntityMap = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<UUID, PartGun> gunMap = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<UUID, Map<Integer, EntityBullet>> bulletMap = new ConcurrentHashMap<>();
+    private final EntitySpatialIndex spatialIndex = new EntitySpatialIndex();
+    private final VehicleForceStage forceStage = new VehicleForceStage(this);
+    public final BulletMotionStage bulletMotionStage = new BulletMotionStage();
+    public final TickScheduler tickScheduler = new TickScheduler();
+    private final List<AEntityD_Definable<?>> variableSyncQueue = new ArrayList<>();
     
     private static final byte hotloadCountdownPreset = 20;
     private static byte hotloadCountdown;
@@ -85,6 +107,9 @@ public abstract class EntityManager {
             EntityBullet bullet = (EntityBullet) entity;
             bulletMap.get(bullet.gun.uniqueUUID).put(bullet.bulletNumber, bullet);
         }
+        if (entity instanceof AEntityE_Interactable) {
+            spatialIndex.update((AEntityE_Interactable<?>) entity);
+        }
 
         @SuppressWarnings("unchecked")
         ConcurrentLinkedQueue<EntityType> classList = (ConcurrentLinkedQueue<EntityType>) entitiesByClass.get(entity.getClass());
@@ -154,14 +179,96 @@ public abstract class EntityManager {
         return list;
     }
 
+    /**
+     * Returns a new, mutable list, with all entities that are an instanceof the passed-in class,
+     * and whose encompassing box is within the passed-in radius of the center point.  The search area
+     * is a cube, not a sphere, so callers should still do their own distance checks.  This uses the
+     * spatial index, and as such is far faster than {@link #getEntitiesOfType(Class)} when there are
+     * a lot of entities in the world that are not close to the point.
+     */
+    public <EntityType extends AEntityE_Interactable<?>> List<EntityType> getEntitiesNear(Point3D center, double radius, Class<EntityType> entityClass) {
+        return spatialIndex.getEntities(center.x - radius, center.y - radius, center.z - radius, center.x + radius, center.y + radius, center.z + radius, entityClass);
+    }
+
+    /**
+     * Like {@link #getEntitiesNear(Point3D, double, Class)}, but returns all entities whose encompassing
+     * box overlaps the passed-in box.  Like that method, this is a broad-phase check.
+     */
+    public <EntityType extends AEntityE_Interactable<?>> List<EntityType> getEntitiesInBox(BoundingBox box, Class<EntityType> entityClass) {
+        return spatialIndex.getEntities(box.globalCenter.x - box.widthRadius, box.globalCenter.y - box.heightRadius, box.globalCenter.z - box.depthRadius, box.globalCenter.x + box.widthRadius, box.globalCenter.y + box.heightRadius, box.globalCenter.z + box.depthRadius, entityClass);
+    }
+
+    /**
+     * Like {@link #getEntitiesNear(Point3D, double, Class)}, but returns all entities whose encompassing box
+     * comes within the passed-in distance of the line from the start to end point.  Only the cells along the
+     * line are checked, so this is much faster than checking the box around the line for long paths.
+     */
+    public <EntityType extends AEntityE_Interactable<?>> List<EntityType> getEntitiesOnPath(Point3D start, Point3D end, double distance, Class<EntityType> entityClass) {
+        return spatialIndex.getEntitiesOnPath(start, end, distance, entityClass);
+    }
+
+    /**
+     * Queues the entity to have its changed variables sent to clients at the end of this tick.
+     * Call {@link AEntityD_Definable#queueVariableSync(String)} rather than this method.
+     */
+    public void queueVariableSync(AEntityD_Definable<?> entity) {
+        variableSyncQueue.add(entity);
+    }
+
+    /**
+     * Returns true if the entity is asleep, and shouldn't be updated this tick.
+     */
+    private static boolean isSleepingThisTick(AEntityA_Base entity) {
+        return entity.ticksIdle >= TICKS_BEFORE_SLEEP && (entity.ticksExisted + 1) % SLEEP_TICK_INTERVAL != 0;
+    }
+
     /**
      * Ticks all entities that exist and need ticking.  These are any entities that
      * are not parts, since parts are ticked by their parents.
      */
     public void tickAll() {
+        //Advance bullet motions together, and if enabled, calculate vehicle forces on multiple threads before doing the main updates.
+        boolean parallelVehicleForces = ConfigSystem.settings.general.parallelVehicleForces.value;
         for (AEntityA_Base entity : allTickableEntities) {
+            if (entity instanceof EntityBullet) {
+                bulletMotionStage.addBullet((EntityBullet) entity);
+            } else if (parallelVehicleForces && entity instanceof EntityVehicleF_Physics && !isSleepingThisTick(entity)) {
+                forceStage.addVehicle((EntityVehicleF_Physics) entity);
+            }
+        }
+        getWorld().beginProfiling("MTSBulletMotionStage", true);
+        bulletMotionStage.run();
+        if (parallelVehicleForces) {
+            getWorld().beginProfiling("MTSVehicleForceStage", false);
+            forceStage.run();
+        }
+        getWorld().endProfiling();
+
+        Iterator<AEntityA_Base> iterator = allTickableEntities.iterator();
+        while (iterator.hasNext()) {
+            AEntityA_Base entity = iterator.next();
+            //Removed bullets are dropped here, rather than in removeEntity, as that would search the list for each one.
+            //Sustained fire can remove hundreds a second, so that adds up.
+            if (entity instanceof EntityBullet && !entity.isValid) {
+                iterator.remove();
+                continue;
+            }
+
+            //If the entity is asleep, only update it every so often.  We still advance its tick count
+            //so time-based animations keep going, and so the update lands on the same ticks it would if awake.
+            if (isSleepingThisTick(entity)) {
+                ++entity.ticksExisted;
+                if (entity instanceof AEntityF_Multipart) {
+                    for (APart part : ((AEntityF_Multipart<?>) entity).allParts) {
+                        ++part.ticksExisted;
+                    }
+                }
+                continue;
+            }
             if (!(entity instanceof AEntityG_Towable) || !(((AEntityG_Towable<?>) entity).blockMainUpdateCall())) {
-                entity.world.beginProfiling("MTSEntity_" + entity.uniqueUUID, true);
+                long startTime = System.nanoTime();
+                //Bullets all share one section, rather than making a new name for each one of them every tick.
+                entity.world.beginProfiling(entity instanceof EntityBullet ? "MTSBullet" : "MTSEntity_" + entity.uniqueUUID, true);
                 if (entity instanceof AEntityD_Definable) {
                     AEntityD_Definable<?> definable = (AEntityD_Definable<?>) entity;
                     //Need to do this before updating as these require knowledge of prior states.
@@ -175,12 +282,44 @@ public abstract class EntityManager {
                     entity.world.beginProfiling("PostUpdate", false);
                     definable.doPostUpdateLogic();
                     entity.world.endProfiling();
+
+                    //Move the entity in the spatial index now, so entities ticked after us, like bullets, see where we are.
+                    if (definable instanceof AEntityE_Interactable && definable.isValid) {
+                        spatialIndex.update((AEntityE_Interactable<?>) definable);
+                    }
                 } else {
                     entity.update();
                 }
                 entity.world.endProfiling();
+                tickScheduler.addCost(entity, System.nanoTime() - startTime);
+
+                //Check if we're idle.  If not, this also wakes us if we were asleep.
+                if (entity.canSleep()) {
+                    if (entity.ticksIdle < TICKS_BEFORE_SLEEP) {
+                        ++entity.ticksIdle;
+                    }
+                } else {
+                    entity.wakeUp();
+                }
             }
         }
+
+        //Now that everything has moved, update the spatial index to match.
+        //Most entities will have already been moved, but some may have been moved by others after they ticked.
+        spatialIndex.updateAll();
+
+        //Do any non-critical work we have time for, now that all critical updates are done.
+        getWorld().beginProfiling("MTSDeferredWork", true);
+        tickScheduler.endTick();
+        getWorld().endProfiling();
+
+        //Send out any variable changes made this tick.
+        if (!variableSyncQueue.isEmpty()) {
+            for (AEntityD_Definable<?> entity : variableSyncQueue) {
+                entity.sendQueuedVariables();
+            }
+            variableSyncQueue.clear();
+        }
         
         //Do hotload operations.
         //This operates on all threads concurrently as long as we're counting down.
@@ -226,6 +365,8 @@ public abstract class EntityManager {
         		case(2):{
                 	if(getWorld().isClient()) {
                 		//Client manager, apply hotloads once on this client.
+                		//Forget parsed models first, as they may have changed.
+                		AModelParser.modelCache.reset();
             			hotloadFunction.apply();
             			//No need to wait, all systems will be ready next tick.
             			hotloadCountdown = 1;
@@ -296,13 +437,16 @@ public abstract class EntityManager {
         EntityInteractResult closestResult = null;
         BoundingBox vectorBounds = new BoundingBox(startPoint, endPoint);
         List<AEntityF_Multipart<?>> multiparts = new ArrayList<>();
-        multiparts.addAll(getEntitiesOfType(EntityVehicleF_Physics.class));
-        multiparts.addAll(getEntitiesOfType(EntityPlacedPart.class));
+        multiparts.addAll(getEntitiesInBox(vectorBounds, EntityVehicleF_Physics.class));
+        multiparts.addAll(getEntitiesInBox(vectorBounds, EntityPlacedPart.class));
 
+        List<BoundingBox> boxesOnPath = new ArrayList<>();
         for (AEntityF_Multipart<?> multipart : multiparts) {
             if (multipart.encompassingBox.intersects(vectorBounds) && multipart.canBeClicked()) {
                 //Could have hit this multipart, check if and what we did via raytracing.
-                for (BoundingBox box : multipart.allCollisionBoxes) {
+                boxesOnPath.clear();
+                multipart.getCollisionBoxesOnPath(startPoint, endPoint, boxesOnPath);
+                for (BoundingBox box : boxesOnPath) {
                     if (box.collisionTypes.contains(CollisionType.CLICK) && box.intersects(vectorBounds)) {
                         BoundingBoxHitResult intersectionPoint = box.getIntersection(startPoint, endPoint);
                         if (intersectionPoint != null) {
@@ -329,11 +473,18 @@ public abstract class EntityManager {
      */
     public void removeEntity(AEntityA_Base entity) {
         allEntities.remove(entity);
-        allTickableEntities.remove(entity);
+        //Bullets are dropped from the tickable list on the next tick.  See tickAll.
+        if (!(entity instanceof EntityBullet)) {
+            allTickableEntities.remove(entity);
+        }
         if (entity instanceof AEntityC_Renderable) {
             renderableEntities.remove(entity);
         }
+        if (entity instanceof AEntityE_Interactable) {
+            spatialIndex.remove((AEntityE_Interactable<?>) entity);
+        }
         entitiesByClass.get(entity.getClass()).remove(entity);
+        tickScheduler.removeEntity(entity);
         if (entity.shouldSync()) {
             trackedEntityMap.remove(entity.uniqueUUID);
         }
@@ -0,0 +1,258 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import minecrafttransportsimulator.entities.components.AEntityE_Interactable;
+
+/**
+ * Cell-based spatial index for interactable entities.  Each entity is registered in every
+ * cell its {@link AEntityE_Interactable#encompassingBox} overlaps, and is only moved between
+ * cells when those cells actually change.  This lets systems that need "all vehicles near X"
+ * look at a handful of cells rather than every entity in the world.
+ * <br><br>
+ * Entities that are so large they would span an excessive number of cells are kept in a separate
+ * set that is always checked, as it's cheaper to test them directly than to keep them in all cells.
+ * <br><br>
+ * Likewise, queries that cover more cells than there are entities in the index, such as long-range
+ * radar sweeps, just check every entity, as that's cheaper than looking up each of those cells.
+ *
+ * @author don_bruce
+ */
+public class EntitySpatialIndex {
+    /**
+     * Size of cells, in bits.  4 bits gives 16-block cells, which matches chunk sections.
+     **/
+    private static final int CELL_BITS = 4;
+    private static final int MAX_CELLS_PER_ENTITY = 512;
+
+    private final Map<Long, Set<AEntityE_Interactable<?>>> cells = new ConcurrentHashMap<>();
+    private final Map<AEntityE_Interactable<?>, int[]> entityCells = new ConcurrentHashMap<>();
+    private final Set<AEntityE_Interactable<?>> oversizedEntities = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Adds the entity to the index, or moves it to its new cells if it has moved since the last call.
+     * If the entity is still in the same cells, this does nothing, so it is safe to call every tick.
+     */
+    public void update(AEntityE_Interactable<?> entity) {
+        int minX = toCell(entity.position.x - entity.encompassingBox.widthRadius);
+        int minY = toCell(entity.position.y - entity.encompassingBox.heightRadius);
+        int minZ = toCell(entity.position.z - entity.encompassingBox.depthRadius);
+        int maxX = toCell(entity.position.x + entity.encompassingBox.widthRadius);
+        int maxY = toCell(entity.position.y + entity.encompassingBox.heightRadius);
+        int maxZ = toCell(entity.position.z + entity.encompassingBox.depthRadius);
+
+        int[] bounds = entityCells.get(entity);
+        if (bounds != null) {
+            if (bounds[0] == minX && bounds[1] == minY && bounds[2] == minZ && bounds[3] == maxX && bounds[4] == maxY && bounds[5] == maxZ) {
+                //Haven't changed cells, nothing to do.
+                return;
+            }
+            removeFromCells(entity, bounds);
+        } else {
+            bounds = new int[6];
+        }
+
+        bounds[0] = minX;
+        bounds[1] = minY;
+        bounds[2] = minZ;
+        bounds[3] = maxX;
+        bounds[4] = maxY;
+        bounds[5] = maxZ;
+        if ((long) (maxX - minX + 1) * (maxY - minY + 1) * (maxZ - minZ + 1) > MAX_CELLS_PER_ENTITY) {
+            oversizedEntities.add(entity);
+        } else {
+            for (int x = minX; x <= maxX; ++x) {
+                for (int y = minY; y <= maxY; ++y) {
+                    for (int z = minZ; z <= maxZ; ++z) {
+                        cells.computeIfAbsent(getKey(x, y, z), k -> ConcurrentHashMap.newKeySet()).add(entity);
+                    }
+                }
+            }
+        }
+        entityCells.put(entity, bounds);
+    }
+
+    /**
+     * Updates all entities in this index.  Should be called once all entities have been ticked so
+     * the index matches their final positions for the tick.
+     */
+    public void updateAll() {
+        entityCells.keySet().forEach(this::update);
+    }
+
+    /**
+     * Removes the entity from the index.
+     */
+    public void remove(AEntityE_Interactable<?> entity) {
+        int[] bounds = entityCells.remove(entity);
+        if (bounds != null) {
+            removeFromCells(entity, bounds);
+        }
+    }
+
+    /**
+     * Returns all entities that are an instance of the passed-in class and whose encompassing box
+     * overlaps the passed-in bounds.  This is a broad-phase check: entities returned may
+     * not actually collide with whatever the bounds represent, so callers should still do their
+     * own precise checks.  Each entity is only returned once, even if it spans multiple cells.
+     */
+    @SuppressWarnings("unchecked")
+    public <EntityType extends AEntityE_Interactable<?>> List<EntityType> getEntities(double minX, double minY, double minZ, double maxX, double maxY, double maxZ, Class<EntityType> entityClass) {
+        List<EntityType> entities = new ArrayList<>();
+        int minCellX = toCell(minX);
+        int minCellY = toCell(minY);
+        int minCellZ = toCell(minZ);
+        int maxCellX = toCell(maxX);
+        int maxCellY = toCell(maxY);
+        int maxCellZ = toCell(maxZ);
+        if ((long) (maxCellX - minCellX + 1) * (maxCellY - minCellY + 1) * (maxCellZ - minCellZ + 1) > entityCells.size()) {
+            //Fewer entities than cells to check, so check them all directly.  This includes oversized entities.
+            for (AEntityE_Interactable<?> entity : entityCells.keySet()) {
+                if (entityClass.isInstance(entity) && isInside(entity, minX, minY, minZ, maxX, maxY, maxZ)) {
+                    entities.add((EntityType) entity);
+                }
+            }
+            return entities;
+        }
+        for (int x = minCellX; x <= maxCellX; ++x) {
+            for (int y = minCellY; y <= maxCellY; ++y) {
+                for (int z = minCellZ; z <= maxCellZ; ++z) {
+                    Set<AEntityE_Interactable<?>> cell = cells.get(getKey(x, y, z));
+                    if (cell != null) {
+                        for (AEntityE_Interactable<?> entity : cell) {
+                            if (entityClass.isInstance(entity)) {
+                                //Only add the entity in the first cell where it and the search area overlap.
+                                //This prevents duplicates without needing a set.
+                                int[] bounds = entityCells.get(entity);
+                                if (bounds != null && x == Math.max(bounds[0], minCellX) && y == Math.max(bounds[1], minCellY) && z == Math.max(bounds[2], minCellZ) && isInside(entity, minX, minY, minZ, maxX, maxY, maxZ)) {
+                                    entities.add((EntityType) entity);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        for (AEntityE_Interactable<?> entity : oversizedEntities) {
+            if (entityClass.isInstance(entity) && isInside(entity, minX, minY, minZ, maxX, maxY, maxZ)) {
+                entities.add((EntityType) entity);
+            }
+        }
+        return entities;
+    }
+
+    /**
+     * Returns all entities that are an instance of the passed-in class and whose encompassing box comes within the
+     * passed-in distance of the line from the start to the end point.  Rather than checking all cells in the box around
+     * the line, which for long diagonal lines like bullet paths is mostly empty, the line is split into cell-sized pieces
+     * and only the cells around each piece are checked.  Unlike {@link #getEntities(double, double, double, double, double, double, Class)},
+     * entities are checked against the line itself, not just its bounds.
+     */
+    @SuppressWarnings("unchecked")
+    public <EntityType extends AEntityE_Interactable<?>> List<EntityType> getEntitiesOnPath(Point3D start, Point3D end, double distance, Class<EntityType> entityClass) {
+        List<EntityType> entities = new ArrayList<>();
+        double deltaX = end.x - start.x;
+        double deltaY = end.y - start.y;
+        double deltaZ = end.z - start.z;
+        int pieces = Math.max(1, (int) Math.ceil(Math.sqrt(deltaX * deltaX + deltaY * deltaY + deltaZ * deltaZ) / (1 << CELL_BITS)));
+        long cellsPerPiece = (long) Math.pow((2 * distance) / (1 << CELL_BITS) + 2, 3);
+        if (pieces * cellsPerPiece > entityCells.size()) {
+            //Fewer entities than cells to check, so check them all directly.  This includes oversized entities.
+            for (AEntityE_Interactable<?> entity : entityCells.keySet()) {
+                if (entityClass.isInstance(entity) && isOnPath(entity, start, deltaX, deltaY, deltaZ, distance)) {
+                    entities.add((EntityType) entity);
+                }
+            }
+            return entities;
+        }
+        for (int piece = 0; piece < pieces; ++piece) {
+            double pieceStart = (double) piece / pieces;
+            double pieceEnd = (double) (piece + 1) / pieces;
+            double x1 = start.x + deltaX * pieceStart;
+            double y1 = start.y + deltaY * pieceStart;
+            double z1 = start.z + deltaZ * pieceStart;
+            double x2 = start.x + deltaX * pieceEnd;
+            double y2 = start.y + deltaY * pieceEnd;
+            double z2 = start.z + deltaZ * pieceEnd;
+            int maxCellX = toCell(Math.max(x1, x2) + distance);
+            int maxCellY = toCell(Math.max(y1, y2) + distance);
+            int maxCellZ = toCell(Math.max(z1, z2) + distance);
+            for (int x = toCell(Math.min(x1, x2) - distance); x <= maxCellX; ++x) {
+                for (int y = toCell(Math.min(y1, y2) - distance); y <= maxCellY; ++y) {
+                    for (int z = toCell(Math.min(z1, z2) - distance); z <= maxCellZ; ++z) {
+                        Set<AEntityE_Interactable<?>> cell = cells.get(getKey(x, y, z));
+                        if (cell != null) {
+                            for (AEntityE_Interactable<?> entity : cell) {
+                                if (entityClass.isInstance(entity) && !entities.contains(entity) && isOnPath(entity, start, deltaX, deltaY, deltaZ, distance)) {
+                                    entities.add((EntityType) entity);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        for (AEntityE_Interactable<?> entity : oversizedEntities) {
+            if (entityClass.isInstance(entity) && isOnPath(entity, start, deltaX, deltaY, deltaZ, distance)) {
+                entities.add((EntityType) entity);
+            }
+        }
+        return entities;
+    }
+
+    private void removeFromCells(AEntityE_Interactable<?> entity, int[] bounds) {
+        if (!oversizedEntities.remove(entity)) {
+            for (int x = bounds[0]; x <= bounds[3]; ++x) {
+                for (int y = bounds[1]; y <= bounds[4]; ++y) {
+                    for (int z = bounds[2]; z <= bounds[5]; ++z) {
+                        Long key = getKey(x, y, z);
+                        Set<AEntityE_Interactable<?>> cell = cells.get(key);
+                        if (cell != null) {
+                            cell.remove(entity);
+                            if (cell.isEmpty()) {
+                                cells.remove(key);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isInside(AEntityE_Interactable<?> entity, double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        return entity.position.x - entity.encompassingBox.widthRadius <= maxX && entity.position.x + entity.encompassingBox.widthRadius >= minX && entity.position.y - entity.encompassingBox.heightRadius <= maxY && entity.position.y + entity.encompassingBox.heightRadius >= minY && entity.position.z - entity.encompassingBox.depthRadius <= maxZ && entity.position.z + entity.encompassingBox.depthRadius >= minZ;
+    }
+
+    /**
+     * Returns true if the passed-in line comes within the passed-in distance of the entity's encompassing box.
+     * This clips the line to each axis of the box in turn: if nothing is left, the line misses the box.
+     */
+    private static boolean isOnPath(AEntityE_Interactable<?> entity, Point3D start, double deltaX, double deltaY, double deltaZ, double distance) {
+        double[] range = {0, 1};
+        return clipToAxis(range, start.x, deltaX, entity.position.x - entity.encompassingBox.widthRadius - distance, entity.position.x + entity.encompassingBox.widthRadius + distance) && clipToAxis(range, start.y, deltaY, entity.position.y - entity.encompassingBox.heightRadius - distance, entity.position.y + entity.encompassingBox.heightRadius + distance) && clipToAxis(range, start.z, deltaZ, entity.position.z - entity.encompassingBox.depthRadius - distance, entity.position.z + entity.encompassingBox.depthRadius + distance);
+    }
+
+    private static boolean clipToAxis(double[] range, double start, double delta, double min, double max) {
+        if (delta == 0) {
+            return start >= min && start <= max;
+        } else {
+            double entry = (delta > 0 ? min - start : max - start) / delta;
+            double exit = (delta > 0 ? max - start : min - start) / delta;
+            range[0] = Math.max(range[0], entry);
+            range[1] = Math.min(range[1], exit);
+            return range[0] <= range[1];
+        }
+    }
+
+    private static int toCell(double coord) {
+        return ((int) Math.floor(coord)) >> CELL_BITS;
+    }
+
+    private static long getKey(int x, int y, int z) {
+        return ((x & 0x3FFFFFFL) << 38) | ((z & 0x3FFFFFFL) << 12) | (y & 0xFFFL);
+    }
+}
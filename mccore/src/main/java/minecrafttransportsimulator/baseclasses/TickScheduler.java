@@ -0,0 +1,190 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+
+import minecrafttransportsimulator.entities.components.AEntityA_Base;
+import minecrafttransportsimulator.entities.components.AEntityD_Definable;
+import minecrafttransportsimulator.jsondefs.AJSONBase;
+import minecrafttransportsimulator.systems.ConfigSystem;
+
+/**
+ * Scheduler for the entity updates of a world.  This measures how long each entity takes to update, and
+ * does non-critical work, like radar sweeps and searching for things to connect to, within a time budget.
+ * Such work is given to this scheduler as a {@link DeferredTask} rather than being done in the entity's update.
+ * Tasks are done after all entities have updated, in the order they were deferred, until the budget for the
+ * tick is used up.  Tasks that don't fit are left for the following ticks.  At least one task is done every
+ * tick, so tasks are never put off forever, no matter how small the budget.
+ * <br><br>
+ * Costs are tracked per entity, and per definition, as an average of the time spent updating each tick.
+ * Parts are updated by the entity they are on, so their cost is included in that entity's cost.
+ *
+ * @author don_bruce
+ */
+public class TickScheduler {
+    /**
+     * How much each tick counts towards the average costs.  Lower values give smoother averages that take longer to change.
+     **/
+    private static final double AVERAGE_FACTOR = 0.05;
+
+    private final Queue<DeferredTask> deferredTasks = new ArrayDeque<>();
+    private final Map<AEntityA_Base, UpdateCost> entityCosts = new HashMap<>();
+    /**
+     * Costs for entities with definitions, keyed by packID, then systemName.  These are keyed by name rather than by
+     * the definition itself, so definitions replaced by re-importing packs aren't kept, and share costs with their replacements.
+     **/
+    private final Map<String, Map<String, UpdateCost>> definitionCosts = new HashMap<>();
+    /**
+     * Costs for entities without definitions, keyed by their class.
+     **/
+    private final Map<Class<?>, UpdateCost> classCosts = new HashMap<>();
+    private final List<UpdateCost> costsThisTick = new ArrayList<>();
+    private long deferredTimeLastTick;
+
+    /**
+     * Adds the task to be done once there is time.  If the task is already waiting, this does nothing.
+     */
+    public void defer(DeferredTask task) {
+        if (!task.queued) {
+            task.queued = true;
+            deferredTasks.add(task);
+        }
+    }
+
+    /**
+     * Adds the passed-in time, in nanoseconds, to the cost of the entity for this tick.
+     */
+    public void addCost(AEntityA_Base entity, long nanos) {
+        //Entities removed in their update have already had their costs removed, so don't add them back.
+        if (entity.isValid) {
+            addCost(entityCosts.computeIfAbsent(entity, k -> new UpdateCost()), nanos);
+        }
+        if (entity instanceof AEntityD_Definable) {
+            AJSONBase definition = ((AEntityD_Definable<?>) entity).definition;
+            addCost(definitionCosts.computeIfAbsent(definition.packID, k -> new HashMap<>()).computeIfAbsent(definition.systemName, k -> new UpdateCost()), nanos);
+        } else {
+            addCost(classCosts.computeIfAbsent(entity.getClass(), k -> new UpdateCost()), nanos);
+        }
+    }
+
+    private void addCost(UpdateCost cost, long nanos) {
+        if (!cost.updatedThisTick) {
+            cost.updatedThisTick = true;
+            costsThisTick.add(cost);
+        }
+        cost.nanosThisTick += nanos;
+    }
+
+    /**
+     * Does deferred tasks until the budget for this tick is used up, and then adds the costs
+     * from this tick to the averages.  Should be called once all entities have updated.
+     */
+    public void endTick() {
+        long startTime = System.nanoTime();
+        long budget = ConfigSystem.settings.general.deferredWorkBudget.value * 1000L;
+        DeferredTask task;
+        while ((task = deferredTasks.poll()) != null) {
+            task.queued = false;
+            if (task.entity.isValid) {
+                long taskStartTime = System.nanoTime();
+                task.task.run();
+                addCost(task.entity, System.nanoTime() - taskStartTime);
+            }
+            if (System.nanoTime() - startTime >= budget) {
+                break;
+            }
+        }
+        deferredTimeLastTick = System.nanoTime() - startTime;
+
+        for (UpdateCost cost : costsThisTick) {
+            cost.lastNanos = cost.nanosThisTick;
+            cost.averageNanos += (cost.nanosThisTick - cost.averageNanos) * AVERAGE_FACTOR;
+            cost.nanosThisTick = 0;
+            cost.updatedThisTick = false;
+        }
+        costsThisTick.clear();
+    }
+
+    /**
+     * Removes the entity's costs.  Should be called when the entity is removed from the world.
+     */
+    public void removeEntity(AEntityA_Base entity) {
+        entityCosts.remove(entity);
+    }
+
+    /**
+     * Returns the average time, in nanoseconds, the entity takes to update each tick, or 0 if it hasn't updated.
+     */
+    public double getAverageCost(AEntityA_Base entity) {
+        UpdateCost cost = entityCosts.get(entity);
+        return cost != null ? cost.averageNanos : 0;
+    }
+
+    /**
+     * Returns the time, in nanoseconds, the entity took the last tick it updated, or 0 if it hasn't updated.
+     */
+    public long getLastCost(AEntityA_Base entity) {
+        UpdateCost cost = entityCosts.get(entity);
+        return cost != null ? cost.lastNanos : 0;
+    }
+
+    /**
+     * Returns the average time, in nanoseconds, all entities of each definition take to update each tick.
+     * Definitions are keyed as packID:systemName.  Entities without definitions are keyed by their class name.
+     * This is a new map, so may be modified as desired.
+     */
+    public Map<String, Double> getDefinitionCosts() {
+        Map<String, Double> costs = new HashMap<>();
+        for (Entry<String, Map<String, UpdateCost>> packEntry : definitionCosts.entrySet()) {
+            for (Entry<String, UpdateCost> costEntry : packEntry.getValue().entrySet()) {
+                costs.put(packEntry.getKey() + ":" + costEntry.getKey(), costEntry.getValue().averageNanos);
+            }
+        }
+        for (Entry<Class<?>, UpdateCost> costEntry : classCosts.entrySet()) {
+            costs.merge(costEntry.getKey().getSimpleName(), costEntry.getValue().averageNanos, Double::sum);
+        }
+        return costs;
+    }
+
+    /**
+     * Returns how many deferred tasks are waiting to be done.
+     */
+    public int getDeferredTaskCount() {
+        return deferredTasks.size();
+    }
+
+    /**
+     * Returns the time, in nanoseconds, spent on deferred tasks last tick.
+     */
+    public long getDeferredTimeLastTick() {
+        return deferredTimeLastTick;
+    }
+
+    /**
+     * A piece of non-critical work for an entity.  Entities should create one of these for each piece of work
+     * and keep it, rather than making a new one each time, as that is how we know if the work is already waiting.
+     * Tasks for entities that are removed before the task is done are skipped.
+     */
+    public static class DeferredTask {
+        private final AEntityA_Base entity;
+        private final Runnable task;
+        private boolean queued;
+
+        public DeferredTask(AEntityA_Base entity, Runnable task) {
+            this.entity = entity;
+            this.task = task;
+        }
+    }
+
+    private static class UpdateCost {
+        private long nanosThisTick;
+        private long lastNanos;
+        private double averageNanos;
+        private boolean updatedThisTick;
+    }
+}
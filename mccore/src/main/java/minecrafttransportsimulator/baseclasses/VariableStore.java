@@ -0,0 +1,341 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Storage for entity variables.  Variable names are interned into a global table the first time
+ * they are put into any store, and each store holds its values keyed by that ID in a pair of primitive arrays.
+ * This avoids boxing values into Doubles and hashing Strings every time a variable is accessed.
+ * <br><br>
+ * Like the map this replaced, variables are either present or not present.  Setting a variable to 0
+ * is done by removing it, but stores may still contain variables with a value of 0 if they are put
+ * in directly, such as for constants.
+ * <br><br>
+ * Only putting a variable, or asking for its ID via {@link #getOrCreateID(String)}, interns its name.  Looking up
+ * or removing a name that was never interned just finds nothing, so names that come from outside, such as from packets,
+ * can't grow the global table unless they are actually set.
+ * <br><br>
+ * Code that accesses the same variable repeatedly, such as hard-coded variable constants or animation clocks,
+ * should resolve the ID once and use the int methods, as the String methods have to look up the ID every call.
+ * <br><br>
+ * Groups of variables may be registered via {@link #registerGroup(Predicate)}.  Each name is checked against
+ * all groups once, when interned, which allows for removing all variables in a group without
+ * any String operations.
+ *
+ * @author don_bruce
+ */
+public class VariableStore {
+    public static final int MISSING_ID = -1;
+    private static final int EMPTY = -1;
+    private static final int INITIAL_CAPACITY = 8;
+
+    //Global interning tables.
+    private static final Map<String, Integer> nameIDs = new ConcurrentHashMap<>();
+    private static final List<Predicate<String>> groupPredicates = new ArrayList<>();
+    private static volatile String[] idNames = new String[256];
+    private static volatile int[] idGroupMasks = new int[256];
+    private static int nextID;
+
+    //Per-store open-addressed table.  Keys are IDs, or EMPTY.
+    private int[] keys;
+    private double[] values;
+    private int size;
+    private int changeCount;
+
+    /**
+     * Returns the ID for the passed-in variable name, or {@link #MISSING_ID} if it has never been put into a store.
+     */
+    public static int getID(String name) {
+        Integer id = nameIDs.get(name);
+        return id != null ? id : MISSING_ID;
+    }
+
+    /**
+     * Like {@link #getID(String)}, but interns the name if it hasn't been interned yet, so the ID is always valid.
+     * Only use this for names that come from code or pack definitions, as the global table never shrinks.
+     */
+    public static int getOrCreateID(String name) {
+        Integer id = nameIDs.get(name);
+        return id != null ? id : intern(name);
+    }
+
+    /**
+     * Returns the name for the passed-in variable ID.
+     */
+    public static String getName(int id) {
+        return idNames[id];
+    }
+
+    /**
+     * Registers a group of variables.  All variables whose name matches the predicate will be in this group.
+     * Returns the bit-mask for the group for use in {@link #removeGroup(int, Consumer)}.  This should be called
+     * once, in a static initializer, as there is a limit of 32 groups.
+     */
+    public static synchronized int registerGroup(Predicate<String> predicate) {
+        if (groupPredicates.size() == Integer.SIZE) {
+            throw new IllegalStateException("Tried to register more than " + Integer.SIZE + " variable groups!");
+        }
+        int groupMask = 1 << groupPredicates.size();
+        groupPredicates.add(predicate);
+        for (int i = 0; i < nextID; ++i) {
+            if (predicate.test(idNames[i])) {
+                idGroupMasks[i] |= groupMask;
+            }
+        }
+        return groupMask;
+    }
+
+    private static synchronized int intern(String name) {
+        Integer id = nameIDs.get(name);
+        if (id == null) {
+            if (nextID == idNames.length) {
+                idGroupMasks = Arrays.copyOf(idGroupMasks, nextID * 2);
+                idNames = Arrays.copyOf(idNames, nextID * 2);
+            }
+            int groupMask = 0;
+            for (int i = 0; i < groupPredicates.size(); ++i) {
+                if (groupPredicates.get(i).test(name)) {
+                    groupMask |= 1 << i;
+                }
+            }
+            idGroupMasks[nextID] = groupMask;
+            idNames[nextID] = name;
+            id = nextID++;
+            nameIDs.put(name, id);
+        }
+        return id;
+    }
+
+    /**
+     * Returns true if there are no variables in this store.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of times a variable in this store has been added, removed, or set to a different value.
+     * Only useful to compare against a prior return value to see if anything changed in-between.
+     */
+    public int getChangeCount() {
+        return changeCount;
+    }
+
+    /**
+     * Returns true if the variable is present in this store.
+     */
+    public boolean contains(String variable) {
+        int id = getID(variable);
+        return id != MISSING_ID && indexOf(id) != EMPTY;
+    }
+
+    /**
+     * Like {@link #contains(String)}, but takes the ID of the variable.
+     */
+    public boolean contains(int id) {
+        return indexOf(id) != EMPTY;
+    }
+
+    /**
+     * Returns the value of the variable, or the missing value if the variable is not present.
+     */
+    public double get(String variable, double missingValue) {
+        int id = getID(variable);
+        return id != MISSING_ID ? get(id, missingValue) : missingValue;
+    }
+
+    /**
+     * Like {@link #get(String, double)}, but takes the ID of the variable.
+     */
+    public double get(int id, double missingValue) {
+        int index = indexOf(id);
+        return index != EMPTY ? values[index] : missingValue;
+    }
+
+    /**
+     * Sets the variable to the passed-in value, adding it if it isn't present.
+     */
+    public void put(String variable, double value) {
+        put(getOrCreateID(variable), value);
+    }
+
+    /**
+     * Like {@link #put(String, double)}, but takes the ID of the variable.
+     */
+    public void put(int id, double value) {
+        if (keys == null) {
+            keys = new int[INITIAL_CAPACITY];
+            values = new double[INITIAL_CAPACITY];
+            Arrays.fill(keys, EMPTY);
+        }
+        int mask = keys.length - 1;
+        int index = getSlot(id, mask);
+        while (keys[index] != EMPTY) {
+            if (keys[index] == id) {
+                if (values[index] != value) {
+                    values[index] = value;
+                    ++changeCount;
+                }
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = id;
+        values[index] = value;
+        ++changeCount;
+        if (++size * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+    }
+
+    /**
+     * Adds all variables in the map to this store.
+     */
+    public void putAll(Map<String, Double> variables) {
+        for (Entry<String, Double> entry : variables.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Removes the variable.  Returns true if it was present.
+     */
+    public boolean remove(String variable) {
+        int id = getID(variable);
+        return id != MISSING_ID && remove(id);
+    }
+
+    /**
+     * Like {@link #remove(String)}, but takes the ID of the variable.
+     */
+    public boolean remove(int id) {
+        int index = indexOf(id);
+        if (index != EMPTY) {
+            removeIndex(index);
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Removes all the variables in the collection.
+     */
+    public void removeAll(Collection<String> variables) {
+        for (String variable : variables) {
+            remove(variable);
+        }
+    }
+
+    /**
+     * Removes all variables that are part of the passed-in group(s).  If a callback is passed-in, it will
+     * be called for every removed variable.
+     */
+    public void removeGroup(int groupMask, Consumer<String> removalCallback) {
+        if (size == 0) {
+            return;
+        }
+        int[] groupMasks = idGroupMasks;
+        int[] idsToRemove = null;
+        int removalCount = 0;
+        for (int key : keys) {
+            if (key != EMPTY && (groupMasks[key] & groupMask) != 0) {
+                if (idsToRemove == null) {
+                    idsToRemove = new int[size];
+                }
+                idsToRemove[removalCount++] = key;
+            }
+        }
+        for (int i = 0; i < removalCount; ++i) {
+            removeIndex(indexOf(idsToRemove[i]));
+            if (removalCallback != null) {
+                removalCallback.accept(getName(idsToRemove[i]));
+            }
+        }
+    }
+
+    /**
+     * Returns a new list of the names of all variables in this store.
+     */
+    public List<String> getNames() {
+        List<String> names = new ArrayList<>(size);
+        if (size != 0) {
+            for (int key : keys) {
+                if (key != EMPTY) {
+                    names.add(getName(key));
+                }
+            }
+        }
+        return names;
+    }
+
+    private int indexOf(int id) {
+        if (size != 0) {
+            int mask = keys.length - 1;
+            int index = getSlot(id, mask);
+            while (keys[index] != EMPTY) {
+                if (keys[index] == id) {
+                    return index;
+                }
+                index = (index + 1) & mask;
+            }
+        }
+        return EMPTY;
+    }
+
+    private void removeIndex(int index) {
+        //Shift any following entries back into the hole so we don't need tombstones.
+        int mask = keys.length - 1;
+        int hole = index;
+        int next = index;
+        while (true) {
+            next = (next + 1) & mask;
+            int key = keys[next];
+            if (key == EMPTY) {
+                break;
+            }
+            int slot = getSlot(key, mask);
+            boolean canMove = hole <= next ? (slot <= hole || slot > next) : (slot <= hole && slot > next);
+            if (canMove) {
+                keys[hole] = key;
+                values[hole] = values[next];
+                hole = next;
+            }
+        }
+        keys[hole] = EMPTY;
+        --size;
+        ++changeCount;
+    }
+
+    private void resize(int newCapacity) {
+        int[] oldKeys = keys;
+        double[] oldValues = values;
+        keys = new int[newCapacity];
+        values = new double[newCapacity];
+        Arrays.fill(keys, EMPTY);
+        int mask = newCapacity - 1;
+        for (int i = 0; i < oldKeys.length; ++i) {
+            if (oldKeys[i] != EMPTY) {
+                int index = getSlot(oldKeys[i], mask);
+                while (keys[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private static int getSlot(int id, int mask) {
+        int hash = id * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
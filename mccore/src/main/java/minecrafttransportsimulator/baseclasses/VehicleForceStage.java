@@ -0,0 +1,134 @@
+package minecrafttransportsimulator.baseclasses;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
+import minecrafttransportsimulator.systems.ConfigSystem;
+
+/**
+ * Optional stage that calculates vehicle forces and motions on multiple threads, rather than one vehicle at a time
+ * in each vehicle's update.  This is not a full physics stage: ground operations and vehicle movement still run
+ * one vehicle at a time in the update, as they read and change the world throughout.  Vehicles are split into islands of vehicles that may affect each other: ones that are
+ * towing each other, or whose encompassing boxes overlap.  Each island is done on a single thread, so vehicles
+ * in it are calculated one after the other as they would be normally.  Different islands are done at the same time.
+ * <br><br>
+ * Only force calculations are done here, as these only change the vehicle and its parts.  Anything that touches
+ * the world, such as block collisions, breaking blocks, attacking entities, or sending packets, is still done in the
+ * vehicle's update on the main thread.  The few world states the forces need, like if the vehicle is in liquid,
+ * are sampled on the main thread before the islands are started, and the calculations use those samples instead.
+ * <br><br>
+ * Since this is run before vehicles are updated, forces are based on the state of the vehicle at the end of the
+ * prior tick.  Towed vehicles are left to be calculated in their update, as they need to know where their
+ * towing vehicle moved to this tick.
+ *
+ * @author don_bruce
+ */
+public class VehicleForceStage {
+    private static final ForkJoinPool FORCE_POOL = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), pool -> {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("MTS Vehicle Forces " + thread.getPoolIndex());
+        thread.setDaemon(true);
+        return thread;
+    }, null, false);
+
+    private final EntityManager manager;
+    private final List<EntityVehicleF_Physics> vehicles = new ArrayList<>();
+    /**
+     * Parent of each vehicle in its island.  Vehicles that are their own parent are the roots of their islands.
+     **/
+    private final Map<EntityVehicleF_Physics, EntityVehicleF_Physics> islandParents = new HashMap<>();
+    private final Map<EntityVehicleF_Physics, List<EntityVehicleF_Physics>> islands = new LinkedHashMap<>();
+    private final List<ForkJoinTask<?>> tasks = new ArrayList<>();
+
+    public VehicleForceStage(EntityManager manager) {
+        this.manager = manager;
+    }
+
+    /**
+     * Adds the vehicle to this stage, if it is able to have its forces calculated here.
+     * Should only be called for vehicles that will be updated this tick.
+     */
+    public void addVehicle(EntityVehicleF_Physics vehicle) {
+        //Vehicles on their first tick may be moved after being placed, so let them calculate forces after that.
+        if (vehicle.isValid && vehicle.ticksExisted > 0 && vehicle.towedByConnection == null && (!ConfigSystem.settings.general.noclipVehicles.value || vehicle.groundDeviceCollective.isReady())) {
+            vehicles.add(vehicle);
+            islandParents.put(vehicle, vehicle);
+        }
+    }
+
+    /**
+     * Calculates the forces and motions of all vehicles added since the last call.  Blocks until all islands are done.
+     * If there aren't enough islands to be worth splitting up, nothing is calculated and vehicles calculate forces
+     * in their updates as normal.
+     */
+    public void run() {
+        if (vehicles.size() > 1) {
+            //Join vehicles into islands.
+            for (EntityVehicleF_Physics vehicle : vehicles) {
+                for (TowingConnection connection : vehicle.towingConnections) {
+                    if (islandParents.containsKey(connection.towedVehicle)) {
+                        joinIslands(vehicle, connection.towedVehicle);
+                    }
+                }
+                for (EntityVehicleF_Physics otherVehicle : manager.getEntitiesInBox(vehicle.encompassingBox, EntityVehicleF_Physics.class)) {
+                    if (otherVehicle != vehicle && islandParents.containsKey(otherVehicle)) {
+                        joinIslands(vehicle, otherVehicle);
+                    }
+                }
+            }
+            for (EntityVehicleF_Physics vehicle : vehicles) {
+                islands.computeIfAbsent(getIslandRoot(vehicle), k -> new ArrayList<>()).add(vehicle);
+            }
+
+            if (islands.size() > 1) {
+                //Sample the world now, as the islands can't query it themselves.
+                for (EntityVehicleF_Physics vehicle : vehicles) {
+                    vehicle.sampleWorldForForces();
+                }
+                for (List<EntityVehicleF_Physics> island : islands.values()) {
+                    tasks.add(FORCE_POOL.submit(() -> island.forEach(EntityVehicleF_Physics::calculateForcesAndMotions)));
+                }
+                for (ForkJoinTask<?> task : tasks) {
+                    try {
+                        task.join();
+                    } catch (Exception e) {
+                        //Vehicles in this island that didn't finish will calculate forces in their update instead.
+                        InterfaceManager.coreInterface.logError("Error calculating vehicle forces on physics thread: " + e.getMessage());
+                    }
+                }
+                tasks.clear();
+            }
+            islands.clear();
+        }
+        vehicles.clear();
+        islandParents.clear();
+    }
+
+    private void joinIslands(EntityVehicleF_Physics vehicle, EntityVehicleF_Physics otherVehicle) {
+        EntityVehicleF_Physics root = getIslandRoot(vehicle);
+        EntityVehicleF_Physics otherRoot = getIslandRoot(otherVehicle);
+        if (root != otherRoot) {
+            islandParents.put(otherRoot, root);
+        }
+    }
+
+    private EntityVehicleF_Physics getIslandRoot(EntityVehicleF_Physics vehicle) {
+        EntityVehicleF_Physics parent = islandParents.get(vehicle);
+        while (parent != vehicle) {
+            //Point the vehicle to its grandparent as we go, to keep the chains short for later look-ups.
+            EntityVehicleF_Physics grandparent = islandParents.get(parent);
+            islandParents.put(vehicle, grandparent);
+            vehicle = parent;
+            parent = grandparent;
+        }
+        return vehicle;
+    }
+}
@@ -424,7 +424,7 @@ public class VehicleGroundDeviceBox {
      */
     private boolean checkEntityCollisions(Point3D collisionMotion) {
         boolean didCollision = false;
-        for (EntityVehicleF_Physics otherVehicle : vehicle.world.getEntitiesOfType(EntityVehicleF_Physics.class)) {
+        for (EntityVehicleF_Physics otherVehicle : vehicle.world.getEntitiesInBox(solidBox, EntityVehicleF_Physics.class)) {
             if (!otherVehicle.equals(vehicle) && vehicle.canCollideWith(otherVehicle) && !otherVehicle.collidedEntities.contains(vehicle) && otherVehicle.encompassingBox.intersects(solidBox)) {
                 //We know we could have hit this entity.  Check if we actually did.
                 BoundingBox collidingBox = null;
@@ -449,6 +449,7 @@ public class VehicleGroundDeviceBox {
                 }
                 if (collidingBox != null) {
                     vehicle.collidedEntities.add(otherVehicle);
+                    otherVehicle.wakeUp();
                     didCollision = true;
                 }
             }
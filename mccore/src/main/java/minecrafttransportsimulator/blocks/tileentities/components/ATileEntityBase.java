@@ -73,7 +73,7 @@ public abstract class ATileEntityBase<JSONDefinition extends AJSONMultiModelProv
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    public double getRawVariableValue(String variable, int variableID, float partialTicks) {
         //Check generic block variables.
         switch (variable) {
             case ("redstone_active"):
@@ -82,7 +82,7 @@ public abstract class ATileEntityBase<JSONDefinition extends AJSONMultiModelProv
                 return world.getRedstonePower(position);
         }
 
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.getRawVariableValue(variable, variableID, partialTicks);
     }
 
     /**
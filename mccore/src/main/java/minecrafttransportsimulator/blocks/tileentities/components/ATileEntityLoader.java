@@ -1,6 +1,7 @@
 package minecrafttransportsimulator.blocks.tileentities.components;
 
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.TickScheduler.DeferredTask;
 import minecrafttransportsimulator.blocks.tileentities.instances.TileEntityDecor;
 import minecrafttransportsimulator.entities.instances.PartInteractable;
 import minecrafttransportsimulator.items.instances.ItemDecor;
@@ -12,6 +13,12 @@ import minecrafttransportsimulator.packets.instances.PacketTileEntityLoaderConne
 
 public abstract class ATileEntityLoader extends TileEntityDecor {
     public PartInteractable connectedPart;
+    private final DeferredTask partSearch = new DeferredTask(this, () -> {
+        //We may have been connected to a part since the search was deferred.
+        if (connectedPart == null) {
+            updateNearestPart();
+        }
+    });
 
     public ATileEntityLoader(AWrapperWorld world, Point3D position, IWrapperPlayer placingPlayer, ItemDecor item, IWrapperNBT data) {
         super(world, position, placingPlayer, item, data);
@@ -24,8 +31,9 @@ public abstract class ATileEntityLoader extends TileEntityDecor {
         if (!world.isClient()) {
             if (connectedPart == null) {
                 //Check for a new part every second.  We don't want every tick as this would increase server loads.
+                //This isn't critical, so let the scheduler do it when it has time.
                 if (ticksExisted % 20 == 0) {
-                    updateNearestPart();
+                    world.tickScheduler.defer(partSearch);
                 }
             } else {
                 //Don't load parts that don't exist.
@@ -50,7 +58,7 @@ public abstract class ATileEntityLoader extends TileEntityDecor {
         PartInteractable nearestPart = null;
         double nearestDistance = 10;
         if (canOperate()) {
-            for (PartInteractable interactablePart : world.getEntitiesOfType(PartInteractable.class)) {
+            for (PartInteractable interactablePart : world.getEntitiesNear(position, nearestDistance, PartInteractable.class)) {
                 if (canLoadPart(interactablePart)) {
                     if (interactablePart.position.isDistanceToCloserThan(position, nearestDistance)) {
                         nearestPart = interactablePart;
@@ -45,8 +45,8 @@ public abstract class ATileEntityPole_Component extends AEntityD_Definable<JSONP
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
-        double value = super.getRawVariableValue(variable, partialTicks);
+    public double getRawVariableValue(String variable, int variableID, float partialTicks) {
+        double value = super.getRawVariableValue(variable, variableID, partialTicks);
         if (!Double.isNaN(value)) {
             return value;
         }
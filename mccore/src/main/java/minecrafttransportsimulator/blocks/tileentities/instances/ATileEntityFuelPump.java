@@ -146,7 +146,7 @@ public abstract class ATileEntityFuelPump extends TileEntityDecor {
             //Get the closest vehicle within a 16-block radius.
             EntityVehicleF_Physics nearestVehicle = null;
             double lowestDistance = 16D;
-            for (EntityVehicleF_Physics testVehicle : world.getEntitiesOfType(EntityVehicleF_Physics.class)) {
+            for (EntityVehicleF_Physics testVehicle : world.getEntitiesNear(position, lowestDistance, EntityVehicleF_Physics.class)) {
                 double vehicleDistance = testVehicle.position.distanceTo(position);
                 if (vehicleDistance < lowestDistance) {
                     lowestDistance = vehicleDistance;
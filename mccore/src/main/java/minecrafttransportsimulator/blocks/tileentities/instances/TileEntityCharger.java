@@ -70,7 +70,7 @@ public class TileEntityCharger extends ATileEntityFuelPump implements ITileEntit
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    public double getRawVariableValue(String variable, int variableID, float partialTicks) {
         switch (variable) {
             case ("charger_active"):
                 return connectedVehicle != null ? 1 : 0;
@@ -84,6 +84,6 @@ public class TileEntityCharger extends ATileEntityFuelPump implements ITileEntit
                 return connectedVehicle != null ? connectedVehicle.fuelTank.getFluidLevel() / connectedVehicle.fuelTank.getMaxLevel() : 0;
         }
 
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.getRawVariableValue(variable, variableID, partialTicks);
     }
 }
@@ -55,7 +55,7 @@ public class TileEntityChest extends TileEntityDecor {
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    public double getRawVariableValue(String variable, int variableID, float partialTicks) {
         switch (variable) {
             case ("inventory_count"): {
                 if (inventory != null) {
@@ -80,7 +80,7 @@ public class TileEntityChest extends TileEntityDecor {
             }
         }
 
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.getRawVariableValue(variable, variableID, partialTicks);
     }
 
     @Override
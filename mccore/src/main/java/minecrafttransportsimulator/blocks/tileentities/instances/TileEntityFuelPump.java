@@ -130,7 +130,7 @@ public class TileEntityFuelPump extends ATileEntityFuelPump implements ITileEnti
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    public double getRawVariableValue(String variable, int variableID, float partialTicks) {
         switch (variable) {
             case ("fuelpump_active"):
                 return connectedVehicle != null ? 1 : 0;
@@ -144,7 +144,7 @@ public class TileEntityFuelPump extends ATileEntityFuelPump implements ITileEnti
                 return fuelPurchased;
         }
 
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.getRawVariableValue(variable, variableID, partialTicks);
     }
 
     @Override
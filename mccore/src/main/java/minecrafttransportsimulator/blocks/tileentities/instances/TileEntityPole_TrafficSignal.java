@@ -42,12 +42,12 @@ public class TileEntityPole_TrafficSignal extends ATileEntityPole_Component {
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    public double getRawVariableValue(String variable, int variableID, float partialTicks) {
         switch (variable) {
             case ("linked"):
                 return linkedController != null ? 1 : 0;
         }
 
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.getRawVariableValue(variable, variableID, partialTicks);
     }
 }
@@ -44,7 +44,7 @@ public class TileEntityRadio extends TileEntityDecor {
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    public double getRawVariableValue(String variable, int variableID, float partialTicks) {
         //Radio-specific variables.
         switch (variable) {
             case ("radio_active"):
@@ -55,6 +55,6 @@ public class TileEntityRadio extends TileEntityDecor {
                 return radio.preset;
         }
 
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.getRawVariableValue(variable, variableID, partialTicks);
     }
 }
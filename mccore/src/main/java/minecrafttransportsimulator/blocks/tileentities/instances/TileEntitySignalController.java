@@ -10,6 +10,7 @@ import java.util.Set;
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.ColorRGB;
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.TickScheduler.DeferredTask;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
 import minecrafttransportsimulator.blocks.components.ABlockBase.Axis;
 import minecrafttransportsimulator.blocks.tileentities.components.ATileEntityPole_Component;
@@ -50,6 +51,7 @@ public class TileEntitySignalController extends TileEntityDecor {
     /*Locations of blocks where signals are.**/
     public final Set<Point3D> componentLocations = new HashSet<>();
     private final Set<Point3D> missingLocations = new HashSet<>();
+    private final DeferredTask missingComponentSearch = new DeferredTask(this, this::findMissingComponents);
 
     /**
      * Signal blocks used in this controller.  Based on components.
@@ -72,29 +74,13 @@ public class TileEntitySignalController extends TileEntityDecor {
         super.update();
         //Check every 1 seconds to make sure controlled components are in their correct states.
         //This could have changed due to chunkloading or the components being destroyed.
-        //We also check if we're doing changes on the client, as that needs to happen instantly.
-        if (ticksExisted % 20 == 0 || unsavedClientChangesPreset) {
-            //Check for any missing components, if we are missing some.
-            if (!missingLocations.isEmpty()) {
-                Iterator<Point3D> iterator = missingLocations.iterator();
-                while (iterator.hasNext()) {
-                    Point3D poleLocation = iterator.next();
-                    TileEntityPole pole = world.getTileEntity(poleLocation);
-                    if (pole != null) {
-                        iterator.remove();
-                        for (Axis axis : Axis.values()) {
-                            if (axis.xzPlanar) {
-                                ATileEntityPole_Component component = pole.components.get(axis);
-                                if (component instanceof TileEntityPole_TrafficSignal) {
-                                    TileEntityPole_TrafficSignal signal = (TileEntityPole_TrafficSignal) component;
-                                    intersectionProperties.get(axis).isActive = true;
-                                    signal.linkedController = this;
-                                    controlledSignals.add(signal);
-                                }
-                            }
-                        }
-                    }
-                }
+        //This isn't critical, so let the scheduler do it when it has time, unless we're doing
+        //changes on the client, as that needs to happen instantly.
+        if (!missingLocations.isEmpty()) {
+            if (unsavedClientChangesPreset) {
+                findMissingComponents();
+            } else if (ticksExisted % 20 == 0) {
+                world.tickScheduler.defer(missingComponentSearch);
             }
         }
 
@@ -108,6 +94,31 @@ public class TileEntitySignalController extends TileEntityDecor {
         }
     }
 
+    /**
+     * Checks for any missing components, and links them to this controller if they are found.
+     */
+    private void findMissingComponents() {
+        Iterator<Point3D> iterator = missingLocations.iterator();
+        while (iterator.hasNext()) {
+            Point3D poleLocation = iterator.next();
+            TileEntityPole pole = world.getTileEntity(poleLocation);
+            if (pole != null) {
+                iterator.remove();
+                for (Axis axis : Axis.values()) {
+                    if (axis.xzPlanar) {
+                        ATileEntityPole_Component component = pole.components.get(axis);
+                        if (component instanceof TileEntityPole_TrafficSignal) {
+                            TileEntityPole_TrafficSignal signal = (TileEntityPole_TrafficSignal) component;
+                            intersectionProperties.get(axis).isActive = true;
+                            signal.linkedController = this;
+                            controlledSignals.add(signal);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
     @Override
     public void remove() {
         super.remove();
@@ -308,6 +319,7 @@ public class TileEntitySignalController extends TileEntityDecor {
         protected LightType requestedLight;
         protected int currentCooldown;
         protected boolean stateChangeRequested;
+        private final DeferredTask vehicleSearch = new DeferredTask(TileEntitySignalController.this, this::findWaitingVehicles);
 
         //Parameters for this signal boxes bounds.  These are all based with a south-facing reference.
         //when checking, the point will be rotated to be in this reference plane.
@@ -399,15 +411,8 @@ public class TileEntitySignalController extends TileEntityDecor {
                                     //Just wait until the other signals don't have any cooldown, then set them red.
                                     stateChangeRequested = true;
                                 } else {
-                                    for (EntityVehicleF_Physics vehicle : world.getEntitiesOfType(EntityVehicleF_Physics.class)) {
-                                        Point3D adjustedPos = vehicle.position.copy().subtract(intersectionCenterPoint).reOrigin(axis.yRotation);
-                                        if (adjustedPos.x > signalLineCenter.x - signalLineWidth / 2D && adjustedPos.x < signalLineCenter.x + signalLineWidth / 2D && adjustedPos.z > signalLineCenter.z && adjustedPos.z < signalLineCenter.z + 16) {
-                                            //Vehicle present.  If we are blocked, send the respective signal states to the other signals to change them.
-                                            //Flag this signal as pending changes to blocked signals to avoid checking until those signals change.
-                                            stateChangeRequested = true;
-                                            break;
-                                        }
-                                    }
+                                    //Searching for vehicles isn't critical, so let the scheduler do it when it has time.
+                                    world.tickScheduler.defer(vehicleSearch);
                                 }
                             }
                         }
@@ -440,6 +445,24 @@ public class TileEntitySignalController extends TileEntityDecor {
             }
         }
 
+        /**
+         * Checks for vehicles waiting at this signal, and requests a state change if there are any.
+         */
+        private void findWaitingVehicles() {
+            //Our state may have changed since the search was deferred, so make sure we still need to change.
+            if (requestedLight == null && !stateChangeRequested && !currentLight.equals(getGreenLight())) {
+                for (EntityVehicleF_Physics vehicle : world.getEntitiesNear(intersectionCenterPoint, signalLineCenter.length() + signalLineWidth + 16, EntityVehicleF_Physics.class)) {
+                    Point3D adjustedPos = vehicle.position.copy().subtract(intersectionCenterPoint).reOrigin(axis.yRotation);
+                    if (adjustedPos.x > signalLineCenter.x - signalLineWidth / 2D && adjustedPos.x < signalLineCenter.x + signalLineWidth / 2D && adjustedPos.z > signalLineCenter.z && adjustedPos.z < signalLineCenter.z + 16) {
+                        //Vehicle present.  If we are blocked, send the respective signal states to the other signals to change them.
+                        //Flag this signal as pending changes to blocked signals to avoid checking until those signals change.
+                        stateChangeRequested = true;
+                        break;
+                    }
+                }
+            }
+        }
+
         protected abstract LightType getNextLight();
 
         protected abstract LightType getRedLight();
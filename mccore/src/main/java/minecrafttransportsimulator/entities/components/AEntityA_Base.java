@@ -2,6 +2,7 @@ package minecrafttransportsimulator.entities.components;
 
 import java.util.UUID;
 
+import minecrafttransportsimulator.baseclasses.EntityManager;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
 import minecrafttransportsimulator.mcinterface.IWrapperNBT;
 
@@ -38,6 +39,11 @@ public abstract class AEntityA_Base {
      * Counter for how many ticks this entity has existed in the world.  Realistically, it's the number of update cycles.
      **/
     public long ticksExisted;
+    /**
+     * Counter for how many ticks this entity has been idle for.  Once this reaches {@link EntityManager#TICKS_BEFORE_SLEEP},
+     * the entity is asleep, and is only updated every {@link EntityManager#SLEEP_TICK_INTERVAL} ticks.
+     **/
+    public int ticksIdle;
 
     public static String UNIQUE_UUID_TAG_NAME = "uniqueUUID";
 
@@ -67,6 +73,23 @@ public abstract class AEntityA_Base {
         return true;
     }
 
+    /**
+     * Returns true if this entity is idle, and can be put to sleep if it stays that way.  This is checked after every update,
+     * including the updates done while asleep, so entities that return false here will be woken on their next update.
+     * As such, only return true if the entity won't change between updates unless something else changes it.
+     */
+    public boolean canSleep() {
+        return false;
+    }
+
+    /**
+     * Wakes this entity up if it is asleep, and resets its idle counter.  Should be called
+     * whenever something external changes this entity, such as an interaction or packet.
+     */
+    public void wakeUp() {
+        ticksIdle = 0;
+    }
+
     /**
      * Normally, all entities sync across clients and servers via their {@link #uniqueUUID}.
      * However, some entities may be client-side, server-side only, or both sides but spawned so frequently
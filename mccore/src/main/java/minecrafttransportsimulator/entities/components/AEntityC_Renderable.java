@@ -1,5 +1,6 @@
 package minecrafttransportsimulator.entities.components;
 
+import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.RotationMatrix;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
@@ -7,6 +8,8 @@ import minecrafttransportsimulator.mcinterface.AWrapperWorld;
 import minecrafttransportsimulator.mcinterface.IWrapperNBT;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
+import minecrafttransportsimulator.rendering.RenderCullingStage;
+import minecrafttransportsimulator.systems.ConfigSystem;
 
 /**
  * Base class for entities that are rendered in the world in 3D.
@@ -33,6 +36,17 @@ public abstract class AEntityC_Renderable extends AEntityB_Existing {
 
     public int worldLightValue;
 
+    /**
+     * How much of the screen height this entity takes up, as set by the {@link RenderCullingStage} each render pass.
+     * This is 1 if the stage didn't check, in which case the entity renders in full detail.
+     */
+    public double screenSize = 1;
+
+    /**
+     * How much of the screen height each block at this entity's distance takes up, as set with {@link #screenSize}.
+     */
+    public double screenScale = 1;
+
     /**
      * Constructor for synced entities
      **/
@@ -72,6 +86,13 @@ public abstract class AEntityC_Renderable extends AEntityB_Existing {
     public final void render(boolean blendingEnabled, float partialTicks) {
         //If we need to render, do so now.
         if (!disableRendering()) {
+            //If we can't be seen, skip everything but the sounds.
+            if (!world.renderCullingStage.shouldRender(this, blendingEnabled)) {
+                world.beginProfiling("Sounds", true);
+                updateSounds(partialTicks);
+                world.endProfiling();
+                return;
+            }
 
             //Get interpolated orientation if required.
             world.beginProfiling("RenderSetup", true);
@@ -125,6 +146,20 @@ public abstract class AEntityC_Renderable extends AEntityB_Existing {
         return ticksExisted == 0;
     }
 
+    /**
+     * Returns the bounds to use when checking if this entity can be seen.
+     */
+    public BoundingBox getCullingBounds() {
+        return boundingBox;
+    }
+
+    /**
+     * Returns the max distance, in blocks, this entity will render at, or 0 if there is no max distance.
+     */
+    public double getMaxRenderDistance() {
+        return ConfigSystem.client.renderingSettings.maxRenderDistance.value;
+    }
+
     /**
      * Called to render the main model.  At this point the matrix state will be aligned
      * to the position and rotation of the entity relative to the player-camera.
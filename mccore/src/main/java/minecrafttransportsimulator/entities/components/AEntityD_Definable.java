@@ -5,6 +5,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -18,7 +19,9 @@ import java.util.Set;
 import minecrafttransportsimulator.baseclasses.AnimationSwitchbox;
 import minecrafttransportsimulator.baseclasses.ColorRGB;
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.TickScheduler.DeferredTask;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+import minecrafttransportsimulator.baseclasses.VariableStore;
 import minecrafttransportsimulator.blocks.components.ABlockBase.BlockMaterial;
 import minecrafttransportsimulator.entities.instances.APart;
 import minecrafttransportsimulator.entities.instances.EntityParticle;
@@ -29,6 +32,7 @@ import minecrafttransportsimulator.jsondefs.AJSONMultiModelProvider;
 import minecrafttransportsimulator.jsondefs.JSONAnimatedObject;
 import minecrafttransportsimulator.jsondefs.JSONAnimationDefinition;
 import minecrafttransportsimulator.jsondefs.JSONCameraObject;
+import minecrafttransportsimulator.jsondefs.JSONLODModel;
 import minecrafttransportsimulator.jsondefs.JSONLight;
 import minecrafttransportsimulator.jsondefs.JSONParticle;
 import minecrafttransportsimulator.jsondefs.JSONRendering.ModelType;
@@ -42,12 +46,14 @@ import minecrafttransportsimulator.mcinterface.IWrapperNBT;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.packets.instances.PacketEntityInteractGUI;
+import minecrafttransportsimulator.packets.instances.PacketEntityVariableBatch;
 import minecrafttransportsimulator.packets.instances.PacketEntityVariableIncrement;
 import minecrafttransportsimulator.packets.instances.PacketEntityVariableSet;
 import minecrafttransportsimulator.packets.instances.PacketEntityVariableToggle;
 import minecrafttransportsimulator.packloading.PackParser;
 import minecrafttransportsimulator.rendering.AModelParser;
 import minecrafttransportsimulator.rendering.DurationDelayClock;
+import minecrafttransportsimulator.rendering.RenderCullingStage;
 import minecrafttransportsimulator.rendering.RenderText;
 import minecrafttransportsimulator.rendering.RenderableModelObject;
 import minecrafttransportsimulator.sound.SoundInstance;
@@ -81,7 +87,10 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
     /**
      * Map of variables.  These are generic and can be interfaced with in the JSON.  Some names are hard-coded to specific variables.Used for animations/physics.
      **/
-    protected final Map<String, Double> variables = new HashMap<>();
+    protected final VariableStore variables = new VariableStore();
+    private int[] queuedVariableIDs;
+    private int queuedVariableCount;
+    private int variableChangeCountAtLastCheck;
 
     private final List<JSONSound> allSoundDefs = new ArrayList<>();
     private final Map<JSONSound, AnimationSwitchbox> soundActiveSwitchboxes = new HashMap<>();
@@ -133,12 +142,23 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
      **/
     private List<RenderableModelObject> objectList;
 
+    /**
+     * Object lists for level-of-detail models parsed for this entity.
+     **/
+    private final Map<JSONLODModel, List<RenderableModelObject>> lodObjectLists = new HashMap<>();
+
     /**
      * List of players interacting with this entity via a GUI.
      **/
     public final Set<IWrapperPlayer> playersInteracting = new HashSet<>();
     public boolean playerCraftedItem;
 
+    /**
+     * The last tick that one of this entity's animations was part-way through a duration or delay.
+     * Set by {@link DurationDelayClock}, and used to keep this entity awake until its animations finish.
+     **/
+    public long lastAnimationMovementTick;
+
     /**
      * Cached item to prevent pack lookups each item request.  May not be used if this is extended for other mods.
      **/
@@ -154,6 +174,7 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
         }
 
     };
+    private final DeferredTask radarSweep = new DeferredTask(this, this::updateRadar);
 
     /**
      * Constructor for synced entities
@@ -236,33 +257,40 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
         }
         playerCraftedItem = false;
 
-        //Only update radar once a second, and only if we requested it via variables.
+        //Only update radar once a second.  This isn't critical, so let the scheduler do it when it has time.
         if (definition.general.radarRange > 0 && ticksExisted % 20 == 0) {
-            Collection<EntityVehicleF_Physics> allVehicles = world.getEntitiesOfType(EntityVehicleF_Physics.class);
-            aircraftOnRadar.clear();
-            groundersOnRadar.clear();
-            Point3D searchVector = new Point3D();
-            Point3D LOSVector = new Point3D();
-            for (EntityVehicleF_Physics vehicle : allVehicles) {
-                searchVector.set(0, 0, definition.general.radarRange).rotate(orientation);
-                LOSVector.set(vehicle.position).subtract(position).normalize();
-                double coneAngle = definition.general.radarWidth;
-                double angle = Math.abs(Math.toDegrees(Math.acos(searchVector.normalize().dotProduct(LOSVector, false))));
-                if (!vehicle.outOfHealth && vehicle != this && (angle < coneAngle && vehicle.position.isDistanceToCloserThan(position, definition.general.radarRange))) {
-                    if (vehicle.definition.motorized.isAircraft) {
-                        aircraftOnRadar.add(vehicle);
-                    } else {
-                        groundersOnRadar.add(vehicle);
-                    }
-                    if (!vehicle.radarsTracking.contains(this)) {
-                        vehicle.radarsTracking.add(this);
-                    }
+            world.tickScheduler.defer(radarSweep);
+        }
+        world.endProfiling();
+    }
+
+    /**
+     * Sweeps the radar of this entity, updating the vehicles on it.
+     */
+    private void updateRadar() {
+        Collection<EntityVehicleF_Physics> allVehicles = world.getEntitiesNear(position, definition.general.radarRange, EntityVehicleF_Physics.class);
+        aircraftOnRadar.clear();
+        groundersOnRadar.clear();
+        Point3D searchVector = new Point3D();
+        Point3D LOSVector = new Point3D();
+        for (EntityVehicleF_Physics vehicle : allVehicles) {
+            searchVector.set(0, 0, definition.general.radarRange).rotate(orientation);
+            LOSVector.set(vehicle.position).subtract(position).normalize();
+            double coneAngle = definition.general.radarWidth;
+            double angle = Math.abs(Math.toDegrees(Math.acos(searchVector.normalize().dotProduct(LOSVector, false))));
+            if (!vehicle.outOfHealth && vehicle != this && (angle < coneAngle && vehicle.position.isDistanceToCloserThan(position, definition.general.radarRange))) {
+                if (vehicle.definition.motorized.isAircraft) {
+                    aircraftOnRadar.add(vehicle);
+                } else {
+                    groundersOnRadar.add(vehicle);
+                }
+                if (!vehicle.radarsTracking.contains(this)) {
+                    vehicle.radarsTracking.add(this);
                 }
             }
-            aircraftOnRadar.sort(entityComparator);
-            groundersOnRadar.sort(entityComparator);
         }
-        world.endProfiling();
+        aircraftOnRadar.sort(entityComparator);
+        groundersOnRadar.sort(entityComparator);
     }
 
     /**
@@ -291,7 +319,7 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
             if (testSubDef.subName.equals(newSubDefName)) {
                 //Remove existing constants, if we have them, then add them, if we have them.
                 if (subDefinition != null && subDefinition.constants != null) {
-                    variables.keySet().removeAll(subDefinition.constants);
+                    variables.removeAll(subDefinition.constants);
                 }
                 if (testSubDef.constants != null) {
                     testSubDef.constants.forEach(var -> variables.put(var, 1D));
@@ -382,6 +410,27 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
         }
     }
 
+    /**
+     * Returns true if none of this entity's animations have been part-way through a duration or delay since the last tick.
+     * Animations are only checked when they are run, so this only covers animations that were rendered or used by the update.
+     */
+    public boolean areAnimationsIdle() {
+        return lastAnimationMovementTick < ticksExisted - 1;
+    }
+
+    /**
+     * Returns true if this entity has no variable modifiers, and none of its variables have changed since the last time this was called.
+     * Modifiers are run every update, so an entity with them can never be idle, even if they happen to produce the same value.
+     * This is meant to be called once per update from {@link #canSleep()}.  If it's skipped because something else already
+     * kept the entity awake, the next call will see any changes made in-between, which just keeps the entity awake one more update.
+     */
+    public boolean areVariablesIdle() {
+        int changeCount = variables.getChangeCount();
+        boolean changed = changeCount != variableChangeCountAtLastCheck;
+        variableChangeCountAtLastCheck = changeCount;
+        return !changed && (definition.variableModifiers == null || definition.variableModifiers.isEmpty());
+    }
+
     @Override
     public void remove() {
         if (isValid) {
@@ -395,6 +444,7 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
                 if (objectList != null) {
                     objectList.forEach(object -> object.destroy());
                 }
+                lodObjectLists.values().forEach(lodObjects -> lodObjects.forEach(object -> object.destroy()));
             }
         }
     }
@@ -806,7 +856,17 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
      * For all cases of this, the sub-classed variables should be checked first.  If none are
      * found, then the super() method should be called to return those as a default.
      */
-    public double getRawVariableValue(String variable, float partialTicks) {
+    public final double getRawVariableValue(String variable, float partialTicks) {
+        return getRawVariableValue(variable, VariableStore.MISSING_ID, partialTicks);
+    }
+
+    /**
+     * Like {@link #getRawVariableValue(String, float)}, but with the ID of the variable resolved by the caller,
+     * or {@link VariableStore#MISSING_ID} if it wasn't.  This is the method sub-classes extend, and they
+     * must pass the ID on unchanged when calling super.  The ID is only used for the generic variable lookup
+     * at the end, which saves looking the name up in the global table for bound {@link VariableAccessor}s.
+     */
+    public double getRawVariableValue(String variable, int variableID, float partialTicks) {
         switch (variable) {
             case ("tick"):
                 return ticksExisted + partialTicks;
@@ -859,18 +919,13 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
             String[] parsedVariable = variable.split("_");
             int offTime = Integer.parseInt(parsedVariable[0]);
             int onTime = Integer.parseInt(parsedVariable[1]);
-            int totalTime = offTime + onTime + Integer.parseInt(parsedVariable[2]);
-            long timeInCycle = ticksExisted % totalTime;
-            return timeInCycle > offTime && timeInCycle - offTime < onTime ? 1 : 0;
+            return getCycleValue(offTime, onTime, offTime + onTime + Integer.parseInt(parsedVariable[2]));
         }
 
         //Check if this is a text_x_ispresent variable.
         if (variable.startsWith("text_") && variable.endsWith("_present")) {
             if (definition.rendering != null && definition.rendering.textObjects != null) {
-                int textIndex = Integer.parseInt(variable.substring("text_".length(), variable.length() - "_present".length())) - 1;
-                if (definition.rendering.textObjects.size() > textIndex) {
-                    return !text.get(definition.rendering.textObjects.get(textIndex)).isEmpty() ? 1 : 0;
-                }
+                return getTextPresentValue(Integer.parseInt(variable.substring("text_".length(), variable.length() - "_present".length())) - 1);
             }
             return 0;
         }
@@ -896,13 +951,56 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
         }
 
         //Check if this is a generic variable.  This contains lights in most cases.
-        Double variableValue = variables.get(variable);
-        if (variableValue != null) {
-            return variableValue;
+        //If we don't have it, we didn't find a variable, so return NaN.
+        return variableID != VariableStore.MISSING_ID ? variables.get(variableID, Double.NaN) : variables.get(variable, Double.NaN);
+    }
+
+    /**
+     * Returns a {@link VariableAccessor} for the passed-in variable.  This is called once per
+     * {@link DurationDelayClock} when animations are initialized, and lets sub-classes do all the
+     * string parsing for prefixed or suffixed variables up-front rather than every frame.
+     * If no special handling is required, the returned accessor simply calls {@link #getRawVariableValue(String, int, float)}
+     * with the ID of the variable resolved once here.
+     * <br><br>
+     * Note that sub-classes that check a variable in {@link #getRawVariableValue(String, float)} before calling super
+     * MUST also intercept that variable here if a super-class would otherwise return a parsed accessor for it,
+     * as otherwise the super-class accessor will be used and the sub-class check will be skipped.
+     */
+    public VariableAccessor getVariableAccessor(String variable) {
+        try {
+            if (variable.endsWith("_cycle")) {
+                String[] parsedVariable = variable.split("_");
+                int offTime = Integer.parseInt(parsedVariable[0]);
+                int onTime = Integer.parseInt(parsedVariable[1]);
+                int totalTime = offTime + onTime + Integer.parseInt(parsedVariable[2]);
+                return partialTicks -> getCycleValue(offTime, onTime, totalTime);
+            } else if (variable.startsWith("text_") && variable.endsWith("_present")) {
+                int textIndex = Integer.parseInt(variable.substring("text_".length(), variable.length() - "_present".length())) - 1;
+                return partialTicks -> definition.rendering != null && definition.rendering.textObjects != null ? getTextPresentValue(textIndex) : 0;
+            }
+        } catch (Exception e) {
+            //Malformed variable.  Let the normal lookup handle it so we get the same behavior as before.
         }
+        int variableID = VariableStore.getOrCreateID(variable);
+        return partialTicks -> getRawVariableValue(variable, variableID, partialTicks);
+    }
+
+    /**
+     * Helper method for cycle variables.  Returns 1 if the current tick is in the on-period of the cycle.
+     */
+    private double getCycleValue(int offTime, int onTime, int totalTime) {
+        long timeInCycle = ticksExisted % totalTime;
+        return timeInCycle > offTime && timeInCycle - offTime < onTime ? 1 : 0;
+    }
 
-        //Didn't find a variable.  Return NaN.
-        return Double.NaN;
+    /**
+     * Helper method for text_x_present variables.  Returns 1 if the text at the index has a value.
+     */
+    private double getTextPresentValue(int textIndex) {
+        if (definition.rendering.textObjects.size() > textIndex) {
+            return !text.get(definition.rendering.textObjects.get(textIndex)).isEmpty() ? 1 : 0;
+        }
+        return 0;
     }
 
     /**
@@ -931,7 +1029,9 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
      */
     public final double getAnimatedVariableValue(DurationDelayClock clock, double scaleFactor, double offset, float partialTicks) {
         double value;
-        if (clock.animation.variable.startsWith("!")) {
+        if (clock.isBoundTo(this)) {
+            value = clock.getBoundVariableValue(partialTicks);
+        } else if (clock.animation.variable.startsWith("!")) {
             value = getCleanRawVariableValue(clock.animation.variable.substring(1), partialTicks);
             value = value == 0 ? 1 : 0;
         } else {
@@ -987,12 +1087,53 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
         }
     }
 
+    /**
+     * Queues the passed-in variable to be sent to clients at the end of this tick.  This should be called
+     * on the server after changing the variable, in place of sending a packet.  All variables queued on this
+     * entity in a tick are sent in one packet, with only their final values, so this may be called as many
+     * times as needed without worrying about spamming packets.
+     */
+    public void queueVariableSync(String variable) {
+        //Variables that have never been set anywhere can't be on any client, so there's nothing to send.
+        int variableID = VariableStore.getID(variable);
+        if (variableID == VariableStore.MISSING_ID) {
+            return;
+        }
+        if (queuedVariableCount == 0) {
+            if (queuedVariableIDs == null) {
+                queuedVariableIDs = new int[4];
+            }
+            world.queueVariableSync(this);
+        } else {
+            for (int i = 0; i < queuedVariableCount; ++i) {
+                if (queuedVariableIDs[i] == variableID) {
+                    return;
+                }
+            }
+            if (queuedVariableCount == queuedVariableIDs.length) {
+                queuedVariableIDs = Arrays.copyOf(queuedVariableIDs, queuedVariableCount * 2);
+            }
+        }
+        queuedVariableIDs[queuedVariableCount++] = variableID;
+    }
+
+    /**
+     * Sends all variables queued via {@link #queueVariableSync(String)} to clients.
+     * This is called by the world at the end of the tick, so there is no need to call it manually.
+     */
+    public void sendQueuedVariables() {
+        if (isValid && queuedVariableCount != 0) {
+            InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityVariableBatch(this, queuedVariableIDs, queuedVariableCount), this);
+        }
+        queuedVariableCount = 0;
+    }
+
     /**
      * Helper method to toggle a variable for this entity.
      */
     public void toggleVariable(String variable) {
         //Try to remove the variable,this requires only one key-search operation, unlike a containsKey followed by a remove.
-        if (variables.remove(variable) == null) {
+        if (!variables.remove(variable)) {
             //No key was in this map prior, so this variable was off, set it on.
             variables.put(variable, 1D);
         }
@@ -1037,21 +1178,30 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
      * Helper method to get get a variable for this entity.
      */
     public double getVariable(String variable) {
-        Double value = variables.get(variable);
-        if (value == null) {
-            //Don't add the variable to the map, just return 0 here.
-            return 0;
-        } else {
-            return value;
-        }
+        //Don't add the variable to the store, just return 0 here if we don't have it.
+        return variables.get(variable, 0);
+    }
+
+    /**
+     * Like {@link #getVariable(String)}, but takes the ID of the variable from {@link VariableStore#getOrCreateID(String)}.
+     */
+    public double getVariable(int variableID) {
+        return variables.get(variableID, 0);
     }
 
     /**
      * Helper method to check if a variable is non-zero.
-     * This is a bit quicker than getting the value due to auto-boxing off the map.
+     * This is a bit quicker than getting the value as it doesn't need to read the value.
      */
     public boolean isVariableActive(String variable) {
-        return variables.containsKey(variable);
+        return variables.contains(variable);
+    }
+
+    /**
+     * Like {@link #isVariableActive(String)}, but takes the ID of the variable from {@link VariableStore#getOrCreateID(String)}.
+     */
+    public boolean isVariableActive(int variableID) {
+        return variables.contains(variableID);
     }
 
     /**
@@ -1184,16 +1334,14 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
 
         //Parse model if it hasn't been already.
         world.beginProfiling("MainModel", false);
-        if (objectList == null) {
-            objectList = AModelParser.generateRenderables(this);
-        }
+        List<RenderableModelObject> renderedObjects = getRenderedObjects();
 
         //Render model object individually.
-        objectList.forEach(modelObject -> modelObject.render(this, transform, blendingEnabled, partialTicks));
+        renderedObjects.forEach(modelObject -> modelObject.render(this, transform, blendingEnabled, partialTicks));
 
-        //Render any static text.
+        //Render any static text.  This isn't done in low detail, as it can't be read at that size anyways.
         world.beginProfiling("MainText", false);
-        if (!blendingEnabled) {
+        if (!blendingEnabled && !RenderCullingStage.isLowDetail(this)) {
             for (Entry<JSONText, String> textEntry : text.entrySet()) {
                 JSONText textDef = textEntry.getKey();
                 if (textDef.attachedTo == null) {
@@ -1211,12 +1359,41 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
         world.endProfiling();
     }
 
+    /**
+     * Returns the objects to render for our model, parsing the model if it hasn't been already.
+     * If our definition has level-of-detail models, and we are small enough on screen for one of them,
+     * the objects for the smallest one that applies are returned.  Otherwise, the objects for our main model are.
+     */
+    private List<RenderableModelObject> getRenderedObjects() {
+        JSONLODModel lodModel = null;
+        if (definition.rendering.lodModels != null) {
+            for (JSONLODModel testModel : definition.rendering.lodModels) {
+                if (screenSize <= testModel.screenSize && (lodModel == null || testModel.screenSize < lodModel.screenSize)) {
+                    lodModel = testModel;
+                }
+            }
+        }
+        if (lodModel != null) {
+            return lodObjectLists.computeIfAbsent(lodModel, k -> AModelParser.generateRenderables(this, definition.getLODModelLocation(k)));
+        } else {
+            if (objectList == null) {
+                objectList = AModelParser.generateRenderables(this);
+            }
+            return objectList;
+        }
+    }
+
     @Override
     protected boolean disableRendering() {
         //Don't render if we don't have a model.
         return super.disableRendering() || definition.rendering.modelType.equals(ModelType.NONE);
     }
 
+    @Override
+    public double getMaxRenderDistance() {
+        return definition.rendering.maxRenderDistance != 0 ? definition.rendering.maxRenderDistance : super.getMaxRenderDistance();
+    }
+
     /**
      * Called externally to reset all caches for all objects and animations on this entity.
      */
@@ -1226,6 +1403,8 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
                 objectList.forEach(object -> object.destroy());
                 objectList = null;
             }
+            lodObjectLists.values().forEach(lodObjects -> lodObjects.forEach(object -> object.destroy()));
+            lodObjectLists.clear();
         }
     }
 
@@ -1240,9 +1419,10 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
             }
         }
         if (!variables.isEmpty()) {
-            data.setStrings("variables", variables.keySet());
-            for (String variableName : variables.keySet()) {
-                data.setDouble(variableName, variables.get(variableName));
+            List<String> variableNames = variables.getNames();
+            data.setStrings("variables", variableNames);
+            for (String variableName : variableNames) {
+                data.setDouble(variableName, variables.get(variableName, 0));
             }
         }
         return data;
@@ -1285,4 +1465,14 @@ public abstract class AEntityD_Definable<JSONDefinition extends AJSONMultiModelP
     @Target({ElementType.FIELD})
     public @interface ModifiedValue {
     }
+
+    /**
+     * A pre-resolved variable lookup, as returned by {@link AEntityD_Definable#getVariableAccessor(String)}.
+     * Returns the same value {@link AEntityD_Definable#getRawVariableValue(String, float)} would for the
+     * variable it was created for, including NaN if the variable is not present.
+     */
+    @FunctionalInterface
+    public static interface VariableAccessor {
+        public double getValue(float partialTicks);
+    }
 }
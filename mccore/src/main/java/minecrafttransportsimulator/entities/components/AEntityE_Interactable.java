@@ -14,6 +14,7 @@ import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.RotationMatrix;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+import minecrafttransportsimulator.baseclasses.VariableStore;
 import minecrafttransportsimulator.items.components.AItemSubTyped;
 import minecrafttransportsimulator.items.instances.ItemInstrument;
 import minecrafttransportsimulator.jsondefs.AJSONInteractableEntity;
@@ -26,11 +27,9 @@ import minecrafttransportsimulator.jsondefs.JSONInstrumentDefinition;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
 import minecrafttransportsimulator.mcinterface.IWrapperNBT;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
-import minecrafttransportsimulator.mcinterface.InterfaceManager;
-import minecrafttransportsimulator.packets.instances.PacketEntityVariableIncrement;
-import minecrafttransportsimulator.packets.instances.PacketEntityVariableSet;
 import minecrafttransportsimulator.packets.instances.PacketPlayerChatMessage;
 import minecrafttransportsimulator.packloading.PackParser;
+import minecrafttransportsimulator.rendering.RenderCullingStage;
 import minecrafttransportsimulator.rendering.RenderInstrument;
 import minecrafttransportsimulator.rendering.RenderInstrument.InstrumentSwitchbox;
 import minecrafttransportsimulator.rendering.RenderableData;
@@ -61,6 +60,24 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
     public final Set<BoundingBox> collisionBoxes = new HashSet<>();
     private final Map<JSONCollisionGroup, AnimationSwitchbox> collisionSwitchboxes = new HashMap<>();
 
+    /**
+     * Set whenever boxes are added to or removed from {@link #collisionBoxes}.  Boxes are only added or removed
+     * when their state changes rather than re-adding them every tick, so anything built from that set only needs
+     * to be re-built when this is set.  Sub-classes that add their own boxes must set this if they change the set.
+     **/
+    protected boolean collisionBoxesChanged = true;
+
+    /**
+     * Per-group state for {@link #definitionCollisionBoxes}.  Used to only add/remove groups when they change,
+     * and to only move boxes if their group's animation changed or we moved.
+     **/
+    private boolean[] activeCollisionGroups;
+    private String[] collisionGroupDamageVariables;
+    private TransformationMatrix[] collisionGroupTransforms;
+    private final Point3D lastCollisionBoxPosition = new Point3D();
+    private final RotationMatrix lastCollisionBoxOrientation = new RotationMatrix();
+    private final Point3D lastCollisionBoxScale = new Point3D();
+
     /**
      * Box that encompasses all boxes on this entity.  This can be used as a pre-check for collision operations
      * to check a single large box rather than multiple small ones to save processing power.
@@ -105,6 +122,7 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
     @DerivedValue
     public double damageAmount;
     public static final String DAMAGE_VARIABLE = "damage";
+    public static final int DAMAGE_VARIABLE_ID = VariableStore.getOrCreateID(DAMAGE_VARIABLE);
     public boolean outOfHealth;
 
     protected final List<Integer> snapConnectionIndexes = new ArrayList<>();
@@ -116,7 +134,7 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
         super(world, placingPlayer, item, data);
         
         //Parse variables out now to prevent variables from activating that use them.
-        damageAmount = getVariable(DAMAGE_VARIABLE);
+        damageAmount = getVariable(DAMAGE_VARIABLE_ID);
         outOfHealth = damageAmount == definition.general.health && definition.general.health != 0;
 
         //Load instruments, or create the default ones.
@@ -167,6 +185,13 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
         super.initializeAnimations();
         //Create collision boxes.
         if (definition.collisionGroups != null) {
+            activeCollisionGroups = new boolean[definition.collisionGroups.size()];
+            collisionGroupDamageVariables = new String[definition.collisionGroups.size()];
+            collisionGroupTransforms = new TransformationMatrix[definition.collisionGroups.size()];
+            for (int i = 0; i < definition.collisionGroups.size(); ++i) {
+                collisionGroupDamageVariables[i] = "collision_" + (i + 1) + "_damage";
+                collisionGroupTransforms[i] = new TransformationMatrix();
+            }
             for (JSONCollisionGroup groupDef : definition.collisionGroups) {
                 List<BoundingBox> boxes = new ArrayList<>();
                 for (JSONCollisionBox boxDef : groupDef.collisions) {
@@ -208,7 +233,7 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
     public void update() {
         super.update();
         world.beginProfiling("EntityE_Level", true);
-        damageAmount = getVariable(DAMAGE_VARIABLE);
+        damageAmount = getVariable(DAMAGE_VARIABLE_ID);
         outOfHealth = damageAmount == definition.general.health && definition.general.health != 0;
         world.endProfiling();
     }
@@ -220,7 +245,7 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    public double getRawVariableValue(String variable, int variableID, float partialTicks) {
         if ("damage_percent".equals(variable)) {
             return damageAmount / definition.general.health;
         } else if ("damage_totaled".equals(variable)) {
@@ -228,42 +253,69 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
         }
 
         //Not a towing variable, check others.
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.getRawVariableValue(variable, variableID, partialTicks);
     }
 
     /**
      * Updates the state and position of all collision boxes.
      */
     protected void updateCollisionBoxes(boolean requiresDeltaUpdates) {
-        collisionBoxes.clear();
         if (definition.collisionGroups != null) {
+            //If we haven't moved, boxes only need updating if their animations moved them.
+            boolean movedSinceLastUpdate = false;
+            if (requiresDeltaUpdates && (position.x != lastCollisionBoxPosition.x || position.y != lastCollisionBoxPosition.y || position.z != lastCollisionBoxPosition.z || scale.x != lastCollisionBoxScale.x || scale.y != lastCollisionBoxScale.y || scale.z != lastCollisionBoxScale.z || !isSameRotation(orientation, lastCollisionBoxOrientation))) {
+                movedSinceLastUpdate = true;
+                lastCollisionBoxPosition.set(position);
+                lastCollisionBoxScale.set(scale);
+                lastCollisionBoxOrientation.set(orientation);
+            }
             for (int i = 0; i < definition.collisionGroups.size(); ++i) {
                 JSONCollisionGroup groupDef = definition.collisionGroups.get(i);
                 List<BoundingBox> boxes = definitionCollisionBoxes.get(i);
-                if (groupDef.health == 0 || getVariable("collision_" + (i + 1) + "_damage") < groupDef.health) {
+                boolean groupActive = false;
+                if (groupDef.health == 0 || getVariable(collisionGroupDamageVariables[i]) < groupDef.health) {
                     AnimationSwitchbox switchBox = collisionSwitchboxes.get(groupDef);
                     if (switchBox != null) {
                         if (switchBox.runSwitchbox(0, false)) {
-                            if (requiresDeltaUpdates) {
+                            groupActive = true;
+                            if (requiresDeltaUpdates && (movedSinceLastUpdate || !activeCollisionGroups[i] || !isSameTransform(switchBox.netMatrix, collisionGroupTransforms[i]))) {
+                                collisionGroupTransforms[i].set(switchBox.netMatrix);
                                 for (BoundingBox box : boxes) {
                                     box.globalCenter.set(box.localCenter).transform(switchBox.netMatrix);
                                     box.updateToEntity(this, box.globalCenter);
                                 }
                             }
-                        } else {
-                            continue;
                         }
-                    } else if (requiresDeltaUpdates) {
-                        for (BoundingBox box : boxes) {
-                            box.updateToEntity(this, null);
+                    } else {
+                        groupActive = true;
+                        if (requiresDeltaUpdates && (movedSinceLastUpdate || !activeCollisionGroups[i])) {
+                            for (BoundingBox box : boxes) {
+                                box.updateToEntity(this, null);
+                            }
                         }
                     }
-                    collisionBoxes.addAll(boxes);
+                }
+                if (groupActive != activeCollisionGroups[i]) {
+                    activeCollisionGroups[i] = groupActive;
+                    if (groupActive) {
+                        collisionBoxes.addAll(boxes);
+                    } else {
+                        collisionBoxes.removeAll(boxes);
+                    }
+                    collisionBoxesChanged = true;
                 }
             }
         }
     }
 
+    private static boolean isSameRotation(RotationMatrix first, RotationMatrix second) {
+        return first.m00 == second.m00 && first.m01 == second.m01 && first.m02 == second.m02 && first.m10 == second.m10 && first.m11 == second.m11 && first.m12 == second.m12 && first.m20 == second.m20 && first.m21 == second.m21 && first.m22 == second.m22;
+    }
+
+    private static boolean isSameTransform(TransformationMatrix first, TransformationMatrix second) {
+        return isSameRotation(first, second) && first.m03 == second.m03 && first.m13 == second.m13 && first.m23 == second.m23 && first.m30 == second.m30 && first.m31 == second.m31 && first.m32 == second.m32 && first.m33 == second.m33;
+    }
+
     /**
      * Updates the encompassing box.  This has to run after {@link #updateCollisionBoxes()} to ensure
      * we get all boxes for the encompassing box.
@@ -273,29 +325,35 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
         encompassingBox.heightRadius = 0;
         encompassingBox.depthRadius = 0;
         for (BoundingBox box : collisionBoxes) {
-            encompassingBox.widthRadius = (float) Math.max(encompassingBox.widthRadius, Math.abs(box.globalCenter.x - position.x) + box.widthRadius);
-            encompassingBox.heightRadius = (float) Math.max(encompassingBox.heightRadius, Math.abs(box.globalCenter.y - position.y) + box.heightRadius);
-            encompassingBox.depthRadius = (float) Math.max(encompassingBox.depthRadius, Math.abs(box.globalCenter.z - position.z) + box.depthRadius);
+            if (isBoxEncompassed(box)) {
+                encompassingBox.widthRadius = (float) Math.max(encompassingBox.widthRadius, Math.abs(box.globalCenter.x - position.x) + box.widthRadius);
+                encompassingBox.heightRadius = (float) Math.max(encompassingBox.heightRadius, Math.abs(box.globalCenter.y - position.y) + box.heightRadius);
+                encompassingBox.depthRadius = (float) Math.max(encompassingBox.depthRadius, Math.abs(box.globalCenter.z - position.z) + box.depthRadius);
+            }
         }
         encompassingBox.updateToEntity(this, null);
     }
 
+    /**
+     * Returns true if the passed-in box from {@link #collisionBoxes} should be inside the {@link #encompassingBox}.
+     */
+    protected boolean isBoxEncompassed(BoundingBox box) {
+        return true;
+    }
+
     /**
      * Applies damage to the collision group the passed-in box is a part of.
      * The box MUST have a {@link BoundingBox#groupDef} defined or this method will crash.
      * Only call this method on the server: clients will update via variable packets.
      */
     public void damageCollisionBox(BoundingBox box, double damageAmount) {
-        String variableName = "collision_" + (definition.collisionGroups.indexOf(box.groupDef) + 1) + "_damage";
+        String variableName = collisionGroupDamageVariables[definition.collisionGroups.indexOf(box.groupDef)];
         double currentDamage = getVariable(variableName) + damageAmount;
         if (currentDamage > box.groupDef.health) {
-            double amountActuallyNeeded = damageAmount - (currentDamage - box.groupDef.health);
             currentDamage = box.groupDef.health;
-            InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, variableName, amountActuallyNeeded));
-        } else {
-            InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, variableName, damageAmount));
         }
         setVariable(variableName, currentDamage);
+        queueVariableSync(variableName);
     }
 
     @Override
@@ -350,21 +408,25 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
      * applications, which means one of those may have made this entity invalid.
      */
     public void attack(Damage damage) {
+        wakeUp();
         if (!damage.isWater) {
             if (!outOfHealth) {
                 damageAmount += damage.amount;
                 if (damageAmount > definition.general.health) {
                     damageAmount = definition.general.health;
                     outOfHealth = true;
-                    InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableSet(this, DAMAGE_VARIABLE, damageAmount));
-                } else {
-                    InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, DAMAGE_VARIABLE, damage.amount));
                 }
                 setVariable(DAMAGE_VARIABLE, damageAmount);
+                queueVariableSync(DAMAGE_VARIABLE);
             }
         }
     }
 
+    @Override
+    public BoundingBox getCullingBounds() {
+        return encompassingBox;
+    }
+
     @Override
     public void renderBoundingBoxes(TransformationMatrix transform) {
         collisionBoxes.forEach(box -> box.renderWireframe(this, transform, null, null));
@@ -378,7 +440,8 @@ public abstract class AEntityE_Interactable<JSONDefinition extends AJSONInteract
         //We only apply the appropriate translation and rotation.
         //Normalization is required here, as otherwise the normals get scaled with the
         //scaling operations, and shading gets applied funny.
-        if (definition.instruments != null) {
+        //Instruments aren't rendered in low detail, as they can't be seen at that size anyways.
+        if (definition.instruments != null && !RenderCullingStage.isLowDetail(this)) {
             world.beginProfiling("Instruments", true);
             for (int i = 0; i < definition.instruments.size(); ++i) {
                 ItemInstrument instrument = instruments.get(i);
@@ -15,6 +15,7 @@ import java.util.TreeMap;
 
 import minecrafttransportsimulator.baseclasses.AnimationSwitchbox;
 import minecrafttransportsimulator.baseclasses.BoundingBox;
+import minecrafttransportsimulator.baseclasses.BoundingBoxHierarchy;
 import minecrafttransportsimulator.baseclasses.BoundingBoxHitResult;
 import minecrafttransportsimulator.baseclasses.ColorRGB;
 import minecrafttransportsimulator.baseclasses.Damage;
@@ -43,7 +44,6 @@ import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.packets.instances.PacketEntityBulletHitCollision;
 import minecrafttransportsimulator.packets.instances.PacketEntityBulletHitEntity;
 import minecrafttransportsimulator.packets.instances.PacketEntityBulletHitGeneric;
-import minecrafttransportsimulator.packets.instances.PacketEntityVariableToggle;
 import minecrafttransportsimulator.packets.instances.PacketPartChange_Add;
 import minecrafttransportsimulator.packets.instances.PacketPartChange_Remove;
 import minecrafttransportsimulator.packets.instances.PacketPartChange_Transfer;
@@ -65,6 +65,22 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
      **/
     public final Set<BoundingBox> allCollisionBoxes = new HashSet<>();
 
+    /**
+     * Hierarchy of {@link #allCollisionBoxes}, for quickly finding boxes hit by paths.
+     **/
+    private final BoundingBoxHierarchy collisionBoxHierarchy = new BoundingBoxHierarchy();
+
+    /**
+     * Map of boxes in {@link #allCollisionBoxes} that are on parts to the part they are on.
+     **/
+    protected final Map<BoundingBox, APart> partsByBox = new HashMap<>();
+
+    /**
+     * True if boxes were added to or removed from {@link #allCollisionBoxes} in the last update.
+     * Used by the entity we are on, if we are a part, to know if it needs to re-build its own list.
+     **/
+    protected boolean allCollisionBoxesChanged;
+
     /**
      * This list contains all parts this entity has.  Do NOT directly modify this list.  Instead,
      * call {@link #addPart}, {@link #addPartFromItem}, or {@link #removePart} to ensure all sub-classed
@@ -91,6 +107,11 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
      **/
     public final Map<BoundingBox, JSONPartDefinition> partSlotBoxes = new HashMap<>();
     public final Map<BoundingBox, JSONPartDefinition> activeClientPartSlotBoxes = new HashMap<>();
+    /**
+     * Part slot boxes by slot index, or null for slots that have a part.  Slots keep the same box for as long as they are
+     * empty, so boxes only need to be added to or removed from our sets when a part is added or removed in that slot.
+     **/
+    private BoundingBox[] partSlotBoxesBySlot = new BoundingBox[0];
     private final Map<JSONPartDefinition, AnimationSwitchbox> partSlotSwitchboxes = new HashMap<>();
 
     //Constants
@@ -166,7 +187,7 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
                     if (isVariableActive(partDef.transferVariable)) {
                         transferPart(partDef);
                         toggleVariable(partDef.transferVariable);
-                        InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableToggle(this, partDef.transferVariable));
+                        queueVariableSync(partDef.transferVariable);
                     }
                 }
             }
@@ -254,8 +275,22 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
         return currentMass;
     }
 
+    @Override
+    public boolean canSleep() {
+        if (!areVariablesIdle() || rider != null || partToPlace != null || !sounds.isEmpty() || !areAnimationsIdle()) {
+            return false;
+        }
+        for (APart part : allParts) {
+            if (!part.canSleep()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public void attack(Damage damage) {
+        wakeUp();
         //If the bounding box attacked corresponds to a part, forward the attack to that part for calculation.
         //Otherwise, we allow ourselves to be attacked.
         if (damage.box != null) {
@@ -277,7 +312,9 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
             //Get all collision boxes and check if we hit any of them.
             //Sort them by distance for later.
             TreeMap<Double, BoundingBoxHitResult> hitBoxes = new TreeMap<>();
-            for (BoundingBox box : allCollisionBoxes) {
+            List<BoundingBox> boxesOnPath = new ArrayList<>();
+            collisionBoxHierarchy.getBoxesOnPath(pathStart, pathEnd, boxesOnPath);
+            for (BoundingBox box : boxesOnPath) {
                 if (box.collisionTypes.contains(CollisionType.ATTACK) || (isBullet && box.collisionTypes.contains(CollisionType.BULLET))) {
                     BoundingBoxHitResult hitResult = box.getIntersection(pathStart, pathEnd);
                     if (hitResult != null) {
@@ -476,14 +513,26 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    public double getRawVariableValue(String variable, int variableID, float partialTicks) {
         //If we have a variable with a suffix, we need to get that part first and pass
         //it into this method rather than trying to run through the code now.
         int partNumber = getVariableNumber(variable);
         if (partNumber != -1) {
             return getSpecificPartAnimation(variable, partNumber, partialTicks);
         } else {
-            return super.getRawVariableValue(variable, partialTicks);
+            return super.getRawVariableValue(variable, variableID, partialTicks);
+        }
+    }
+
+    @Override
+    public VariableAccessor getVariableAccessor(String variable) {
+        //Resolve the slot of the part for the suffix here, since that's only dependent on our definition.
+        //The part in that slot can change though, so we need to get it each time.
+        int partNumber = getVariableNumber(variable);
+        if (partNumber != -1) {
+            return new SpecificPartVariableAccessor(getSpecificPartSlot(variable, partNumber), variable.substring(0, variable.lastIndexOf("_")));
+        } else {
+            return super.getVariableAccessor(variable);
         }
     }
 
@@ -521,11 +570,18 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
      * define a number, then -1 is returned.
      */
     public static int getVariableNumber(String variable) {
-        if (variable.matches("^.*_\\d+$")) {
-            return Integer.parseInt(variable.substring(variable.lastIndexOf('_') + 1)) - 1;
-        } else {
+        //Check manually rather than with a regex, as this gets called a lot.
+        int numberIndex = variable.lastIndexOf('_') + 1;
+        if (numberIndex == 0 || numberIndex == variable.length()) {
             return -1;
         }
+        for (int i = numberIndex; i < variable.length(); ++i) {
+            char c = variable.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+        }
+        return Integer.parseInt(variable.substring(numberIndex)) - 1;
     }
 
     /**
@@ -627,7 +683,7 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
 
             //If we are on the server, and need to notify clients, do so.
             if (sendPacket && !world.isClient()) {
-                InterfaceManager.packetInterface.sendToAllClients(new PacketPartChange_Add(this, part));
+                InterfaceManager.packetInterface.sendToAllTracking(new PacketPartChange_Add(this, part), this);
             }
         }
 
@@ -668,7 +724,7 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
 
             //If we are on the server, notify all clients of this change.
             if (!world.isClient()) {
-                InterfaceManager.packetInterface.sendToAllClients(new PacketPartChange_Remove(part, removeFromWorld));
+                InterfaceManager.packetInterface.sendToAllTracking(new PacketPartChange_Remove(part, removeFromWorld), part);
             }
         }
 
@@ -683,6 +739,8 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
      * that was removed will already be removed.
      */
     protected void updateAllpartList() {
+        collisionBoxesChanged = true;
+        wakeUp();
         allParts.clear();
         parts.forEach(part -> {
             part.updateAllpartList();
@@ -710,16 +768,25 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
      * to know exactly what it went to.
      */
     public APart getPartWithBox(BoundingBox box) {
-        for (APart part : parts) {
-            if (part.allCollisionBoxes.contains(box)) {
-                if (part.collisionBoxes.contains(box)) {
-                    return part;
-                } else {
-                    return part.getPartWithBox(box);
-                }
-            }
-        }
-        return null;
+        APart part = partsByBox.get(box);
+        //Part may have been removed since we last updated our boxes.
+        return part != null && allParts.contains(part) ? part : null;
+    }
+
+    /**
+     * Adds all boxes in {@link #allCollisionBoxes} that the line from the start to end point may intersect to the passed-in list.
+     * This is much faster than checking all boxes on multiparts with lots of boxes, but the returned boxes still need
+     * to be checked to see if they were actually hit.
+     */
+    public void getCollisionBoxesOnPath(Point3D start, Point3D end, List<BoundingBox> boxes) {
+        collisionBoxHierarchy.getBoxesOnPath(start, end, boxes);
+    }
+
+    /**
+     * Like {@link #getCollisionBoxesOnPath(Point3D, Point3D, List)}, but gets the boxes that intersect the passed-in bounds.
+     */
+    public void getCollisionBoxesInBounds(BoundingBox bounds, List<BoundingBox> boxes) {
+        collisionBoxHierarchy.getBoxesInBounds(bounds, boxes);
     }
 
     /**
@@ -752,11 +819,21 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
      * Also must be called at construction time to create the initial slot set.
      */
     private void recalculatePartSlots() {
-        partSlotBoxes.clear();
-        if (world.isClient()) {
+        //If the number of slots changed, our definition did, so start over.
+        if (partSlotBoxesBySlot.length != partsInSlots.size()) {
+            for (BoundingBox box : partSlotBoxesBySlot) {
+                if (box != null) {
+                    collisionBoxes.remove(box);
+                }
+            }
+            partSlotBoxes.clear();
             activeClientPartSlotBoxes.clear();
+            partSlotBoxesBySlot = new BoundingBox[partsInSlots.size()];
+            collisionBoxesChanged = true;
         }
+
         for (int i = 0; i < partsInSlots.size(); ++i) {
+            BoundingBox slotBox = partSlotBoxesBySlot[i];
             if (partsInSlots.get(i) == null) {
                 JSONPartDefinition partDef = definition.parts.get(i);
                 boolean isLarge = false;
@@ -766,17 +843,30 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
                         break;
                     }
                 }
-                BoundingBox newSlotBox;
-                if (isLarge) {
-                    newSlotBox = new BoundingBox(partDef.pos, partDef.pos.copy().rotate(orientation).add(position), PART_SLOT_LARGE_HITBOX_WIDTH / 2D, PART_SLOT_LARGE_HITBOX_HEIGHT / 2D, PART_SLOT_LARGE_HITBOX_WIDTH / 2D, false, partSlotBoxCollisionTypes);
+                double widthRadius = (isLarge ? PART_SLOT_LARGE_HITBOX_WIDTH : PART_SLOT_NORMAL_HITBOX_WIDTH) / 2D;
+                double heightRadius = (isLarge ? PART_SLOT_LARGE_HITBOX_HEIGHT : PART_SLOT_NORMAL_HITBOX_HEIGHT) / 2D;
+                if (slotBox == null) {
+                    //Add new slot boxes, clients will remove as applicable, servers will never remove.
+                    slotBox = new BoundingBox(partDef.pos, partDef.pos.copy().rotate(orientation).add(position), widthRadius, heightRadius, widthRadius, false, partSlotBoxCollisionTypes);
+                    partSlotBoxesBySlot[i] = slotBox;
+                    partSlotBoxes.put(slotBox, partDef);
+                    collisionBoxes.add(slotBox);
+                    collisionBoxesChanged = true;
                 } else {
-                    newSlotBox = new BoundingBox(partDef.pos, partDef.pos.copy().rotate(orientation).add(position), PART_SLOT_NORMAL_HITBOX_WIDTH / 2D, PART_SLOT_NORMAL_HITBOX_HEIGHT / 2D, PART_SLOT_NORMAL_HITBOX_WIDTH / 2D, false, partSlotBoxCollisionTypes);
+                    //Same box as before, just put it back where it would be if it were new.
+                    slotBox.globalCenter.set(partDef.pos).rotate(orientation).add(position);
+                    slotBox.widthRadius = widthRadius;
+                    slotBox.heightRadius = heightRadius;
+                    slotBox.depthRadius = widthRadius;
                 }
-                partSlotBoxes.put(newSlotBox, partDef);
+            } else if (slotBox != null) {
+                partSlotBoxesBySlot[i] = null;
+                partSlotBoxes.remove(slotBox);
+                activeClientPartSlotBoxes.remove(slotBox);
+                collisionBoxes.remove(slotBox);
+                collisionBoxesChanged = true;
             }
         }
-        //Add all slot boxes, clients will remove as applicable, servers will never remove.
-        collisionBoxes.addAll(partSlotBoxes.keySet());
     }
 
     @Override
@@ -786,71 +876,92 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
             if (!partSlotBoxes.isEmpty()) {
                 world.beginProfiling("PartSlotActives", false);
                 activeClientPartSlotBoxes.clear();
+                boolean holdingScanner = false;
+                AItemBase heldItem = null;
                 if (canBeClicked()) {
-                    IWrapperPlayer player = InterfaceManager.clientInterface.getClientPlayer();
-                    AItemBase heldItem = player.getHeldItem();
-                    boolean holdingScanner = heldItem instanceof ItemItem && ((ItemItem) heldItem).definition.item.type == ItemComponentType.SCANNER;
-                    if (holdingScanner || heldItem instanceof AItemPart) {
-                        for (Entry<BoundingBox, JSONPartDefinition> partSlotBoxEntry : partSlotBoxes.entrySet()) {
-                            BoundingBox box = partSlotBoxEntry.getKey();
-                            JSONPartDefinition slotDef = partSlotBoxEntry.getValue();
-                            boolean activeSlotFound = false;
-                            if (holdingScanner) {
-                                //Don't check held parts, just check if we can actually place anything in a slot.
-                                if (isVariableListTrue(partSlotBoxEntry.getValue().interactableVariables)) {
-                                    activeSlotFound = true;
-                                }
-                            } else {
-                                AItemPart heldPart = (AItemPart) heldItem;
-                                if (heldPart.isPartValidForPackDef(slotDef, subDefinition, false) && isVariableListTrue(slotDef.interactableVariables)) {
-                                    //Part matches.  Add the box.  Set the box bounds to the special bounds of the generic part if we're holding one.
-                                    if (heldPart.definition.generic.width != 0 && heldPart.definition.generic.height != 0) {
-                                        box.widthRadius = heldPart.definition.generic.width / 2D;
-                                        box.heightRadius = heldPart.definition.generic.height / 2D;
-                                        box.depthRadius = heldPart.definition.generic.width / 2D;
-                                    }
-                                    activeSlotFound = true;
-                                }
+                    heldItem = InterfaceManager.clientInterface.getClientPlayer().getHeldItem();
+                    holdingScanner = heldItem instanceof ItemItem && ((ItemItem) heldItem).definition.item.type == ItemComponentType.SCANNER;
+                }
+                for (Entry<BoundingBox, JSONPartDefinition> partSlotBoxEntry : partSlotBoxes.entrySet()) {
+                    BoundingBox box = partSlotBoxEntry.getKey();
+                    JSONPartDefinition slotDef = partSlotBoxEntry.getValue();
+                    boolean activeSlotFound = false;
+                    if (holdingScanner) {
+                        //Don't check held parts, just check if we can actually place anything in a slot.
+                        if (isVariableListTrue(partSlotBoxEntry.getValue().interactableVariables)) {
+                            activeSlotFound = true;
+                        }
+                    } else if (heldItem instanceof AItemPart) {
+                        AItemPart heldPart = (AItemPart) heldItem;
+                        if (heldPart.isPartValidForPackDef(slotDef, subDefinition, false) && isVariableListTrue(slotDef.interactableVariables)) {
+                            //Part matches.  Add the box.  Set the box bounds to the special bounds of the generic part if we're holding one.
+                            if (heldPart.definition.generic.width != 0 && heldPart.definition.generic.height != 0) {
+                                box.widthRadius = heldPart.definition.generic.width / 2D;
+                                box.heightRadius = heldPart.definition.generic.height / 2D;
+                                box.depthRadius = heldPart.definition.generic.width / 2D;
                             }
-                            if (activeSlotFound) {
-                                collisionBoxes.add(box);
-                                activeClientPartSlotBoxes.put(box, slotDef);
-                                if (requiresDeltaUpdates) {
-                                    AnimationSwitchbox switchBox = partSlotSwitchboxes.get(slotDef);
-                                    if (switchBox != null) {
-                                        if (switchBox.runSwitchbox(0, false)) {
-                                            box.globalCenter.set(box.localCenter).transform(switchBox.netMatrix);
-                                            box.updateToEntity(this, box.globalCenter);
-                                        }
-                                    } else {
-                                        box.updateToEntity(this, null);
-                                    }
+                            activeSlotFound = true;
+                        }
+                    }
+                    if (activeSlotFound) {
+                        if (collisionBoxes.add(box)) {
+                            collisionBoxesChanged = true;
+                        }
+                        activeClientPartSlotBoxes.put(box, slotDef);
+                        if (requiresDeltaUpdates) {
+                            AnimationSwitchbox switchBox = partSlotSwitchboxes.get(slotDef);
+                            if (switchBox != null) {
+                                if (switchBox.runSwitchbox(0, false)) {
+                                    box.globalCenter.set(box.localCenter).transform(switchBox.netMatrix);
+                                    box.updateToEntity(this, box.globalCenter);
                                 }
                             } else {
-                                collisionBoxes.remove(box);
+                                box.updateToEntity(this, null);
                             }
                         }
+                    } else if (collisionBoxes.remove(box)) {
+                        collisionBoxesChanged = true;
                     }
                 }
             }
         }
     }
 
+    @Override
+    protected boolean isBoxEncompassed(BoundingBox box) {
+        //If we are on the server, don't use slot boxes, as the server doesn't update slot position.
+        return world.isClient() || !partSlotBoxes.containsKey(box);
+    }
+
     @Override
     protected void updateEncompassingBox() {
         super.updateEncompassingBox();
-        //If we are on the server, now add slot boxes.
-        //If did this before in the update method, the encompassing box would use the slot boxes.
-        //Since the server doesn't update slot position, this leads to issues.
-        if (!world.isClient()) {
-            collisionBoxes.addAll(partSlotBoxes.keySet());
-        }
 
-        //Populate all box list.
-        allCollisionBoxes.clear();
-        allCollisionBoxes.addAll(collisionBoxes);
+        //Populate all box list, if any boxes were added or removed from us or our parts.
+        //If not, the boxes in the list are the same, they have just moved.
+        boolean boxesChanged = collisionBoxesChanged;
+        collisionBoxesChanged = false;
         for (APart part : parts) {
-            allCollisionBoxes.addAll(part.allCollisionBoxes);
+            if (part.allCollisionBoxesChanged) {
+                boxesChanged = true;
+                break;
+            }
+        }
+        allCollisionBoxesChanged = boxesChanged;
+        if (boxesChanged) {
+            allCollisionBoxes.clear();
+            allCollisionBoxes.addAll(collisionBoxes);
+            partsByBox.clear();
+            for (APart part : parts) {
+                allCollisionBoxes.addAll(part.allCollisionBoxes);
+                partsByBox.putAll(part.partsByBox);
+                for (BoundingBox box : part.collisionBoxes) {
+                    partsByBox.put(box, part);
+                }
+            }
+            collisionBoxHierarchy.setBoxes(allCollisionBoxes);
+        } else {
+            collisionBoxHierarchy.markBoxesMoved();
         }
 
         //Update encompassing bounding box to reflect all bounding boxes of all parts.
@@ -871,19 +982,29 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
      * Returns null if the part doesn't exist.
      */
     public APart getSpecificPart(String variable, int partNumber) {
+        //Check index just in case someone screwed up a JSON.
+        int slotIndex = getSpecificPartSlot(variable, partNumber);
+        return slotIndex != -1 && slotIndex < partsInSlots.size() ? partsInSlots.get(slotIndex) : null;
+    }
+
+    /**
+     * Helper method to return the slot index for the part for the passed-in variable.
+     * This only depends on the definition, not on what parts are present, so it may be cached.
+     * Returns -1 if the definition doesn't have a slot for the variable.
+     */
+    public int getSpecificPartSlot(String variable, int partNumber) {
         //Iterate through our parts to find the index of the pack def for the part we want.
         String partType = variable.substring(0, variable.indexOf("_"));
         if (partType.equals("part")) {
             //Shortcut as we can just get the part for the slot.
-            //Check index just in case someone screwed up a JSON.
-            return partNumber < partsInSlots.size() ? partsInSlots.get(partNumber) : null;
+            return partNumber;
         } else if (definition.parts != null) {
             for (int i = 0; i < definition.parts.size(); ++i) {
                 JSONPartDefinition partDef = definition.parts.get(i);
                 for (String defPartType : partDef.types) {
                     if (defPartType.startsWith(partType)) {
                         if (partNumber == 0) {
-                            return partsInSlots.get(i);
+                            return i;
                         } else {
                             --partNumber;
                         }
@@ -893,8 +1014,8 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
             }
         }
 
-        //No valid sub-part definitions found.  This is an error, but not one we should crash for.  Return null.
-        return null;
+        //No valid sub-part definitions found.  This is an error, but not one we should crash for.  Return -1.
+        return -1;
     }
 
     /**
@@ -910,6 +1031,37 @@ public abstract class AEntityF_Multipart<JSONDefinition extends AJSONPartProvide
         }
     }
 
+    /**
+     * Accessor for variables for a specific part, as determined by the index of that part.
+     * Mirrors {@link AEntityF_Multipart#getSpecificPartAnimation(String, int, float)}, but with the slot pre-resolved.
+     * The accessor for the part is cached, and only re-created if the part in the slot changes.
+     */
+    private class SpecificPartVariableAccessor implements VariableAccessor {
+        private final int slotIndex;
+        private final String partVariable;
+        private APart boundPart;
+        private VariableAccessor boundAccessor;
+
+        private SpecificPartVariableAccessor(int slotIndex, String partVariable) {
+            this.slotIndex = slotIndex;
+            this.partVariable = partVariable;
+        }
+
+        @Override
+        public double getValue(float partialTicks) {
+            APart foundPart = slotIndex != -1 && slotIndex < partsInSlots.size() ? partsInSlots.get(slotIndex) : null;
+            if (foundPart != null) {
+                if (foundPart != boundPart) {
+                    boundPart = foundPart;
+                    boundAccessor = foundPart.getVariableAccessor(partVariable);
+                }
+                return boundAccessor.getValue(partialTicks);
+            } else {
+                return 0;
+            }
+        }
+    }
+
     @Override
     public void renderBoundingBoxes(TransformationMatrix transform) {
         super.renderBoundingBoxes(transform);
@@ -6,6 +6,7 @@ import java.util.List;
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.TowingConnection;
+import minecrafttransportsimulator.baseclasses.VariableStore;
 import minecrafttransportsimulator.entities.instances.APart;
 import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
 import minecrafttransportsimulator.guis.components.AGUIBase;
@@ -39,6 +40,7 @@ public abstract class AEntityG_Towable<JSONDefinition extends AJSONPartProvider>
     private final List<TowingConnection> savedDisconnectedTowingConnections = new ArrayList<>();
 
     public static final String TOWING_CONNECTION_REQUEST_VARIABLE = "connection_requested";
+    public static final int TOWING_CONNECTION_REQUEST_VARIABLE_ID = VariableStore.getOrCreateID(TOWING_CONNECTION_REQUEST_VARIABLE);
 
     public AEntityG_Towable(AWrapperWorld world, IWrapperPlayer placingPlayer, AItemSubTyped<JSONDefinition> item, IWrapperNBT data) {
         super(world, placingPlayer, item, data);
@@ -157,7 +159,7 @@ public abstract class AEntityG_Towable<JSONDefinition extends AJSONPartProvider>
         }
 
         //If we have a connection request, handle it now.
-        int connectionRequestIndex = (int) getVariable(TOWING_CONNECTION_REQUEST_VARIABLE);
+        int connectionRequestIndex = (int) getVariable(TOWING_CONNECTION_REQUEST_VARIABLE_ID);
         if (connectionRequestIndex != 0) {
             if (!world.isClient()) {
                 //Don't handle requests on the client.  These get packets.
@@ -175,7 +177,7 @@ public abstract class AEntityG_Towable<JSONDefinition extends AJSONPartProvider>
         }
         //Also check parts, in case they got a request.
         for (APart part : allParts) {
-            connectionRequestIndex = (int) part.getVariable(TOWING_CONNECTION_REQUEST_VARIABLE);
+            connectionRequestIndex = (int) part.getVariable(TOWING_CONNECTION_REQUEST_VARIABLE_ID);
             if (connectionRequestIndex != 0) {
                 if (!world.isClient()) {
                     //Don't handle requests on the client.  These get packets.
@@ -206,7 +208,12 @@ public abstract class AEntityG_Towable<JSONDefinition extends AJSONPartProvider>
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    public boolean canSleep() {
+        return super.canSleep() && towedByConnection == null && towingConnections.isEmpty() && disconnectedTowingConnections.isEmpty();
+    }
+
+    @Override
+    public double getRawVariableValue(String variable, int variableID, float partialTicks) {
         //Check if this is a hookup or hitch variable.
         if (variable.startsWith("connection")) {
             //Format is (hitch/hookup)_groupIndex_connectionIndex_animationType.
@@ -249,7 +256,17 @@ public abstract class AEntityG_Towable<JSONDefinition extends AJSONPartProvider>
         }
 
         //Not a towing variable, check others.
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.getRawVariableValue(variable, variableID, partialTicks);
+    }
+
+    @Override
+    public VariableAccessor getVariableAccessor(String variable) {
+        //Connection variables may end in numbers, so intercept them before our super thinks they are for parts.
+        if (variable.startsWith("connection")) {
+            return partialTicks -> getRawVariableValue(variable, partialTicks);
+        } else {
+            return super.getVariableAccessor(variable);
+        }
     }
 
     @Override
@@ -340,7 +357,7 @@ public abstract class AEntityG_Towable<JSONDefinition extends AJSONPartProvider>
 
         if (connectionToDisconnect == null) {
             TrailerConnectionResult result;
-            List<AEntityG_Towable<?>> entitiesToCheck = new ArrayList<>(world.getEntitiesOfType(EntityVehicleF_Physics.class));
+            List<AEntityG_Towable<?>> entitiesToCheck = new ArrayList<>(world.getEntitiesNear(connectionDefiner.position, 25, EntityVehicleF_Physics.class));
 
             if (requestedGroup.isHitch) {
                 //Find an entity to tow.
@@ -490,6 +507,8 @@ public abstract class AEntityG_Towable<JSONDefinition extends AJSONPartProvider>
      * Method block for connecting a trailer to this entity.
      */
     public void connectTrailer(TowingConnection connection, boolean notifyClient) {
+        wakeUp();
+        connection.towedVehicle.wakeUp();
         towingConnections.add(connection);
         connection.towedVehicle.towedByConnection = connection;
         connection.towingEntity.connectionGroupsIndexesInUse.add(connection.hitchGroupIndex);
@@ -506,7 +525,7 @@ public abstract class AEntityG_Towable<JSONDefinition extends AJSONPartProvider>
         //Handle connection update requests.
         if (!world.isClient()) {
             if (notifyClient) {
-                InterfaceManager.packetInterface.sendToAllClients(new PacketEntityTowingChange(this, connection));
+                InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityTowingChange(this, connection), this);
             }
         } else if (AGUIBase.activeInputGUI instanceof GUIPanel) {
             ((GUIPanel) AGUIBase.activeInputGUI).handleConnectionChange(connection);
@@ -519,6 +538,8 @@ public abstract class AEntityG_Towable<JSONDefinition extends AJSONPartProvider>
     public void disconnectTrailer(int connectionIndex) {
         TowingConnection connection = towingConnections.remove(connectionIndex);
         connection.towedVehicle.towedByConnection = null;
+        wakeUp();
+        connection.towedVehicle.wakeUp();
 
         if (connection.hitchConnectionGroup.isSnap || connection.hookupConnectionGroup.isSnap) {
             disconnectedTowingConnections.add(connection);
@@ -528,7 +549,7 @@ public abstract class AEntityG_Towable<JSONDefinition extends AJSONPartProvider>
         }
 
         if (!world.isClient()) {
-            InterfaceManager.packetInterface.sendToAllClients(new PacketEntityTowingChange(this, connectionIndex));
+            InterfaceManager.packetInterface.sendToAllTracking(new PacketEntityTowingChange(this, connectionIndex), this);
         } else if (AGUIBase.activeInputGUI instanceof GUIPanel) {
             ((GUIPanel) AGUIBase.activeInputGUI).handleConnectionChange(connection);
         }
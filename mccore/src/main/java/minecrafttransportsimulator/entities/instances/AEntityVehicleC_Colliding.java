@@ -6,6 +6,7 @@ import java.util.List;
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.VariableStore;
 import minecrafttransportsimulator.entities.components.AEntityG_Towable;
 import minecrafttransportsimulator.items.instances.ItemVehicle;
 import minecrafttransportsimulator.jsondefs.JSONVehicle;
@@ -29,6 +30,10 @@ import minecrafttransportsimulator.systems.LanguageSystem.LanguageEntry;
  * @author don_bruce
  */
 abstract class AEntityVehicleC_Colliding extends AEntityG_Towable<JSONVehicle> {
+    /**
+     * Group of variables that are doors, which are auto-closed when moving.
+     */
+    private static final int DOOR_VARIABLES = VariableStore.registerGroup(variable -> variable.startsWith("door"));
 
     //Internal states.
     public double currentMass;
@@ -66,7 +71,7 @@ abstract class AEntityVehicleC_Colliding extends AEntityG_Towable<JSONVehicle> {
         //Only do this once a second to prevent lag.
         if (velocity > 0.5 && ticksExisted % 20 == 0) {
             world.beginProfiling("CloseDoors", false);
-            variables.keySet().removeIf(s -> s.startsWith("door"));
+            variables.removeGroup(DOOR_VARIABLES, null);
         }
 
         world.endProfiling();
@@ -1,7 +1,6 @@
 package minecrafttransportsimulator.entities.instances;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 
@@ -10,6 +9,8 @@ import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.RotationMatrix;
 import minecrafttransportsimulator.baseclasses.TowingConnection;
+import minecrafttransportsimulator.baseclasses.VariableStore;
+import minecrafttransportsimulator.baseclasses.VehicleForceStage;
 import minecrafttransportsimulator.baseclasses.VehicleGroundDeviceCollection;
 import minecrafttransportsimulator.blocks.components.ABlockBase;
 import minecrafttransportsimulator.blocks.instances.BlockCollision;
@@ -28,7 +29,6 @@ import minecrafttransportsimulator.mcinterface.IWrapperEntity;
 import minecrafttransportsimulator.mcinterface.IWrapperNBT;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
-import minecrafttransportsimulator.packets.instances.PacketEntityVariableToggle;
 import minecrafttransportsimulator.packets.instances.PacketPlayerChatMessage;
 import minecrafttransportsimulator.packets.instances.PacketVehicleServerMovement;
 import minecrafttransportsimulator.systems.ConfigSystem;
@@ -46,9 +46,13 @@ import minecrafttransportsimulator.systems.LanguageSystem;
 abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding {
     //Static variables used in logic that are kept in the global map.
     public static final String LEFTTURNLIGHT_VARIABLE = "left_turn_signal";
+    public static final int LEFTTURNLIGHT_VARIABLE_ID = VariableStore.getOrCreateID(LEFTTURNLIGHT_VARIABLE);
     public static final String RIGHTTURNLIGHT_VARIABLE = "right_turn_signal";
+    public static final int RIGHTTURNLIGHT_VARIABLE_ID = VariableStore.getOrCreateID(RIGHTTURNLIGHT_VARIABLE);
     public static final String BRAKE_VARIABLE = "brake";
+    public static final int BRAKE_VARIABLE_ID = VariableStore.getOrCreateID(BRAKE_VARIABLE);
     public static final String PARKINGBRAKE_VARIABLE = "p_brake";
+    public static final int PARKINGBRAKE_VARIABLE_ID = VariableStore.getOrCreateID(PARKINGBRAKE_VARIABLE);
 
     //External state control.
     @DerivedValue
@@ -59,6 +63,8 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding {
     @DerivedValue
     public boolean locked;
     public static final String LOCKED_VARIABLE = "locked";
+    public static final int LOCKED_VARIABLE_ID = VariableStore.getOrCreateID(LOCKED_VARIABLE);
+    private static final int LOCKED_DOOR_VARIABLES = VariableStore.registerGroup(variable -> variable.contains("door"));
     public UUID keyUUID;
 
     //Internal states.
@@ -67,6 +73,7 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding {
     public boolean skidSteerActive;
     public boolean lockedOnRoad;
     private boolean updateGroundDevicesRequest;
+    private boolean forcesCalculated;
     private int lastBlockCollisionBoxesCount;
     public double groundVelocity;
     public double turningForce;
@@ -101,6 +108,11 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding {
     private final Point3D serverDeltaMApplied = new Point3D();
     private final Point3D serverDeltaRApplied = new Point3D();
     private double serverDeltaPApplied;
+    private final Point3D serverDeltaMPending = new Point3D();
+    private final Point3D serverDeltaRPending = new Point3D();
+    private double serverDeltaPPending;
+    private int serverDeltaSyncInterval = 1;
+    private long lastServerDeltaSyncTick;
 
     private final Point3D clientDeltaM;
     private final Point3D clientDeltaR;
@@ -203,14 +215,20 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding {
         }
 
         //Update variable status.  This is used in a lot of locations, so we don't want to query the set every time.
-        brake = getVariable(BRAKE_VARIABLE);
-        parkingBrakeOn = isVariableActive(PARKINGBRAKE_VARIABLE);
-        locked = isVariableActive(LOCKED_VARIABLE);
+        brake = getVariable(BRAKE_VARIABLE_ID);
+        parkingBrakeOn = isVariableActive(PARKINGBRAKE_VARIABLE_ID);
+        locked = isVariableActive(LOCKED_VARIABLE_ID);
 
         //Now do update calculations and logic.
+        //Forces may have already been calculated by the physics stage, in which case we don't do them again.
+        boolean forcesAlreadyCalculated = forcesCalculated;
+        forcesCalculated = false;
         if (!ConfigSystem.settings.general.noclipVehicles.value || groundDeviceCollective.isReady()) {
             world.beginProfiling("GroundForces", true);
-            getForcesAndMotions();
+            if (!forcesAlreadyCalculated) {
+                sampleWorldForForces();
+                getForcesAndMotions();
+            }
             world.beginProfiling("GroundOperations", false);
             if (towedByConnection == null || !towedByConnection.hitchConnection.mounted) {
                 performGroundOperations();
@@ -227,6 +245,12 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding {
         world.endProfiling();
     }
 
+    @Override
+    public boolean canSleep() {
+        //Parked vehicles still get tiny motions from gravity and the ground pushing back, so don't check for exactly 0.
+        return super.canSleep() && motion.length() < 0.001 && position.equals(prevPosition) && orientation.angles.equals(prevOrientation.angles);
+    }
+
     @Override
     public void doPostUpdateLogic() {
         super.doPostUpdateLogic();
@@ -679,9 +703,9 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding {
                 //Check for the potential to change the requested segment.
                 //We can only do this if both our followers are on the same segment.
                 LaneSelectionRequest requestedSegment;
-                if (isVariableActive(LEFTTURNLIGHT_VARIABLE) == isVariableActive(RIGHTTURNLIGHT_VARIABLE)) {
+                if (isVariableActive(LEFTTURNLIGHT_VARIABLE_ID) == isVariableActive(RIGHTTURNLIGHT_VARIABLE_ID)) {
                     requestedSegment = LaneSelectionRequest.NONE;
-                } else if (isVariableActive(LEFTTURNLIGHT_VARIABLE)) {
+                } else if (isVariableActive(LEFTTURNLIGHT_VARIABLE_ID)) {
                     requestedSegment = goingInReverse ? LaneSelectionRequest.RIGHT : LaneSelectionRequest.LEFT;
                 } else {
                     requestedSegment = goingInReverse ? LaneSelectionRequest.LEFT : LaneSelectionRequest.RIGHT;
@@ -1081,9 +1105,56 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding {
                 }
                 serverDeltaPApplied += pathingApplied;
                 serverDeltaP += pathingApplied;
-                InterfaceManager.packetInterface.sendToAllClients(new PacketVehicleServerMovement((EntityVehicleF_Physics) this, motionApplied, rotationApplied.angles, pathingApplied));
+                serverDeltaMPending.add(motionApplied);
+                serverDeltaRPending.add(rotationApplied.angles);
+                serverDeltaPPending += pathingApplied;
+                syncServerDeltas(false);
+            } else if (!serverDeltaMPending.isZero()) {
+                //Stopped moving, send whatever we have left so clients don't stop short.
+                syncServerDeltas(true);
+            }
+        }
+    }
+
+    /**
+     * Sends any movement that clients don't know about yet.  If there are no players close to this
+     * vehicle, movement is batched up and sent at a reduced rate based on how far away the closest player is.
+     * This is safe to do as movement packets are deltas, so clients end up in the same spot either way.
+     */
+    private void syncServerDeltas(boolean force) {
+        if (!force) {
+            //Only check player distances once a second, as it's not a cheap check.
+            if (ticksExisted % 20 == 0) {
+                serverDeltaSyncInterval = getServerDeltaSyncInterval();
+            }
+            if (ticksExisted - lastServerDeltaSyncTick < serverDeltaSyncInterval) {
+                return;
             }
         }
+        InterfaceManager.packetInterface.sendToAllTracking(new PacketVehicleServerMovement((EntityVehicleF_Physics) this, serverDeltaMPending.copy(), serverDeltaRPending.copy(), serverDeltaPPending), this);
+        serverDeltaMPending.set(0, 0, 0);
+        serverDeltaRPending.set(0, 0, 0);
+        serverDeltaPPending = 0;
+        lastServerDeltaSyncTick = ticksExisted;
+    }
+
+    /**
+     * Returns how many ticks should be between movement packets, based on the distance to the closest player.
+     */
+    private int getServerDeltaSyncInterval() {
+        double fullRateDistance = ConfigSystem.settings.general.fullRateSyncDistance.value;
+        int maxInterval = ConfigSystem.settings.general.maxSyncInterval.value;
+        if (fullRateDistance <= 0 || maxInterval <= 1) {
+            return 1;
+        }
+        double closestDistance = fullRateDistance * maxInterval;
+        for (IWrapperPlayer player : world.getPlayersWithin(new BoundingBox(position, closestDistance))) {
+            double distance = player.getPosition().distanceTo(position);
+            if (distance < closestDistance) {
+                closestDistance = distance;
+            }
+        }
+        return Math.min(maxInterval, 1 + (int) (closestDistance / fullRateDistance));
     }
 
     /**
@@ -1093,18 +1164,11 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding {
     public void toggleLock() {
         locked = !locked;
         toggleVariable(LOCKED_VARIABLE);
-        InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableToggle(this, LOCKED_VARIABLE));
+        queueVariableSync(LOCKED_VARIABLE);
 
         //Check for doors to close on locking.
         if (locked) {
-            Iterator<String> iterator = variables.keySet().iterator();
-            while (iterator.hasNext()) {
-                String variable = iterator.next();
-                if (variable.contains("door")) {
-                    InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableToggle(this, variable));
-                    iterator.remove();
-                }
-            }
+            variables.removeGroup(LOCKED_DOOR_VARIABLES, this::queueVariableSync);
         }
     }
 
@@ -1123,6 +1187,21 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding {
      */
     protected abstract void addToSteeringAngle(double degrees);
 
+    /**
+     * Calculates the forces and motions for this tick ahead of the main update.  Called by the
+     * {@link VehicleForceStage}, possibly off the main thread, so the main update can skip doing so.
+     */
+    public void calculateForcesAndMotions() {
+        getForcesAndMotions();
+        forcesCalculated = true;
+    }
+
+    /**
+     * Samples any world states needed by {@link #getForcesAndMotions()}.  Force calculations may be done off
+     * the main thread, so they can't query the world themselves.  Must be called on the main thread.
+     */
+    public abstract void sampleWorldForForces();
+
     /**
      * Method block for force and motion calculations.
      */
@@ -1141,9 +1220,11 @@ abstract class AEntityVehicleD_Moving extends AEntityVehicleC_Colliding {
         if (keyUUID != null) {
             data.setUUID(ItemItem.KEY_UUID_TAG, keyUUID);
         }
-        data.setPoint3d("serverDeltaM", serverDeltaM);
-        data.setPoint3d("serverDeltaR", serverDeltaR);
-        data.setDouble("serverDeltaP", serverDeltaP);
+        //Don't save movement that is still waiting to be sent.  Clients that get this data
+        //will get that movement in the next movement packet, and would apply it twice otherwise.
+        data.setPoint3d("serverDeltaM", serverDeltaM.copy().subtract(serverDeltaMPending));
+        data.setPoint3d("serverDeltaR", serverDeltaR.copy().subtract(serverDeltaRPending));
+        data.setDouble("serverDeltaP", serverDeltaP - serverDeltaPPending);
         return data;
     }
 }
@@ -6,6 +6,7 @@ import java.util.UUID;
 
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.NavBeacon;
+import minecrafttransportsimulator.baseclasses.VariableStore;
 import minecrafttransportsimulator.entities.components.AEntityD_Definable;
 import minecrafttransportsimulator.items.instances.ItemInstrument;
 import minecrafttransportsimulator.items.instances.ItemItem;
@@ -41,8 +42,11 @@ public abstract class AEntityVehicleE_Powered extends AEntityVehicleD_Moving {
     public static final String LANDINGLIGHT_VARIABLE = "landing_light";
     public static final String HORN_VARIABLE = "horn";
     public static final String GEAR_VARIABLE = "gear_setpoint";
+    public static final int GEAR_VARIABLE_ID = VariableStore.getOrCreateID(GEAR_VARIABLE);
     public static final String THROTTLE_VARIABLE = "throttle";
+    public static final int THROTTLE_VARIABLE_ID = VariableStore.getOrCreateID(THROTTLE_VARIABLE);
     public static final String REVERSE_THRUST_VARIABLE = "reverser";
+    public static final int REVERSE_THRUST_VARIABLE_ID = VariableStore.getOrCreateID(REVERSE_THRUST_VARIABLE);
 
     //External state control.
     @DerivedValue
@@ -96,8 +100,8 @@ public abstract class AEntityVehicleE_Powered extends AEntityVehicleD_Moving {
         super.update();
         world.beginProfiling("VehicleE_Level", true);
         //Get throttle and reverse state.
-        throttle = getVariable(THROTTLE_VARIABLE);
-        reverseThrust = isVariableActive(REVERSE_THRUST_VARIABLE);
+        throttle = getVariable(THROTTLE_VARIABLE_ID);
+        reverseThrust = isVariableActive(REVERSE_THRUST_VARIABLE_ID);
 
         //If we have space for fuel, and we have tanks with it, transfer it.
         if (!world.isClient() && fuelTank.getFluidLevel() < definition.motorized.fuelCapacity - 100) {
@@ -179,7 +183,7 @@ public abstract class AEntityVehicleE_Powered extends AEntityVehicleD_Moving {
         }
 
         //Adjust gear variables.
-        if (isVariableActive(GEAR_VARIABLE)) {
+        if (isVariableActive(GEAR_VARIABLE_ID)) {
             if (gearMovementTime < definition.motorized.gearSequenceDuration) {
                 ++gearMovementTime;
             }
@@ -204,6 +208,12 @@ public abstract class AEntityVehicleE_Powered extends AEntityVehicleD_Moving {
         world.endProfiling();
     }
 
+    @Override
+    public boolean canSleep() {
+        //Anything using electricity, like lights, needs us to keep updating to drain the battery.
+        return super.canSleep() && electricFlow == 0 && !beingFueled;
+    }
+
     @Override
     public void destroy(BoundingBox box) {
         //Spawn instruments in the world.
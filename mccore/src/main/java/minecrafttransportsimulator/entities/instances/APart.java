@@ -294,6 +294,21 @@ public abstract class APart extends AEntityF_Multipart<JSONPart> {
         return false;
     }
 
+    @Override
+    public boolean canSleep() {
+        //Our master entity checks all parts, including ours, so we only need to check ourselves here.
+        return areVariablesIdle() && rider == null && sounds.isEmpty() && areAnimationsIdle();
+    }
+
+    @Override
+    public void wakeUp() {
+        //Parts are updated by their master entity, so that's what needs to wake up.
+        //We won't have a master entity if this is called while we're still being constructed.
+        if (masterEntity != null) {
+            masterEntity.wakeUp();
+        }
+    }
+
     @Override
     public boolean requiresDeltaUpdates() {
         return entityOn.requiresDeltaUpdates() || isMoveable || super.requiresDeltaUpdates();
@@ -304,7 +319,9 @@ public abstract class APart extends AEntityF_Multipart<JSONPart> {
         //Add collision if we aren't a fake part.
         if (!isFake()) {
             super.updateCollisionBoxes(requiresDeltaUpdates);
-            collisionBoxes.add(boundingBox);
+            if (collisionBoxes.add(boundingBox)) {
+                collisionBoxesChanged = true;
+            }
         }
     }
 
@@ -556,7 +573,17 @@ public abstract class APart extends AEntityF_Multipart<JSONPart> {
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    public VariableAccessor getVariableAccessor(String variable) {
+        //Parent variables need to be bound to our parent, not us.
+        if (variable.startsWith("parent_")) {
+            return entityOn.getVariableAccessor(variable.substring("parent_".length()));
+        } else {
+            return super.getVariableAccessor(variable);
+        }
+    }
+
+    @Override
+    public double getRawVariableValue(String variable, int variableID, float partialTicks) {
         //If the variable is prefixed with "parent_", then we need to get our parent's value.
         if (variable.startsWith("parent_")) {
             return entityOn.getRawVariableValue(variable.substring("parent_".length()), partialTicks);
@@ -585,7 +612,7 @@ public abstract class APart extends AEntityF_Multipart<JSONPart> {
         //No variables, check super variables before doing generic forwarding.
         //We need this here for position-specific values, as some
         //super variables care about position, so we can't forward those.
-        double value = super.getRawVariableValue(variable, partialTicks);
+        double value = super.getRawVariableValue(variable, variableID, partialTicks);
         if (!Double.isNaN(value)) {
             return value;
         }
@@ -7,6 +7,7 @@ import java.util.List;
 import minecrafttransportsimulator.baseclasses.BlockHitResult;
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.BoundingBoxHitResult;
+import minecrafttransportsimulator.baseclasses.BulletMotionStage;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.RotationMatrix;
@@ -61,6 +62,12 @@ public class EntityBullet extends AEntityD_Definable<JSONBullet> {
     public double targetDistance;
     private double distanceTraveled;
     public double armorPenetrated;
+    /**
+     * Index and tick of this bullet's motion in the world's {@link BulletMotionStage}.  The staged
+     * motion is only used if the tick matches, otherwise drag and gravity are applied here.
+     **/
+    public int motionStageIndex;
+    public long motionStageTick = -1;
 
     private Point3D targetVector;
     private Point3D normalizedConeVector = new Point3D();
@@ -155,11 +162,17 @@ public class EntityBullet extends AEntityD_Definable<JSONBullet> {
             }
 
             //Add gravity and slowdown forces, if we don't have a burning motor.
+            //Normally the world's bullet stage has already done this for us with all the other bullets.
             if (ticksExisted > definition.bullet.burnTime || ticksExisted < definition.bullet.accelerationDelay) {
-                if (definition.bullet.slowdownSpeed > 0) {
-                    motion.add(motion.copy().normalize().scale(-definition.bullet.slowdownSpeed));
+                if (motionStageTick == ticksExisted) {
+                    world.bulletMotionStage.getMotion(motionStageIndex, motion);
+                } else {
+                    if (definition.bullet.slowdownSpeed > 0) {
+                        helperPoint.set(motion).normalize().scale(-definition.bullet.slowdownSpeed);
+                        motion.add(helperPoint);
+                    }
+                    motion.y -= definition.bullet.gravitationalVelocity;
                 }
-                motion.y -= definition.bullet.gravitationalVelocity;
             }
 
             //Add motion requested watch tick we are accelerating.
@@ -329,13 +342,14 @@ public class EntityBullet extends AEntityD_Definable<JSONBullet> {
                 }
 
                 //Populate multiparts for following functions.
+                //Only get the ones along our path, plus our proximity fuze distance, if we have one.
+                Point3D endPoint = position.copy().add(motion);
                 multiparts.clear();
-                multiparts.addAll(world.getEntitiesOfType(EntityVehicleF_Physics.class));
-                multiparts.addAll(world.getEntitiesOfType(EntityPlacedPart.class));
+                multiparts.addAll(world.getEntitiesOnPath(position, endPoint, definition.bullet.proximityFuze, EntityVehicleF_Physics.class));
+                multiparts.addAll(world.getEntitiesOnPath(position, endPoint, definition.bullet.proximityFuze, EntityPlacedPart.class));
 
                 //Check for collided internal entities.
                 //This is a bit more involved, as we need to check all possible types and check hitbox distance.
-                Point3D endPoint = position.copy().add(motion);
                 BoundingBox bulletMovementBounds = new BoundingBox(position, endPoint);
                 for (AEntityF_Multipart<?> multipart : multiparts) {
                     //Don't attack the entity that has the gun that fired us.
@@ -454,13 +468,16 @@ public class EntityBullet extends AEntityD_Definable<JSONBullet> {
                             Point3D stepDelta = motion.copy().normalize().scale(definition.bullet.proximityFuze);
                             int maxSteps = (int) Math.floor(velocity / definition.bullet.proximityFuze);
                             proxBounds.globalCenter.set(position);
+                            List<BoundingBox> proxBoxes = new ArrayList<>();
                             for (int step = 0; step < maxSteps; ++step) {
                                 for (AEntityF_Multipart<?> multipart : multiparts) {
                                     //Don't attack the entity that has the gun that fired us.
                                     if (!multipart.allParts.contains(gun)) {
                                         if (multipart.encompassingBox.intersects(proxBounds)) {
-                                            //Could have hit this multipart, check all boxes.
-                                            for (BoundingBox box : multipart.allCollisionBoxes) {
+                                            //Could have hit this multipart, check all boxes near us.
+                                            proxBoxes.clear();
+                                            multipart.getCollisionBoxesInBounds(proxBounds, proxBoxes);
+                                            for (BoundingBox box : proxBoxes) {
                                                 if ((box.collisionTypes.contains(CollisionType.ATTACK) || box.collisionTypes.contains(CollisionType.BULLET)) && box.globalCenter.isDistanceToCloserThan(proxBounds.globalCenter, definition.bullet.proximityFuze)) {
                                                     targetToHit = box.globalCenter.copy();
                                                     hitType = HitType.VEHICLE;
@@ -544,6 +561,15 @@ public class EntityBullet extends AEntityD_Definable<JSONBullet> {
         }
     }
 
+    /**
+     * Returns true if this bullet will apply drag and gravity in its next update, if nothing hits it before then.
+     * Used by {@link BulletMotionStage} to pick which bullets to stage.
+     */
+    public boolean willApplyForcesNextUpdate() {
+        long nextTick = ticksExisted + 1;
+        return impactDespawnTimer < 0 && !waitingOnActionPacket && nextTick <= definition.bullet.burnTime + despawnTime && (nextTick > definition.bullet.burnTime || nextTick < definition.bullet.accelerationDelay);
+    }
+
     @Override
     public void remove() {
         super.remove();
@@ -655,7 +681,7 @@ public class EntityBullet extends AEntityD_Definable<JSONBullet> {
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    public double getRawVariableValue(String variable, int variableID, float partialTicks) {
         switch (variable) {
             case ("bullet_hit"):
                 return lastHit != null ? 1 : 0;
@@ -673,7 +699,7 @@ public class EntityBullet extends AEntityD_Definable<JSONBullet> {
                 return HitType.BURST == lastHit ? 1 : 0;
         }
 
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.getRawVariableValue(variable, variableID, partialTicks);
     }
 
     @Override
@@ -1,11 +1,8 @@
 package minecrafttransportsimulator.entities.instances;
 
-import java.nio.FloatBuffer;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Random;
 
 import minecrafttransportsimulator.baseclasses.AnimationSwitchbox;
@@ -22,6 +19,7 @@ import minecrafttransportsimulator.jsondefs.JSONParticle.ParticleType;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.rendering.AModelParser;
+import minecrafttransportsimulator.rendering.ModelCache.CachedModel;
 import minecrafttransportsimulator.rendering.RenderableData;
 import minecrafttransportsimulator.rendering.RenderableData.LightingMode;
 import minecrafttransportsimulator.rendering.RenderableVertices;
@@ -39,7 +37,6 @@ public class EntityParticle extends AEntityC_Renderable {
     private static final RotationMatrix helperRotation = new RotationMatrix();
     private static final Point3D helperPoint = new Point3D();
     private static final ColorRGB helperColor = new ColorRGB();
-    private static final Map<String, RenderableVertices> parsedParticleModels = new HashMap<>();
     private static final Random particleRandom = new Random();
 
     //Constant properties.
@@ -54,6 +51,7 @@ public class EntityParticle extends AEntityC_Renderable {
     private final ColorRGB staticColor;
     private final String model;
     private final RenderableData renderable;
+    private CachedModel cachedModel;
 
     //Runtime variables.
     private final boolean killBadParticle;
@@ -226,22 +224,11 @@ public class EntityParticle extends AEntityC_Renderable {
     	}
         this.model = model;
         if (this.model != null) {
-            RenderableVertices parsedModel = parsedParticleModels.computeIfAbsent(this.model, k -> {
-                String modelDomain = this.model.substring(0, this.model.indexOf(':'));
-                String modelPath = this.model.substring(modelDomain.length() + 1);
-                List<RenderableVertices> parsedObjects = AModelParser.parseModel("/assets/" + modelDomain + "/" + modelPath, true);
-                int totalVertices = 0;
-                for (RenderableVertices parsedObject : parsedObjects) {
-                    totalVertices += parsedObject.vertices.capacity();
-                }
-                FloatBuffer totalBuffer = FloatBuffer.allocate(totalVertices);
-                for (RenderableVertices parsedObject : parsedObjects) {
-                    totalBuffer.put(parsedObject.vertices);
-                }
-                totalBuffer.flip();
-                return new RenderableVertices("PARTICLE_3D", totalBuffer, false);
-            });
-            this.renderable = new RenderableData(parsedModel, texture);
+            String modelDomain = this.model.substring(0, this.model.indexOf(':'));
+            String modelPath = this.model.substring(modelDomain.length() + 1);
+            this.cachedModel = AModelParser.modelCache.getModel("/assets/" + modelDomain + "/" + modelPath);
+            cachedModel.addUser();
+            this.renderable = new RenderableData(cachedModel.getMergedVertices(), texture);
         } else if (definition.type == ParticleType.BREAK) {
             //Need to generate a new vertex buffer since break particles have varying UVs.
             RenderableVertices vertexObject = RenderableVertices.createSprite(1, null, null);
@@ -307,6 +294,17 @@ public class EntityParticle extends AEntityC_Renderable {
         this.killBadParticle = false;
     }
 
+    @Override
+    public void remove() {
+        if (isValid) {
+            super.remove();
+            //Let the model cache know we're done with our model.
+            if (cachedModel != null) {
+                cachedModel.removeUser();
+            }
+        }
+    }
+
     @Override
     public void update() {
         super.update();
@@ -424,7 +422,7 @@ public class EntityParticle extends AEntityC_Renderable {
             if (++textureIndex == textureList.size()) {
                 textureIndex = 0;
             }
-            renderable.texture = textureList.get(textureIndex);
+            renderable.setTexture(textureList.get(textureIndex));
             if (definition.textureDelays != null) {
                 if (++textureDelayIndex == definition.textureDelays.size()) {
                     textureDelayIndex = 0;
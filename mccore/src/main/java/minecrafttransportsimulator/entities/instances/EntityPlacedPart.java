@@ -106,6 +106,11 @@ public class EntityPlacedPart extends AEntityF_Multipart<JSONDummyPartProvider>
         }
     }
 
+    @Override
+    public boolean canSleep() {
+        return super.canSleep() && motion.isZero();
+    }
+
     @Override
     public void addPart(APart part, boolean sendPacket) {
         super.addPart(part, sendPacket);
@@ -9,6 +9,7 @@ import minecrafttransportsimulator.baseclasses.ColorRGB;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.TowingConnection;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
+import minecrafttransportsimulator.baseclasses.VariableStore;
 import minecrafttransportsimulator.entities.components.AEntityB_Existing;
 import minecrafttransportsimulator.entities.components.AEntityG_Towable;
 import minecrafttransportsimulator.items.instances.ItemVehicle;
@@ -17,8 +18,6 @@ import minecrafttransportsimulator.mcinterface.AWrapperWorld;
 import minecrafttransportsimulator.mcinterface.IWrapperNBT;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
-import minecrafttransportsimulator.packets.instances.PacketEntityVariableIncrement;
-import minecrafttransportsimulator.packets.instances.PacketEntityVariableSet;
 import minecrafttransportsimulator.systems.ConfigSystem;
 
 /**
@@ -41,8 +40,10 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered {
     public static final double MAX_AILERON_TRIM = 10;
     public static final double AILERON_DAMPEN_RATE = 0.6;
     public static final String AILERON_INPUT_VARIABLE = "input_aileron";
+    public static final int AILERON_INPUT_VARIABLE_ID = VariableStore.getOrCreateID(AILERON_INPUT_VARIABLE);
     public static final String AILERON_VARIABLE = "aileron";
     public static final String AILERON_TRIM_VARIABLE = "trim_aileron";
+    public static final int AILERON_TRIM_VARIABLE_ID = VariableStore.getOrCreateID(AILERON_TRIM_VARIABLE);
 
     //Elevator.
     @DerivedValue
@@ -55,8 +56,10 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered {
     public static final double MAX_ELEVATOR_TRIM = 10;
     public static final double ELEVATOR_DAMPEN_RATE = 0.6;
     public static final String ELEVATOR_INPUT_VARIABLE = "input_elevator";
+    public static final int ELEVATOR_INPUT_VARIABLE_ID = VariableStore.getOrCreateID(ELEVATOR_INPUT_VARIABLE);
     public static final String ELEVATOR_VARIABLE = "elevator";
     public static final String ELEVATOR_TRIM_VARIABLE = "trim_elevator";
+    public static final int ELEVATOR_TRIM_VARIABLE_ID = VariableStore.getOrCreateID(ELEVATOR_TRIM_VARIABLE);
 
     //Rudder.
     @DerivedValue
@@ -70,8 +73,10 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered {
     public static final double RUDDER_DAMPEN_RATE = 2.0;
     public static final double RUDDER_DAMPEN_RETURN_RATE = 4.0;
     public static final String RUDDER_INPUT_VARIABLE = "input_rudder";
+    public static final int RUDDER_INPUT_VARIABLE_ID = VariableStore.getOrCreateID(RUDDER_INPUT_VARIABLE);
     public static final String RUDDER_VARIABLE = "rudder";
     public static final String RUDDER_TRIM_VARIABLE = "trim_rudder";
+    public static final int RUDDER_TRIM_VARIABLE_ID = VariableStore.getOrCreateID(RUDDER_TRIM_VARIABLE);
 
     //Flaps.
     public static final short MAX_FLAP_ANGLE_REFERENCE = 350;
@@ -79,6 +84,7 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered {
     public double flapDesiredAngle;
     public double flapCurrentAngle;
     public static final String FLAPS_VARIABLE = "flaps_setpoint";
+    public static final int FLAPS_VARIABLE_ID = VariableStore.getOrCreateID(FLAPS_VARIABLE);
 
     //External state control.
     public boolean turningLeft;
@@ -90,13 +96,17 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered {
     public double airDensity;
     public double seaLevel = ConfigSystem.settings.general.seaLevel.value;
     public static final String AUTOPILOT_VALUE_VARIABLE = "autopilot";
+    public static final int AUTOPILOT_VALUE_VARIABLE_ID = VariableStore.getOrCreateID(AUTOPILOT_VALUE_VARIABLE);
     public static final String AUTOPILOT_ACTIVE_VARIABLE = "autopilot_active";
+    public static final int AUTOPILOT_ACTIVE_VARIABLE_ID = VariableStore.getOrCreateID(AUTOPILOT_ACTIVE_VARIABLE);
     public static final String AUTOLEVEL_VARIABLE = "auto_level";
+    public static final int AUTOLEVEL_VARIABLE_ID = VariableStore.getOrCreateID(AUTOLEVEL_VARIABLE);
     public int controllerCount;
     public IWrapperPlayer lastController;
 
     //Internal states.
     private boolean hasRotors;
+    private boolean positionInLiquid;
     private double trackAngle;
     private double indicatedSpeed;
     private final Point3D normalizedVelocityVector = new Point3D();
@@ -178,19 +188,19 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered {
         sideVector.set(verticalVector.crossProduct(headingVector));
 
         //Parse out variables.
-        aileronInput = getVariable(AILERON_INPUT_VARIABLE);
-        aileronTrim = getVariable(AILERON_TRIM_VARIABLE);
-        elevatorInput = getVariable(ELEVATOR_INPUT_VARIABLE);
-        elevatorTrim = getVariable(ELEVATOR_TRIM_VARIABLE);
-        rudderInput = getVariable(RUDDER_INPUT_VARIABLE);
-        rudderTrim = getVariable(RUDDER_TRIM_VARIABLE);
-        autopilotSetting = getVariable(AUTOPILOT_VALUE_VARIABLE);
-        flapDesiredAngle = getVariable(FLAPS_VARIABLE);
+        aileronInput = getVariable(AILERON_INPUT_VARIABLE_ID);
+        aileronTrim = getVariable(AILERON_TRIM_VARIABLE_ID);
+        elevatorInput = getVariable(ELEVATOR_INPUT_VARIABLE_ID);
+        elevatorTrim = getVariable(ELEVATOR_TRIM_VARIABLE_ID);
+        rudderInput = getVariable(RUDDER_INPUT_VARIABLE_ID);
+        rudderTrim = getVariable(RUDDER_TRIM_VARIABLE_ID);
+        autopilotSetting = getVariable(AUTOPILOT_VALUE_VARIABLE_ID);
+        flapDesiredAngle = getVariable(FLAPS_VARIABLE_ID);
 
         //Set indicated speed and autopilot state.
         indicatedSpeed = axialVelocity * speedFactor * 20;
-        if (isVariableActive(AUTOPILOT_ACTIVE_VARIABLE)) {
-            if (!isVariableActive(AUTOPILOT_VALUE_VARIABLE)) {
+        if (isVariableActive(AUTOPILOT_ACTIVE_VARIABLE_ID)) {
+            if (!isVariableActive(AUTOPILOT_VALUE_VARIABLE_ID)) {
                 //No value but we're supposed to be active, make us so.
                 if (definition.motorized.isAircraft) {
                     setVariable(AUTOPILOT_VALUE_VARIABLE, position.y);
@@ -251,7 +261,7 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered {
             delta = -degrees;
         }
         setVariable(RUDDER_INPUT_VARIABLE, rudderInput + delta);
-        InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, RUDDER_INPUT_VARIABLE, delta));
+        queueVariableSync(RUDDER_INPUT_VARIABLE);
     }
 
     @Override
@@ -358,6 +368,16 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered {
         }
     }
 
+    @Override
+    public void sampleWorldForForces() {
+        positionInLiquid = currentWaterBallastFactor != 0 && world.isBlockLiquid(position);
+        for (APart part : allParts) {
+            if (part instanceof PartPropeller) {
+                ((PartPropeller) part).sampleWorldForForces();
+            }
+        }
+    }
+
     @Override
     protected void getForcesAndMotions() {
         //Get engine thrust force contributions.  This happens for all vehicles, towed or not.
@@ -376,7 +396,7 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered {
                     thrustForceValue += propeller.addToForceOutput(thrustForce, thrustTorque);
                     if (propeller.definition.propeller.isRotor && groundDeviceCollective.isAnythingOnGround()) {
                         hasRotors = true;
-                        if (autopilotSetting == 0 && getVariable(AUTOLEVEL_VARIABLE) != 0) {
+                        if (autopilotSetting == 0 && getVariable(AUTOLEVEL_VARIABLE_ID) != 0) {
                             rotorRotation.set((-(elevatorAngle + elevatorTrim) - orientation.angles.x) / MAX_ELEVATOR_ANGLE, -5D * rudderAngle / MAX_RUDDER_ANGLE, ((aileronAngle + aileronTrim) - orientation.angles.z) / MAX_AILERON_ANGLE);
                         } else {
                             if (autopilotSetting == 0) {
@@ -550,7 +570,7 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered {
 
             //Finally, get gravity.
             gravitationalForce = currentBallastVolume == 0 ? currentMass * (9.8 / 400) : 0;
-            if (currentWaterBallastFactor != 0 && world.isBlockLiquid(position)) {
+            if (currentWaterBallastFactor != 0 && positionInLiquid) {
                 gravitationalForce -= gravitationalForce * currentWaterBallastFactor;
                 elevatorTorque = -orientation.angles.x * 2;
                 aileronTorque = -orientation.angles.z * 2;
@@ -645,13 +665,13 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered {
                 if (throttle < MAX_THROTTLE) {
                     throttle += MAX_THROTTLE / 100D;
                     setVariable(THROTTLE_VARIABLE, throttle);
-                    InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, THROTTLE_VARIABLE, MAX_THROTTLE / 100D));
+                    queueVariableSync(THROTTLE_VARIABLE);
                 }
             } else if (indicatedSpeed > autopilotSetting) {
                 if (throttle > 0) {
                     throttle -= MAX_THROTTLE / 100D;
                     setVariable(THROTTLE_VARIABLE, throttle);
-                    InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, THROTTLE_VARIABLE, -MAX_THROTTLE / 100D));
+                    queueVariableSync(THROTTLE_VARIABLE);
                 }
             }
         }
@@ -665,11 +685,11 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered {
                     if (motion.y < 0 && throttle < MAX_THROTTLE) {
                         throttle += MAX_THROTTLE / 100D;
                         setVariable(THROTTLE_VARIABLE, throttle);
-                        InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, THROTTLE_VARIABLE, MAX_THROTTLE / 100D));
+                        queueVariableSync(THROTTLE_VARIABLE);
                     } else if (motion.y > 0 && throttle < MAX_THROTTLE) {
                         throttle -= MAX_THROTTLE / 100D;
                         setVariable(THROTTLE_VARIABLE, throttle);
-                        InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, THROTTLE_VARIABLE, -MAX_THROTTLE / 100D));
+                        queueVariableSync(THROTTLE_VARIABLE);
                     }
                 }
                 //Change pitch/roll based on movement.
@@ -679,33 +699,33 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered {
                 double sidewaysDelta = sidewaysVelocity - prevMotion.dotProduct(sideVector, false);
                 if (forwardsDelta > 0 && forwardsVelocity > 0 && elevatorTrim < MAX_ELEVATOR_TRIM) {
                     setVariable(ELEVATOR_TRIM_VARIABLE, elevatorTrim + 1);
-                    InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, 1));
+                    queueVariableSync(ELEVATOR_TRIM_VARIABLE);
                 } else if (forwardsDelta < 0 && forwardsVelocity < 0 && elevatorTrim > -MAX_ELEVATOR_TRIM) {
                     setVariable(ELEVATOR_TRIM_VARIABLE, elevatorTrim - 1);
-                    InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, -1));
+                    queueVariableSync(ELEVATOR_TRIM_VARIABLE);
                 }
                 if (sidewaysVelocity > 0 && sidewaysDelta > 0 && aileronTrim < MAX_AILERON_TRIM) {
                     setVariable(AILERON_TRIM_VARIABLE, aileronTrim + 1);
-                    InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, 1));
+                    queueVariableSync(AILERON_TRIM_VARIABLE);
                 } else if (sidewaysVelocity < 0 && sidewaysDelta < 0 && aileronTrim > -MAX_AILERON_TRIM) {
                     setVariable(AILERON_TRIM_VARIABLE, aileronTrim - 1);
-                    InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, -1));
+                    queueVariableSync(AILERON_TRIM_VARIABLE);
                 }
             } else {
                 //Reset trim to prevent directional surges.
                 if (elevatorTrim < 0) {
                     setVariable(ELEVATOR_TRIM_VARIABLE, elevatorTrim + 1);
-                    InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, 1));
+                    queueVariableSync(ELEVATOR_TRIM_VARIABLE);
                 } else if (elevatorTrim > 0) {
                     setVariable(ELEVATOR_TRIM_VARIABLE, elevatorTrim - 1);
-                    InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, -1));
+                    queueVariableSync(ELEVATOR_TRIM_VARIABLE);
                 }
                 if (aileronTrim < 0) {
                     setVariable(AILERON_TRIM_VARIABLE, aileronTrim + 1);
-                    InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, 1));
+                    queueVariableSync(AILERON_TRIM_VARIABLE);
                 } else if (aileronTrim > 0) {
                     setVariable(AILERON_TRIM_VARIABLE, aileronTrim - 1);
-                    InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, -1));
+                    queueVariableSync(AILERON_TRIM_VARIABLE);
                 }
             }
         } else if (definition.motorized.isAircraft && autopilotSetting != 0) {
@@ -713,18 +733,18 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered {
             //If we are not flying at a steady elevation, angle the elevator to compensate
             if (-motion.y * 10 > elevatorTrim + 1 && elevatorTrim < MAX_ELEVATOR_TRIM) {
                 setVariable(ELEVATOR_TRIM_VARIABLE, elevatorTrim + 0.1);
-                InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, 0.1));
+                queueVariableSync(ELEVATOR_TRIM_VARIABLE);
             } else if (-motion.y * 10 < elevatorTrim - 1 && elevatorTrim > -MAX_ELEVATOR_TRIM) {
                 setVariable(ELEVATOR_TRIM_VARIABLE, elevatorTrim - 0.1);
-                InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, ELEVATOR_TRIM_VARIABLE, -0.1));
+                queueVariableSync(ELEVATOR_TRIM_VARIABLE);
             }
             //Keep the roll angle at 0.
             if (-orientation.angles.z > aileronTrim + 0.1 && aileronTrim < MAX_AILERON_TRIM) {
                 setVariable(AILERON_TRIM_VARIABLE, aileronTrim + 0.1);
-                InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, 0.1));
+                queueVariableSync(AILERON_TRIM_VARIABLE);
             } else if (-orientation.angles.z < aileronTrim - 0.1 && aileronTrim > -MAX_AILERON_TRIM) {
                 setVariable(AILERON_TRIM_VARIABLE, aileronTrim - 0.1);
-                InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, AILERON_TRIM_VARIABLE, -0.1));
+                queueVariableSync(AILERON_TRIM_VARIABLE);
             }
         }
 
@@ -733,35 +753,35 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered {
         if (!lockedOnRoad && controllerCount == 0) {
             if (aileronInput > AILERON_DAMPEN_RATE) {
                 setVariable(AILERON_INPUT_VARIABLE, aileronInput - AILERON_DAMPEN_RATE);
-                InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, AILERON_INPUT_VARIABLE, -AILERON_DAMPEN_RATE, 0, MAX_AILERON_ANGLE));
+                queueVariableSync(AILERON_INPUT_VARIABLE);
             } else if (aileronInput < -AILERON_DAMPEN_RATE) {
                 setVariable(AILERON_INPUT_VARIABLE, aileronInput + AILERON_DAMPEN_RATE);
-                InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, AILERON_INPUT_VARIABLE, AILERON_DAMPEN_RATE, -MAX_AILERON_ANGLE, 0));
+                queueVariableSync(AILERON_INPUT_VARIABLE);
             } else if (aileronInput != 0) {
                 setVariable(AILERON_INPUT_VARIABLE, 0);
-                InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableSet(this, AILERON_INPUT_VARIABLE, 0));
+                queueVariableSync(AILERON_INPUT_VARIABLE);
             }
 
             if (elevatorInput > ELEVATOR_DAMPEN_RATE) {
                 setVariable(ELEVATOR_INPUT_VARIABLE, elevatorInput - ELEVATOR_DAMPEN_RATE);
-                InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, ELEVATOR_INPUT_VARIABLE, -ELEVATOR_DAMPEN_RATE, 0, MAX_ELEVATOR_ANGLE));
+                queueVariableSync(ELEVATOR_INPUT_VARIABLE);
             } else if (elevatorInput < -ELEVATOR_DAMPEN_RATE) {
                 setVariable(ELEVATOR_INPUT_VARIABLE, elevatorInput + ELEVATOR_DAMPEN_RATE);
-                InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, ELEVATOR_INPUT_VARIABLE, ELEVATOR_DAMPEN_RATE, -MAX_ELEVATOR_ANGLE, 0));
+                queueVariableSync(ELEVATOR_INPUT_VARIABLE);
             } else if (elevatorInput != 0) {
                 setVariable(ELEVATOR_INPUT_VARIABLE, 0);
-                InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableSet(this, ELEVATOR_INPUT_VARIABLE, 0));
+                queueVariableSync(ELEVATOR_INPUT_VARIABLE);
             }
 
             if (rudderInput > RUDDER_DAMPEN_RATE) {
                 setVariable(RUDDER_INPUT_VARIABLE, rudderInput - RUDDER_DAMPEN_RATE);
-                InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, RUDDER_INPUT_VARIABLE, -RUDDER_DAMPEN_RATE, 0, MAX_RUDDER_ANGLE));
+                queueVariableSync(RUDDER_INPUT_VARIABLE);
             } else if (rudderInput < -RUDDER_DAMPEN_RATE) {
                 setVariable(RUDDER_INPUT_VARIABLE, rudderInput + RUDDER_DAMPEN_RATE);
-                InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIncrement(this, RUDDER_INPUT_VARIABLE, RUDDER_DAMPEN_RATE, -MAX_RUDDER_ANGLE, 0));
+                queueVariableSync(RUDDER_INPUT_VARIABLE);
             } else if (rudderInput != 0) {
                 setVariable(RUDDER_INPUT_VARIABLE, 0);
-                InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableSet(this, RUDDER_INPUT_VARIABLE, 0));
+                queueVariableSync(RUDDER_INPUT_VARIABLE);
             }
 
         }
@@ -803,7 +823,7 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered {
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    public double getRawVariableValue(String variable, int variableID, float partialTicks) {
         //If we are a forwarded variable and are a connected trailer, do that now.
         if (definition.motorized.isTrailer && towedByConnection != null && definition.motorized.hookupVariables.contains(variable)) {
             return towedByConnection.towingVehicle.getRawVariableValue(variable, partialTicks);
@@ -899,7 +919,7 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered {
             case ("gear_present"):
                 return definition.motorized.gearSequenceDuration != 0 ? 1 : 0;
             case ("gear_moving"):
-                return (isVariableActive(GEAR_VARIABLE) ? gearMovementTime != definition.motorized.gearSequenceDuration : gearMovementTime != 0) ? 1 : 0;
+                return (isVariableActive(GEAR_VARIABLE_ID) ? gearMovementTime != definition.motorized.gearSequenceDuration : gearMovementTime != 0) ? 1 : 0;
             case ("beacon_direction"):
                 return selectedBeacon != null ? orientation.angles.getClampedYDelta(Math.toDegrees(Math.atan2(selectedBeacon.position.x - position.x, selectedBeacon.position.z - position.z))) : 0;
             case ("beacon_bearing_setpoint"):
@@ -939,86 +959,119 @@ public class EntityVehicleF_Physics extends AEntityVehicleE_Powered {
                 }
                 //Radar variables.
                 if (variable.startsWith("radar_")) {
-                    String[] parsedVariable = variable.split("_");
-
-                    //First check if we are seeing with our own radar, or being seen.
-                    //Variable is in the form of radar_X_variablename for inbound, radar_X_Y_variablename for outbound.
-                    List<EntityVehicleF_Physics> radarList;
-                    switch (parsedVariable[1]) {
-                        case ("aircraft"): {
-                            radarList = aircraftOnRadar;
-                            break;
-                        }
-                        case ("ground"): {
-                            radarList = groundersOnRadar;
-                            break;
+                    return getRadarVariableValue(variable.split("_"));
+                }
+            }
+        }
+
+        //Not a vehicle variable or a part variable.  We could have an error, but likely we have an older pack,
+        //a closed door, a missing part, a custom variable that's not on, or something else entirely.
+        //Just return super here.
+        return super.getRawVariableValue(variable, variableID, partialTicks);
+    }
+
+    @Override
+    public VariableAccessor getVariableAccessor(String variable) {
+        //Forwarded variables need to be intercepted first, as they may end in numbers and be thought to be for parts.
+        //What we are towed by can change, so we need to check that each time.  If we aren't towed, we use our own value.
+        if (definition.motorized.isTrailer && definition.motorized.hookupVariables.contains(variable)) {
+            VariableAccessor ownAccessor = getUnforwardedVariableAccessor(variable);
+            return partialTicks -> towedByConnection != null ? towedByConnection.towingVehicle.getRawVariableValue(variable, partialTicks) : ownAccessor.getValue(partialTicks);
+        } else {
+            return getUnforwardedVariableAccessor(variable);
+        }
+    }
+
+    /**
+     * Helper method for accessors.  Returns the accessor for our own value of the variable, ignoring any forwarding.
+     */
+    private VariableAccessor getUnforwardedVariableAccessor(String variable) {
+        //Missile variables end in numbers, so need to be intercepted here before our super thinks they are for parts.
+        //Radar variables we can split once here rather than every frame.
+        if (variable.startsWith("missile_")) {
+            return partialTicks -> getRawVariableValue(variable, partialTicks);
+        } else if (variable.startsWith("radar_")) {
+            String[] parsedVariable = variable.split("_");
+            return partialTicks -> getRadarVariableValue(parsedVariable);
+        } else {
+            return super.getVariableAccessor(variable);
+        }
+    }
+
+    /**
+     * Helper method for radar variables.  Takes the variable, split into its components.
+     */
+    private double getRadarVariableValue(String[] parsedVariable) {
+        //First check if we are seeing with our own radar, or being seen.
+        //Variable is in the form of radar_X_variablename for inbound, radar_X_Y_variablename for outbound.
+        List<EntityVehicleF_Physics> radarList;
+        switch (parsedVariable[1]) {
+            case ("aircraft"): {
+                radarList = aircraftOnRadar;
+                break;
+            }
+            case ("ground"): {
+                radarList = groundersOnRadar;
+                break;
+            }
+            default: {
+                //Inbound contact from another radar.
+                switch (parsedVariable.length) {
+                    case 2: {
+                        switch (parsedVariable[1]) {
+                            case ("detected"):
+                                return radarsTracking.isEmpty() ? 0 : 1;
                         }
-                        default: {
-                            //Inbound contact from another radar.
-                            switch (parsedVariable.length) {
-                                case 2: {
-                                    switch (parsedVariable[1]) {
-                                        case ("detected"):
-                                            return radarsTracking.isEmpty() ? 0 : 1;
-                                    }
-                                    break;
-                                }
-                                case 3: {
-                                    int radarNumber = Integer.parseInt(parsedVariable[1]) - 1;
-                                    if (radarsTracking.size() <= radarNumber) {
-                                        return 0;
-                                    } else {
-                                        switch (parsedVariable[2]) {
-                                            case ("detected"):
-                                                return 1;
-                                            case ("distance"):
-                                                return radarsTracking.get(radarNumber).position.distanceTo(position);
-                                            case ("direction"): {
-                                                Point3D entityPos = radarsTracking.get(radarNumber).position;
-                                                return Math.toDegrees(Math.atan2(-entityPos.z + position.z, -entityPos.x + position.x)) + 90 + orientation.angles.y;
-                                            }
-                                        }
-                                    }
+                        break;
+                    }
+                    case 3: {
+                        int radarNumber = Integer.parseInt(parsedVariable[1]) - 1;
+                        if (radarsTracking.size() <= radarNumber) {
+                            return 0;
+                        } else {
+                            switch (parsedVariable[2]) {
+                                case ("detected"):
+                                    return 1;
+                                case ("distance"):
+                                    return radarsTracking.get(radarNumber).position.distanceTo(position);
+                                case ("direction"): {
+                                    Point3D entityPos = radarsTracking.get(radarNumber).position;
+                                    return Math.toDegrees(Math.atan2(-entityPos.z + position.z, -entityPos.x + position.x)) + 90 + orientation.angles.y;
                                 }
                             }
-                            //Invalid inbound radar value, return 0.
-                            return 0;
-                        }
-                    }
-
-                    //Outbound radar found, do logic.
-                    int radarNumber = Integer.parseInt(parsedVariable[2]) - 1;
-                    if (radarNumber < radarList.size()) {
-                        AEntityB_Existing contact = radarList.get(radarNumber);
-                        switch (parsedVariable[3]) {
-                            case ("distance"):
-                                return contact.position.distanceTo(position);
-                            case ("direction"):
-                                double delta = Math.toDegrees(Math.atan2(-contact.position.z + position.z, -contact.position.x + position.x)) + 90 + orientation.angles.y;
-                                while (delta < -180)
-                                    delta += 360;
-                                while (delta > 180)
-                                    delta -= 360;
-                                return delta;
-                            case ("speed"):
-                                return contact.velocity;
-                            case ("altitude"):
-                                return contact.position.y;
-                            case ("angle"):
-                                return -Math.toDegrees(Math.atan2(-contact.position.y + position.y, Math.hypot(-contact.position.z + position.z, -contact.position.x + position.x))) + orientation.angles.x;
                         }
                     }
-
-                    //Contact not found or bad variable, return 0.
-                    return 0;
                 }
+                //Invalid inbound radar value, return 0.
+                return 0;
             }
         }
 
-        //Not a vehicle variable or a part variable.  We could have an error, but likely we have an older pack,
-        //a closed door, a missing part, a custom variable that's not on, or something else entirely.
-        //Just return super here.
-        return super.getRawVariableValue(variable, partialTicks);
+        //Outbound radar found, do logic.
+        int radarNumber = Integer.parseInt(parsedVariable[2]) - 1;
+        if (radarNumber < radarList.size()) {
+            AEntityB_Existing contact = radarList.get(radarNumber);
+            switch (parsedVariable[3]) {
+                case ("distance"):
+                    return contact.position.distanceTo(position);
+                case ("direction"):
+                    double delta = Math.toDegrees(Math.atan2(-contact.position.z + position.z, -contact.position.x + position.x)) + 90 + orientation.angles.y;
+                    while (delta < -180)
+                        delta += 360;
+                    while (delta > 180)
+                        delta -= 360;
+                    return delta;
+                case ("speed"):
+                    return contact.velocity;
+                case ("altitude"):
+                    return contact.position.y;
+                case ("angle"):
+                    return -Math.toDegrees(Math.atan2(-contact.position.y + position.y, Math.hypot(-contact.position.z + position.z, -contact.position.x + position.x))) + orientation.angles.x;
+            }
+        }
+
+        //Contact not found or bad variable, return 0.
+        return 0;
     }
 
     @Override
@@ -49,6 +49,12 @@ public class PartEffector extends APart {
         }
     }
 
+    @Override
+    public boolean canSleep() {
+        //Active effectors work on the blocks around them, which may change even if we don't.
+        return super.canSleep() && !isActive;
+    }
+
     @Override
     public void update() {
         super.update();
@@ -299,7 +305,7 @@ public class PartEffector extends APart {
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    public double getRawVariableValue(String variable, int variableID, float partialTicks) {
         switch (variable) {
             case ("effector_active"):
                 return isActive ? 1 : 0;
@@ -313,7 +319,7 @@ public class PartEffector extends APart {
                 return blocksBroken / (double) definition.effector.drillDurability;
         }
 
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.getRawVariableValue(variable, variableID, partialTicks);
     }
 
     @Override
@@ -6,6 +6,7 @@ import java.util.List;
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.Damage;
 import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.baseclasses.VariableStore;
 import minecrafttransportsimulator.entities.components.AEntityF_Multipart;
 import minecrafttransportsimulator.items.instances.ItemPartEngine;
 import minecrafttransportsimulator.jsondefs.JSONPart;
@@ -16,7 +17,6 @@ import minecrafttransportsimulator.mcinterface.IWrapperEntity;
 import minecrafttransportsimulator.mcinterface.IWrapperNBT;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
-import minecrafttransportsimulator.packets.instances.PacketEntityVariableToggle;
 import minecrafttransportsimulator.packets.instances.PacketPartEngine;
 import minecrafttransportsimulator.packets.instances.PacketPartEngine.Signal;
 import minecrafttransportsimulator.systems.ConfigSystem;
@@ -120,13 +120,21 @@ public class PartEngine extends APart {
 
     //Constants and static variables.
     public static final String MAGNETO_VARIABLE = "engine_magneto";
+    public static final int MAGNETO_VARIABLE_ID = VariableStore.getOrCreateID(MAGNETO_VARIABLE);
     public static final String ELECTRIC_STARTER_VARIABLE = "engine_starter";
+    public static final int ELECTRIC_STARTER_VARIABLE_ID = VariableStore.getOrCreateID(ELECTRIC_STARTER_VARIABLE);
     public static final String HAND_STARTER_VARIABLE = "engine_starter_hand";
+    public static final int HAND_STARTER_VARIABLE_ID = VariableStore.getOrCreateID(HAND_STARTER_VARIABLE);
     public static final String UP_SHIFT_VARIABLE = "engine_shift_up";
+    public static final int UP_SHIFT_VARIABLE_ID = VariableStore.getOrCreateID(UP_SHIFT_VARIABLE);
     public static final String DOWN_SHIFT_VARIABLE = "engine_shift_down";
+    public static final int DOWN_SHIFT_VARIABLE_ID = VariableStore.getOrCreateID(DOWN_SHIFT_VARIABLE);
     public static final String NEUTRAL_SHIFT_VARIABLE = "engine_shift_neutral";
+    public static final int NEUTRAL_SHIFT_VARIABLE_ID = VariableStore.getOrCreateID(NEUTRAL_SHIFT_VARIABLE);
     public static final String GEAR_SHIFT_VARIABLE = "engine_shift_request";
+    public static final int GEAR_SHIFT_VARIABLE_ID = VariableStore.getOrCreateID(GEAR_SHIFT_VARIABLE);
     public static final String GEAR_VARIABLE = "engine_gear";
+    public static final int GEAR_VARIABLE_ID = VariableStore.getOrCreateID(GEAR_VARIABLE);
     public static final String HOURS_VARIABLE = "hours";
     public static final float COLD_TEMP = 30F;
     public static final float OVERHEAT_TEMP_1 = 115.556F;
@@ -155,7 +163,7 @@ public class PartEngine extends APart {
         }
 
         //Verify gears aren't out of range.  This can happen if a pack updates to lower number of gears.
-        if (definition.engine.gearRatios.size() <= getVariable(GEAR_VARIABLE) + reverseGears) {
+        if (definition.engine.gearRatios.size() <= getVariable(GEAR_VARIABLE_ID) + reverseGears) {
             setVariable(GEAR_VARIABLE, currentGear + reverseGears - 1);
         }
 
@@ -203,7 +211,7 @@ public class PartEngine extends APart {
                     if (!masterEntity.allParts.contains(damage.entityResponsible.getEntityRiding())) {
                         if (!magnetoOn) {
                             setVariable(MAGNETO_VARIABLE, 1);
-                            InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableToggle(this, MAGNETO_VARIABLE));
+                            queueVariableSync(MAGNETO_VARIABLE);
                         }
                         handStartEngine();
                         InterfaceManager.packetInterface.sendToAllClients(new PacketPartEngine(this, Signal.HS_ON));
@@ -225,16 +233,22 @@ public class PartEngine extends APart {
         }
     }
 
+    @Override
+    public boolean canSleep() {
+        //Engines need to keep updating until they have spun down and cooled off.
+        return super.canSleep() && !magnetoOn && !running && rpm == 0 && linkedEngine == null && Math.abs(temp - ambientTemp) < 1;
+    }
+
     @Override
     public void update() {
         super.update();
         //Reset states.
         backfired = false;
         badShift = false;
-        magnetoOn = isVariableActive(MAGNETO_VARIABLE);
-        electricStarterEngaged = isVariableActive(ELECTRIC_STARTER_VARIABLE);
-        handStarterEngaged = isVariableActive(HAND_STARTER_VARIABLE);
-        currentGear = (byte) getVariable(GEAR_VARIABLE);
+        magnetoOn = isVariableActive(MAGNETO_VARIABLE_ID);
+        electricStarterEngaged = isVariableActive(ELECTRIC_STARTER_VARIABLE_ID);
+        handStarterEngaged = isVariableActive(HAND_STARTER_VARIABLE_ID);
+        currentGear = (byte) getVariable(GEAR_VARIABLE_ID);
 
         //If the engine is running, but the magneto is off, turn the engine off.
         if (running && !magnetoOn) {
@@ -299,7 +313,7 @@ public class PartEngine extends APart {
                         starterLevel += 4;
                     } else if (!world.isClient()) {
                         setVariable(ELECTRIC_STARTER_VARIABLE, 0);
-                        InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableToggle(this, ELECTRIC_STARTER_VARIABLE));
+                        queueVariableSync(ELECTRIC_STARTER_VARIABLE);
                     }
                 }
                 if (starterLevel > 0) {
@@ -313,7 +327,7 @@ public class PartEngine extends APart {
                 if (autoStarterEngaged) {
                     if (!world.isClient() && running) {
                         setVariable(ELECTRIC_STARTER_VARIABLE, 0);
-                        InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableToggle(this, ELECTRIC_STARTER_VARIABLE));
+                        queueVariableSync(ELECTRIC_STARTER_VARIABLE);
                     }
                 }
             } else if (handStarterEngaged) {
@@ -342,18 +356,18 @@ public class PartEngine extends APart {
 
             //Check for any shifting requests.
             if (!world.isClient()) {
-                if (isVariableActive(NEUTRAL_SHIFT_VARIABLE)) {
+                if (isVariableActive(NEUTRAL_SHIFT_VARIABLE_ID)) {
                     toggleVariable(NEUTRAL_SHIFT_VARIABLE);
                     shiftNeutral();
                 }
-                if (isVariableActive(UP_SHIFT_VARIABLE)) {
+                if (isVariableActive(UP_SHIFT_VARIABLE_ID)) {
                     toggleVariable(UP_SHIFT_VARIABLE);
                     shiftUp();
-                } else if (isVariableActive(DOWN_SHIFT_VARIABLE)) {
+                } else if (isVariableActive(DOWN_SHIFT_VARIABLE_ID)) {
                     toggleVariable(DOWN_SHIFT_VARIABLE);
                     shiftDown();
-                } else if (isVariableActive(GEAR_SHIFT_VARIABLE)) {
-                    double shiftValue = getVariable(GEAR_SHIFT_VARIABLE);
+                } else if (isVariableActive(GEAR_SHIFT_VARIABLE_ID)) {
+                    double shiftValue = getVariable(GEAR_SHIFT_VARIABLE_ID);
                     if (shiftValue < 10) {
                         while (currentGear < shiftValue && shiftUp())
                             ;
@@ -879,7 +893,7 @@ public class PartEngine extends APart {
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    public double getRawVariableValue(String variable, int variableID, float partialTicks) {
         switch (variable) {
             case ("engine_isautomatic"):
                 return currentIsAutomatic != 0 ? 1 : 0;
@@ -987,46 +1001,89 @@ public class PartEngine extends APart {
         	return Math.cos(Math.toRadians(getDriveshaftRotation(partialTicks) + offset));
         }
         if (variable.startsWith("engine_piston_")) {
-        	//Divide the crank shaft rotation into a number of sectors, and return 1 when the crank is in the defined sector.
-        	//i.e. engine_piston_2_6_0_crank will return 1 when the crank is in the second of 6 sectors.
-        	//When suffixed with _cam, it will instead return the sector the camshaft rotation.
-
-        	//If this a camshaft, set the multiplier to 2 and chop off the end of the variable string
-        	int camMultiplier = 1;
-        	if (variable.endsWith("_crank")) {
-        		variable = variable.substring(0, variable.length() - "_crank".length());
-        	}
-        	if (variable.endsWith("_cam")) {
-        		camMultiplier = 2;
-        		variable = variable.substring(0, variable.length() - "_cam".length());
-        	}
-        	
-        	//Extract the values we need
-            String[] parsedVariable = variable.substring("engine_piston_".length()).split("_");
-            int pistonNumber = Integer.parseInt(parsedVariable[0]);
-            int totalPistons = Integer.parseInt(parsedVariable[1]);
-            int offset = 0;
-            if (parsedVariable.length >= 3) {
-                offset = camMultiplier * Integer.parseInt(parsedVariable[2]);
-            }
-            
-            //Safety to ensure the value always fluctuates and we don't have more sectors than are possible
-            if (pistonNumber > totalPistons || totalPistons == 1) {
-            	pistonNumber = 1;
-            	totalPistons = 2;
+            int[] pistonParameters = parsePistonVariable(variable);
+            return getPistonValue(pistonParameters[0], pistonParameters[1], pistonParameters[2], pistonParameters[3], partialTicks);
+        }
+
+        return super.getRawVariableValue(variable, variableID, partialTicks);
+    }
+
+    @Override
+    public VariableAccessor getVariableAccessor(String variable) {
+        //Our prefixed variables end in numbers, so we need to intercept them here before our super gets them
+        //and thinks they are for sub-parts.  Parse the numbers once here so we don't have to do so every frame.
+        try {
+            if (variable.startsWith("engine_sin_")) {
+                int offset = Integer.parseInt(variable.substring("engine_sin_".length()));
+                return partialTicks -> Math.sin(Math.toRadians(getEngineRotation(partialTicks) + offset));
+            } else if (variable.startsWith("engine_cos_")) {
+                int offset = Integer.parseInt(variable.substring("engine_cos_".length()));
+                return partialTicks -> Math.cos(Math.toRadians(getEngineRotation(partialTicks) + offset));
+            } else if (variable.startsWith("engine_driveshaft_sin_")) {
+                int offset = Integer.parseInt(variable.substring("engine_driveshaft_sin_".length()));
+                return partialTicks -> Math.sin(Math.toRadians(getDriveshaftRotation(partialTicks) + offset));
+            } else if (variable.startsWith("engine_driveshaft_cos_")) {
+                int offset = Integer.parseInt(variable.substring("engine_driveshaft_cos_".length()));
+                return partialTicks -> Math.cos(Math.toRadians(getDriveshaftRotation(partialTicks) + offset));
+            } else if (variable.startsWith("engine_piston_")) {
+                int[] pistonParameters = parsePistonVariable(variable);
+                return partialTicks -> getPistonValue(pistonParameters[0], pistonParameters[1], pistonParameters[2], pistonParameters[3], partialTicks);
             }
-            
-            //Map the shaft rotation to a value between 0 and 359.99...
-            double shaftRotation = Math.floorMod(Math.round(10 * (offset + getEngineRotation(partialTicks))), Math.round(3600D * camMultiplier)) / 10;
-            
-            //Calculate the angle of a 'sector'
-            double sector = (360D * camMultiplier) / totalPistons;
-            
-            //If the crank is in the requested sector, return 1, otherwise return 0.
-            return (0 + (sector * (pistonNumber - 1)) <= shaftRotation) && (shaftRotation < sector + (sector * (pistonNumber - 1))) ? 1 : 0;
+        } catch (Exception e) {
+            //Malformed variable, let the normal lookup handle it.
+            return partialTicks -> getRawVariableValue(variable, partialTicks);
+        }
+        return super.getVariableAccessor(variable);
+    }
+
+    /**
+     * Helper method to parse engine_piston_ variables.  Returns an array of the piston number,
+     * total pistons, offset, and cam multiplier, in that order.
+     */
+    private static int[] parsePistonVariable(String variable) {
+        //Divide the crank shaft rotation into a number of sectors, and return 1 when the crank is in the defined sector.
+        //i.e. engine_piston_2_6_0_crank will return 1 when the crank is in the second of 6 sectors.
+        //When suffixed with _cam, it will instead return the sector the camshaft rotation.
+
+        //If this a camshaft, set the multiplier to 2 and chop off the end of the variable string
+        int camMultiplier = 1;
+        if (variable.endsWith("_crank")) {
+            variable = variable.substring(0, variable.length() - "_crank".length());
+        }
+        if (variable.endsWith("_cam")) {
+            camMultiplier = 2;
+            variable = variable.substring(0, variable.length() - "_cam".length());
+        }
+
+        //Extract the values we need
+        String[] parsedVariable = variable.substring("engine_piston_".length()).split("_");
+        int pistonNumber = Integer.parseInt(parsedVariable[0]);
+        int totalPistons = Integer.parseInt(parsedVariable[1]);
+        int offset = 0;
+        if (parsedVariable.length >= 3) {
+            offset = camMultiplier * Integer.parseInt(parsedVariable[2]);
         }
 
-        return super.getRawVariableValue(variable, partialTicks);
+        //Safety to ensure the value always fluctuates and we don't have more sectors than are possible
+        if (pistonNumber > totalPistons || totalPistons == 1) {
+            pistonNumber = 1;
+            totalPistons = 2;
+        }
+        return new int[] { pistonNumber, totalPistons, offset, camMultiplier };
+    }
+
+    /**
+     * Helper method for engine_piston_ variables.  Returns 1 if the shaft is in the requested sector.
+     */
+    private double getPistonValue(int pistonNumber, int totalPistons, int offset, int camMultiplier, float partialTicks) {
+        //Map the shaft rotation to a value between 0 and 359.99...
+        double shaftRotation = Math.floorMod(Math.round(10 * (offset + getEngineRotation(partialTicks))), Math.round(3600D * camMultiplier)) / 10;
+
+        //Calculate the angle of a 'sector'
+        double sector = (360D * camMultiplier) / totalPistons;
+
+        //If the crank is in the requested sector, return 1, otherwise return 0.
+        return (0 + (sector * (pistonNumber - 1)) <= shaftRotation) && (shaftRotation < sector + (sector * (pistonNumber - 1))) ? 1 : 0;
     }
 
     //--------------------START OF ENGINE STATE CHANGE METHODS--------------------
@@ -106,6 +106,11 @@ public class PartGroundDevice extends APart {
         }
     }
 
+    @Override
+    public boolean canSleep() {
+        return super.canSleep() && angularVelocity == 0;
+    }
+
     @Override
     public void update() {
         if (vehicleOn != null && !isSpare) {
@@ -261,7 +266,7 @@ public class PartGroundDevice extends APart {
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    public double getRawVariableValue(String variable, int variableID, float partialTicks) {
         switch (variable) {
             case ("ground_rotation"):
                 return vehicleOn != null ? vehicleOn.speedFactor * (partialTicks != 0 ? prevAngularPosition + (angularPosition - prevAngularPosition) * partialTicks : angularPosition) * 360D : 0;
@@ -288,7 +293,7 @@ public class PartGroundDevice extends APart {
             }
         }
 
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.getRawVariableValue(variable, variableID, partialTicks);
     }
 
     @Override
@@ -252,6 +252,11 @@ public class PartGun extends APart {
         return true;
     }
 
+    @Override
+    public boolean canSleep() {
+        return super.canSleep() && !state.isAtLeast(GunState.CONTROLLED) && reloadingBullet == null && cooldownTimeRemaining == 0 && internalOrientation.angles.equals(prevInternalOrientation.angles);
+    }
+
     @Override
     public void update() {
         //Set gun state and do updates.
@@ -740,7 +745,7 @@ public class PartGun extends APart {
                         normalizedConeVector.set(searchVector).normalize();
                         EntityVehicleF_Physics vehicleTarget = null;
                         double smallestDistance = searchVector.length();
-                        for (EntityVehicleF_Physics vehicle : world.getEntitiesOfType(EntityVehicleF_Physics.class)) {
+                        for (EntityVehicleF_Physics vehicle : world.getEntitiesNear(startPoint, smallestDistance, EntityVehicleF_Physics.class)) {
                             //Make sure we don't lock-on to our own vehicle.  Also, ensure if we want aircraft, or ground, we only get those.
                             if (vehicle != vehicleOn && (definition.gun.targetType != TargetType.AIRCRAFT || vehicle.definition.motorized.isAircraft) && (definition.gun.targetType != TargetType.GROUND || !vehicle.definition.motorized.isAircraft)) {
                                 targetVector.set(vehicle.position).subtract(startPoint);
@@ -1144,7 +1149,7 @@ public class PartGun extends APart {
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    public double getRawVariableValue(String variable, int variableID, float partialTicks) {
         switch (variable) {
             case ("gun_inhand"):
                 return entityOn instanceof EntityPlayerGun ? 1 : 0;
@@ -1226,7 +1231,7 @@ public class PartGun extends APart {
                 return currentBullet != null ? currentBullet.orientation.angles.x - orientation.angles.x : 0;
         }
 
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.getRawVariableValue(variable, variableID, partialTicks);
     }
 
     @Override
@@ -130,6 +130,11 @@ public final class PartInteractable extends APart {
         }
     }
 
+    @Override
+    public boolean canSleep() {
+        return super.canSleep() && (furnace == null || (furnace.ticksLeftOfFuel == 0 && furnace.ticksLeftToSmelt == 0)) && linkedVehicle == null && linkedPart == null;
+    }
+
     @Override
     public void update() {
         super.update();
@@ -270,7 +275,7 @@ public final class PartInteractable extends APart {
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    public double getRawVariableValue(String variable, int variableID, float partialTicks) {
         switch (variable) {
             case ("interactable_count"): {
                 if (inventory != null) {
@@ -299,7 +304,7 @@ public final class PartInteractable extends APart {
             }
         }
 
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.getRawVariableValue(variable, variableID, partialTicks);
     }
 
     /**
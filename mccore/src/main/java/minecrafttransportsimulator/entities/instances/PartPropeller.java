@@ -46,6 +46,7 @@ public class PartPropeller extends APart {
     protected final Point3D propellerAxisVector = new Point3D();
     private final Point3D propellerForce = new Point3D();
     private double propellerForceValue;
+    private boolean inLiquidForForces;
     private final BoundingBox damageBounds;
 
     public static final int MIN_DYNAMIC_PITCH = 45;
@@ -79,6 +80,11 @@ public class PartPropeller extends APart {
         }
     }
 
+    @Override
+    public boolean canSleep() {
+        return super.canSleep() && angularVelocity == 0;
+    }
+
     @Override
     public void update() {
         super.update();
@@ -199,7 +205,7 @@ public class PartPropeller extends APart {
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
+    public double getRawVariableValue(String variable, int variableID, float partialTicks) {
         switch (variable) {
             case ("propeller_pitch_deg"):
                 return Math.toDegrees(Math.atan(currentPitch / (definition.propeller.diameter * 0.75D * Math.PI)));
@@ -213,7 +219,14 @@ public class PartPropeller extends APart {
                 return currentRPM;
         }
 
-        return super.getRawVariableValue(variable, partialTicks);
+        return super.getRawVariableValue(variable, variableID, partialTicks);
+    }
+
+    /**
+     * Samples if this propeller is in liquid for use in {@link #addToForceOutput(Point3D, Point3D)}.
+     */
+    public void sampleWorldForForces() {
+        inLiquidForForces = isInLiquid();
     }
 
     public double addToForceOutput(Point3D force, Point3D torque) {
@@ -240,7 +253,7 @@ public class PartPropeller extends APart {
             }
 
             //If the propeller is in the water, increase thrust.
-            if (isInLiquid()) {
+            if (inLiquidForForces) {
                 thrust *= 50;
             }
 
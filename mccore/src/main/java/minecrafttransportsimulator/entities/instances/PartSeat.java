@@ -264,7 +264,7 @@ public final class PartSeat extends APart {
             if (!world.isClient() && placementDefinition.interactableVariables != null) {
                 placementDefinition.interactableVariables.forEach(variableList -> variableList.forEach(variable -> {
                     entityOn.setVariable(variable, 1);
-                    InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableSet(entityOn, variable, 1));
+                    entityOn.queueVariableSync(variable);
                 }));
             }
         }
@@ -438,8 +438,8 @@ public final class PartSeat extends APart {
     }
 
     @Override
-    public double getRawVariableValue(String variable, float partialTicks) {
-        double value = super.getRawVariableValue(variable, partialTicks);
+    public double getRawVariableValue(String variable, int variableID, float partialTicks) {
+        double value = super.getRawVariableValue(variable, variableID, partialTicks);
         if (!Double.isNaN(value)) {
             return value;
         }
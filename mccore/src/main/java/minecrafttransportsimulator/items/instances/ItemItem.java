@@ -29,8 +29,6 @@ import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.packets.instances.PacketEntityGUIRequest;
 import minecrafttransportsimulator.packets.instances.PacketEntityKeyChange;
-import minecrafttransportsimulator.packets.instances.PacketEntityVariableSet;
-import minecrafttransportsimulator.packets.instances.PacketEntityVariableToggle;
 import minecrafttransportsimulator.packets.instances.PacketGUIRequest;
 import minecrafttransportsimulator.packets.instances.PacketPartEngine;
 import minecrafttransportsimulator.packets.instances.PacketPartInteractable;
@@ -396,7 +394,7 @@ public class ItemItem extends AItemPack<JSONItem> implements IItemEntityInteract
                                     double newDamage = vehicle.damageAmount - amountRepaired;
                                     vehicle.setVariable(AEntityE_Interactable.DAMAGE_VARIABLE, newDamage);
                                     vehicle.repairCooldownTicks = 200;
-                                    InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableSet(vehicle, AEntityE_Interactable.DAMAGE_VARIABLE, newDamage));
+                                    vehicle.queueVariableSync(AEntityE_Interactable.DAMAGE_VARIABLE);
                                     InterfaceManager.packetInterface.sendToPlayer(new PacketPlayerChatMessage(player, LanguageSystem.INTERACT_REPAIR_PASS, new Object[] { amountRepaired, entity.definition.general.health - newDamage, entity.definition.general.health }), player);
                                     if (!player.isCreative()) {
                                         player.getInventory().removeFromSlot(player.getHotbarIndex(), 1);
@@ -449,15 +447,15 @@ public class ItemItem extends AItemPack<JSONItem> implements IItemEntityInteract
             if (!world.isClient() && player.isOP()) {
                 for (EntityVehicleF_Physics vehicle : world.getEntitiesOfType(EntityVehicleF_Physics.class)) {
                     vehicle.setVariable(EntityVehicleF_Physics.THROTTLE_VARIABLE, 0);
-                    InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableSet(vehicle, EntityVehicleF_Physics.THROTTLE_VARIABLE, 0));
+                    vehicle.queueVariableSync(EntityVehicleF_Physics.THROTTLE_VARIABLE);
                     if (!vehicle.isVariableActive(EntityVehicleF_Physics.PARKINGBRAKE_VARIABLE)) {
                         vehicle.setVariable(EntityVehicleF_Physics.PARKINGBRAKE_VARIABLE, 1);
-                        InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableToggle(vehicle, EntityVehicleF_Physics.PARKINGBRAKE_VARIABLE));
+                        vehicle.queueVariableSync(EntityVehicleF_Physics.PARKINGBRAKE_VARIABLE);
                     }
                     vehicle.engines.forEach(engine -> {
                         if (engine.isVariableActive(PartEngine.MAGNETO_VARIABLE)) {
                             engine.setVariable(PartEngine.MAGNETO_VARIABLE, 0);
-                            InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableToggle(engine, PartEngine.MAGNETO_VARIABLE));
+                            engine.queueVariableSync(PartEngine.MAGNETO_VARIABLE);
                         }
                     });
                 }
@@ -47,6 +47,22 @@ public abstract class AJSONMultiModelProvider extends AJSONItem {
         return null;
     }
 
+    /**
+     * Returns the model location in the classpath for the passed-in level-of-detail model.
+     */
+    public String getLODModelLocation(JSONLODModel lodModel) {
+        switch (rendering.modelType) {
+            case OBJ:
+                return PackResourceLoader.getPackResource(this, ResourceType.OBJ_MODEL, lodModel.modelName);
+            case LITTLETILES:
+                return PackResourceLoader.getPackResource(this, ResourceType.LT_MODEL, lodModel.modelName);
+            case NONE:
+                return null;
+        }
+        //We'll never get here.
+        return null;
+    }
+
     /**
      * Returns the OBJ model texture location in the classpath for this definition.
      * Sub-name is passed-in as different sub-names have different textures.
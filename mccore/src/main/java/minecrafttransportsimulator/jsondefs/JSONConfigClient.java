@@ -4,6 +4,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import minecrafttransportsimulator.entities.instances.EntityVehicleF_Physics;
+import minecrafttransportsimulator.rendering.ModelCache;
 
 /**
  * Config class for client settings.  This is only loaded on the client.  This allows the
@@ -37,6 +38,12 @@ public class JSONConfigClient {
 
         public JSONConfigEntry<Boolean> playerTweaks = new JSONConfigEntry<>(true, "If true, player hands will be modified when holding guns, and hands and legs will be modified when riding in vehicles.  Set this to false (and restart the game) if mods cause issues, like two-hand rendering or player model issues.  Automatically set to false if some mods are detected.");
 
+        public JSONConfigEntry<Boolean> cullRendering = new JSONConfigEntry<>(true, "If true, vehicles, parts, and other things won't render if they are behind the camera or farther than their max render distance.  Set this to false if things disappear when they shouldn't.");
+        public JSONConfigEntry<Integer> maxRenderDistance = new JSONConfigEntry<>(0, "The max distance, in blocks, at which vehicles, parts, and other things will render.  0 means there is no max distance, so things render as far as MC renders entities.  Packs may set their own distances for their models, which will be used instead.  Has no effect if cullRendering is false.");
+        public JSONConfigEntry<Boolean> levelOfDetail = new JSONConfigEntry<>(true, "If true, vehicles, parts, and other things that are small on the screen will render with less detail, and update their animations less often.  Packs may supply simpler models to use for this.  Has no effect if cullRendering is false.");
+
+        public JSONConfigEntry<Integer> modelCacheSize = new JSONConfigEntry<>(ModelCache.DEFAULT_BUDGET, "How much memory, in MB, to use for keeping parsed models around so they don't need to be parsed every time they are used.  Models that aren't being rendered are removed when this is exceeded, starting with the ones that were used the longest time ago.  Must be a whole number.");
+
     }
 
     public static class JSONControlSettings {
@@ -62,6 +69,7 @@ public class JSONConfigClient {
         public JSONConfigEntry<Double> mouseYokeRate = new JSONConfigEntry<>(0.1D, "How many degrees to move control surfaces for every 1 mouse unit change.  Used for mouse yoke controls.");
         public JSONConfigEntry<Double> joystickDeadZone = new JSONConfigEntry<>(0.03D, "Dead zone for joystick axis.  This is NOT joystick specific.");
         public JSONConfigEntry<Float> masterVolume = new JSONConfigEntry<>(1.0F, "Volume for all sounds in the mod.  This is used instead of the game's master volume.");
+        public JSONConfigEntry<Integer> soundCacheSize = new JSONConfigEntry<>(128, "How much memory, in MB, to use for keeping decoded sounds around so they don't need to be decoded every time they play.  Sounds that aren't playing are removed when this is exceeded, starting with the ones that were played the longest time ago.  Must be a whole number.");
     }
 
     public static class JSONControls {
@@ -33,8 +33,10 @@ public class JSONConfigSettings {
         public JSONConfigEntry<Boolean> creativePickupVehiclesOnly = new JSONConfigEntry<>(false, "If true, vehicles can only be picked up in creative mode.");
         public JSONConfigEntry<Boolean> keyRequiredToStartVehicles = new JSONConfigEntry<>(false, "If true, vehicles can only be started if the player has the key in their hand.");
         public JSONConfigEntry<Boolean> noclipVehicles = new JSONConfigEntry<>(false, "If true, vehicles will not be able to collide with blocks.  This also prevents them from moving if they do not have wheels on them, as otherwise they would phase through the ground into the void.");
+        public JSONConfigEntry<Boolean> parallelVehicleForces = new JSONConfigEntry<>(false, "If true, vehicle forces will be calculated on multiple threads at the start of each tick, rather than one vehicle at a time.  Ground collisions and movement are still done one vehicle at a time on the main thread.  This can help servers with lots of vehicles and CPU cores, but as forces are based on the state of the vehicle at the end of the prior tick, vehicles will respond to inputs one tick later.");
         public JSONConfigEntry<Boolean> chunkloadVehicles = new JSONConfigEntry<>(true, "If true, vehicles will be chunkloaded when on roads/tracks.  This allows them to travel into unloaded chunks.");
         public JSONConfigEntry<Boolean> doLegacyLightCompats = new JSONConfigEntry<>(true, "If true, legacy compatibility code will be performed on all models to make their lights work with newer versions.  This code will significantly slow down boot times due to needing to parse all models on boot, however, packs may not have functional lights without it.  Choose wisely if you want speed or features.");
+        public JSONConfigEntry<Boolean> cachePackDefinitions = new JSONConfigEntry<>(true, "If true, pack definitions will be cached in the config folder after they are parsed.  Packs that haven't changed since the last boot will be loaded from this cache, which is much faster than parsing them again.  Turn this off if you are editing packs and something isn't updating.");
         public JSONConfigEntry<Boolean> useHSV = new JSONConfigEntry<>(false, "If enabled, the MTS dev mode will export color values as HSV instead of hex.");
         public JSONConfigEntry<Boolean> allPlanesWithNav = new JSONConfigEntry<>(false, "If true, all planes will have the ability to use beacons for navigation.  This is false to allow pack authors to define new/old planes that have this capability, but can be turned on if you don't care about realism.");
         public JSONConfigEntry<Boolean> giveManualsOnJoin = new JSONConfigEntry<>(true, "If true, then whenever a new player joins a world, they will be given a copy of the mod manuals.");
@@ -52,6 +54,9 @@ public class JSONConfigSettings {
         public JSONConfigEntry<Double> engineBiomeTempFactor = new JSONConfigEntry<>(1.0D, "Factor for how biome temp affects engine temp.  Higher values will make engines heat up quicker in hotter biomes.");
         public JSONConfigEntry<Double> rfToElectricityFactor = new JSONConfigEntry<>(0.02D, "Factor for converting RF to internal electicity for vehicles.  Default value is 1/100, but can be adjusted.");
         public JSONConfigEntry<Double> vehicleDeathDespawnTime = new JSONConfigEntry<>(0.0D, "Time (in seconds) between when vehicles reach 0 health and they de-spawn.  Normally 0, which means they never de-spawn.");
+        public JSONConfigEntry<Double> fullRateSyncDistance = new JSONConfigEntry<>(64.0D, "How close, in blocks, a player needs to be to a vehicle to get its movement updates every tick.  Vehicles with no players this close will batch up their movement and send it less often the further away the closest player is, which saves a lot of bandwidth on servers with lots of vehicles.  Players only get updates for vehicles they are tracking regardless of this value.  Setting this to 0 will send every update at full rate.");
+        public JSONConfigEntry<Integer> deferredWorkBudget = new JSONConfigEntry<>(2000, "How much time, in microseconds, can be spent each tick on non-critical work, such as radar sweeps and searching for things to connect to.  Work that doesn't fit is done on the following ticks.  Physics and rider updates are never put off, and at least one piece of work is always done each tick.");
+        public JSONConfigEntry<Integer> maxSyncInterval = new JSONConfigEntry<>(10, "The most ticks that can pass between movement updates for vehicles far away from players.  The time between updates goes up by one tick for every fullRateSyncDistance blocks the closest player is away from the vehicle, up to this value.  Must be a whole number.");
         public JSONConfigEntry<Integer> seaLevel = new JSONConfigEntry<>(63,"The Y-Level that will be used to base altitude off of. Will also be factored in for engine performance calculations. Change only if you know what you're doing/ why this matters to engines/flying.");
         public JSONConfigEntry<Set<String>> engineDimensionBlacklist = new JSONConfigEntry<>(new HashSet<>(), "Blacklist of dimension names where engines will be prevented from being started.  Can be used to disable vehicles in specific dimensions.  Think Galacticraft, where you don't want folks flying planes on the moon.");
         public JSONConfigEntry<Set<String>> engineDimensionWhitelist = new JSONConfigEntry<>(new HashSet<>(), "Whitelist of dimension names where engines will only be alowed to work.  Overrides the blacklist if this exists.");
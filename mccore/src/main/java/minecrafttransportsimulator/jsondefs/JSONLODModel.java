@@ -0,0 +1,14 @@
+package minecrafttransportsimulator.jsondefs;
+
+import minecrafttransportsimulator.packloading.JSONParser.JSONDescription;
+import minecrafttransportsimulator.packloading.JSONParser.JSONRequired;
+
+public class JSONLODModel {
+    @JSONRequired
+    @JSONDescription("The name of the model to use for this level of detail.  This is in the same folder, and of the same type, as the main model, and works the same way as the modelName of definitions.  Objects in this model are matched up with animatedObjects and lightObjects by name, just like the main model, so keep the names of any objects that need to move or light up the same.  All other objects may be merged or removed as desired.")
+    public String modelName;
+
+    @JSONRequired
+    @JSONDescription("How much of the screen height the entity must take up, or less, for this model to be used.  For example, 0.25 would use this model once the entity is a quarter the height of the screen or smaller.  If more than one model qualifies, the one with the lowest screenSize is used, so you may have progressively simpler models as things get farther away.")
+    public float screenSize;
+}
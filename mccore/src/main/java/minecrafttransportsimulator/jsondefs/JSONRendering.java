@@ -34,6 +34,12 @@ public class JSONRendering {
     @JSONDescription("The type of model that this entity will render from.")
     public ModelType modelType;
 
+    @JSONDescription("The max distance, in blocks, at which this entity will render.  If not set, the maxRenderDistance from the client config is used.  Useful for small things like signs and decor that don't need to be seen from far away, or large things like aircraft that do.")
+    public int maxRenderDistance;
+
+    @JSONDescription("A list of simpler models to use when this entity is small on the screen, such as when it is far away.  If this isn't set, or none of the models apply, the main model is used.  Note that whatever model is used, small objects, windows, text, and instruments are not rendered once the entity is small enough, as they can't be seen at such sizes.")
+    public List<JSONLODModel> lodModels;
+
     public enum ModelType {
         OBJ,
         LITTLETILES,
@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import minecrafttransportsimulator.baseclasses.BlockCollisionCache;
 import minecrafttransportsimulator.baseclasses.BlockHitResult;
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.ColorRGB;
@@ -34,6 +35,12 @@ import minecrafttransportsimulator.jsondefs.AJSONMultiModelProvider;
  */
 public abstract class AWrapperWorld extends EntityManager {
 
+    /**
+     * Cache of block collision boxes, used by {@link #updateBoundingBoxCollisions(BoundingBox, Point3D, boolean)}
+     * and {@link #checkForCollisions(BoundingBox, Point3D, boolean, boolean)} to avoid getting them from MC every check.
+     **/
+    protected final BlockCollisionCache blockCollisionCache = new BlockCollisionCache();
+
     /**
      * Returns true if this is a client world, false if we're on the server.
      */
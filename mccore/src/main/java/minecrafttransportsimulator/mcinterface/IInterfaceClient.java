@@ -131,6 +131,13 @@ public interface IInterfaceClient {
      */
     Point3D getCameraPosition();
 
+    /**
+     * Returns the direction the camera is looking, as a unit vector.  This includes changes made by custom cameras.
+     * If the direction isn't known, null is returned.
+     * The returned vector may by modified without affecting the camera.
+     */
+    Point3D getCameraLookVector();
+
     /**
      * Plays the block breaking sound for the block at the passed-in position.
      */
@@ -1,6 +1,7 @@
 package minecrafttransportsimulator.mcinterface;
 
 import io.netty.buffer.ByteBuf;
+import minecrafttransportsimulator.entities.components.AEntityB_Existing;
 import minecrafttransportsimulator.packets.components.APacketBase;
 
 /**
@@ -34,6 +35,17 @@ public interface IInterfacePacket {
      */
     void sendToAllClients(APacketBase packet);
 
+    /**
+     * Sends the passed-in packet to all clients that are tracking the passed-in entity.
+     * Clients only have entities loaded while they are tracking them, so this is
+     * the same as sending to all clients as far as the entity is concerned, but saves
+     * sending packets to clients that would just discard them.  For parts, this is the
+     * clients tracking the master entity the part is on.  Entities that aren't tracked
+     * by themselves, such as tile entities, are sent to all clients tracking their chunk.
+     * Note that this may ONLY be called on the server.
+     */
+    void sendToAllTracking(APacketBase packet, AEntityB_Existing entity);
+
     /**
      * Sends the passed-in packet to the passed-in player.
      * Note that this may ONLY be called on the server, as
@@ -44,9 +44,16 @@ public interface IInterfaceRender {
      * respective GPU memory.  Calling this is not required if no caching is performed.
      * If the state of the data has changed since the last render, pass in true for the boolean.
      * This allows the rendering system to perform any re-caching as required.
+     * Changes to the color, alpha, and light value are not counted as changes, as these
+     * are per-draw states, and must be applied without re-caching the vertices.
      */
     void renderVertices(RenderableData data, boolean changedSinceLastRender);
 
+    /**
+     * Returns the total number of times cached vertices have been uploaded to the GPU in full.
+     */
+    long getVertexUploadCount();
+
     /**
      * Deletes the cached vertices associated with the specified {@link RenderableData}.
      */
@@ -7,6 +7,7 @@ import java.util.Set;
 import minecrafttransportsimulator.entities.instances.EntityRadio;
 import minecrafttransportsimulator.sound.IStreamDecoder;
 import minecrafttransportsimulator.sound.RadioStation;
+import minecrafttransportsimulator.sound.SoundDataCache;
 import minecrafttransportsimulator.sound.SoundInstance;
 
 /**
@@ -62,4 +63,9 @@ public interface IInterfaceSound {
      * or not synced, then they are turned off for safety.
      */
     int getFreeStationBuffer(Set<EntityRadio> playingRadios);
+
+    /**
+     * Returns the cache that holds the data for sounds played from jars.
+     */
+    SoundDataCache getSoundDataCache();
 }
\ No newline at end of file
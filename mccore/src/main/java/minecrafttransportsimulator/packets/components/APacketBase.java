@@ -25,6 +25,9 @@ import minecrafttransportsimulator.packets.instances.PacketEntityKeyChange;
 import minecrafttransportsimulator.packets.instances.PacketEntityRiderChange;
 import minecrafttransportsimulator.packets.instances.PacketEntityTextChange;
 import minecrafttransportsimulator.packets.instances.PacketEntityTowingChange;
+import minecrafttransportsimulator.packets.instances.PacketEntityVariableBatch;
+import minecrafttransportsimulator.packets.instances.PacketEntityVariableIDs;
+import minecrafttransportsimulator.packets.instances.PacketEntityVariableIDsRequest;
 import minecrafttransportsimulator.packets.instances.PacketEntityVariableIncrement;
 import minecrafttransportsimulator.packets.instances.PacketEntityVariableSet;
 import minecrafttransportsimulator.packets.instances.PacketEntityVariableToggle;
@@ -234,6 +237,9 @@ public abstract class APacketBase {
         InterfaceManager.packetInterface.registerPacket(packetIndex++, PacketEntityVariableIncrement.class);
         InterfaceManager.packetInterface.registerPacket(packetIndex++, PacketEntityVariableSet.class);
         InterfaceManager.packetInterface.registerPacket(packetIndex++, PacketEntityVariableToggle.class);
+        InterfaceManager.packetInterface.registerPacket(packetIndex++, PacketEntityVariableBatch.class);
+        InterfaceManager.packetInterface.registerPacket(packetIndex++, PacketEntityVariableIDs.class);
+        InterfaceManager.packetInterface.registerPacket(packetIndex++, PacketEntityVariableIDsRequest.class);
         InterfaceManager.packetInterface.registerPacket(packetIndex++, PacketEntityInteract.class);
         InterfaceManager.packetInterface.registerPacket(packetIndex++, PacketEntityInteractGUI.class);
 
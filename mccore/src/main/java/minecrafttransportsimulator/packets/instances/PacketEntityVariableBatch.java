@@ -0,0 +1,150 @@
+package minecrafttransportsimulator.packets.instances;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.netty.buffer.ByteBuf;
+import minecrafttransportsimulator.baseclasses.VariableStore;
+import minecrafttransportsimulator.entities.components.AEntityD_Definable;
+import minecrafttransportsimulator.mcinterface.AWrapperWorld;
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
+import minecrafttransportsimulator.packets.components.APacketEntity;
+
+/**
+ * Packet used to send all variables that changed on an entity in a tick to clients in one go.
+ * Only the final value of each variable is sent, so multiple changes to the same variable
+ * in a tick only cost one entry.  Variables are sent by ID rather than name.  IDs are assigned
+ * by the server, and the first time an ID is used, a {@link PacketEntityVariableIDs} is sent to
+ * all clients to tell them which name goes with it.  Clients that join later get all IDs
+ * when they request world data.
+ * <br><br>
+ * Clients may still get an ID before its name, such as when a batch arrives before the IDs sent on joining.
+ * If so, the value is held until the name is known, and the client asks the server for the name
+ * via {@link PacketEntityVariableIDsRequest}.  This way no values are lost, so clients can't get out of sync.
+ *
+ * @author don_bruce
+ */
+public class PacketEntityVariableBatch extends APacketEntity<AEntityD_Definable<?>> {
+    /**
+     * Names that have been sent to clients, keyed by ID.  Only used on servers.
+     **/
+    static final Map<Integer, String> sentNames = new ConcurrentHashMap<>();
+    /**
+     * Names that have been received from the server, keyed by ID.  Only used on clients.
+     **/
+    static final Map<Integer, String> receivedNames = new ConcurrentHashMap<>();
+    /**
+     * Values for IDs we don't have names for yet, keyed by ID, and then by entity.  Only used on clients.
+     **/
+    private static final Map<Integer, Map<UUID, Double>> pendingValues = new HashMap<>();
+    /**
+     * IDs we've asked the server for, but haven't gotten names for yet.  Only used on clients.
+     **/
+    private static final Set<Integer> requestedIDs = ConcurrentHashMap.newKeySet();
+
+    private final int[] variableIDs;
+    private final double[] variableValues;
+
+    public PacketEntityVariableBatch(AEntityD_Definable<?> entity, int[] variableIDs, int variableCount) {
+        super(entity);
+        this.variableIDs = new int[variableCount];
+        this.variableValues = new double[variableCount];
+        Map<Integer, String> newNames = null;
+        for (int i = 0; i < variableCount; ++i) {
+            int variableID = variableIDs[i];
+            this.variableIDs[i] = variableID;
+            this.variableValues[i] = entity.getVariable(VariableStore.getName(variableID));
+            if (!sentNames.containsKey(variableID)) {
+                if (newNames == null) {
+                    newNames = new HashMap<>();
+                }
+                newNames.put(variableID, VariableStore.getName(variableID));
+            }
+        }
+
+        //Tell clients about new IDs before they get this packet.
+        if (newNames != null) {
+            sentNames.putAll(newNames);
+            InterfaceManager.packetInterface.sendToAllClients(new PacketEntityVariableIDs(newNames, false));
+        }
+    }
+
+    public PacketEntityVariableBatch(ByteBuf buf) {
+        super(buf);
+        int variableCount = buf.readShort();
+        this.variableIDs = new int[variableCount];
+        this.variableValues = new double[variableCount];
+        for (int i = 0; i < variableCount; ++i) {
+            variableIDs[i] = buf.readInt();
+            variableValues[i] = buf.readDouble();
+        }
+    }
+
+    @Override
+    public void writeToBuffer(ByteBuf buf) {
+        super.writeToBuffer(buf);
+        buf.writeShort(variableIDs.length);
+        for (int i = 0; i < variableIDs.length; ++i) {
+            buf.writeInt(variableIDs[i]);
+            buf.writeDouble(variableValues[i]);
+        }
+    }
+
+    @Override
+    public boolean handle(AWrapperWorld world, AEntityD_Definable<?> entity) {
+        int[] idsToRequest = null;
+        int requestCount = 0;
+        for (int i = 0; i < variableIDs.length; ++i) {
+            String variableName = receivedNames.get(variableIDs[i]);
+            if (variableName != null) {
+                entity.setVariable(variableName, variableValues[i]);
+            } else {
+                //Hold onto the value until we know the name.  Later values replace earlier ones, as they would if set.
+                pendingValues.computeIfAbsent(variableIDs[i], k -> new HashMap<>()).put(entity.uniqueUUID, variableValues[i]);
+                if (requestedIDs.add(variableIDs[i])) {
+                    if (idsToRequest == null) {
+                        idsToRequest = new int[variableIDs.length];
+                    }
+                    idsToRequest[requestCount++] = variableIDs[i];
+                }
+            }
+        }
+        if (idsToRequest != null) {
+            InterfaceManager.packetInterface.sendToServer(new PacketEntityVariableIDsRequest(InterfaceManager.clientInterface.getClientPlayer(), Arrays.copyOf(idsToRequest, requestCount)));
+        }
+        return false;
+    }
+
+    /**
+     * Sets any values that were held for the passed-in IDs, now that we know their names.
+     * Called by {@link PacketEntityVariableIDs} when names are received.
+     */
+    static void applyPendingValues(AWrapperWorld world, Collection<Integer> variableIDs) {
+        for (Integer variableID : variableIDs) {
+            requestedIDs.remove(variableID);
+            Map<UUID, Double> values = pendingValues.remove(variableID);
+            if (values != null) {
+                String variableName = receivedNames.get(variableID);
+                for (Entry<UUID, Double> valueEntry : values.entrySet()) {
+                    AEntityD_Definable<?> entity = world.getEntity(valueEntry.getKey());
+                    if (entity != null) {
+                        entity.setVariable(variableName, valueEntry.getValue());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a packet with all IDs that have been sent to clients.  Used to bring newly-joined clients up-to-date.
+     */
+    public static PacketEntityVariableIDs getAllSentIDs() {
+        return new PacketEntityVariableIDs(sentNames, true);
+    }
+}
@@ -0,0 +1,58 @@
+package minecrafttransportsimulator.packets.instances;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.netty.buffer.ByteBuf;
+import minecrafttransportsimulator.mcinterface.AWrapperWorld;
+import minecrafttransportsimulator.packets.components.APacketBase;
+
+/**
+ * Packet used to tell clients which variable names go with which IDs in {@link PacketEntityVariableBatch}.
+ * If this packet is a full set of IDs, any IDs the client already has are discarded, as they
+ * may be from a different server.
+ *
+ * @author don_bruce
+ */
+public class PacketEntityVariableIDs extends APacketBase {
+    private final Map<Integer, String> names;
+    private final boolean allIDs;
+
+    public PacketEntityVariableIDs(Map<Integer, String> names, boolean allIDs) {
+        super(null);
+        this.names = names;
+        this.allIDs = allIDs;
+    }
+
+    public PacketEntityVariableIDs(ByteBuf buf) {
+        super(buf);
+        this.allIDs = buf.readBoolean();
+        int nameCount = buf.readInt();
+        this.names = new HashMap<>();
+        for (int i = 0; i < nameCount; ++i) {
+            names.put(buf.readInt(), readStringFromBuffer(buf));
+        }
+    }
+
+    @Override
+    public void writeToBuffer(ByteBuf buf) {
+        super.writeToBuffer(buf);
+        buf.writeBoolean(allIDs);
+        //Copy in case the map is changed while we're writing.
+        Map<Integer, String> namesToWrite = new HashMap<>(names);
+        buf.writeInt(namesToWrite.size());
+        namesToWrite.forEach((id, name) -> {
+            buf.writeInt(id);
+            writeStringToBuffer(name, buf);
+        });
+    }
+
+    @Override
+    public void handle(AWrapperWorld world) {
+        if (allIDs) {
+            PacketEntityVariableBatch.receivedNames.clear();
+        }
+        PacketEntityVariableBatch.receivedNames.putAll(names);
+        PacketEntityVariableBatch.applyPendingValues(world, names.keySet());
+    }
+}
@@ -0,0 +1,62 @@
+package minecrafttransportsimulator.packets.instances;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.netty.buffer.ByteBuf;
+import minecrafttransportsimulator.mcinterface.AWrapperWorld;
+import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
+import minecrafttransportsimulator.packets.components.APacketPlayer;
+
+/**
+ * Packet used by clients to request the names for variable IDs they got in a {@link PacketEntityVariableBatch}
+ * but don't know yet.  This can happen if the batch arrives before the IDs sent when joining the world.
+ * The server replies with a {@link PacketEntityVariableIDs} containing the requested names.
+ *
+ * @author don_bruce
+ */
+public class PacketEntityVariableIDsRequest extends APacketPlayer {
+    private final int[] variableIDs;
+
+    public PacketEntityVariableIDsRequest(IWrapperPlayer player, int[] variableIDs) {
+        super(player);
+        this.variableIDs = variableIDs;
+    }
+
+    public PacketEntityVariableIDsRequest(ByteBuf buf) {
+        super(buf);
+        this.variableIDs = new int[buf.readShort()];
+        for (int i = 0; i < variableIDs.length; ++i) {
+            variableIDs[i] = buf.readInt();
+        }
+    }
+
+    @Override
+    public void writeToBuffer(ByteBuf buf) {
+        super.writeToBuffer(buf);
+        buf.writeShort(variableIDs.length);
+        for (int variableID : variableIDs) {
+            buf.writeInt(variableID);
+        }
+    }
+
+    @Override
+    public void handle(AWrapperWorld world, IWrapperPlayer player) {
+        //Only send names we've sent before.  Anything else isn't a valid ID for a batch.
+        Map<Integer, String> names = new HashMap<>();
+        for (int variableID : variableIDs) {
+            String name = PacketEntityVariableBatch.sentNames.get(variableID);
+            if (name != null) {
+                names.put(variableID, name);
+            }
+        }
+        if (!names.isEmpty()) {
+            player.sendPacket(new PacketEntityVariableIDs(names, false));
+        }
+    }
+
+    @Override
+    public boolean runOnMainThread() {
+        return false;
+    }
+}
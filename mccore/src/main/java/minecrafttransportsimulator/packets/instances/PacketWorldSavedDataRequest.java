@@ -10,6 +10,7 @@ import minecrafttransportsimulator.packets.components.APacketPlayer;
  * Packet used to request world NBT data from the server, and to send that data back to clients.
  * This only happens when the world is first created.  Subsequent updates happen on-demand when
  * the data changes and will use their own packet, {@link PacketWorldSavedDataUpdate}
+ * Clients are also sent the current variable IDs here, via {@link PacketEntityVariableIDs}.
  *
  * @author don_bruce
  */
@@ -30,6 +31,9 @@ public class PacketWorldSavedDataRequest extends APacketPlayer {
         for (String dataName : savedData.getAllNames()) {
             player.sendPacket(new PacketWorldSavedDataUpdate(dataName, savedData.getData(dataName)));
         }
+
+        //Also send variable IDs, as this is the first thing clients request.
+        player.sendPacket(PacketEntityVariableBatch.getAllSentIDs());
     }
 
     @Override
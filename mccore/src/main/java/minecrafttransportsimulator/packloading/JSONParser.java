@@ -13,7 +13,11 @@ import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayList;
@@ -736,12 +740,24 @@ public class JSONParser {
         Class<? extends Enum<?>> value();
     }
 
+    /**
+     * Validation plans for all classes we have validated.  Getting fields and their annotations via reflection
+     * is slow, so we do it once per class here rather than once per object every time we validate.
+     */
+    private static final ClassValue<ValidationPlan> validationPlans = new ClassValue<ValidationPlan>() {
+        @Override
+        protected ValidationPlan computeValue(Class<?> type) {
+            return new ValidationPlan(type);
+        }
+    };
+
     /**
      * Helper method to validate fields.  Used for recursion.
      */
     public static void validateFields(Object obj, String priorObjects, int index) {
         //First get all fields that have the annotation with no values.
-        for (Field field : obj.getClass().getFields()) {
+        ValidationPlan plan = validationPlans.get(obj.getClass());
+        for (FieldAccessor field : plan.fields) {
             String errorValue = checkRequiredState(field, obj, priorObjects, index);
             if (errorValue != null) {
                 throw new NullPointerException(errorValue);
@@ -751,26 +767,23 @@ public class JSONParser {
             //If we are a collection, validate each entry in ourselves rather than ourselves.
             //Only check for objects that are defined in the jsondefs class file.
             //If we extend recursion to others, it could get nasty...
-            if (obj.getClass().getPackage().getName().contains("jsondefs")) {
-                Object recursiveObject = null;
-                try {
-                    recursiveObject = field.get(obj);
-                } catch (Exception e) {
-                }
-
+            if (plan.checkChildren) {
+                Object recursiveObject = field.get(obj);
                 if (recursiveObject != null) {
                     if (recursiveObject instanceof Collection) {
                         int collectionIndex = 1;
                         for (Object objEntry : ((Collection<?>) recursiveObject)) {
                             if (objEntry != null) {
-                                validateFields(objEntry, priorObjects + field.getName() + "/", collectionIndex);
+                                if (validationPlans.get(objEntry.getClass()).hasChecks) {
+                                    validateFields(objEntry, priorObjects + field.name + "/", collectionIndex);
+                                }
                                 ++collectionIndex;
                             } else {
-                                throw new NullPointerException("Unable to parse entry #" + collectionIndex + " in variable set " + priorObjects + field.getName() + " due to it not existing.  Check your commas!");
+                                throw new NullPointerException("Unable to parse entry #" + collectionIndex + " in variable set " + priorObjects + field.name + " due to it not existing.  Check your commas!");
                             }
                         }
-                    } else if (!recursiveObject.getClass().isEnum()) {
-                        validateFields(recursiveObject, priorObjects + field.getName() + "/", 1);
+                    } else if (!recursiveObject.getClass().isEnum() && validationPlans.get(recursiveObject.getClass()).hasChecks) {
+                        validateFields(recursiveObject, priorObjects + field.name + "/", 1);
                     }
                 }
             }
@@ -781,26 +794,21 @@ public class JSONParser {
      * Checks to see if the passed-in field is required, and is missing or corrupt.  If so,
      * a text-based error message is returned.  If not, null is returned.
      */
-    private static String checkRequiredState(Field field, Object objectOn, String pathPrefix, int index) {
-        if (field.isAnnotationPresent(JSONRequired.class)) {
-            Object testObj = null;
-            try {
-                testObj = field.get(objectOn);
-            } catch (Exception e) {
-            }
-
+    private static String checkRequiredState(FieldAccessor field, Object objectOn, String pathPrefix, int index) {
+        if (field.required != null) {
+            Object testObj = field.get(objectOn);
             if (testObj == null) {
-                JSONRequired annotation = field.getAnnotation(JSONRequired.class);
+                JSONRequired annotation = field.required;
                 //If we need another field, get it to check.
                 String dependentVarName = annotation.dependentField();
                 if (!dependentVarName.isEmpty()) {
                     Object depObj = null;
                     try {
                         if (annotation.subField().isEmpty()) {
-                            depObj = objectOn.getClass().getField(dependentVarName).get(objectOn);
+                            depObj = getFieldValue(objectOn, dependentVarName);
                         } else {
-                            depObj = objectOn.getClass().getField(annotation.subField()).get(objectOn);
-                            depObj = depObj.getClass().getField(dependentVarName).get(depObj);
+                            depObj = getFieldValue(objectOn, annotation.subField());
+                            depObj = getFieldValue(depObj, dependentVarName);
                         }
                     } catch (Exception e) {
                         e.printStackTrace();
@@ -809,20 +817,101 @@ public class JSONParser {
                     if (depObj != null) {
                         //Have object.  If the object has to be a set of values to throw an error, check this.
                         if (annotation.dependentValues().length == 0) {
-                            return pathPrefix + field.getName() + ", entry #" + index + ", is required when '" + dependentVarName + "' is present!";
+                            return pathPrefix + field.name + ", entry #" + index + ", is required when '" + dependentVarName + "' is present!";
                         } else {
                             for (String possibleValue : annotation.dependentValues()) {
                                 if (depObj.toString().startsWith(possibleValue)) {
-                                    return pathPrefix + field.getName() + ", entry #" + index + ", is required when value of '" + dependentVarName + "' is '" + depObj + "'!";
+                                    return pathPrefix + field.name + ", entry #" + index + ", is required when value of '" + dependentVarName + "' is '" + depObj + "'!";
                                 }
                             }
                         }
                     }
                 } else {
-                    return pathPrefix + field.getName() + ", entry #" + index + ", is missing from the JSON and is required!";
+                    return pathPrefix + field.name + ", entry #" + index + ", is missing from the JSON and is required!";
                 }
             }
         }
         return null;
     }
+
+    /**
+     * Returns the value of the public field with the passed-in name in the passed-in object.
+     */
+    private static Object getFieldValue(Object obj, String fieldName) throws NoSuchFieldException {
+        FieldAccessor field = validationPlans.get(obj.getClass()).fieldsByName.get(fieldName);
+        if (field == null) {
+            throw new NoSuchFieldException(fieldName);
+        }
+        return field.get(obj);
+    }
+
+    /**
+     * The fields to check when validating objects of a class, worked out once for that class.
+     */
+    private static class ValidationPlan {
+        private final List<FieldAccessor> fields = new ArrayList<>();
+        private final Map<String, FieldAccessor> fieldsByName = new HashMap<>();
+        /**
+         * True if the fields of this class should have their values validated as well.
+         **/
+        private final boolean checkChildren;
+        /**
+         * False if validating an object of this class can't ever do anything.  Lets us skip primitive wrappers, strings, and the like.
+         **/
+        private final boolean hasChecks;
+
+        private ValidationPlan(Class<?> type) {
+            this.checkChildren = type.getPackage() != null && type.getPackage().getName().contains("jsondefs");
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            boolean anyRequired = false;
+            for (Field field : type.getFields()) {
+                FieldAccessor accessor = new FieldAccessor(field, lookup);
+                fields.add(accessor);
+                fieldsByName.put(accessor.name, accessor);
+                if (accessor.required != null) {
+                    anyRequired = true;
+                }
+            }
+            this.hasChecks = checkChildren || anyRequired;
+        }
+    }
+
+    /**
+     * Accessor for a single field of a class, along with its {@link JSONRequired} annotation, if it has one.
+     */
+    private static class FieldAccessor {
+        private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+        private final String name;
+        private final JSONRequired required;
+        private final MethodHandle getter;
+
+        private FieldAccessor(Field field, MethodHandles.Lookup lookup) {
+            this.name = field.getName();
+            this.required = field.getAnnotation(JSONRequired.class);
+            MethodHandle fieldGetter;
+            try {
+                fieldGetter = lookup.unreflectGetter(field);
+                if (Modifier.isStatic(field.getModifiers())) {
+                    //Static getters don't take an object, so add one that gets ignored.
+                    fieldGetter = MethodHandles.dropArguments(fieldGetter.asType(MethodType.methodType(Object.class)), 0, Object.class);
+                } else {
+                    fieldGetter = fieldGetter.asType(GETTER_TYPE);
+                }
+            } catch (IllegalAccessException e) {
+                //Can't access this field, so treat it as always null, same as reflection would.
+                fieldGetter = null;
+            }
+            this.getter = fieldGetter;
+        }
+
+        private Object get(Object obj) {
+            if (getter != null) {
+                try {
+                    return getter.invokeExact(obj);
+                } catch (Throwable e) {
+                }
+            }
+            return null;
+        }
+    }
 }
@@ -0,0 +1,330 @@
+package minecrafttransportsimulator.packloading;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
+import minecrafttransportsimulator.packloading.PackResourceLoader.ItemClassification;
+import minecrafttransportsimulator.systems.ConfigSystem;
+
+/**
+ * Cache of pack definitions that have already been parsed, had legacy compats performed on them, and been validated.
+ * This lets us skip all that work for packs that haven't changed since the last boot.  Each pack is keyed
+ * to the path, size, modified time, and hash of its jar, as well as the sub-folders that were loaded from it.
+ * The jar is only hashed if its modified time changed but its size didn't, to check if its contents actually did.
+ * If any of these change, the pack is parsed normally and the cache is updated.  The whole cache is thrown out
+ * if the mod version, the legacy compat code, the settings it uses, or the layout of any definition class change,
+ * as the cached definitions would be different.
+ * <br><br>
+ * Only packs that loaded without any errors are cached.  This ensures that any errors are always logged at boot.
+ *
+ * @author don_bruce
+ */
+final class PackDefinitionCache {
+    /**
+     * Version of the cache format.  Bump this if the file layout changes.
+     **/
+    private static final int CACHE_VERSION = 3;
+    private static final String CACHE_FILE_NAME = "mtsdefinitioncache.bin";
+
+    private final File cacheFile;
+    private final byte[] codeHash;
+    private final Map<String, CachedPack> oldPacks = new HashMap<>();
+    private final Map<String, CachedPack> newPacks = new LinkedHashMap<>();
+    private boolean changed;
+
+    private PackDefinitionCache(File cacheFile, byte[] codeHash) {
+        this.cacheFile = cacheFile;
+        this.codeHash = codeHash;
+    }
+
+    /**
+     * Loads the cache from the passed-in directory.  If there isn't a cache, or it is for different
+     * code or settings, an empty cache is returned.  If the cache can't be used at all, null is returned.
+     */
+    static PackDefinitionCache load(File configDirectory) {
+        byte[] codeHash;
+        try {
+            codeHash = getCodeHash();
+        } catch (Exception e) {
+            InterfaceManager.coreInterface.logError("Could not check definition code for the pack definition cache.  Packs will be parsed without it.");
+            InterfaceManager.coreInterface.logError(e.getMessage());
+            return null;
+        }
+
+        PackDefinitionCache cache = new PackDefinitionCache(new File(configDirectory, CACHE_FILE_NAME), codeHash);
+        if (cache.cacheFile.exists()) {
+            try (DataInputStream stream = new DataInputStream(new BufferedInputStream(Files.newInputStream(cache.cacheFile.toPath())))) {
+                if (stream.readInt() == CACHE_VERSION && Arrays.equals(readBytes(stream), codeHash)) {
+                    int packCount = stream.readInt();
+                    for (int i = 0; i < packCount; ++i) {
+                        CachedPack pack = new CachedPack(stream);
+                        cache.oldPacks.put(pack.packID, pack);
+                    }
+                }
+            } catch (Exception e) {
+                InterfaceManager.coreInterface.logError("Could not read pack definition cache.  All packs will be parsed.");
+                InterfaceManager.coreInterface.logError(e.getMessage());
+                cache.oldPacks.clear();
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Returns the cached definitions for the passed-in pack, or null if the pack isn't cached or the
+     * cached copy is out of date.  If the definitions are returned, the pack stays in the cache.
+     */
+    List<CachedDefinition> getDefinitions(String packID, File packJar, List<String> subDirectories) {
+        CachedPack pack = oldPacks.get(packID);
+        if (pack != null && pack.jarPath.equals(packJar.getAbsolutePath()) && pack.jarSize == packJar.length() && pack.subDirectories.equals(String.join("/", subDirectories))) {
+            if (pack.jarModified == packJar.lastModified()) {
+                newPacks.put(packID, pack);
+                return pack.definitions;
+            } else {
+                //Jar was touched, but may not have changed, such as if it was copied.  Check the contents.
+                try {
+                    if (Arrays.equals(pack.jarHash, getJarHash(packJar))) {
+                        newPacks.put(packID, new CachedPack(pack, packJar.lastModified()));
+                        changed = true;
+                        return pack.definitions;
+                    }
+                } catch (Exception e) {
+                    //Can't read the jar, so we can't use the cache.  Normal parsing will report the error.
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Puts the passed-in definitions into the cache for the passed-in pack.
+     */
+    void putDefinitions(String packID, File packJar, List<String> subDirectories, List<CachedDefinition> definitions) {
+        try {
+            newPacks.put(packID, new CachedPack(packID, packJar, subDirectories, definitions));
+            changed = true;
+        } catch (Exception e) {
+            InterfaceManager.coreInterface.logError("Could not cache definitions for pack: " + packID);
+            InterfaceManager.coreInterface.logError(e.getMessage());
+        }
+    }
+
+    /**
+     * Removes the passed-in pack from the cache.  Used if the cached definitions turn out to be bad.
+     */
+    void removeDefinitions(String packID) {
+        if (newPacks.remove(packID) != null) {
+            changed = true;
+        }
+    }
+
+    /**
+     * Saves the cache to disk if it has changed.  Packs that weren't loaded this boot are dropped.
+     */
+    void save() {
+        if (changed || !oldPacks.keySet().equals(newPacks.keySet())) {
+            try (DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(cacheFile.toPath())))) {
+                stream.writeInt(CACHE_VERSION);
+                writeBytes(stream, codeHash);
+                stream.writeInt(newPacks.size());
+                for (CachedPack pack : newPacks.values()) {
+                    pack.write(stream);
+                }
+            } catch (Exception e) {
+                InterfaceManager.coreInterface.logError("Could not save pack definition cache.");
+                InterfaceManager.coreInterface.logError(e.getMessage());
+                cacheFile.delete();
+            }
+        }
+    }
+
+    /**
+     * Returns a hash of the mod version, the legacy compat code and the settings it uses, and the layout of the
+     * definition classes.  If any of these change, the definitions we would make will as well, so none of the
+     * cached definitions can be used.
+     */
+    private static byte[] getCodeHash() throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update(InterfaceManager.coreInterface.getModVersion(InterfaceManager.coreModID).getBytes(StandardCharsets.UTF_8));
+        for (ItemClassification classification : ItemClassification.values()) {
+            addTypeToHash(digest, classification.representingClass, new HashSet<>());
+        }
+        try (InputStream stream = LegacyCompatSystem.class.getResourceAsStream(LegacyCompatSystem.class.getSimpleName() + ".class")) {
+            byte[] buffer = new byte[8192];
+            int bytesRead;
+            while ((bytesRead = stream.read(buffer)) != -1) {
+                digest.update(buffer, 0, bytesRead);
+            }
+        }
+        digest.update((byte) (ConfigSystem.settings.general.doLegacyLightCompats.value ? 1 : 0));
+        return digest.digest();
+    }
+
+    /**
+     * Adds the names and types of all the fields GSON would use for the passed-in type to the hash,
+     * and does the same for the types of those fields.  Enums add their constants instead.
+     */
+    private static void addTypeToHash(MessageDigest digest, Type type, Set<Class<?>> hashedClasses) {
+        if (type instanceof ParameterizedType) {
+            addTypeToHash(digest, ((ParameterizedType) type).getRawType(), hashedClasses);
+            for (Type argumentType : ((ParameterizedType) type).getActualTypeArguments()) {
+                addTypeToHash(digest, argumentType, hashedClasses);
+            }
+        } else if (type instanceof GenericArrayType) {
+            addTypeToHash(digest, ((GenericArrayType) type).getGenericComponentType(), hashedClasses);
+        } else if (type instanceof Class) {
+            Class<?> typeClass = (Class<?>) type;
+            if (typeClass.isArray()) {
+                addTypeToHash(digest, typeClass.getComponentType(), hashedClasses);
+            } else if (!typeClass.isPrimitive() && !typeClass.getName().startsWith("java.") && hashedClasses.add(typeClass)) {
+                digest.update(typeClass.getName().getBytes(StandardCharsets.UTF_8));
+                if (typeClass.isEnum()) {
+                    for (Object constant : typeClass.getEnumConstants()) {
+                        digest.update(((Enum<?>) constant).name().getBytes(StandardCharsets.UTF_8));
+                    }
+                } else {
+                    for (Class<?> currentClass = typeClass; currentClass != null && currentClass != Object.class; currentClass = currentClass.getSuperclass()) {
+                        for (Field field : currentClass.getDeclaredFields()) {
+                            int modifiers = field.getModifiers();
+                            if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+                                digest.update(field.getName().getBytes(StandardCharsets.UTF_8));
+                                digest.update(field.getGenericType().getTypeName().getBytes(StandardCharsets.UTF_8));
+                                addTypeToHash(digest, field.getGenericType(), hashedClasses);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static byte[] getJarHash(File packJar) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (InputStream stream = Files.newInputStream(packJar.toPath())) {
+            byte[] buffer = new byte[65536];
+            int bytesRead;
+            while ((bytesRead = stream.read(buffer)) != -1) {
+                digest.update(buffer, 0, bytesRead);
+            }
+        }
+        return digest.digest();
+    }
+
+    private static byte[] readBytes(DataInputStream stream) throws IOException {
+        byte[] bytes = new byte[stream.readInt()];
+        stream.readFully(bytes);
+        return bytes;
+    }
+
+    private static void writeBytes(DataOutputStream stream, byte[] bytes) throws IOException {
+        stream.writeInt(bytes.length);
+        stream.write(bytes);
+    }
+
+    private static class CachedPack {
+        private final String packID;
+        private final String jarPath;
+        private final long jarSize;
+        private final long jarModified;
+        private final byte[] jarHash;
+        private final String subDirectories;
+        private final List<CachedDefinition> definitions;
+
+        private CachedPack(String packID, File packJar, List<String> subDirectories, List<CachedDefinition> definitions) throws Exception {
+            this.packID = packID;
+            this.jarPath = packJar.getAbsolutePath();
+            this.jarSize = packJar.length();
+            this.jarModified = packJar.lastModified();
+            this.jarHash = getJarHash(packJar);
+            this.subDirectories = String.join("/", subDirectories);
+            this.definitions = definitions;
+        }
+
+        private CachedPack(CachedPack pack, long jarModified) {
+            this.packID = pack.packID;
+            this.jarPath = pack.jarPath;
+            this.jarSize = pack.jarSize;
+            this.jarModified = jarModified;
+            this.jarHash = pack.jarHash;
+            this.subDirectories = pack.subDirectories;
+            this.definitions = pack.definitions;
+        }
+
+        private CachedPack(DataInputStream stream) throws IOException {
+            this.packID = stream.readUTF();
+            this.jarPath = stream.readUTF();
+            this.jarSize = stream.readLong();
+            this.jarModified = stream.readLong();
+            this.jarHash = readBytes(stream);
+            this.subDirectories = stream.readUTF();
+            int definitionCount = stream.readInt();
+            this.definitions = new ArrayList<>(definitionCount);
+            for (int i = 0; i < definitionCount; ++i) {
+                definitions.add(new CachedDefinition(stream.readUTF(), stream.readUTF(), stream.readUTF(), ItemClassification.valueOf(stream.readUTF()), stream.readUTF(), readBytes(stream)));
+            }
+        }
+
+        private void write(DataOutputStream stream) throws IOException {
+            stream.writeUTF(packID);
+            stream.writeUTF(jarPath);
+            stream.writeLong(jarSize);
+            stream.writeLong(jarModified);
+            writeBytes(stream, jarHash);
+            stream.writeUTF(subDirectories);
+            stream.writeInt(definitions.size());
+            for (CachedDefinition definition : definitions) {
+                stream.writeUTF(definition.entryName);
+                stream.writeUTF(definition.fileName);
+                stream.writeUTF(definition.systemName);
+                stream.writeUTF(definition.classification.name());
+                stream.writeUTF(definition.prefixFolders);
+                writeBytes(stream, definition.json);
+            }
+        }
+    }
+
+    /**
+     * A single cached definition.  The definition is stored in the same format {@link JSONParser} exports it in,
+     * after legacy compats have been performed, so it only needs to be parsed to be used.  The name of the jar
+     * entry it came from is kept so the definition can be parsed from the jar if the cached copy can't be.
+     */
+    static class CachedDefinition {
+        final String entryName;
+        final String fileName;
+        final String systemName;
+        final ItemClassification classification;
+        final String prefixFolders;
+        final byte[] json;
+
+        CachedDefinition(String entryName, String fileName, String systemName, ItemClassification classification, String prefixFolders, byte[] json) {
+            this.entryName = entryName;
+            this.fileName = fileName;
+            this.systemName = systemName;
+            this.classification = classification;
+            this.prefixFolders = prefixFolders;
+            this.json = json;
+        }
+    }
+}
@@ -1,15 +1,23 @@
 package minecrafttransportsimulator.packloading;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -41,6 +49,7 @@ import minecrafttransportsimulator.jsondefs.JSONSkin;
 import minecrafttransportsimulator.jsondefs.JSONSubDefinition;
 import minecrafttransportsimulator.jsondefs.JSONVehicle;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
+import minecrafttransportsimulator.packloading.PackDefinitionCache.CachedDefinition;
 import minecrafttransportsimulator.packloading.PackResourceLoader.ItemClassification;
 import minecrafttransportsimulator.packloading.PackResourceLoader.PackStructure;
 import minecrafttransportsimulator.systems.ConfigSystem;
@@ -93,6 +102,11 @@ public final class PackParser {
      **/
     private static final Map<String, Map<String, JSONPanel>> panelMap = new HashMap<>();
 
+    /**
+     * Errors logged via {@link #logError(String)} by the definition being prepared on the current thread, if any.
+     **/
+    private static final ThreadLocal<List<String>> deferredErrors = new ThreadLocal<>();
+
     /**
      * Comparator used for sorting pack items.
      **/
@@ -320,6 +334,18 @@ public final class PackParser {
      */
     private static void parseAllPacks() {
         List<String> packIDs = new ArrayList<>(packMap.keySet());
+        List<ZipFile> jarFiles = new ArrayList<>();
+        List<DefinitionLoader> definitionLoaders = new ArrayList<>();
+
+        //Get the definition cache, if we are using it.  Packs that haven't changed are loaded from it rather than their jars.
+        //Packs that we do load from their jars are put into it once loaded, as long as they loaded without errors.
+        PackDefinitionCache definitionCache = null;
+        if (ConfigSystem.settings != null && ConfigSystem.settings.general.cachePackDefinitions.value && ConfigSystem.getConfigDirectory() != null) {
+            definitionCache = PackDefinitionCache.load(ConfigSystem.getConfigDirectory());
+        }
+        Map<String, List<DefinitionLoader>> packLoaders = new LinkedHashMap<>();
+        Map<String, List<String>> parsedPackSubDirectories = new HashMap<>();
+        Set<String> failedPackIDs = new HashSet<>();
         for (String s : packMap.keySet()) {
             JSONPack packDef = packMap.get(s);
             //Don't parse the core pack.  THat's all internal.
@@ -373,6 +399,32 @@ public final class PackParser {
 
             //Load the pack components into the game.
             //We iterate over all the sub-folders we found from the packDef checks.
+            //The jar is opened once and shared between all sub-folders, and is closed after all definitions are registered.
+            if (validSubDirectories.isEmpty()) {
+                continue;
+            }
+            List<DefinitionLoader> loadersForPack = new ArrayList<>();
+            packLoaders.put(packDef.packID, loadersForPack);
+            if (definitionCache != null) {
+                List<CachedDefinition> cachedDefinitions = definitionCache.getDefinitions(packDef.packID, packJarMap.get(packDef.packID), validSubDirectories);
+                if (cachedDefinitions != null) {
+                    for (CachedDefinition cachedDefinition : cachedDefinitions) {
+                        loadersForPack.add(new DefinitionLoader(packDef.packID, cachedDefinition));
+                    }
+                    definitionLoaders.addAll(loadersForPack);
+                    continue;
+                }
+                parsedPackSubDirectories.put(packDef.packID, validSubDirectories);
+            }
+            ZipFile jarFile;
+            try {
+                jarFile = new ZipFile(packJarMap.get(packDef.packID));
+                jarFiles.add(jarFile);
+            } catch (Exception e) {
+                InterfaceManager.coreInterface.logError("Could not start parsing of pack: " + packDef.packID);
+                e.printStackTrace();
+                continue;
+            }
             PackStructure structure = PackStructure.values()[packDef.fileStructure];
             for (String subDirectory : validSubDirectories) {
                 String assetPathPrefix = "assets/" + packDef.packID + "/";
@@ -381,7 +433,6 @@ public final class PackParser {
                 }
 
                 try {
-                    ZipFile jarFile = new ZipFile(packJarMap.get(packDef.packID));
                     Enumeration<? extends ZipEntry> entries = jarFile.entries();
                     while (entries.hasMoreElements()) {
                         //Get next entry and path.
@@ -415,36 +466,81 @@ public final class PackParser {
                                     continue;
                                 }
 
-                                //Create the JSON instance.
-                                String systemName = fileName.substring(0, fileName.length() - ".json".length());
-                                AJSONBase definition;
-                                try {
-                                    definition = JSONParser.parseStream(jarFile.getInputStream(entry), classification.representingClass, packDef.packID, systemName);
-                                } catch (Exception e) {
-                                    InterfaceManager.coreInterface.logError("Could not parse: " + packDef.packID + ":" + fileName);
-                                    InterfaceManager.coreInterface.logError(e.getMessage());
-                                    continue;
-                                }
-
+                                //Queue the JSON to be parsed.  We don't parse it here as that's the slow part of loading.
                                 //Remove the classification folder from the assetPath.  We don't use this for the resource-loading code.
                                 //Instead, this will be loaded by referencing the definition.  This also allows us to omit the path
                                 //if we are loading a non-default pack format.
-                                definition.packID = packDef.packID;
-                                definition.systemName = systemName;
-                                definition.classification = classification;
-                                definition.prefixFolders = assetPath.substring(classification.toDirectory().length());
-                                registerItem(definition);
+                                String systemName = fileName.substring(0, fileName.length() - ".json".length());
+                                loadersForPack.add(new DefinitionLoader(jarFile, entry, packDef.packID, fileName, systemName, classification, assetPath.substring(classification.toDirectory().length()), definitionCache != null));
                             }
                         }
                     }
-
-                    //Done parsing.  Close the jarfile.
-                    jarFile.close();
                 } catch (Exception e) {
                     InterfaceManager.coreInterface.logError("Could not start parsing of pack: " + packDef.packID);
                     e.printStackTrace();
+                    failedPackIDs.add(packDef.packID);
                 }
             }
+            definitionLoaders.addAll(loadersForPack);
+        }
+
+        //Parse, do legacy compats on, and validate all definitions in parallel.  None of these touch the registry.
+        //Once a definition is ready, register it.  We do registration in the same order as the definitions were
+        //found in the packs, and on this thread, so the registry and any logged errors are the same as if we had
+        //loaded everything one at a time.
+        //We use our own pool rather than the common one, as the common one makes a thread per task if it has no parallelism.
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService loaderService = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), runnable -> {
+            Thread thread = new Thread(runnable, "MTS Pack Loader " + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<CompletableFuture<Void>> loadingTasks = new ArrayList<>(definitionLoaders.size());
+            for (DefinitionLoader loader : definitionLoaders) {
+                loadingTasks.add(CompletableFuture.runAsync(loader::prepare, loaderService));
+            }
+            for (int i = 0; i < definitionLoaders.size(); ++i) {
+                loadingTasks.get(i).join();
+                definitionLoaders.get(i).register();
+            }
+        } finally {
+            loaderService.shutdownNow();
+        }
+
+        //Done parsing.  Close the jarfiles.
+        for (ZipFile jarFile : jarFiles) {
+            try {
+                jarFile.close();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+
+        //Update the cache with the packs we parsed, and remove any cached packs that didn't load.
+        if (definitionCache != null) {
+            for (Entry<String, List<DefinitionLoader>> packEntry : packLoaders.entrySet()) {
+                String packID = packEntry.getKey();
+                boolean loadedWithoutErrors = !failedPackIDs.contains(packID);
+                for (DefinitionLoader loader : packEntry.getValue()) {
+                    if (loader.parseException != null || loader.prepareException != null || !loader.errors.isEmpty() || loader.cachedDefinition == null || loader.cacheFailed) {
+                        loadedWithoutErrors = false;
+                        break;
+                    }
+                }
+                if (parsedPackSubDirectories.containsKey(packID)) {
+                    if (loadedWithoutErrors) {
+                        List<CachedDefinition> cachedDefinitions = new ArrayList<>();
+                        for (DefinitionLoader loader : packEntry.getValue()) {
+                            cachedDefinitions.add(loader.cachedDefinition);
+                        }
+                        definitionCache.putDefinitions(packID, packJarMap.get(packID), parsedPackSubDirectories.get(packID), cachedDefinitions);
+                    }
+                } else if (!loadedWithoutErrors) {
+                    definitionCache.removeDefinitions(packID);
+                }
+            }
+            definitionCache.save();
         }
     }
 
@@ -464,60 +560,89 @@ public final class PackParser {
      */
     public static void registerItem(AJSONBase itemDef) {
         try {
-            //Do legacy compats before validating the JSON.
-            //This will populate any required fields that were not in older versions.
-            LegacyCompatSystem.performLegacyCompats(itemDef);
-            JSONParser.validateFields(itemDef, itemDef.packID + ":" + itemDef.systemName + "/", 1);
-
-            //Create all required items.
-            if (itemDef instanceof AJSONMultiModelProvider) {
-                //Check if the definition is a skin.  If so, we need to just add it to the skin map for processing later.
-                //We don't create skin items right away as the pack they go to might not yet be loaded.
-                if (itemDef instanceof JSONSkin) {
-                    JSONSkin skinDef = (JSONSkin) itemDef;
-                    if (!skinMap.containsKey(skinDef.skin.packID)) {
-                        skinMap.put(skinDef.skin.packID, new HashMap<>());
-                    }
-                    if (!skinMap.get(skinDef.skin.packID).containsKey(skinDef.skin.systemName)) {
-                        skinMap.get(skinDef.skin.packID).put(skinDef.skin.systemName, new ArrayList<>());
-                    }
-                    skinMap.get(skinDef.skin.packID).get(skinDef.skin.systemName).add(skinDef);
-                } else {
-                    parseAllDefinitions((AJSONMultiModelProvider) itemDef, ((AJSONMultiModelProvider) itemDef).definitions, itemDef.packID);
+            prepareItem(itemDef);
+            createItems(itemDef);
+        } catch (Exception e) {
+            InterfaceManager.coreInterface.logError(e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Logs the passed-in error.  If this is called while a definition is being prepared during pack loading,
+     * the error is held and logged when the definition is registered.  This keeps errors in the same order
+     * no matter which thread prepared the definition.  Code that may run while preparing should log through here.
+     */
+    public static void logError(String message) {
+        List<String> errors = deferredErrors.get();
+        if (errors != null) {
+            errors.add(message);
+        } else {
+            InterfaceManager.coreInterface.logError(message);
+        }
+    }
+
+    /**
+     * Performs legacy compats and validation on the passed-in definition.  This doesn't touch the registry,
+     * so it is safe to call for multiple definitions at once.
+     */
+    private static void prepareItem(AJSONBase itemDef) {
+        //Do legacy compats before validating the JSON.
+        //This will populate any required fields that were not in older versions.
+        LegacyCompatSystem.performLegacyCompats(itemDef);
+        JSONParser.validateFields(itemDef, itemDef.packID + ":" + itemDef.systemName + "/", 1);
+    }
+
+    /**
+     * Creates all required items for the passed-in definition and puts them into the registry.
+     * The definition must have been prepared via {@link #prepareItem(AJSONBase)} first.
+     */
+    private static void createItems(AJSONBase itemDef) {
+        //Create all required items.
+        if (itemDef instanceof AJSONMultiModelProvider) {
+            //Check if the definition is a skin.  If so, we need to just add it to the skin map for processing later.
+            //We don't create skin items right away as the pack they go to might not yet be loaded.
+            if (itemDef instanceof JSONSkin) {
+                JSONSkin skinDef = (JSONSkin) itemDef;
+                if (!skinMap.containsKey(skinDef.skin.packID)) {
+                    skinMap.put(skinDef.skin.packID, new HashMap<>());
                 }
+                if (!skinMap.get(skinDef.skin.packID).containsKey(skinDef.skin.systemName)) {
+                    skinMap.get(skinDef.skin.packID).put(skinDef.skin.systemName, new ArrayList<>());
+                }
+                skinMap.get(skinDef.skin.packID).get(skinDef.skin.systemName).add(skinDef);
             } else {
-                AItemPack<?> item = null;
-                switch (itemDef.classification) {
-                    case INSTRUMENT:
-                        item = new ItemInstrument((JSONInstrument) itemDef);
-                        break;
-                    case ITEM:
-                        item = new ItemItem((JSONItem) itemDef);
-                        break;
-                    case PANEL:
-                        //Put the panel in the map in the registry.
-                        JSONPanel panelDef = (JSONPanel) itemDef;
-                        if (!panelMap.containsKey(panelDef.packID)) {
-                            panelMap.put(panelDef.packID, new HashMap<>());
-                        }
-                        panelMap.get(panelDef.packID).put(panelDef.systemName, panelDef);
-                        break;
-                    default: {
-                        throw new IllegalArgumentException("No corresponding classification found for asset: " + itemDef.prefixFolders + " Contact the mod author!");
+                parseAllDefinitions((AJSONMultiModelProvider) itemDef, ((AJSONMultiModelProvider) itemDef).definitions, itemDef.packID);
+            }
+        } else {
+            AItemPack<?> item = null;
+            switch (itemDef.classification) {
+                case INSTRUMENT:
+                    item = new ItemInstrument((JSONInstrument) itemDef);
+                    break;
+                case ITEM:
+                    item = new ItemItem((JSONItem) itemDef);
+                    break;
+                case PANEL:
+                    //Put the panel in the map in the registry.
+                    JSONPanel panelDef = (JSONPanel) itemDef;
+                    if (!panelMap.containsKey(panelDef.packID)) {
+                        panelMap.put(panelDef.packID, new HashMap<>());
                     }
+                    panelMap.get(panelDef.packID).put(panelDef.systemName, panelDef);
+                    break;
+                default: {
+                    throw new IllegalArgumentException("No corresponding classification found for asset: " + itemDef.prefixFolders + " Contact the mod author!");
                 }
+            }
 
-                //Put the item in the map in the registry.
-                if(item != null) {
-                    if (!packItemMap.containsKey(item.definition.packID)) {
-                        packItemMap.put(item.definition.packID, new HashMap<>());
-                    }
-                    packItemMap.get(item.definition.packID).put(item.definition.systemName, item);
+            //Put the item in the map in the registry.
+            if(item != null) {
+                if (!packItemMap.containsKey(item.definition.packID)) {
+                    packItemMap.put(item.definition.packID, new HashMap<>());
                 }
+                packItemMap.get(item.definition.packID).put(item.definition.systemName, item);
             }
-        } catch (Exception e) {
-            InterfaceManager.coreInterface.logError(e.getMessage());
-            e.printStackTrace();
         }
     }
 
@@ -690,4 +815,124 @@ public final class PackParser {
         }
         return packPanels;
     }
+
+    /**
+     * Class used to load a single definition from a pack jar or the definition cache.  Parsing, legacy compats, and validation
+     * are done in {@link #prepare()}, which may be called off the main thread.  Registration is done in {@link #register()},
+     * which must be called on the loading thread as it modifies the registry.  Any errors from preparing are held
+     * until registration so they are logged in the same order the definitions were found.
+     */
+    private static class DefinitionLoader {
+        private final ZipFile jarFile;
+        private final ZipEntry entry;
+        private final String packID;
+        private final String fileName;
+        private final String systemName;
+        private final ItemClassification classification;
+        private final String prefixFolders;
+        private final boolean cacheDefinition;
+        private CachedDefinition cachedDefinition;
+        private boolean cacheFailed;
+        private AJSONBase definition;
+        private Exception parseException;
+        private Exception prepareException;
+        private final List<String> errors = new ArrayList<>();
+
+        private DefinitionLoader(ZipFile jarFile, ZipEntry entry, String packID, String fileName, String systemName, ItemClassification classification, String prefixFolders, boolean cacheDefinition) {
+            this.jarFile = jarFile;
+            this.entry = entry;
+            this.packID = packID;
+            this.fileName = fileName;
+            this.systemName = systemName;
+            this.classification = classification;
+            this.prefixFolders = prefixFolders;
+            this.cacheDefinition = cacheDefinition;
+        }
+
+        private DefinitionLoader(String packID, CachedDefinition cachedDefinition) {
+            this(null, null, packID, cachedDefinition.fileName, cachedDefinition.systemName, cachedDefinition.classification, cachedDefinition.prefixFolders, false);
+            this.cachedDefinition = cachedDefinition;
+        }
+
+        private void prepare() {
+            deferredErrors.set(errors);
+            try {
+                prepareDefinition();
+            } finally {
+                deferredErrors.remove();
+            }
+        }
+
+        private void prepareDefinition() {
+            if (cachedDefinition != null) {
+                //Cached definitions have already had compats and validation done, so we just need to parse them.
+                try {
+                    definition = JSONParser.parseStream(new ByteArrayInputStream(cachedDefinition.json), classification.representingClass, packID, systemName);
+                } catch (Exception e) {
+                    //Cached copy is bad.  Parse the definition from the jar like we would if it wasn't cached.
+                    //The pack gets dropped from the cache, as we can't trust the rest of it either.
+                    cacheFailed = true;
+                }
+            }
+            if (cachedDefinition == null || cacheFailed) {
+                try {
+                    if (jarFile != null) {
+                        definition = JSONParser.parseStream(jarFile.getInputStream(entry), classification.representingClass, packID, systemName);
+                    } else {
+                        try (ZipFile packJarFile = new ZipFile(packJarMap.get(packID))) {
+                            definition = JSONParser.parseStream(packJarFile.getInputStream(packJarFile.getEntry(cachedDefinition.entryName)), classification.representingClass, packID, systemName);
+                        }
+                    }
+                } catch (Exception e) {
+                    parseException = e;
+                    return;
+                }
+            }
+
+            definition.packID = packID;
+            definition.systemName = systemName;
+            definition.classification = classification;
+            definition.prefixFolders = prefixFolders;
+            if (cachedDefinition == null || cacheFailed) {
+                try {
+                    prepareItem(definition);
+                } catch (Exception e) {
+                    prepareException = e;
+                    return;
+                }
+
+                //Export now, before registration and skins modify the definition.
+                //If we can't, we just don't cache the pack this definition is in.
+                if (cacheDefinition) {
+                    try {
+                        ByteArrayOutputStream jsonStream = new ByteArrayOutputStream();
+                        JSONParser.exportStream(definition, jsonStream);
+                        cachedDefinition = new CachedDefinition(entry.getName(), fileName, systemName, classification, prefixFolders, jsonStream.toByteArray());
+                    } catch (Exception e) {
+                        //Not an error for loading, so don't log it.
+                    }
+                }
+            }
+        }
+
+        private void register() {
+            for (String error : errors) {
+                InterfaceManager.coreInterface.logError(error);
+            }
+            if (parseException != null) {
+                InterfaceManager.coreInterface.logError("Could not parse: " + packID + ":" + fileName);
+                InterfaceManager.coreInterface.logError(parseException.getMessage());
+            } else if (prepareException != null) {
+                InterfaceManager.coreInterface.logError(prepareException.getMessage());
+                prepareException.printStackTrace();
+            } else {
+                try {
+                    createItems(definition);
+                } catch (Exception e) {
+                    InterfaceManager.coreInterface.logError(e.getMessage());
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
 }
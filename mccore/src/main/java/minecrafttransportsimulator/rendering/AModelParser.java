@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.Map;
 
 import minecrafttransportsimulator.entities.components.AEntityD_Definable;
+import minecrafttransportsimulator.rendering.ModelCache.CachedModel;
 
 /**
  * Abstract class for parsing models.  This contains methods for determining what models
@@ -18,7 +19,7 @@ import minecrafttransportsimulator.entities.components.AEntityD_Definable;
  */
 public abstract class AModelParser {
     private static final Map<String, AModelParser> parsers = new HashMap<>();
-    private static final Map<String, List<RenderableVertices>> parsedVertices = new HashMap<>();
+    public static final ModelCache modelCache = new ModelCache();
     public static final String WINDOW_OBJECT_NAME = "window";
     public static final String ONLINE_TEXTURE_OBJECT_NAME = "url";
     public static final String TRANSLUCENT_OBJECT_NAME = "translucent";
@@ -42,30 +43,37 @@ public abstract class AModelParser {
     /**
      * Parses the model at the passed-in location. The return value is a list of objects parsed.
      */
-    protected abstract List<RenderableVertices> parseModelInternal(String modelLocation);
+    protected abstract List<IndexedMesh> parseModelInternal(String modelLocation);
 
     /**
      * Attempts to obtain the parser for the passed-in modelLocation.  After this, the model
      * is parsed and returned.  If no parser is found, an exception is thrown.
      * If the model has already been parsed, a cached copy is returned.
+     * Callers that will render the returned vertices should use {@link #modelCache} directly,
+     * and mark themselves as users of the model so it isn't removed while they render it.
      */
     public static List<RenderableVertices> parseModel(String modelLocation, boolean returnCached) {
-        List<RenderableVertices> vertices = null;
         if (returnCached) {
-            vertices = parsedVertices.get(modelLocation);
-        }
-        if (vertices == null) {
-            AModelParser parser = parsers.get(modelLocation.substring(modelLocation.lastIndexOf(".") + 1));
-            if (parser != null) {
-                vertices = parser.parseModelInternal(modelLocation);
-                if (returnCached) {
-                    parsedVertices.put(modelLocation, vertices);
-                }
-            } else {
-                throw new IllegalArgumentException("No parser found for model format of " + modelLocation.substring(modelLocation.lastIndexOf(".") + 1));
+            return modelCache.getModel(modelLocation).getVertices();
+        } else {
+            List<RenderableVertices> vertices = new ArrayList<>();
+            for (IndexedMesh mesh : parseMeshes(modelLocation)) {
+                vertices.add(mesh.createVertices());
             }
+            return vertices;
+        }
+    }
+
+    /**
+     * Parses the model at the passed-in location into meshes, without any caching.
+     */
+    static List<IndexedMesh> parseMeshes(String modelLocation) {
+        AModelParser parser = parsers.get(modelLocation.substring(modelLocation.lastIndexOf(".") + 1));
+        if (parser != null) {
+            return parser.parseModelInternal(modelLocation);
+        } else {
+            throw new IllegalArgumentException("No parser found for model format of " + modelLocation.substring(modelLocation.lastIndexOf(".") + 1));
         }
-        return vertices;
     }
 
     /**
@@ -75,10 +83,18 @@ public abstract class AModelParser {
      * are assured to be turned into one of the objects in the returned list.
      */
     public static List<RenderableModelObject> generateRenderables(AEntityD_Definable<?> entity) {
-        String modelLocation = entity.definition.getModelLocation(entity.subDefinition);
+        return generateRenderables(entity, entity.definition.getModelLocation(entity.subDefinition));
+    }
+
+    /**
+     * Like {@link #generateRenderables(AEntityD_Definable)}, but uses the model at the passed-in location rather
+     * than the entity's main model.  Used for level-of-detail models.
+     */
+    public static List<RenderableModelObject> generateRenderables(AEntityD_Definable<?> entity, String modelLocation) {
+        CachedModel model = modelCache.getModel(modelLocation);
         List<RenderableModelObject> modelObjects = new ArrayList<>();
-        for (RenderableVertices parsedObject : parseModel(modelLocation, true)) {
-            modelObjects.add(new RenderableModelObject(entity, parsedObject));
+        for (RenderableVertices parsedObject : model.getVertices()) {
+            modelObjects.add(new RenderableModelObject(entity, parsedObject, model));
         }
         return modelObjects;
     }
@@ -2,6 +2,7 @@ package minecrafttransportsimulator.rendering;
 
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.entities.components.AEntityD_Definable;
+import minecrafttransportsimulator.entities.components.AEntityD_Definable.VariableAccessor;
 import minecrafttransportsimulator.jsondefs.JSONAnimationDefinition;
 import minecrafttransportsimulator.jsondefs.JSONAnimationDefinition.AnimationComponentType;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
@@ -37,6 +38,11 @@ public class DurationDelayClock {
     private boolean startedReverseMovement = false;
     private boolean endedReverseMovement = false;
 
+    private AEntityD_Definable<?> boundEntity;
+    private String boundVariable;
+    private boolean boundVariableInverted;
+    private VariableAccessor boundAccessor;
+
     public DurationDelayClock(JSONAnimationDefinition animation) {
         this.animation = animation;
         this.animationAxisMagnitude = animation.axis != null ? animation.axis.length() : 1.0;
@@ -45,6 +51,39 @@ public class DurationDelayClock {
         this.isUseful = shouldDoFactoring || animation.animationType.equals(AnimationComponentType.VISIBILITY) || animation.animationType.equals(AnimationComponentType.INHIBITOR) || animation.animationType.equals(AnimationComponentType.ACTIVATOR) || animation.forwardsStartSound != null || animation.forwardsEndSound != null || animation.reverseStartSound != null || animation.reverseEndSound != null;
     }
 
+    /**
+     * Binds the variable for this clock to the passed-in entity.  This resolves the variable string
+     * into a {@link VariableAccessor} once, so the entity doesn't have to parse it every time the clock is used.
+     */
+    public void bindVariable(AEntityD_Definable<?> entity) {
+        boundEntity = entity;
+        boundVariable = animation.variable;
+        boundVariableInverted = boundVariable.startsWith("!");
+        boundAccessor = entity.getVariableAccessor(boundVariableInverted ? boundVariable.substring(1) : boundVariable);
+    }
+
+    /**
+     * Returns true if this clock's variable is bound to the passed-in entity.  If not, callers should
+     * look up the variable by name.  Note that we check the variable by reference here on purpose, as
+     * some systems temporarily change the variable of the animation, and we need to fall back for those.
+     */
+    public boolean isBoundTo(AEntityD_Definable<?> entity) {
+        return boundEntity == entity && boundVariable == animation.variable;
+    }
+
+    /**
+     * Returns the value of the bound variable, with inversion applied and NaN converted to 0.
+     * Only valid if {@link #isBoundTo(AEntityD_Definable)} is true.
+     */
+    public double getBoundVariableValue(float partialTicks) {
+        double value = boundAccessor.getValue(partialTicks);
+        if (boundVariableInverted) {
+            return Double.isNaN(value) || value == 0 ? 1 : 0;
+        } else {
+            return Double.isNaN(value) ? 0 : value;
+        }
+    }
+
     /**
      * Returns the actual 0-1 value for a state-based duration/delay variable.
      * Optionally plays sounds if the state changes appropriately.
@@ -179,6 +218,11 @@ public class DurationDelayClock {
             movementFactor = 1 - movementFactor;
         }
 
+        //If we haven't finished moving, let the entity know, as it needs to keep updating until we do.
+        if (commandForwards ? !endedForwardsMovement : !endedReverseMovement) {
+            entity.lastAnimationMovementTick = entity.ticksExisted;
+        }
+
         return shouldDoFactoring ? movementFactor : value;
     }
 
@@ -0,0 +1,198 @@
+package minecrafttransportsimulator.rendering;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+/**
+ * Indexed mesh of a model object.  Vertices that are used by more than one triangle, which is most of them
+ * on a smooth model, are only stored once, and triangles reference them by index.  This is far smaller than
+ * the non-indexed data in {@link RenderableVertices}, so is what parsed models are kept as.  Meshes are
+ * expanded to {@link RenderableVertices} via {@link #createVertices()} when they need to be rendered.
+ * <br><br>
+ * Vertex data is in the same format as {@link RenderableVertices}: normal XYZ, texture UV, then position XYZ.
+ * Indexes are stored as shorts if there are few enough vertices for them, and as ints otherwise.
+ * <br><br>
+ * Note that renderers don't take indexed data: they upload and draw the expanded {@link RenderableVertices}.
+ * So a model that is being rendered takes as much memory as it did before meshes existed.  Only cached models
+ * that are not being rendered are made smaller by this.
+ *
+ * @author don_bruce
+ */
+public class IndexedMesh {
+    public static final int FLOATS_PER_VERTEX = 8;
+    private static final int MAX_SHORT_INDEXED_VERTICES = 65536;
+
+    public final String name;
+    private final float[] vertexData;
+    private final int vertexCount;
+    private final short[] shortIndexes;
+    private final int[] intIndexes;
+    private final int indexCount;
+
+    private IndexedMesh(Builder builder) {
+        this.name = builder.name;
+        this.vertexCount = builder.vertexCount;
+        this.vertexData = Arrays.copyOf(builder.vertexData, vertexCount * FLOATS_PER_VERTEX);
+        this.indexCount = builder.indexCount;
+        if (vertexCount <= MAX_SHORT_INDEXED_VERTICES) {
+            //Shorts are signed, so indexes above the max short will be negative here.  We mask them when getting them.
+            this.shortIndexes = new short[indexCount];
+            for (int i = 0; i < indexCount; ++i) {
+                shortIndexes[i] = (short) builder.indexes[i];
+            }
+            this.intIndexes = null;
+        } else {
+            this.shortIndexes = null;
+            this.intIndexes = Arrays.copyOf(builder.indexes, indexCount);
+        }
+    }
+
+    /**
+     * Returns the number of unique vertices in this mesh.
+     */
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Returns the number of indexes in this mesh.  This is 3 per triangle.
+     */
+    public int getIndexCount() {
+        return indexCount;
+    }
+
+    /**
+     * Returns the vertex for the passed-in index number.
+     */
+    public int getIndex(int indexNumber) {
+        return shortIndexes != null ? shortIndexes[indexNumber] & 0xFFFF : intIndexes[indexNumber];
+    }
+
+    /**
+     * Returns the approximate size of this mesh's data, in bytes.
+     */
+    public long getSizeInBytes() {
+        return vertexData.length * 4L + (shortIndexes != null ? shortIndexes.length * 2L : intIndexes.length * 4L);
+    }
+
+    /**
+     * Expands this mesh into non-indexed {@link RenderableVertices}, as used for rendering.
+     * A new object is returned on each call, so callers should keep it rather than calling this again.
+     */
+    public RenderableVertices createVertices() {
+        FloatBuffer buffer = FloatBuffer.allocate(indexCount * FLOATS_PER_VERTEX);
+        for (int i = 0; i < indexCount; ++i) {
+            buffer.put(vertexData, getIndex(i) * FLOATS_PER_VERTEX, FLOATS_PER_VERTEX);
+        }
+        buffer.flip();
+        return new RenderableVertices(name, buffer, true);
+    }
+
+    /**
+     * Creates a mesh from the passed-in non-indexed vertex data, removing any duplicate vertices.
+     * The data is read without changing its position, so this is safe to do while it is being rendered.
+     */
+    public static IndexedMesh fromVertices(String name, FloatBuffer vertices) {
+        Builder builder = new Builder(name);
+        float[] vertex = new float[FLOATS_PER_VERTEX];
+        for (int i = 0; i + FLOATS_PER_VERTEX <= vertices.limit(); i += FLOATS_PER_VERTEX) {
+            for (int j = 0; j < FLOATS_PER_VERTEX; ++j) {
+                vertex[j] = vertices.get(i + j);
+            }
+            builder.addVertex(vertex, 0);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Builder for meshes.  Vertices are added one at a time, in triangle order, as they would be in
+     * {@link RenderableVertices}.  Vertices that are identical to ones already added are not stored again;
+     * the index of the existing vertex is used instead.
+     */
+    public static class Builder {
+        private final String name;
+        private float[] vertexData = new float[64 * FLOATS_PER_VERTEX];
+        private int vertexCount;
+        private int[] indexes = new int[192];
+        private int indexCount;
+        /**
+         * Open-addressed hash table of vertex numbers, or -1 for empty slots.  Kept at most half full.
+         **/
+        private int[] vertexTable = new int[128];
+
+        public Builder(String name) {
+            this.name = name;
+            Arrays.fill(vertexTable, -1);
+        }
+
+        /**
+         * Adds the vertex starting at the passed-in offset in the passed-in array.
+         */
+        public void addVertex(float[] data, int offset) {
+            int hash = getHash(data, offset);
+            int mask = vertexTable.length - 1;
+            int slot = hash & mask;
+            int vertex;
+            while ((vertex = vertexTable[slot]) != -1) {
+                if (isSameVertex(vertex, data, offset)) {
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            if (vertex == -1) {
+                //New vertex, add it.
+                vertex = vertexCount++;
+                if (vertexData.length < vertexCount * FLOATS_PER_VERTEX) {
+                    vertexData = Arrays.copyOf(vertexData, vertexData.length * 2);
+                }
+                System.arraycopy(data, offset, vertexData, vertex * FLOATS_PER_VERTEX, FLOATS_PER_VERTEX);
+                vertexTable[slot] = vertex;
+                if (vertexCount * 2 > vertexTable.length) {
+                    growTable();
+                }
+            }
+
+            if (indexCount == indexes.length) {
+                indexes = Arrays.copyOf(indexes, indexes.length * 2);
+            }
+            indexes[indexCount++] = vertex;
+        }
+
+        public IndexedMesh build() {
+            return new IndexedMesh(this);
+        }
+
+        private boolean isSameVertex(int vertex, float[] data, int offset) {
+            int vertexOffset = vertex * FLOATS_PER_VERTEX;
+            for (int i = 0; i < FLOATS_PER_VERTEX; ++i) {
+                if (Float.floatToIntBits(vertexData[vertexOffset + i]) != Float.floatToIntBits(data[offset + i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void growTable() {
+            vertexTable = new int[vertexTable.length * 2];
+            Arrays.fill(vertexTable, -1);
+            int mask = vertexTable.length - 1;
+            for (int vertex = 0; vertex < vertexCount; ++vertex) {
+                int slot = getHash(vertexData, vertex * FLOATS_PER_VERTEX) & mask;
+                while (vertexTable[slot] != -1) {
+                    slot = (slot + 1) & mask;
+                }
+                vertexTable[slot] = vertex;
+            }
+        }
+
+        private static int getHash(float[] data, int offset) {
+            int hash = 1;
+            for (int i = 0; i < FLOATS_PER_VERTEX; ++i) {
+                hash = 31 * hash + Float.floatToIntBits(data[offset + i]);
+            }
+            //Spread the bits, as the table only uses the low ones.
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package minecrafttransportsimulator.rendering;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import minecrafttransportsimulator.systems.ConfigSystem;
+
+/**
+ * Cache for parsed models.  Models are parsed the first time they are requested, and kept as {@link IndexedMesh}es
+ * so later requests don't need to parse them again.  The vertices made from the meshes for rendering are kept in the cache
+ * too, so all users of a model get the same vertices and renderers can share their buffers.
+ * <br><br>
+ * Models that are being rendered are marked as such by {@link CachedModel#addUser()}, and are never removed.
+ * Renderers need the expanded vertices, so once a model is in use, its meshes are dropped, and only the vertices are kept.
+ * All models not in use are kept in least-recently-used order.  If the total size of the cache goes over the budget,
+ * the least-recently-used models are compacted first: their vertices are removed, and meshes are made again from them
+ * if they were dropped.  If that isn't enough, the least-recently-used models are removed entirely until the cache is
+ * under the budget again.  The budget may be exceeded if lots of models are in use at once.
+ * <br><br>
+ * Methods may be called from any thread, as models are parsed during pack loading as well as when rendering.
+ *
+ * @author don_bruce
+ */
+public class ModelCache {
+    /**
+     * Default budget, in MB.  Also used if the client config isn't loaded, as is the case on servers.
+     **/
+    public static final int DEFAULT_BUDGET = 256;
+
+    /**
+     * All models we know about, in order of least to most-recently used.
+     **/
+    private final Map<String, CachedModel> models = new LinkedHashMap<>(16, 0.75F, true);
+
+    private long cachedBytes;
+    private int modelsInUse;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Returns the cached model for the passed-in location, parsing it if it isn't cached.
+     * Parsing is done outside the lock, so other threads can use the cache while a model is parsed.
+     */
+    public CachedModel getModel(String modelLocation) {
+        synchronized (this) {
+            CachedModel model = models.get(modelLocation);
+            if (model != null) {
+                ++hits;
+                return model;
+            }
+            ++misses;
+        }
+
+        List<IndexedMesh> meshes = AModelParser.parseMeshes(modelLocation);
+        synchronized (this) {
+            //Another thread may have parsed this model while we were.  If so, use theirs.
+            CachedModel model = models.get(modelLocation);
+            if (model == null) {
+                model = new CachedModel(modelLocation);
+                model.setMeshes(meshes);
+                models.put(modelLocation, model);
+                trim();
+            }
+            return model;
+        }
+    }
+
+    /**
+     * Forgets all models, so they are parsed again the next time they are requested.  Used when packs are re-imported,
+     * as models may have changed.  Models that are in use are still usable by their users, but aren't counted in this cache.
+     */
+    public synchronized void reset() {
+        for (CachedModel model : models.values()) {
+            model.removed = true;
+        }
+        models.clear();
+        cachedBytes = 0;
+        modelsInUse = 0;
+    }
+
+    /**
+     * Returns how many models are in the cache.
+     */
+    public synchronized int getModelCount() {
+        return models.size();
+    }
+
+    /**
+     * Returns how many models in the cache are in use.
+     */
+    public synchronized int getModelsInUse() {
+        return modelsInUse;
+    }
+
+    /**
+     * Returns how many requests for a model had it cached.
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns how many requests for a model needed it to be parsed.
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns how many models have been removed to keep the cache under its budget.
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the total size of all meshes and vertices in the cache, in bytes.
+     */
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    /**
+     * Compacts, and then removes, models that aren't in use until the cache is under budget.
+     */
+    private void trim() {
+        long budget = (ConfigSystem.client != null ? ConfigSystem.client.renderingSettings.modelCacheSize.value : DEFAULT_BUDGET) * 1024L * 1024L;
+        if (cachedBytes > budget) {
+            //Models are iterated in least-recently-used order.
+            Iterator<CachedModel> iterator = models.values().iterator();
+            while (cachedBytes > budget && iterator.hasNext()) {
+                CachedModel model = iterator.next();
+                if (model.users == 0) {
+                    model.compact();
+                }
+            }
+            iterator = models.values().iterator();
+            while (cachedBytes > budget && iterator.hasNext()) {
+                CachedModel model = iterator.next();
+                if (model.users == 0) {
+                    //All models not in use were compacted above, so this only leaves the meshes for anything still holding the model.
+                    model.clearVertices();
+                    cachedBytes -= model.meshBytes;
+                    ++evictions;
+                    model.removed = true;
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * A model in this cache.  Users that render the model should call {@link #addUser()} when they start
+     * using it, and {@link #removeUser()} once they are done.  Others may just get the vertices they need.
+     */
+    public class CachedModel {
+        public final String modelLocation;
+        /**
+         * Meshes for this model.  Null while the model is in use, as the vertices are kept then instead.
+         * At least one of these or {@link #vertices} is always present.
+         **/
+        private List<IndexedMesh> meshes;
+        private long meshBytes;
+        private List<RenderableVertices> vertices;
+        private RenderableVertices mergedVertices;
+        private long vertexBytes;
+        private int users;
+        private boolean removed;
+
+        private CachedModel(String modelLocation) {
+            this.modelLocation = modelLocation;
+        }
+
+        /**
+         * Marks this model as being used.  Models that are used are not removed from the cache.
+         * Must be matched by a call to {@link #removeUser()} once the model is no longer used.
+         */
+        public void addUser() {
+            synchronized (ModelCache.this) {
+                if (users++ == 0) {
+                    if (!removed) {
+                        ++modelsInUse;
+                    }
+                    //Renderers use the vertices, so make sure we have them and drop the meshes we made them from.
+                    getVertices();
+                    setMeshes(null);
+                }
+            }
+        }
+
+        /**
+         * Marks this model as no longer being used.
+         */
+        public void removeUser() {
+            synchronized (ModelCache.this) {
+                if (users > 0 && --users == 0 && !removed) {
+                    --modelsInUse;
+                    trim();
+                }
+            }
+        }
+
+        /**
+         * Returns the vertices for each object in this model.  These are the same objects every call,
+         * unless the cache had to remove them because the model wasn't in use.
+         */
+        public List<RenderableVertices> getVertices() {
+            synchronized (ModelCache.this) {
+                //Keep our own reference, as trimming may remove the vertices from this model if it isn't in use.
+                List<RenderableVertices> currentVertices = vertices;
+                if (currentVertices == null) {
+                    //Meshes are only dropped while we have vertices, so they are present if we get here.
+                    List<RenderableVertices> newVertices = new ArrayList<>(meshes.size());
+                    for (IndexedMesh mesh : meshes) {
+                        newVertices.add(mesh.createVertices());
+                        addVertexBytes(mesh.getIndexCount() * IndexedMesh.FLOATS_PER_VERTEX * 4L);
+                    }
+                    currentVertices = Collections.unmodifiableList(newVertices);
+                    vertices = currentVertices;
+                    if (!removed) {
+                        trim();
+                    }
+                }
+                return currentVertices;
+            }
+        }
+
+        /**
+         * Like {@link #getVertices()}, but returns all objects in this model merged into one set of vertices.
+         * These are not cached by renderers, so are suitable for things that are rendered in large numbers.
+         */
+        public RenderableVertices getMergedVertices() {
+            synchronized (ModelCache.this) {
+                RenderableVertices currentVertices = mergedVertices;
+                if (currentVertices == null) {
+                    List<RenderableVertices> objects = getVertices();
+                    int totalFloats = 0;
+                    for (RenderableVertices object : objects) {
+                        totalFloats += object.vertices.limit();
+                    }
+                    FloatBuffer totalBuffer = FloatBuffer.allocate(totalFloats);
+                    for (RenderableVertices object : objects) {
+                        //Use a duplicate so we don't move the position of vertices renderers may be reading.
+                        totalBuffer.put(object.vertices.duplicate());
+                    }
+                    totalBuffer.flip();
+                    currentVertices = new RenderableVertices(modelLocation, totalBuffer, false);
+                    mergedVertices = currentVertices;
+                    addVertexBytes(totalBuffer.capacity() * 4L);
+                    if (!removed) {
+                        trim();
+                    }
+                }
+                return currentVertices;
+            }
+        }
+
+        private void addVertexBytes(long bytes) {
+            vertexBytes += bytes;
+            if (!removed) {
+                cachedBytes += bytes;
+            }
+        }
+
+        private void setMeshes(List<IndexedMesh> newMeshes) {
+            long bytes = 0;
+            if (newMeshes != null) {
+                for (IndexedMesh mesh : newMeshes) {
+                    bytes += mesh.getSizeInBytes();
+                }
+            }
+            if (!removed) {
+                cachedBytes += bytes - meshBytes;
+            }
+            meshes = newMeshes;
+            meshBytes = bytes;
+        }
+
+        /**
+         * Makes meshes from the vertices if we dropped them, and then removes the vertices.
+         * Should only be called if this model isn't in use.
+         */
+        private void compact() {
+            if (vertices != null) {
+                if (meshes == null) {
+                    List<IndexedMesh> newMeshes = new ArrayList<>(vertices.size());
+                    for (RenderableVertices object : vertices) {
+                        newMeshes.add(IndexedMesh.fromVertices(object.name, object.vertices));
+                    }
+                    setMeshes(newMeshes);
+                }
+                clearVertices();
+            }
+        }
+
+        private void clearVertices() {
+            if (!removed) {
+                cachedBytes -= vertexBytes;
+            }
+            vertices = null;
+            mergedVertices = null;
+            vertexBytes = 0;
+        }
+    }
+}
@@ -23,8 +23,8 @@ public final class ModelParserLT extends AModelParser {
     }
 
     @Override
-    protected List<RenderableVertices> parseModelInternal(String modelLocation) {
-        List<RenderableVertices> objectList = new ArrayList<>();
+    protected List<IndexedMesh> parseModelInternal(String modelLocation) {
+        List<IndexedMesh> objectList = new ArrayList<>();
         InputStream stream;
         try {
             stream = InterfaceManager.coreInterface.getPackResource(modelLocation);
@@ -116,8 +116,7 @@ public final class ModelParserLT extends AModelParser {
                 //Stupid MC with stupid color packing....
                 //new ColorRGB(tile.tile.color)
                 buffer.flip();
-                RenderableVertices newObject = new RenderableVertices("little_tiles_generated", buffer, true);
-                objectList.add(newObject);
+                objectList.add(IndexedMesh.fromVertices("little_tiles_generated", buffer));
             }
 
             return objectList;
@@ -1,17 +1,23 @@
 package minecrafttransportsimulator.rendering;
 
-import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.nio.FloatBuffer;
+import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
+import minecrafttransportsimulator.packloading.PackParser;
 
 /**
- * Class responsible for parsing OBJ models into arrays that can be fed to the GPU.
+ * Class responsible for parsing OBJ models into meshes that can be fed to the GPU.
  * Much more versatile than the Forge system.
+ * <br><br>
+ * The file is read into a single character array, and lines are split into tokens and parsed in-place,
+ * rather than making strings for each line and number.  Faces are stored as the vertex, texture, and
+ * normal numbers of their points, and are made into a mesh once the whole object has been read.
  *
  * @author don_bruce
  */
@@ -23,157 +29,420 @@ public final class ModelParserOBJ extends AModelParser {
     }
 
     @Override
-    protected List<RenderableVertices> parseModelInternal(String modelLocation) {
-        List<RenderableVertices> objectList = new ArrayList<>();
-        BufferedReader reader;
+    protected List<IndexedMesh> parseModelInternal(String modelLocation) {
+        List<IndexedMesh> objectList = new ArrayList<>();
+        LineTokenizer tokenizer;
         try {
-            reader = new BufferedReader(new InputStreamReader(InterfaceManager.coreInterface.getPackResource(modelLocation)));
+            tokenizer = new LineTokenizer(InterfaceManager.coreInterface.getPackResource(modelLocation));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not finish parsing: " + modelLocation + " due to IOException error.  Did the file change state during parsing?");
         } catch (Exception e) {
             throw new NullPointerException("Attempted to parse the OBJ model at: " + modelLocation + " but could not find it.  Check the path and try again.");
         }
 
         String objectName = null;
-        final List<float[]> vertexList = new ArrayList<>();
-        final List<float[]> normalList = new ArrayList<>();
-        final List<float[]> textureList = new ArrayList<>();
-        final List<String> faceList = new ArrayList<>();
+        final FloatList vertexList = new FloatList();
+        final FloatList normalList = new FloatList();
+        final FloatList textureList = new FloatList();
+        final FaceList faceList = new FaceList();
 
-        try {
-            int lineNumber = 0;
-            while (reader.ready()) {
-                String line = reader.readLine();
-                ++lineNumber;
-
-                //Do normal parsing.
-                if (line.startsWith("o ")) {
-                    //Found new object name.  If we are parsing an object, finish up parsing and compile the points for it.
-                    if (objectName != null) {
-                        if (faceList.isEmpty()) {
-                            InterfaceManager.coreInterface.logError("Object " + objectName + " found with no faces defined at line: " + lineNumber + " in: " + modelLocation);
-                        } else {
-                            compileVertexArray(objectList, vertexList, normalList, textureList, faceList, modelLocation, objectName);
-                            objectName = null;
-                        }
-                    }
-                    try {
-                        objectName = line.trim().substring(2, line.length());
-                    } catch (Exception e) {
-                        InterfaceManager.coreInterface.logError("Object found with no name at line: " + lineNumber + " of: " + modelLocation + ".  Make sure your model exporter isn't making things into groups rather than objects.");
-                    }
-                } else if (line.startsWith("v ")) {
-                    try {
-                        float[] coords = new float[3];
-                        line = line.trim().substring(2).trim();
-                        coords[0] = Float.parseFloat(line.substring(0, line.indexOf(' ')));
-                        coords[1] = Float.parseFloat(line.substring(line.indexOf(' ') + 1, line.lastIndexOf(' ')));
-                        coords[2] = Float.parseFloat(line.substring(line.lastIndexOf(' ') + 1));
-                        vertexList.add(coords);
-                    } catch (Exception e) {
-                        InterfaceManager.coreInterface.logError("Could not parse vertex info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Vertex lines must consist of only three numbers (X, Y, Z).");
-                    }
-                } else if (line.startsWith("vt ")) {
-                    try {
-                        float[] coords = new float[2];
-                        line = line.trim().substring(3).trim();
-                        int space = line.indexOf(' ');
-                        int vertexEnd = line.lastIndexOf(' ') == space ? line.length() : line.lastIndexOf(' ');
-                        coords[0] = Float.parseFloat(line.substring(0, space));
-                        //Need to invert the V of the UV to change from texture origin being top-left to OpenGL origin being bottom-left.
-                        coords[1] = 1 - Float.parseFloat(line.substring(space + 1, vertexEnd));
-                        textureList.add(coords);
-                    } catch (Exception e) {
-                        InterfaceManager.coreInterface.logError("Could not parse vertex texture info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Vertex texture lines must consist of only two numbers (U, V).");
-                    }
-                } else if (line.startsWith("vn ")) {
-                    try {
-                        float[] coords = new float[3];
-                        line = line.trim().substring(2).trim();
-                        coords[0] = Float.parseFloat(line.substring(0, line.indexOf(' ')));
-                        coords[1] = Float.parseFloat(line.substring(line.indexOf(' ') + 1, line.lastIndexOf(' ')));
-                        coords[2] = Float.parseFloat(line.substring(line.lastIndexOf(' ') + 1));
-                        normalList.add(coords);
-                    } catch (Exception e) {
-                        InterfaceManager.coreInterface.logError("Could not parse normals info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Normals lines must consist of only three numbers (Xn, Yn, Zn).");
+        while (tokenizer.nextLine()) {
+            if (!tokenizer.nextToken()) {
+                continue;
+            }
+
+            //Do normal parsing.
+            if (tokenizer.isToken("o")) {
+                //Found new object name.  If we are parsing an object, finish up parsing and compile the points for it.
+                if (objectName != null) {
+                    if (faceList.isEmpty()) {
+                        PackParser.logError("Object " + objectName + " found with no faces defined at line: " + tokenizer.lineNumber + " in: " + modelLocation);
+                    } else {
+                        compileMesh(objectList, vertexList, normalList, textureList, faceList, modelLocation, objectName);
+                        objectName = null;
                     }
-                } else if (line.startsWith("f ")) {
-                    try {
-                        faceList.add(line.trim().substring(2));
-                    } catch (Exception e) {
-                        InterfaceManager.coreInterface.logError("Could not parse face info at line: " + lineNumber + " of: " + modelLocation + " due to bad formatting.  Face lines must consist of sets of three numbers in the format (V1/T1/N1, V2/T2/N2, ...).");
+                }
+                String newObjectName = tokenizer.getRestOfLine();
+                if (!newObjectName.isEmpty()) {
+                    objectName = newObjectName;
+                } else {
+                    PackParser.logError("Object found with no name at line: " + tokenizer.lineNumber + " of: " + modelLocation + ".  Make sure your model exporter isn't making things into groups rather than objects.");
+                }
+            } else if (tokenizer.isToken("v")) {
+                try {
+                    float x = tokenizer.nextFloat();
+                    float y = tokenizer.nextFloat();
+                    float z = tokenizer.nextFloat();
+                    vertexList.add(x, y, z);
+                } catch (Exception e) {
+                    PackParser.logError("Could not parse vertex info at line: " + tokenizer.lineNumber + " of: " + modelLocation + " due to bad formatting.  Vertex lines must consist of only three numbers (X, Y, Z).");
+                }
+            } else if (tokenizer.isToken("vt")) {
+                try {
+                    float u = tokenizer.nextFloat();
+                    //Need to invert the V of the UV to change from texture origin being top-left to OpenGL origin being bottom-left.
+                    float v = 1 - tokenizer.nextFloat();
+                    textureList.add(u, v);
+                } catch (Exception e) {
+                    PackParser.logError("Could not parse vertex texture info at line: " + tokenizer.lineNumber + " of: " + modelLocation + " due to bad formatting.  Vertex texture lines must consist of only two numbers (U, V).");
+                }
+            } else if (tokenizer.isToken("vn")) {
+                try {
+                    float x = tokenizer.nextFloat();
+                    float y = tokenizer.nextFloat();
+                    float z = tokenizer.nextFloat();
+                    normalList.add(x, y, z);
+                } catch (Exception e) {
+                    PackParser.logError("Could not parse normals info at line: " + tokenizer.lineNumber + " of: " + modelLocation + " due to bad formatting.  Normals lines must consist of only three numbers (Xn, Yn, Zn).");
+                }
+            } else if (tokenizer.isToken("f")) {
+                //Each point is in format V/T/N.  Spaces separate the points making up the face.
+                //Vertex number is the first entry before the slash.
+                //Texture number is the second entry between the two slashes.
+                //Normal number is the third entry after the second slash.
+                try {
+                    faceList.startFace();
+                    while (tokenizer.nextToken()) {
+                        int firstSlash = tokenizer.indexOfInToken('/', tokenizer.tokenStart);
+                        int secondSlash = tokenizer.indexOfInToken('/', firstSlash + 1);
+                        int vertexNumber = tokenizer.parseInt(tokenizer.tokenStart, firstSlash) - 1;
+                        int textureNumber = tokenizer.parseInt(firstSlash + 1, secondSlash) - 1;
+                        int normalNumber = tokenizer.parseInt(secondSlash + 1, tokenizer.tokenEnd) - 1;
+                        faceList.addPoint(vertexNumber, textureNumber, normalNumber);
                     }
+                } catch (Exception e) {
+                    //Leave it to the compile step to report, as this is almost always due to missing UVs.
+                    faceList.markBad();
                 }
             }
-
-            //End of file.  Save the last part in process and close the file.
-            compileVertexArray(objectList, vertexList, normalList, textureList, faceList, modelLocation, objectName);
-            reader.close();
-            return objectList;
-
-        } catch (IOException e) {
-            throw new IllegalStateException("Could not finish parsing: " + modelLocation + " due to IOException error.  Did the file change state during parsing?");
         }
+
+        //End of file.  Save the last part in process.
+        compileMesh(objectList, vertexList, normalList, textureList, faceList, modelLocation, objectName);
+        return objectList;
     }
 
-    private static void compileVertexArray(List<RenderableVertices> objectList, List<float[]> vertexList, List<float[]> normalList, List<float[]> textureList, List<String> faceList, String modelLocation, String objectName) {
+    private static void compileMesh(List<IndexedMesh> objectList, FloatList vertexList, FloatList normalList, FloatList textureList, FaceList faceList, String modelLocation, String objectName) {
         if (objectName == null) {
-            InterfaceManager.coreInterface.logError("No object name found in the entire OBJ model file of " + modelLocation + ".  Resorting to 'model' as default.  Are you using groups instead of objects by mistake?");
+            PackParser.logError("No object name found in the entire OBJ model file of " + modelLocation + ".  Resorting to 'model' as default.  Are you using groups instead of objects by mistake?");
             objectName = "model";
         }
 
         try {
-            List<Integer[]> vertexDataSets = new ArrayList<>();
-            for (String faceString : faceList) {
-                List<Integer[]> faceVertexData = new ArrayList<>();
-                while (!faceString.isEmpty()) {
-                    //Get the face string in format X/Y/Z.  Use the space as a separator between vertices making up the face.
-                    int defEnd = faceString.indexOf(' ');
-                    String faceDef;
-                    if (defEnd != -1) {
-                        //Take the faceDef from the faceString and store it.
-                        faceDef = faceString.substring(0, defEnd);
-                        faceString = faceString.substring(defEnd + 1);
-                    } else {
-                        //We are at the last face vertex here, so just mark the face as the existing string.
-                        faceDef = faceString;
-                        faceString = "";
-                    }
+            if (faceList.hasBadFaces) {
+                throw new IllegalArgumentException();
+            }
+            IndexedMesh.Builder builder = new IndexedMesh.Builder(objectName);
+            float[] vertex = new float[IndexedMesh.FLOATS_PER_VERTEX];
+            int pointIndex = 0;
+            for (int faceIndex = 0; faceIndex < faceList.faceCount; ++faceIndex) {
+                int firstPointIndex = pointIndex;
+                int pointCount = faceList.facePointCounts[faceIndex];
 
-                    //Vertex number is the first entry before the slash.
-                    //Texture number is the second entry between the two slashes.
-                    //Normal number is the third entry after the second slash.
-                    //Parse all these out and store them in the array.
-                    int firstSlash = faceDef.indexOf('/');
-                    int secondSlash = faceDef.lastIndexOf('/');
-                    int vertexNumber = Integer.parseInt(faceDef.substring(0, firstSlash)) - 1;
-                    int textureNumber = Integer.parseInt(faceDef.substring(firstSlash + 1, secondSlash)) - 1;
-                    int normalNumber = Integer.parseInt(faceDef.substring(secondSlash + 1)) - 1;
-
-                    //If we have three or more points in faceValues, it means we need to make a triangle out of this shape.
-                    //Add the first point, the most recent point, and this point to make a triangle.
-                    //Otherwise, just add the face as-is.
-                    if (faceVertexData.size() >= 3) {
-                        faceVertexData.add(faceVertexData.get(0));
-                        faceVertexData.add(faceVertexData.get(faceVertexData.size() - 2));
+                //If we have more than three points, it means we need to make triangles out of this shape.
+                //Use the first point, the prior point, and the current point to make each triangle.
+                for (int i = 0; i < pointCount; ++i) {
+                    if (i >= 3) {
+                        addPoint(builder, vertex, vertexList, normalList, textureList, faceList, firstPointIndex);
+                        addPoint(builder, vertex, vertexList, normalList, textureList, faceList, firstPointIndex + i - 1);
                     }
-                    faceVertexData.add(new Integer[]{vertexNumber, textureNumber, normalNumber});
+                    addPoint(builder, vertex, vertexList, normalList, textureList, faceList, firstPointIndex + i);
                 }
-                vertexDataSets.addAll(faceVertexData);
+                pointIndex += pointCount;
             }
-
-            //Compile buffer.
-            FloatBuffer compiledBuffer = FloatBuffer.allocate(vertexDataSets.size() * 8);
-            for (Integer[] vertexData : vertexDataSets) {
-                compiledBuffer.put(normalList.get(vertexData[2]));
-                compiledBuffer.put(textureList.get(vertexData[1]));
-                compiledBuffer.put(vertexList.get(vertexData[0]));
-            }
-            compiledBuffer.flip();
-            objectList.add(new RenderableVertices(objectName, compiledBuffer, true));
+            objectList.add(builder.build());
         } catch (Exception e) {
-            InterfaceManager.coreInterface.logError("Could not compile points of: " + modelLocation + ":" + objectName + ".  This is likely due to missing UV mapping on some or all faces.");
+            PackParser.logError("Could not compile points of: " + modelLocation + ":" + objectName + ".  This is likely due to missing UV mapping on some or all faces.");
         }
 
         //Clear face list as we don't want to compile them on the next pass.
         faceList.clear();
     }
+
+    private static void addPoint(IndexedMesh.Builder builder, float[] vertex, FloatList vertexList, FloatList normalList, FloatList textureList, FaceList faceList, int pointIndex) {
+        int dataIndex = pointIndex * 3;
+        normalList.get(faceList.pointData[dataIndex + 2], 3, vertex, 0);
+        textureList.get(faceList.pointData[dataIndex + 1], 2, vertex, 3);
+        vertexList.get(faceList.pointData[dataIndex], 3, vertex, 5);
+        builder.addVertex(vertex, 0);
+    }
+
+    /**
+     * Growable list of floats, stored in sets of a fixed size.
+     */
+    private static class FloatList {
+        private float[] data = new float[3 * 256];
+        private int size;
+
+        private void add(float x, float y) {
+            ensureSpace(2);
+            data[size++] = x;
+            data[size++] = y;
+        }
+
+        private void add(float x, float y, float z) {
+            ensureSpace(3);
+            data[size++] = x;
+            data[size++] = y;
+            data[size++] = z;
+        }
+
+        /**
+         * Copies the set at the passed-in index to the destination.  Throws an exception if the set doesn't exist.
+         */
+        private void get(int index, int setSize, float[] destination, int destinationOffset) {
+            int offset = index * setSize;
+            if (index < 0 || offset + setSize > size) {
+                throw new IndexOutOfBoundsException();
+            }
+            System.arraycopy(data, offset, destination, destinationOffset, setSize);
+        }
+
+        private void ensureSpace(int count) {
+            if (size + count > data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+        }
+    }
+
+    /**
+     * List of faces for the current object.  Each point is stored as its vertex, texture, and normal number.
+     */
+    private static class FaceList {
+        private int[] pointData = new int[3 * 1024];
+        private int pointCount;
+        private int[] facePointCounts = new int[256];
+        private int faceCount;
+        private boolean hasBadFaces;
+
+        private void startFace() {
+            if (faceCount == facePointCounts.length) {
+                facePointCounts = Arrays.copyOf(facePointCounts, facePointCounts.length * 2);
+            }
+            facePointCounts[faceCount++] = 0;
+        }
+
+        private void addPoint(int vertexNumber, int textureNumber, int normalNumber) {
+            if ((pointCount + 1) * 3 > pointData.length) {
+                pointData = Arrays.copyOf(pointData, pointData.length * 2);
+            }
+            pointData[pointCount * 3] = vertexNumber;
+            pointData[pointCount * 3 + 1] = textureNumber;
+            pointData[pointCount * 3 + 2] = normalNumber;
+            ++pointCount;
+            ++facePointCounts[faceCount - 1];
+        }
+
+        private void markBad() {
+            hasBadFaces = true;
+        }
+
+        private boolean isEmpty() {
+            return faceCount == 0;
+        }
+
+        private void clear() {
+            pointCount = 0;
+            faceCount = 0;
+            hasBadFaces = false;
+        }
+    }
+
+    /**
+     * Tokenizer for the lines of an OBJ file.  The whole file is read into one array, and tokens
+     * are referenced by their start and end in it, so no strings are made for them.
+     */
+    private static class LineTokenizer {
+        private static final double[] POWERS_OF_TEN = new double[23];
+        static {
+            POWERS_OF_TEN[0] = 1;
+            for (int i = 1; i < POWERS_OF_TEN.length; ++i) {
+                POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+            }
+        }
+
+        private final char[] chars;
+        private final int length;
+        private int position;
+        private int lineEnd;
+        private int lineNumber;
+        private int tokenStart;
+        private int tokenEnd;
+
+        private LineTokenizer(InputStream stream) throws IOException {
+            char[] buffer = new char[64 * 1024];
+            int count = 0;
+            try (Reader reader = new InputStreamReader(stream)) {
+                int read;
+                while ((read = reader.read(buffer, count, buffer.length - count)) != -1) {
+                    count += read;
+                    if (count == buffer.length) {
+                        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    }
+                }
+            }
+            this.chars = buffer;
+            this.length = count;
+        }
+
+        /**
+         * Moves to the next line.  Returns false if there are no more lines.
+         */
+        private boolean nextLine() {
+            if (lineNumber != 0) {
+                //Skip past the end of the current line.
+                position = lineEnd + 1;
+            }
+            if (position >= length) {
+                return false;
+            }
+            lineEnd = position;
+            while (lineEnd < length && chars[lineEnd] != '\n') {
+                ++lineEnd;
+            }
+            ++lineNumber;
+            return true;
+        }
+
+        /**
+         * Moves to the next token on the current line.  Returns false if there are no more tokens.
+         */
+        private boolean nextToken() {
+            while (position < lineEnd && Character.isWhitespace(chars[position])) {
+                ++position;
+            }
+            if (position == lineEnd) {
+                return false;
+            }
+            tokenStart = position;
+            while (position < lineEnd && !Character.isWhitespace(chars[position])) {
+                ++position;
+            }
+            tokenEnd = position;
+            return true;
+        }
+
+        /**
+         * Returns true if the current token is the passed-in text.
+         */
+        private boolean isToken(String text) {
+            if (tokenEnd - tokenStart != text.length()) {
+                return false;
+            }
+            for (int i = 0; i < text.length(); ++i) {
+                if (chars[tokenStart + i] != text.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Returns the rest of the current line, trimmed.  This is the only method that makes a string.
+         */
+        private String getRestOfLine() {
+            return new String(chars, position, lineEnd - position).trim();
+        }
+
+        /**
+         * Returns the index of the character in the current token, starting at the passed-in index.
+         * Throws an exception if the character isn't found.
+         */
+        private int indexOfInToken(char character, int startIndex) {
+            for (int i = startIndex; i < tokenEnd; ++i) {
+                if (chars[i] == character) {
+                    return i;
+                }
+            }
+            throw new IllegalArgumentException();
+        }
+
+        /**
+         * Parses the next token as a float.  Throws an exception if there isn't one, or it isn't a number.
+         */
+        private float nextFloat() {
+            if (!nextToken()) {
+                throw new IllegalArgumentException();
+            }
+            return parseFloat(tokenStart, tokenEnd);
+        }
+
+        private int parseInt(int start, int end) {
+            int index = start;
+            boolean negative = false;
+            if (index < end && chars[index] == '-') {
+                negative = true;
+                ++index;
+            }
+            if (index == end) {
+                throw new NumberFormatException();
+            }
+            int value = 0;
+            for (; index < end; ++index) {
+                char character = chars[index];
+                if (character < '0' || character > '9') {
+                    throw new NumberFormatException();
+                }
+                value = value * 10 + (character - '0');
+            }
+            return negative ? -value : value;
+        }
+
+        /**
+         * Parses decimal numbers, with optional exponents, in-place.  Anything else is given to
+         * {@link Float#parseFloat(String)}, which will handle it or throw an exception as appropriate.
+         */
+        private float parseFloat(int start, int end) {
+            int index = start;
+            boolean negative = false;
+            if (index < end && (chars[index] == '-' || chars[index] == '+')) {
+                negative = chars[index] == '-';
+                ++index;
+            }
+
+            //Only keep as many digits as fit in a long.  Any more are too small to matter for a float.
+            long mantissa = 0;
+            int significantDigits = 0;
+            int exponent = 0;
+            boolean hasDigits = false;
+            for (; index < end && chars[index] >= '0' && chars[index] <= '9'; ++index) {
+                hasDigits = true;
+                if (significantDigits < 18) {
+                    mantissa = mantissa * 10 + (chars[index] - '0');
+                    if (mantissa != 0) {
+                        ++significantDigits;
+                    }
+                } else {
+                    ++exponent;
+                }
+            }
+            if (index < end && chars[index] == '.') {
+                for (++index; index < end && chars[index] >= '0' && chars[index] <= '9'; ++index) {
+                    hasDigits = true;
+                    if (significantDigits < 18) {
+                        mantissa = mantissa * 10 + (chars[index] - '0');
+                        if (mantissa != 0) {
+                            ++significantDigits;
+                        }
+                        --exponent;
+                    }
+                }
+            }
+            if (hasDigits && index < end && (chars[index] == 'e' || chars[index] == 'E')) {
+                exponent += parseInt(index + 1 < end && chars[index + 1] == '+' ? index + 2 : index + 1, end);
+                index = end;
+            }
+            if (!hasDigits || index != end) {
+                return Float.parseFloat(new String(chars, start, end - start));
+            }
+
+            double value;
+            if (exponent >= 0) {
+                value = mantissa * (exponent < POWERS_OF_TEN.length ? POWERS_OF_TEN[exponent] : Math.pow(10, exponent));
+            } else {
+                value = mantissa / (-exponent < POWERS_OF_TEN.length ? POWERS_OF_TEN[-exponent] : Math.pow(10, -exponent));
+            }
+            return (float) (negative ? -value : value);
+        }
+    }
 }
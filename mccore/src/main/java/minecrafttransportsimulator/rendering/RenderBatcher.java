@@ -0,0 +1,200 @@
+package minecrafttransportsimulator.rendering;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Batcher for draws of cached vertices.  Rendering interfaces that queue their draws to do later add them here,
+ * and then have them handed back in batches when they render.  Each batch is all the draws that share the same
+ * render state and vertices, such as a row of identical streetlights, so the vertices only need to be bound once
+ * for all of them.  Batches with the same render state are handed back one after another, so each state only needs
+ * to be set up once.  The draws themselves are whatever the interface needs to render one instance, like its transform.
+ * <br><br>
+ * Since every draw in a batch shares its vertices and state, interfaces with an instanced shader can draw a whole batch
+ * in one draw call, with the transform of each draw as an instance.  Interfaces without one still make a draw call per
+ * draw, as MC's entity shaders take a single transform per call, but save the state setups and buffer binds between them.
+ * <br><br>
+ * Draws are grouped by sorting on a key made from the order their state and vertices were first added, and the order
+ * of the draw itself.  This keeps states, batches, and the draws in each batch in the order they were added.
+ * There is no rendering code here, so interfaces only need to do the actual rendering in their {@link BatchRenderer}.
+ * <br><br>
+ * Nothing is allocated when adding draws once the batcher has seen as many draws, states, and vertices in a frame.
+ * Draws are pooled objects made by the interface's factory, which are filled in rather than made for each draw,
+ * and are used again in the same order the next frame.  States and vertices keep their entries between frames,
+ * so vertices that are no longer rendered should be removed with {@link #remove(RenderableVertices)}.
+ *
+ * @author don_bruce
+ */
+public class RenderBatcher<StateType, DrawType> {
+    private static final int DRAW_BITS = 24;
+    private static final int VERTICES_BITS = 24;
+    private static final long DRAW_MASK = (1L << DRAW_BITS) - 1;
+    private static final long VERTICES_MASK = (1L << VERTICES_BITS) - 1;
+
+    private final Supplier<DrawType> drawFactory;
+    private final Map<StateType, FrameIndex> stateIndexes = new HashMap<>();
+    private final Map<RenderableVertices, FrameIndex> verticesIndexes = new HashMap<>();
+    private final List<StateType> states = new ArrayList<>();
+    private final List<RenderableVertices> vertices = new ArrayList<>();
+    private final List<DrawType> drawPool = new ArrayList<>();
+    private final List<DrawType> batchDraws = new ArrayList<>();
+    private long[] sortKeys = new long[256];
+    private int drawCount;
+    private int frameNumber;
+    private int statesLastRender;
+    private int batchesLastRender;
+    private int drawsLastRender;
+
+    public RenderBatcher(Supplier<DrawType> drawFactory) {
+        this.drawFactory = drawFactory;
+    }
+
+    /**
+     * Adds a draw of the passed-in vertices with the passed-in state.  The returned draw should be filled in
+     * with the data for this draw.  It will have the data from whatever draw it was used for last, if any.
+     */
+    public DrawType add(StateType state, RenderableVertices vertexObject) {
+        FrameIndex stateIndex = stateIndexes.get(state);
+        if (stateIndex == null) {
+            stateIndex = new FrameIndex();
+            stateIndexes.put(state, stateIndex);
+        }
+        if (stateIndex.frameNumber != frameNumber) {
+            stateIndex.frameNumber = frameNumber;
+            stateIndex.index = states.size();
+            states.add(state);
+        }
+        FrameIndex verticesIndex = verticesIndexes.get(vertexObject);
+        if (verticesIndex == null) {
+            verticesIndex = new FrameIndex();
+            verticesIndexes.put(vertexObject, verticesIndex);
+        }
+        if (verticesIndex.frameNumber != frameNumber) {
+            verticesIndex.frameNumber = frameNumber;
+            verticesIndex.index = vertices.size();
+            vertices.add(vertexObject);
+        }
+
+        int drawIndex = drawCount++;
+        if (drawIndex == sortKeys.length) {
+            sortKeys = Arrays.copyOf(sortKeys, sortKeys.length * 2);
+        }
+        sortKeys[drawIndex] = getSortKey(stateIndex.index, verticesIndex.index, drawIndex);
+        if (drawIndex == drawPool.size()) {
+            drawPool.add(drawFactory.get());
+        }
+        return drawPool.get(drawIndex);
+    }
+
+    /**
+     * Removes the passed-in vertices from this batcher.  Should be called once they won't be rendered again.
+     */
+    public void remove(RenderableVertices vertexObject) {
+        verticesIndexes.remove(vertexObject);
+    }
+
+    /**
+     * Returns the key draws are sorted by.  States are in the highest bits, then vertices, then the draw itself.
+     */
+    public static long getSortKey(int stateIndex, int verticesIndex, int drawIndex) {
+        return ((long) stateIndex << (VERTICES_BITS + DRAW_BITS)) | ((verticesIndex & VERTICES_MASK) << DRAW_BITS) | (drawIndex & DRAW_MASK);
+    }
+
+    /**
+     * Hands all draws added since the last call to the renderer, in batches, and then clears them.
+     */
+    public void render(BatchRenderer<StateType, DrawType> renderer) {
+        Arrays.sort(sortKeys, 0, drawCount);
+        int lastStateIndex = -1;
+        int lastVerticesIndex = -1;
+        int batchCount = 0;
+        for (int i = 0; i < drawCount; ++i) {
+            long sortKey = sortKeys[i];
+            int stateIndex = (int) (sortKey >>> (VERTICES_BITS + DRAW_BITS));
+            int verticesIndex = (int) ((sortKey >>> DRAW_BITS) & VERTICES_MASK);
+            if (stateIndex != lastStateIndex || verticesIndex != lastVerticesIndex) {
+                //New batch.  Render the last one, and change states if needed.
+                if (lastStateIndex != -1) {
+                    renderer.renderBatch(states.get(lastStateIndex), vertices.get(lastVerticesIndex), batchDraws);
+                    batchDraws.clear();
+                }
+                if (stateIndex != lastStateIndex) {
+                    if (lastStateIndex != -1) {
+                        renderer.clearState(states.get(lastStateIndex));
+                    }
+                    renderer.setupState(states.get(stateIndex));
+                    lastStateIndex = stateIndex;
+                }
+                lastVerticesIndex = verticesIndex;
+                ++batchCount;
+            }
+            batchDraws.add(drawPool.get((int) (sortKey & DRAW_MASK)));
+        }
+        if (lastStateIndex != -1) {
+            renderer.renderBatch(states.get(lastStateIndex), vertices.get(lastVerticesIndex), batchDraws);
+            batchDraws.clear();
+            renderer.clearState(states.get(lastStateIndex));
+        }
+
+        statesLastRender = states.size();
+        batchesLastRender = batchCount;
+        drawsLastRender = drawCount;
+        states.clear();
+        vertices.clear();
+        drawCount = 0;
+        ++frameNumber;
+    }
+
+    /**
+     * Returns how many render states were set up the last time draws were rendered.
+     */
+    public int getStateCount() {
+        return statesLastRender;
+    }
+
+    /**
+     * Returns how many batches were rendered the last time draws were rendered.
+     */
+    public int getBatchCount() {
+        return batchesLastRender;
+    }
+
+    /**
+     * Returns how many draws were rendered the last time draws were rendered.
+     */
+    public int getDrawCount() {
+        return drawsLastRender;
+    }
+
+    /**
+     * Index of a state or set of vertices in the frame it was last added in.
+     */
+    private static class FrameIndex {
+        private int frameNumber = -1;
+        private int index;
+    }
+
+    /**
+     * Renderer for batches.  Implemented by the interfaces to do the actual rendering.
+     */
+    public interface BatchRenderer<StateType, DrawType> {
+        /**
+         * Sets up the passed-in state.  All batches rendered until {@link #clearState(Object)} is called will use it.
+         */
+        void setupState(StateType state);
+
+        /**
+         * Renders all draws of the passed-in vertices.  The list is re-used, so don't keep it.
+         */
+        void renderBatch(StateType state, RenderableVertices vertexObject, List<DrawType> draws);
+
+        /**
+         * Clears the passed-in state once all its batches are rendered.
+         */
+        void clearState(StateType state);
+    }
+}
@@ -0,0 +1,184 @@
+package minecrafttransportsimulator.rendering;
+
+import minecrafttransportsimulator.baseclasses.BoundingBox;
+import minecrafttransportsimulator.baseclasses.Point3D;
+import minecrafttransportsimulator.entities.components.AEntityC_Renderable;
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
+import minecrafttransportsimulator.systems.ConfigSystem;
+
+/**
+ * Culling stage for rendering entities.  This is checked by entities before they render their models,
+ * and tells them if they can be seen at all.  Entities that can't be seen skip all model work, but still
+ * do their partial-tick sound updates, as sounds need to be heard even if their source isn't seen.
+ * <br><br>
+ * Entities are culled if they are farther than their max render distance, if they have one, or are outside of the camera's view.
+ * The view is checked as a cone around the direction the camera is looking that covers the corners of the screen,
+ * with a margin for FOV effects, rather than as an exact frustum.  This makes the check the same no matter how
+ * the camera is rolled, which custom cameras may do.  Entities are checked as the sphere around their bounds,
+ * plus a margin for models that are larger than their collision and interaction boxes.
+ * <br><br>
+ * This stage also works out how much of the screen each entity takes up, which sets the level of detail it renders at.
+ * Entities that are small on screen don't render their small objects, windows, text, or instruments, and may use
+ * simpler models if their pack supplies them.  Entities that are even smaller only update their animations every
+ * few ticks, as the movement can't be seen anyways.  Entities always render in full detail if culling is off.
+ * <br><br>
+ * The stage must be set up once per render pass with {@link #beginPass(boolean)}, as the camera moves between frames.
+ * Counts are only made in the non-blended pass, as entities are checked in both passes each frame.
+ *
+ * @author don_bruce
+ */
+public class RenderCullingStage {
+    /**
+     * Multiplier for the FOV, to account for the FOV being changed by effects like sprinting.
+     **/
+    private static final double FOV_MARGIN = 1.2;
+    /**
+     * Distance, in blocks, added to the size of entities.
+     **/
+    private static final double SIZE_MARGIN = 2.0;
+    /**
+     * Screen size, as a fraction of the screen height, below which entities render in low detail.
+     **/
+    public static final double LOW_DETAIL_SCREEN_SIZE = 0.1;
+    /**
+     * Screen size below which entities only update their animations every {@link #THROTTLED_ANIMATION_INTERVAL} ticks.
+     **/
+    public static final double THROTTLED_ANIMATION_SCREEN_SIZE = 0.05;
+    public static final int THROTTLED_ANIMATION_INTERVAL = 4;
+    /**
+     * Screen size below which objects aren't rendered on entities in low detail.
+     **/
+    public static final double MIN_OBJECT_SCREEN_SIZE = 0.005;
+
+    private final Point3D cameraPosition = new Point3D();
+    private final Point3D cameraLookVector = new Point3D();
+    private final Point3D centerOffset = new Point3D();
+    private boolean cullingEnabled;
+    private boolean levelOfDetailEnabled;
+    private boolean viewKnown;
+    private double viewHalfAngle;
+    private double verticalHalfTangent;
+    private int drawnThisFrame;
+    private int culledThisFrame;
+    private int drawnLastFrame;
+    private int culledLastFrame;
+
+    /**
+     * Sets up this stage for a render pass.  Should be called before any entity is rendered in the pass.
+     */
+    public void beginPass(boolean blendingEnabled) {
+        if (!blendingEnabled) {
+            drawnLastFrame = drawnThisFrame;
+            culledLastFrame = culledThisFrame;
+            drawnThisFrame = 0;
+            culledThisFrame = 0;
+        }
+        cullingEnabled = ConfigSystem.client.renderingSettings.cullRendering.value;
+        if (cullingEnabled) {
+            levelOfDetailEnabled = ConfigSystem.client.renderingSettings.levelOfDetail.value;
+            cameraPosition.set(InterfaceManager.clientInterface.getCameraPosition());
+            double fov = InterfaceManager.clientInterface.getFOV();
+            verticalHalfTangent = Math.tan(Math.toRadians(Math.min(fov, 179) / 2));
+            Point3D lookVector = InterfaceManager.clientInterface.getCameraLookVector();
+            viewKnown = lookVector != null;
+            if (viewKnown) {
+                cameraLookVector.set(lookVector).normalize();
+
+                //Get the angle from the center of the screen to the corners.  FOV is the vertical angle.
+                long displaySize = InterfaceManager.clientInterface.getPackedDisplaySize();
+                double width = displaySize >> Integer.SIZE;
+                double height = (int) displaySize;
+                double aspectRatio = height > 0 ? width / height : 1;
+                double marginHalfTangent = Math.tan(Math.toRadians(Math.min(fov * FOV_MARGIN, 179) / 2));
+                viewHalfAngle = Math.atan(marginHalfTangent * Math.sqrt(1 + aspectRatio * aspectRatio));
+            }
+        } else {
+            levelOfDetailEnabled = false;
+        }
+    }
+
+    /**
+     * Returns true if the entity should render its model.  Also counts the entity as drawn or culled,
+     * and sets how much of the screen it takes up.
+     */
+    public boolean shouldRender(AEntityC_Renderable entity, boolean blendingEnabled) {
+        entity.screenSize = 1;
+        entity.screenScale = 1;
+        boolean shouldRender = !cullingEnabled || isVisible(entity);
+        if (!blendingEnabled) {
+            if (shouldRender) {
+                ++drawnThisFrame;
+            } else {
+                ++culledThisFrame;
+            }
+        }
+        return shouldRender;
+    }
+
+    private boolean isVisible(AEntityC_Renderable entity) {
+        BoundingBox bounds = entity.getCullingBounds();
+        double radius = Math.sqrt(bounds.widthRadius * bounds.widthRadius + bounds.heightRadius * bounds.heightRadius + bounds.depthRadius * bounds.depthRadius) + SIZE_MARGIN;
+        centerOffset.set(bounds.globalCenter).subtract(cameraPosition);
+        double distance = centerOffset.length();
+
+        //Check distance.  The camera is inside the entity if it's closer than its radius, so it's always visible then.
+        if (distance <= radius) {
+            return true;
+        } else {
+            double maxDistance = entity.getMaxRenderDistance();
+            if (maxDistance > 0 && distance - radius > maxDistance) {
+                return false;
+            }
+        }
+
+        //Get how much of the screen height the entity, and each block at its distance, takes up.
+        if (levelOfDetailEnabled) {
+            entity.screenScale = 1 / (distance * verticalHalfTangent);
+            entity.screenSize = radius * entity.screenScale;
+        }
+
+        //Check if the sphere around the entity is in the view cone.
+        //This is the case if the angle to its center is within the view angle plus the angle the sphere covers.
+        if (viewKnown) {
+            double angleToCenter = Math.acos(centerOffset.scale(1 / distance).dotProduct(cameraLookVector, true));
+            return angleToCenter - Math.asin(radius / distance) <= viewHalfAngle;
+        } else {
+            return true;
+        }
+    }
+
+    /**
+     * Returns true if the entity is small enough on screen that it should render in low detail.
+     */
+    public static boolean isLowDetail(AEntityC_Renderable entity) {
+        return entity.screenSize < LOW_DETAIL_SCREEN_SIZE;
+    }
+
+    /**
+     * Returns true if an object of the passed-in radius on the entity is too small on screen to render in low detail.
+     */
+    public static boolean isTooSmall(AEntityC_Renderable entity, double objectRadius) {
+        return objectRadius * entity.screenScale < MIN_OBJECT_SCREEN_SIZE;
+    }
+
+    /**
+     * Returns how often, in ticks, the entity should update its animations when rendering.
+     */
+    public static int getAnimationInterval(AEntityC_Renderable entity) {
+        return entity.screenSize < THROTTLED_ANIMATION_SCREEN_SIZE ? THROTTLED_ANIMATION_INTERVAL : 1;
+    }
+
+    /**
+     * Returns how many entities rendered their models last frame.
+     */
+    public int getDrawnCount() {
+        return drawnLastFrame;
+    }
+
+    /**
+     * Returns how many entities were culled last frame.
+     */
+    public int getCulledCount() {
+        return culledLastFrame;
+    }
+}
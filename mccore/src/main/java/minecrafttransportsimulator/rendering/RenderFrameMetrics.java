@@ -0,0 +1,100 @@
+package minecrafttransportsimulator.rendering;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
+
+/**
+ * Metrics for rendering entities each frame, for display on the debug screen.  Like {@link RenderCullingStage},
+ * this must be told when each render pass begins and ends, as that's where frames start and end.  Entities are
+ * rendered in two passes each frame, so frames are counted from the start of one non-blended pass to the next.
+ * <br><br>
+ * The number of times cached vertices were uploaded to the GPU in full is kept here.  This should be 0 most frames,
+ * as uploads are only needed when models are first rendered, or change shape.  Constant uploads mean something
+ * is marking its vertices as changed when it doesn't need to.
+ * <br><br>
+ * So is the number of bytes allocated by the render thread while rendering entities, between {@link #beginPass(boolean)}
+ * and {@link #endPass(boolean)}.  Rendering is done every frame, so anything allocated here is garbage the GC has
+ * to clean up many times a second.  This should stay near 0 once models are loaded, and go up with the number of
+ * entities if anything is allocated per-draw.  It is only counted if the JVM supports it, which most do.
+ *
+ * @author don_bruce
+ */
+public class RenderFrameMetrics {
+    /**
+     * The thread bean, or null if the JVM can't tell us how much a thread allocated.
+     * This is looked up once, as looking it up allocates, which would count against the frame.
+     **/
+    private static final com.sun.management.ThreadMXBean ALLOCATION_BEAN = getAllocationBean();
+
+    private long uploadCountAtFrameStart;
+    private long uploadsLastFrame;
+    private long allocatedAtPassStart;
+    private long allocatedThisFrame;
+    private long allocatedLastFrame = -1;
+
+    /**
+     * Starts counting for a render pass.  Should be called before any entity is rendered in the pass.
+     */
+    public void beginPass(boolean blendingEnabled) {
+        if (!blendingEnabled) {
+            long uploadCount = InterfaceManager.renderingInterface.getVertexUploadCount();
+            uploadsLastFrame = uploadCount - uploadCountAtFrameStart;
+            uploadCountAtFrameStart = uploadCount;
+            if (allocatedAtPassStart != -1) {
+                allocatedLastFrame = allocatedThisFrame;
+            }
+            allocatedThisFrame = 0;
+        }
+        allocatedAtPassStart = getThreadAllocatedBytes();
+    }
+
+    /**
+     * Ends counting for a render pass.  Should be called after all entities and their queued draws are rendered in the pass.
+     */
+    public void endPass(boolean blendingEnabled) {
+        if (allocatedAtPassStart != -1) {
+            allocatedThisFrame += getThreadAllocatedBytes() - allocatedAtPassStart;
+        }
+    }
+
+    /**
+     * Returns how many times cached vertices were uploaded to the GPU in full last frame.
+     */
+    public long getUploadCount() {
+        return uploadsLastFrame;
+    }
+
+    /**
+     * Returns how many bytes the render thread allocated while rendering entities last frame, or -1 if the JVM can't tell us.
+     */
+    public long getAllocatedBytes() {
+        return allocatedLastFrame;
+    }
+
+    /**
+     * Returns how many bytes the current thread has allocated in total, or -1 if the JVM can't tell us.
+     */
+    static long getThreadAllocatedBytes() {
+        if (ALLOCATION_BEAN != null && ALLOCATION_BEAN.isThreadAllocatedMemoryEnabled()) {
+            return ALLOCATION_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the JVM's thread bean if it can tell us how much a thread allocated, or null if not.
+     * This isn't part of the standard API, so we need to check for the JVM's own version of the thread bean.
+     */
+    private static com.sun.management.ThreadMXBean getAllocationBean() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+            if (allocationBean.isThreadAllocatedMemorySupported()) {
+                return allocationBean;
+            }
+        }
+        return null;
+    }
+}
@@ -17,6 +17,9 @@ import minecrafttransportsimulator.mcinterface.InterfaceManager;
  * Only set values on this object via the setter functions. Do not modify them directly.
  * The only exception is the {@link #transform} object, which is assumed to be modified
  * each render call and thus does no state-caching.
+ * <br>
+ * Color, alpha, and light value are per-draw states.  Changing them doesn't require cached vertices to be
+ * uploaded again, so things that change them often, like flickering lights, don't cost more to render.
  *
  * @author don_bruce
  */
@@ -36,6 +39,12 @@ public class RenderableData {
     public LightingMode lightingMode = LightingMode.NORMAL;
     public boolean enableBrightBlending;
     public boolean isTranslucent;
+    /**
+     * Key for the render state of this data: texture, translucency, lighting mode, and blending.
+     * Data with the same key can be rendered with the same state.  Only changes when one of those does,
+     * so renderers can use it to look up their state without building a key for every draw.
+     **/
+    public String renderStateKey;
 
     private double lastWidthRadius;
     private double lastHeightRadius;
@@ -51,6 +60,7 @@ public class RenderableData {
             setTexture(texture);
         }
         setColor(ColorRGB.WHITE);
+        updateRenderStateKey();
     }
 
     public RenderableData(RenderableVertices vertexObject) {
@@ -63,14 +73,18 @@ public class RenderableData {
             this.isTextureTranslucent = texture != null && (texture.toLowerCase(Locale.ROOT).contains(AModelParser.TRANSLUCENT_OBJECT_NAME) || texture.endsWith(GUIComponentCutout.LIT_SUFFIX));
             this.changedSinceLastRender = true;
             this.isTranslucent = isTranslucentForced || vertexObject.isTranslucent || isTextureTranslucent || alpha < 1.0;
+            updateRenderStateKey();
         }
     }
 
     public void setAlpha(float alpha) {
         if (this.alpha != alpha) {
             this.alpha = alpha;
-            this.changedSinceLastRender = true;
+            boolean wasTranslucent = isTranslucent;
             this.isTranslucent = isTranslucentForced || vertexObject.isTranslucent || isTextureTranslucent || alpha < 1.0;
+            if (isTranslucent != wasTranslucent) {
+                updateRenderStateKey();
+            }
         }
     }
 
@@ -79,27 +93,25 @@ public class RenderableData {
             this.isTranslucentForced = true;
             this.isTranslucent = true;
             this.changedSinceLastRender = true;
+            updateRenderStateKey();
         }
     }
 
     public void setColor(ColorRGB color) {
         if (!this.color.equals(color)) {
             this.color.setTo(color);
-            this.changedSinceLastRender = true;
         }
     }
 
     public void setLightValue(int worldLightValue) {
-        if (this.worldLightValue != worldLightValue) {
-            this.worldLightValue = worldLightValue;
-            this.changedSinceLastRender = true;
-        }
+        this.worldLightValue = worldLightValue;
     }
 
     public void setLightMode(LightingMode mode) {
         if (this.lightingMode != mode) {
             this.lightingMode = mode;
             this.changedSinceLastRender = true;
+            updateRenderStateKey();
         }
     }
 
@@ -107,6 +119,7 @@ public class RenderableData {
         if (this.enableBrightBlending != enableBrightBlending) {
             this.enableBrightBlending = enableBrightBlending;
             this.changedSinceLastRender = true;
+            updateRenderStateKey();
         }
     }
 
@@ -120,6 +133,10 @@ public class RenderableData {
         }
     }
 
+    private void updateRenderStateKey() {
+        renderStateKey = texture + isTranslucent + lightingMode + enableBrightBlending;
+    }
+
     public void render() {
         InterfaceManager.renderingInterface.renderVertices(this, changedSinceLastRender);
         changedSinceLastRender = false;
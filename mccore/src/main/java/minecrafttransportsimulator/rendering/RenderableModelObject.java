@@ -31,6 +31,7 @@ import minecrafttransportsimulator.jsondefs.JSONLight.JSONLightBlendableComponen
 import minecrafttransportsimulator.jsondefs.JSONText;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.rendering.GIFParser.ParsedGIF;
+import minecrafttransportsimulator.rendering.ModelCache.CachedModel;
 import minecrafttransportsimulator.rendering.RenderableData.LightingMode;
 import minecrafttransportsimulator.systems.ConfigSystem;
 
@@ -44,6 +45,8 @@ import minecrafttransportsimulator.systems.ConfigSystem;
  */
 public class RenderableModelObject {
     public final RenderableData renderable;
+    private final CachedModel model;
+    private final double radius;
     private final boolean isWindow;
     private final boolean isOnlineTexture;
     private final JSONAnimatedObject objectDef;
@@ -68,14 +71,36 @@ public class RenderableModelObject {
     private static final Map<String, String> erroredTextures = new HashMap<>();
     private static boolean errorTextureBound;
 
-    public RenderableModelObject(AEntityD_Definable<?> entity, RenderableVertices vertexObject) {
+    public RenderableModelObject(AEntityD_Definable<?> entity, RenderableVertices vertexObject, CachedModel model) {
         super();
+        this.model = model;
+        model.addUser();
         this.isWindow = vertexObject.name.toLowerCase(Locale.ROOT).contains(AModelParser.WINDOW_OBJECT_NAME);
         this.isOnlineTexture = vertexObject.name.toLowerCase(Locale.ROOT).startsWith(AModelParser.ONLINE_TEXTURE_OBJECT_NAME) || vertexObject.name.toLowerCase(Locale.ROOT).endsWith(AModelParser.ONLINE_TEXTURE_OBJECT_NAME);
         this.objectDef = entity.animatedObjectDefinitions.get(vertexObject.name);
         this.lightDef = entity.lightObjectDefinitions.get(vertexObject.name);
         this.switchbox = entity.animatedObjectSwitchboxes.get(vertexObject.name);
 
+        //Get our size from the box around our vertices, for level-of-detail checks.
+        float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE, minZ = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE, maxZ = -Float.MAX_VALUE;
+        for (int i = 0; i < vertexObject.vertices.limit(); i += IndexedMesh.FLOATS_PER_VERTEX) {
+            float x = vertexObject.vertices.get(i + 5);
+            float y = vertexObject.vertices.get(i + 6);
+            float z = vertexObject.vertices.get(i + 7);
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            minZ = Math.min(minZ, z);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            maxZ = Math.max(maxZ, z);
+        }
+        if (minX <= maxX) {
+            this.radius = new Point3D(maxX - minX, maxY - minY, maxZ - minZ).length() / 2;
+        } else {
+            this.radius = 0;
+        }
+
         //If we are a window, split the model into two parts.  The first will be the exterior which will
         //be our normal model, the second will be a new, inverted, interior model.
         if (isWindow) {
@@ -329,8 +354,8 @@ public class RenderableModelObject {
                 }
             }
 
-            //Render text on this object.  Only do this on the solid pass.
-            if (!blendingEnabled) {
+            //Render text on this object.  Only do this on the solid pass, and not in low detail.
+            if (!blendingEnabled && !RenderCullingStage.isLowDetail(entity)) {
                 for (Entry<JSONText, String> textEntry : entity.text.entrySet()) {
                     JSONText textDef = textEntry.getKey();
                     if (renderable.vertexObject.name.equals(textDef.attachedTo)) {
@@ -347,6 +372,7 @@ public class RenderableModelObject {
      */
     public void destroy() {
         renderable.destroy();
+        model.removeUser();
     }
 
     private boolean shouldRender(AEntityD_Definable<?> entity, boolean blendingEnabled, float partialTicks) {
@@ -358,12 +384,19 @@ public class RenderableModelObject {
         if (isWindow && !ConfigSystem.client.renderingSettings.renderWindows.value) {
             return false;
         }
+        //Block windows, and objects too small to see, if we are in low detail.
+        //Lights and treads are kept, as lights are seen from far away, and treads render far larger than their object.
+        if (RenderCullingStage.isLowDetail(entity) && (isWindow || (lightDef == null && treadPoints == null && RenderCullingStage.isTooSmall(entity, radius)))) {
+            return false;
+        }
         //If we have a switchbox, run it once, and if it returns false for a non-blended object, don't render.
+        //Animations are run less often if we are small on screen.
         if (switchbox != null) {
+            int animationInterval = RenderCullingStage.getAnimationInterval(entity);
             if (objectDef.blendedAnimations) {
-                switchbox.runSwitchbox(partialTicks, false);
+                switchbox.runSwitchboxThrottled(partialTicks, animationInterval);
             } else {
-                return switchbox.runSwitchbox(partialTicks, false);
+                return switchbox.runSwitchboxThrottled(partialTicks, animationInterval);
             }
         }
         //No false conditions, return true.
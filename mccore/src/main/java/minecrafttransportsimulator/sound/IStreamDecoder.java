@@ -21,6 +21,12 @@ public interface IStreamDecoder {
      * The max size of the buffer (in bytes (2 bytes per sample)) to be returned in any given call to {@link #readBlock()}.
      **/
     int BUFFER_SIZE = 128 * 1024;
+    /**
+     * The max size of the buffer (in bytes) that {@link #readAll(ByteBuffer)} will create up-front from
+     * {@link #getEstimatedDecodedSize()}.  Estimates come from stream headers, which may be wrong, so we don't
+     * trust them past this.  Sounds larger than this still decode fine, the buffer just has to grow.
+     **/
+    int MAX_ESTIMATED_DECODED_SIZE = 16 * 1024 * 1024;
 
     /**
      * Reads a block of data and returns it as a ByteBuffer.
@@ -31,6 +37,43 @@ public interface IStreamDecoder {
      */
     ByteBuffer readBlock();
 
+    /**
+     * Decodes the rest of the stream into a single buffer, and returns it ready to be read.
+     * The passed-in buffer is used for this if it is big enough to hold the estimated size from
+     * {@link #getEstimatedDecodedSize()}, capped to {@link #MAX_ESTIMATED_DECODED_SIZE}.  Otherwise, a new one is created of that size.
+     * If the buffer fills during decoding, its size is doubled.  The returned buffer may be
+     * passed back in on later calls to re-use it, which prevents creating new direct memory for
+     * every stream.  This should only be used for sounds that need all their data at once: streaming
+     * sounds should call {@link #readBlock()} and handle each block as its own buffer.
+     */
+    default ByteBuffer readAll(ByteBuffer buffer) {
+        int estimatedSize = Math.max(Math.min(getEstimatedDecodedSize(), MAX_ESTIMATED_DECODED_SIZE), BUFFER_SIZE);
+        if (buffer == null || buffer.capacity() < estimatedSize) {
+            buffer = ByteBuffer.allocateDirect(estimatedSize);
+        }
+        buffer.clear();
+        ByteBuffer blockRead;
+        while ((blockRead = readBlock()) != null) {
+            if (buffer.remaining() < blockRead.remaining()) {
+                ByteBuffer largerBuffer = ByteBuffer.allocateDirect(Math.max(buffer.capacity() * 2, buffer.position() + blockRead.remaining()));
+                buffer.flip();
+                largerBuffer.put(buffer);
+                buffer = largerBuffer;
+            }
+            buffer.put(blockRead);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Returns the estimated size, in bytes, of all the data that will be returned by this decoder.
+     * This is used for sizing buffers, so it does not need to be exact.  Returns 0 if the size is unknown.
+     */
+    default int getEstimatedDecodedSize() {
+        return 0;
+    }
+
     /**
      * Stops the decoding process.  This ensures all I/O
      * references like streams are safely closed, allowing for
@@ -46,13 +89,19 @@ public interface IStreamDecoder {
      * expect a mono sound stream.
      */
     static ByteBuffer stereoToMono(ByteBuffer stereoBuffer) {
-        ByteBuffer monoBuffer = ByteBuffer.allocateDirect(stereoBuffer.limit() / 2);
+        return stereoToMono(stereoBuffer, ByteBuffer.allocateDirect(stereoBuffer.limit() / 2));
+    }
+
+    /**
+     * Like {@link #stereoToMono(ByteBuffer)}, but puts the data into the passed-in buffer rather than a new one.
+     * The passed-in buffer must be able to hold at least half the data in the stereo buffer.
+     */
+    static ByteBuffer stereoToMono(ByteBuffer stereoBuffer, ByteBuffer monoBuffer) {
+        monoBuffer.clear();
         while (stereoBuffer.hasRemaining()) {
             //Combine samples using little-endian ordering.
-            byte[] sampleSet = new byte[4];
-            stereoBuffer.get(sampleSet);
-            int leftSample = (sampleSet[1] << 8) | (sampleSet[0] & 0xFF);
-            int rightSample = (sampleSet[3] << 8) | (sampleSet[2] & 0xFF);
+            int leftSample = (stereoBuffer.get() & 0xFF) | (stereoBuffer.get() << 8);
+            int rightSample = (stereoBuffer.get() & 0xFF) | (stereoBuffer.get() << 8);
             int combinedSample = (leftSample + rightSample) / 2;
             monoBuffer.put((byte) (combinedSample & 0xFF));
             monoBuffer.put((byte) (combinedSample >> 8));
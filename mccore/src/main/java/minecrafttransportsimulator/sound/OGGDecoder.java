@@ -25,6 +25,19 @@ public class OGGDecoder implements IStreamDecoder {
      * Buffer used to store decoded data that can be sent to OpenAL.
      **/
     private final ByteBuffer decodedDataBuffer;
+    /**
+     * Buffer used to store mono data for stereo streams.  Only created for stereo streams.
+     **/
+    private final ByteBuffer monoDataBuffer;
+    /**
+     * Max ratio of decoded data to stream data we will estimate.  Vorbis rarely gets past 12:1 for 16-bit mono, even at
+     * low bitrates, so anything past this means the header's bitrate is wrong and we shouldn't trust it.
+     **/
+    private static final int MAX_COMPRESSION_RATIO = 24;
+    /**
+     * Estimated size of all decoded data, or 0 if we don't know how big the stream is.
+     **/
+    private final int estimatedDecodedSize;
     /**
      * Internal flag set to true when we are done processing data.  Some data may still be left in buffers for return at this point.
      **/
@@ -87,6 +100,15 @@ public class OGGDecoder implements IStreamDecoder {
     public OGGDecoder(InputStream dataSourceStream) {
         this.dataSourceStream = dataSourceStream;
 
+        //Get the size of the stream, if we can, to estimate how much data we'll decode.
+        //Jar resource streams report their full uncompressed size here.
+        int streamSize = 0;
+        try {
+            streamSize = dataSourceStream.available();
+        } catch (Exception e) {
+            //Don't know the size, so we can't estimate.
+        }
+
         //Initialize objects and info and comment objects.
         syncState.init();
         info.init();
@@ -96,6 +118,7 @@ public class OGGDecoder implements IStreamDecoder {
         //Read stream header to set up properties for the audio.
         //This is three packets, all of which go to the info and comment objects.
         int packetCount = 0;
+        int nominalBitrate = 0;
         while (packetCount < 3) {
             //Loop as long as we have packets, and haven't processed 3.
             //The Vorbis header is in three packets; the initial small packet in
@@ -114,6 +137,12 @@ public class OGGDecoder implements IStreamDecoder {
                     streamState.pagein(page);
                     streamState.packetout(packet);
                     info.synthesis_headerin(comment, packet);
+                    if (packetCount == 1 && packet.bytes >= 24) {
+                        //Identification header.  Info doesn't let us see the bitrate, so get it from the packet.
+                        //It's the little-endian int after the packet type, "vorbis", version, channels, rate, and max bitrate.
+                        int bitrateOffset = packet.packet + 20;
+                        nominalBitrate = (packet.packet_base[bitrateOffset] & 0xFF) | (packet.packet_base[bitrateOffset + 1] & 0xFF) << 8 | (packet.packet_base[bitrateOffset + 2] & 0xFF) << 16 | packet.packet_base[bitrateOffset + 3] << 24;
+                    }
                 } else if (pageStatus == 0) {
                     //Need more data.
                     try {
@@ -134,6 +163,15 @@ public class OGGDecoder implements IStreamDecoder {
         pcmInfo = new float[1][][];
         pcmIndex = new int[info.channels];
         this.decodedDataBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.nativeOrder());
+        this.monoDataBuffer = info.channels == 2 ? ByteBuffer.allocateDirect(BUFFER_SIZE / 2) : null;
+
+        //Estimate the length of the stream from the nominal bitrate.  Output is always 16-bit mono.
+        if (streamSize > 1 && nominalBitrate > 0) {
+            long bitrateEstimate = (long) streamSize * 8 * info.rate * 2 / nominalBitrate;
+            this.estimatedDecodedSize = (int) Math.min(Math.min(bitrateEstimate, (long) streamSize * MAX_COMPRESSION_RATIO), MAX_ESTIMATED_DECODED_SIZE);
+        } else {
+            this.estimatedDecodedSize = 0;
+        }
     }
 
     @Override
@@ -190,7 +228,7 @@ public class OGGDecoder implements IStreamDecoder {
         //Rewind the decoded data buffer, set the limit based on the samples read, and return.
         decodedDataBuffer.rewind();
         decodedDataBuffer.limit(totalSamplesProcessed * 2 * info.channels);
-        return info.channels == 2 ? IStreamDecoder.stereoToMono(decodedDataBuffer) : decodedDataBuffer;
+        return info.channels == 2 ? IStreamDecoder.stereoToMono(decodedDataBuffer, monoDataBuffer) : decodedDataBuffer;
     }
 
     private void decodeSamples() {
@@ -228,6 +266,11 @@ public class OGGDecoder implements IStreamDecoder {
         decodedDataBuffer.position(decodedDataBuffer.position() + sampleBuffer.position() * 2);
     }
 
+    @Override
+    public int getEstimatedDecodedSize() {
+        return estimatedDecodedSize;
+    }
+
     @Override
     public void stop() {
         try {
@@ -0,0 +1,265 @@
+package minecrafttransportsimulator.sound;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import minecrafttransportsimulator.mcinterface.IInterfaceSound;
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
+
+/**
+ * Cache for the decoded data of sounds that are played from jars.  Sounds are decoded on a separate thread the
+ * first time they are requested, and are made into audio buffers on the next call to {@link #update(IInterfaceSound, long)}.
+ * Once made, buffers are kept so later plays of the sound don't need to decode it again.  If the total size of all
+ * buffers goes over the budget, the least-recently-used buffers are deleted until it is under the budget again.
+ * Buffers that are in use by a source, as noted by {@link #addUser(String)}, are never deleted, so the budget may be
+ * exceeded if lots of sounds are playing at once.
+ * <br><br>
+ * This class makes no audio calls itself: they all go through the {@link IInterfaceSound} passed-in to the update call.
+ * Nor does it know where sounds come from: decoders for them are made by the function passed-in on construction.
+ * All methods should be called from the main client thread.
+ *
+ * @author don_bruce
+ */
+public class SoundDataCache {
+    /**
+     * Returned by {@link #getBuffer(String)} if the sound is still being decoded.
+     **/
+    public static final int BUFFER_LOADING = 0;
+    /**
+     * Returned by {@link #getBuffer(String)} if the sound doesn't exist or couldn't be decoded.
+     **/
+    public static final int BUFFER_MISSING = -1;
+
+    /**
+     * Decode buffers larger than this aren't kept for re-use once their data is made into an audio buffer.
+     **/
+    private static final int MAX_KEPT_DECODE_BUFFER_SIZE = 4 * 1024 * 1024;
+    private static final int MAX_KEPT_DECODE_BUFFERS = 2;
+
+    /**
+     * All sounds we know about, in order of least to most-recently used.
+     **/
+    private final Map<String, CachedSound> sounds = new LinkedHashMap<>(16, 0.75F, true);
+    /**
+     * Sounds that have been decoded and are waiting to be made into audio buffers.
+     **/
+    private final Queue<CachedSound> decodedSounds = new ConcurrentLinkedQueue<>();
+    /**
+     * Buffers that the decoder thread can decode into.  These are given back once their data has been made into an audio buffer.
+     **/
+    private final Queue<ByteBuffer> freeDecodeBuffers = new ConcurrentLinkedQueue<>();
+    /**
+     * Function that makes decoders for sounds, by name.  Returns null if the sound doesn't exist.  Called on the decoder thread.
+     **/
+    private final Function<String, IStreamDecoder> decoderFactory;
+    private final Executor decoderService;
+
+    private long cachedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Creates a cache that decodes sounds on its own thread, using decoders made by the passed-in function.
+     */
+    public SoundDataCache(Function<String, IStreamDecoder> decoderFactory) {
+        this(decoderFactory, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "MTS Sound Decoder");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * Like {@link #SoundDataCache(Function)}, but decodes sounds with the passed-in executor rather than its own thread.
+     */
+    SoundDataCache(Function<String, IStreamDecoder> decoderFactory, Executor decoderService) {
+        this.decoderFactory = decoderFactory;
+        this.decoderService = decoderService;
+    }
+
+    /**
+     * Creates a decoder for the passed-in sound from the pack jars, or null if there is no such sound.
+     * This is the decoder factory used for all jar sounds.
+     */
+    public static IStreamDecoder createJarDecoder(String soundName) {
+        String soundDomain = soundName.substring(0, soundName.indexOf(':'));
+        String soundPath = soundName.substring(soundDomain.length() + 1);
+        InputStream soundStream = InterfaceManager.coreInterface.getPackResource("/assets/" + soundDomain + "/sounds/" + soundPath + ".ogg");
+        return soundStream != null ? new OGGDecoder(soundStream) : null;
+    }
+
+    /**
+     * Returns the audio buffer with the data for the passed-in sound.  If the sound hasn't been requested before,
+     * it is decoded on the decoder thread and {@link #BUFFER_LOADING} is returned until the data is ready.
+     * If the sound couldn't be found or decoded, {@link #BUFFER_MISSING} is returned.
+     */
+    public int getBuffer(String soundName) {
+        CachedSound sound = sounds.get(soundName);
+        if (sound == null) {
+            ++misses;
+            CachedSound newSound = new CachedSound(soundName);
+            sounds.put(soundName, newSound);
+            decoderService.execute(() -> decode(newSound));
+            return BUFFER_LOADING;
+        } else {
+            if (sound.bufferIndex > 0) {
+                ++hits;
+            }
+            return sound.bufferIndex;
+        }
+    }
+
+    /**
+     * Marks the buffer for the passed-in sound as being used by a source.  Buffers that are used are not deleted.
+     * Must be matched by a call to {@link #removeUser(String)} once the source no longer uses the buffer.
+     */
+    public void addUser(String soundName) {
+        CachedSound sound = sounds.get(soundName);
+        if (sound != null) {
+            ++sound.users;
+        }
+    }
+
+    /**
+     * Marks the buffer for the passed-in sound as no longer being used by a source.
+     */
+    public void removeUser(String soundName) {
+        CachedSound sound = sounds.get(soundName);
+        if (sound != null && sound.users > 0) {
+            --sound.users;
+        }
+    }
+
+    /**
+     * Makes all sounds that have finished decoding into audio buffers, and then deletes unused buffers
+     * until the cache is under the passed-in budget, in bytes.  Should be called every tick.
+     */
+    public void update(IInterfaceSound soundInterface, long budget) {
+        CachedSound sound;
+        while ((sound = decodedSounds.poll()) != null) {
+            if (!sound.removed) {
+                if (sound.decodedData != null) {
+                    sound.bufferIndex = soundInterface.createBuffer(sound.decodedData, sound.decoder);
+                    sound.bytes = sound.decodedData.limit();
+                    cachedBytes += sound.bytes;
+                } else {
+                    sound.bufferIndex = BUFFER_MISSING;
+                }
+            }
+
+            //Give the decode buffer back to the decoder thread, if it's worth keeping.
+            if (sound.decodedData != null && sound.decodedData.capacity() <= MAX_KEPT_DECODE_BUFFER_SIZE && freeDecodeBuffers.size() < MAX_KEPT_DECODE_BUFFERS) {
+                freeDecodeBuffers.add(sound.decodedData);
+            }
+            sound.decodedData = null;
+            sound.decoder = null;
+        }
+
+        if (cachedBytes > budget) {
+            //Sounds are iterated in least-recently-used order.
+            Iterator<CachedSound> iterator = sounds.values().iterator();
+            while (cachedBytes > budget && iterator.hasNext()) {
+                sound = iterator.next();
+                if (sound.bufferIndex > 0 && sound.users == 0) {
+                    soundInterface.deleteBuffer(sound.bufferIndex);
+                    cachedBytes -= sound.bytes;
+                    ++evictions;
+                    sound.removed = true;
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Forgets all sounds without deleting their buffers.  Used when the sound system is reset, as
+     * that deletes all buffers for us.  Sounds that are being decoded are discarded when they finish.
+     */
+    public void reset() {
+        for (CachedSound sound : sounds.values()) {
+            sound.removed = true;
+        }
+        sounds.clear();
+        cachedBytes = 0;
+    }
+
+    /**
+     * Returns how many requests for a sound had the buffer ready.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns how many requests for a sound needed the sound to be decoded.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns how many buffers have been deleted to keep the cache under its budget.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Returns the total size of all buffers in the cache, in bytes.
+     */
+    public long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    /**
+     * Returns how many sounds are in the cache, including ones that are still being decoded.
+     */
+    public int getSoundCount() {
+        return sounds.size();
+    }
+
+    /**
+     * Decodes the passed-in sound.  Called on the decoder thread.
+     */
+    private void decode(CachedSound sound) {
+        try {
+            IStreamDecoder decoder = decoderFactory.apply(sound.soundName);
+            if (decoder != null) {
+                sound.decodedData = decoder.readAll(freeDecodeBuffers.poll());
+                sound.decoder = decoder;
+                decoder.stop();
+            }
+        } catch (Exception e) {
+            InterfaceManager.coreInterface.logError("Could not decode sound: " + sound.soundName);
+            InterfaceManager.coreInterface.logError(e.getMessage());
+            sound.decodedData = null;
+            sound.decoder = null;
+        }
+        decodedSounds.add(sound);
+    }
+
+    private static class CachedSound {
+        private final String soundName;
+        private int bufferIndex = BUFFER_LOADING;
+        private int bytes;
+        private int users;
+        private boolean removed;
+
+        //Set by the decoder thread, and cleared once made into a buffer.
+        private ByteBuffer decodedData;
+        private IStreamDecoder decoder;
+
+        private CachedSound(String soundName) {
+            this.soundName = soundName;
+        }
+    }
+}
@@ -194,6 +194,14 @@ public final class ConfigSystem {
         }
     }
 
+    /**
+     * Returns the directory the configs were loaded from, or null if they haven't been loaded yet.
+     * Other systems may use this to store their own files alongside the configs.
+     */
+    public static File getConfigDirectory() {
+        return configDirectory;
+    }
+
     /**
      * Called to save changes to the various configs to disk. Call this whenever
      * configs are edited to ensure they are saved, as the system does not do this automatically.
@@ -0,0 +1,66 @@
+package minecrafttransportsimulator.systems;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+
+import minecrafttransportsimulator.baseclasses.TickScheduler;
+import minecrafttransportsimulator.entities.components.AEntityB_Existing;
+import minecrafttransportsimulator.entities.instances.APart;
+import minecrafttransportsimulator.mcinterface.AWrapperWorld;
+import minecrafttransportsimulator.mcinterface.InterfaceManager;
+import minecrafttransportsimulator.rendering.AModelParser;
+import minecrafttransportsimulator.rendering.ModelCache;
+import minecrafttransportsimulator.rendering.RenderCullingStage;
+import minecrafttransportsimulator.rendering.RenderFrameMetrics;
+import minecrafttransportsimulator.sound.SoundDataCache;
+
+/**
+ * System for collecting the stats of our caches, renderers, and entity updates for display on the debug (F3) screen.
+ * Note that actual display is left up to the interface: this class only makes the lines to display.
+ *
+ * @author don_bruce
+ */
+public class DebugInfoSystem {
+    /**
+     * How many of the most costly definitions to show.
+     **/
+    private static final int TOP_COST_COUNT = 3;
+
+    /**
+     * Adds all our debug lines to the passed-in list.  Should only be called on clients.
+     */
+    public static void addDebugText(List<String> lines) {
+        lines.add("");
+        SoundDataCache soundCache = InterfaceManager.soundInterface.getSoundDataCache();
+        lines.add(String.format("[MTS] Sounds: %d cached, %d KB, %d hits, %d misses, %d evictions", soundCache.getSoundCount(), soundCache.getCachedBytes() / 1024, soundCache.getHits(), soundCache.getMisses(), soundCache.getEvictions()));
+        AWrapperWorld world = InterfaceManager.clientInterface.getClientWorld();
+        if (world != null) {
+            RenderCullingStage cullingStage = world.renderCullingStage;
+            lines.add(String.format("[MTS] Entities: %d drawn, %d culled", cullingStage.getDrawnCount(), cullingStage.getCulledCount()));
+            RenderFrameMetrics frameMetrics = world.renderFrameMetrics;
+            long allocatedBytes = frameMetrics.getAllocatedBytes();
+            lines.add(String.format("[MTS] Frame: %d vertex uploads, %s allocated", frameMetrics.getUploadCount(), allocatedBytes != -1 ? allocatedBytes + " bytes" : "unknown bytes"));
+
+            //These are the costs of the client's updates, as the server's scheduler is on another thread.
+            TickScheduler scheduler = world.tickScheduler;
+            lines.add(String.format("[MTS] Deferred: %d tasks waiting, %d us last tick", scheduler.getDeferredTaskCount(), scheduler.getDeferredTimeLastTick() / 1000));
+            AEntityB_Existing riddenEntity = InterfaceManager.clientInterface.getClientPlayer() != null ? InterfaceManager.clientInterface.getClientPlayer().getEntityRiding() : null;
+            if (riddenEntity instanceof APart) {
+                //Parts are updated by their master, so their cost is part of its cost.
+                riddenEntity = ((APart) riddenEntity).masterEntity;
+            }
+            if (riddenEntity != null) {
+                lines.add(String.format("[MTS] Riding: %.1f us average, %.1f us last tick", scheduler.getAverageCost(riddenEntity) / 1000, scheduler.getLastCost(riddenEntity) / 1000D));
+            }
+            List<Entry<String, Double>> definitionCosts = new ArrayList<>(scheduler.getDefinitionCosts().entrySet());
+            definitionCosts.sort((cost1, cost2) -> Double.compare(cost2.getValue(), cost1.getValue()));
+            for (int i = 0; i < definitionCosts.size() && i < TOP_COST_COUNT; ++i) {
+                Entry<String, Double> cost = definitionCosts.get(i);
+                lines.add(String.format("[MTS] Cost #%d: %s, %.1f us average", i + 1, cost.getKey(), cost.getValue() / 1000));
+            }
+        }
+        ModelCache modelCache = AModelParser.modelCache;
+        lines.add(String.format("[MTS] Models: %d cached, %d in use, %d KB, %d hits, %d misses, %d evictions", modelCache.getModelCount(), modelCache.getModelsInUse(), modelCache.getCachedBytes() / 1024, modelCache.getHits(), modelCache.getMisses(), modelCache.getEvictions()));
+    }
+}
@@ -0,0 +1,57 @@
+package minecrafttransportsimulator.baseclasses;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests that the batched drag and gravity step in {@link BulletMotionStage} gives bit-identical results
+ * to the per-bullet {@link Point3D} operations it replaces.
+ *
+ * @author don_bruce
+ */
+public class BulletMotionStageTest {
+    private static final int BULLET_COUNT = 10000;
+
+    @Test
+    public void batchedForcesMatchPerBulletForces() {
+        Random random = new Random(1234);
+        double[] motionX = new double[BULLET_COUNT];
+        double[] motionY = new double[BULLET_COUNT];
+        double[] motionZ = new double[BULLET_COUNT];
+        double[] slowdownSpeeds = new double[BULLET_COUNT];
+        double[] gravitationalVelocities = new double[BULLET_COUNT];
+        Point3D[] expectedMotions = new Point3D[BULLET_COUNT];
+        Point3D helperPoint = new Point3D();
+        for (int i = 0; i < BULLET_COUNT; ++i) {
+            //Cover fast, slow, and nearly stopped bullets, as well as ones with no drag.
+            double scale = i % 10 == 0 ? 1.0E-9 : (i % 3 == 0 ? 0.1 : 50);
+            Point3D motion = new Point3D((random.nextDouble() - 0.5) * scale, (random.nextDouble() - 0.5) * scale, (random.nextDouble() - 0.5) * scale);
+            float slowdownSpeed = i % 4 == 0 ? 0 : random.nextFloat() * 0.2F;
+            float gravitationalVelocity = random.nextFloat() * 0.1F;
+
+            motionX[i] = motion.x;
+            motionY[i] = motion.y;
+            motionZ[i] = motion.z;
+            slowdownSpeeds[i] = slowdownSpeed;
+            gravitationalVelocities[i] = gravitationalVelocity;
+
+            //Same as EntityBullet does when it isn't staged.
+            if (slowdownSpeed > 0) {
+                helperPoint.set(motion).normalize().scale(-slowdownSpeed);
+                motion.add(helperPoint);
+            }
+            motion.y -= gravitationalVelocity;
+            expectedMotions[i] = motion;
+        }
+
+        BulletMotionStage.applyForces(motionX, motionY, motionZ, slowdownSpeeds, gravitationalVelocities, BULLET_COUNT);
+        for (int i = 0; i < BULLET_COUNT; ++i) {
+            assertEquals(Double.doubleToLongBits(expectedMotions[i].x), Double.doubleToLongBits(motionX[i]));
+            assertEquals(Double.doubleToLongBits(expectedMotions[i].y), Double.doubleToLongBits(motionY[i]));
+            assertEquals(Double.doubleToLongBits(expectedMotions[i].z), Double.doubleToLongBits(motionZ[i]));
+        }
+    }
+}
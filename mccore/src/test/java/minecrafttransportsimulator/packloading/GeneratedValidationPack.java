@@ -0,0 +1,105 @@
+package minecrafttransportsimulator.packloading;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import minecrafttransportsimulator.packloading.JSONParser.JSONRequired;
+import minecrafttransportsimulator.packloading.PackResourceLoader.ItemClassification;
+
+/**
+ * Generates a pack of definitions for validation tests and benchmarks.  The built-in jsondefs are parsed, then
+ * copied until the pack has the requested number of definitions.  Every few copies has one of its required fields
+ * removed, picked from all the required fields in the copy, so the pack has definitions that fail at all depths.
+ * The jsondefs are found relative to the mccore folder, which is where Gradle runs tests and benchmarks from.
+ *
+ * @author don_bruce
+ */
+final class GeneratedValidationPack {
+    private static final String JSONDEFS_FOLDER = "src/main/resources/assets/mts/jsondefs";
+    private static final int BROKEN_INTERVAL = 4;
+
+    private GeneratedValidationPack() {
+    }
+
+    static List<Object> generate(int definitionCount) throws IOException {
+        List<Object> builtInDefinitions = new ArrayList<>();
+        File[] folders = new File(JSONDEFS_FOLDER).listFiles();
+        if (folders == null) {
+            throw new IOException("Could not find built-in definitions in " + new File(JSONDEFS_FOLDER).getAbsolutePath());
+        }
+        for (File folder : folders) {
+            for (ItemClassification classification : ItemClassification.values()) {
+                if (folder.getName().equals(classification.toDirectory().replace("/", ""))) {
+                    for (File file : folder.listFiles()) {
+                        try (FileInputStream stream = new FileInputStream(file)) {
+                            builtInDefinitions.add(JSONParser.parseStream(stream, classification.representingClass, "mts", file.getName()));
+                        }
+                    }
+                }
+            }
+        }
+
+        List<Object> definitions = new ArrayList<>(definitionCount);
+        for (int i = 0; i < definitionCount; ++i) {
+            Object definition = JSONParser.duplicateJSON(builtInDefinitions.get(i % builtInDefinitions.size()));
+            if (i % BROKEN_INTERVAL == BROKEN_INTERVAL - 1) {
+                List<Object> owners = new ArrayList<>();
+                List<Field> requiredFields = new ArrayList<>();
+                findRequiredFields(definition, owners, requiredFields);
+                if (!requiredFields.isEmpty()) {
+                    int fieldIndex = (i / BROKEN_INTERVAL) % requiredFields.size();
+                    try {
+                        requiredFields.get(fieldIndex).set(owners.get(fieldIndex), null);
+                    } catch (IllegalAccessException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            }
+            definitions.add(definition);
+        }
+        return definitions;
+    }
+
+    /**
+     * Adds all set, required, non-primitive fields in the object and its jsondefs children to the lists.
+     */
+    private static void findRequiredFields(Object obj, List<Object> owners, List<Field> requiredFields) {
+        for (Field field : obj.getClass().getFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers()) || field.getType().isPrimitive()) {
+                continue;
+            }
+            Object value;
+            try {
+                value = field.get(obj);
+            } catch (IllegalAccessException e) {
+                continue;
+            }
+            if (value == null) {
+                continue;
+            }
+            if (field.isAnnotationPresent(JSONRequired.class)) {
+                owners.add(obj);
+                requiredFields.add(field);
+            }
+            if (value instanceof Collection) {
+                for (Object entry : (Collection<?>) value) {
+                    if (entry != null && isDefinitionClass(entry.getClass())) {
+                        findRequiredFields(entry, owners, requiredFields);
+                    }
+                }
+            } else if (isDefinitionClass(value.getClass())) {
+                findRequiredFields(value, owners, requiredFields);
+            }
+        }
+    }
+
+    private static boolean isDefinitionClass(Class<?> type) {
+        return !type.isEnum() && type.getPackage() != null && type.getPackage().getName().contains("jsondefs");
+    }
+}
@@ -0,0 +1,60 @@
+package minecrafttransportsimulator.packloading;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests that {@link JSONParser#validateFields(Object, String, int)} gives the same result as the
+ * reflection-based validation it replaced, over a generated pack with both valid and broken definitions.
+ *
+ * @author don_bruce
+ */
+public class JSONValidationTest {
+    private static final int DEFINITION_COUNT = 1000;
+
+    @Test
+    public void validationPlansMatchReflection() throws Exception {
+        List<Object> definitions = GeneratedValidationPack.generate(DEFINITION_COUNT);
+        int failedCount = 0;
+
+        //Both paths print stack traces for missing sub-fields, which we don't care about here.
+        PrintStream errorStream = System.err;
+        System.setErr(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+        }));
+        try {
+            for (int i = 0; i < definitions.size(); ++i) {
+                String planError = null;
+                try {
+                    JSONParser.validateFields(definitions.get(i), "/", 1);
+                } catch (NullPointerException e) {
+                    planError = e.getMessage();
+                }
+                String reflectionError = null;
+                try {
+                    LegacyFieldValidator.validateFields(definitions.get(i), "/", 1);
+                } catch (NullPointerException e) {
+                    reflectionError = e.getMessage();
+                }
+                assertEquals("Definition #" + i, reflectionError, planError);
+                if (planError != null) {
+                    ++failedCount;
+                }
+            }
+        } finally {
+            System.setErr(errorStream);
+        }
+
+        //Make sure the pack actually checked both outcomes.
+        assertTrue(failedCount > 0);
+        assertTrue(failedCount < definitions.size());
+    }
+}
@@ -0,0 +1,98 @@
+package minecrafttransportsimulator.packloading;
+
+import java.lang.reflect.Field;
+import java.util.Collection;
+
+import minecrafttransportsimulator.packloading.JSONParser.JSONRequired;
+
+/**
+ * The reflection-based field validation that was used before {@link JSONParser} got validation plans.
+ * Kept so tests and benchmarks can check the plans against it.
+ *
+ * @author don_bruce
+ */
+final class LegacyFieldValidator {
+
+    private LegacyFieldValidator() {
+    }
+
+    /**
+     * Validation as it was done before validation plans, kept as-is for comparison.
+     * Throws a {@link NullPointerException} with the same message {@link JSONParser#validateFields(Object, String, int)} would.
+     */
+    static void validateFields(Object obj, String priorObjects, int index) {
+        for (Field field : obj.getClass().getFields()) {
+            String errorValue = checkRequiredState(field, obj, priorObjects, index);
+            if (errorValue != null) {
+                throw new NullPointerException(errorValue);
+            }
+
+            if (obj.getClass().getPackage().getName().contains("jsondefs")) {
+                Object recursiveObject = null;
+                try {
+                    recursiveObject = field.get(obj);
+                } catch (Exception e) {
+                }
+
+                if (recursiveObject != null) {
+                    if (recursiveObject instanceof Collection) {
+                        int collectionIndex = 1;
+                        for (Object objEntry : ((Collection<?>) recursiveObject)) {
+                            if (objEntry != null) {
+                                validateFields(objEntry, priorObjects + field.getName() + "/", collectionIndex);
+                                ++collectionIndex;
+                            } else {
+                                throw new NullPointerException("Unable to parse entry #" + collectionIndex + " in variable set " + priorObjects + field.getName() + " due to it not existing.  Check your commas!");
+                            }
+                        }
+                    } else if (!recursiveObject.getClass().isEnum()) {
+                        validateFields(recursiveObject, priorObjects + field.getName() + "/", 1);
+                    }
+                }
+            }
+        }
+    }
+
+    private static String checkRequiredState(Field field, Object objectOn, String pathPrefix, int index) {
+        if (field.isAnnotationPresent(JSONRequired.class)) {
+            Object testObj = null;
+            try {
+                testObj = field.get(objectOn);
+            } catch (Exception e) {
+            }
+
+            if (testObj == null) {
+                JSONRequired annotation = field.getAnnotation(JSONRequired.class);
+                String dependentVarName = annotation.dependentField();
+                if (!dependentVarName.isEmpty()) {
+                    Object depObj = null;
+                    try {
+                        if (annotation.subField().isEmpty()) {
+                            depObj = objectOn.getClass().getField(dependentVarName).get(objectOn);
+                        } else {
+                            depObj = objectOn.getClass().getField(annotation.subField()).get(objectOn);
+                            depObj = depObj.getClass().getField(dependentVarName).get(depObj);
+                        }
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                    }
+
+                    if (depObj != null) {
+                        if (annotation.dependentValues().length == 0) {
+                            return pathPrefix + field.getName() + ", entry #" + index + ", is required when '" + dependentVarName + "' is present!";
+                        } else {
+                            for (String possibleValue : annotation.dependentValues()) {
+                                if (depObj.toString().startsWith(possibleValue)) {
+                                    return pathPrefix + field.getName() + ", entry #" + index + ", is required when value of '" + dependentVarName + "' is '" + depObj + "'!";
+                                }
+                            }
+                        }
+                    }
+                } else {
+                    return pathPrefix + field.getName() + ", entry #" + index + ", is missing from the JSON and is required!";
+                }
+            }
+        }
+        return null;
+    }
+}
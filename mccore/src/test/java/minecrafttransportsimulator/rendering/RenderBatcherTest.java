@@ -0,0 +1,203 @@
+package minecrafttransportsimulator.rendering;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import minecrafttransportsimulator.rendering.RenderBatcher.BatchRenderer;
+
+/**
+ * Tests for the sort keys, batching, and pooling of {@link RenderBatcher}.
+ * States are just strings, and a fake renderer records what it was asked to do.
+ *
+ * @author don_bruce
+ */
+public class RenderBatcherTest {
+    private final RenderableVertices verticesA = new RenderableVertices("a", FloatBuffer.allocate(0), true);
+    private final RenderableVertices verticesB = new RenderableVertices("b", FloatBuffer.allocate(0), true);
+    private final List<String> calls = new ArrayList<>();
+    private final FakeRenderer renderer = new FakeRenderer();
+    private RenderBatcher<String, FakeDraw> batcher;
+    private int drawsMade;
+
+    @Before
+    public void setUp() {
+        batcher = new RenderBatcher<>(() -> {
+            ++drawsMade;
+            return new FakeDraw();
+        });
+    }
+
+    @Test
+    public void sortKeyPacksStateThenVerticesThenDraw() {
+        assertEquals((1L << 48) | (2L << 24) | 3L, RenderBatcher.getSortKey(1, 2, 3));
+        assertEquals(0, RenderBatcher.getSortKey(0, 0, 0));
+        //Each field must not spill into the one above it.
+        assertEquals((1L << 24) - 1, RenderBatcher.getSortKey(0, 0, (1 << 24) - 1));
+        assertEquals(((1L << 24) - 1) << 24, RenderBatcher.getSortKey(0, (1 << 24) - 1, 0));
+    }
+
+    @Test
+    public void sortKeyOrdersByStateThenVerticesThenDraw() {
+        assertTrue(RenderBatcher.getSortKey(0, 5, 100) < RenderBatcher.getSortKey(1, 0, 0));
+        assertTrue(RenderBatcher.getSortKey(1, 0, 100) < RenderBatcher.getSortKey(1, 1, 0));
+        assertTrue(RenderBatcher.getSortKey(1, 1, 0) < RenderBatcher.getSortKey(1, 1, 1));
+    }
+
+    @Test
+    public void drawsAreBatchedByStateThenVertices() {
+        addDraw("state1", verticesA, 0);
+        addDraw("state2", verticesB, 1);
+        addDraw("state1", verticesB, 2);
+        addDraw("state1", verticesA, 3);
+        addDraw("state2", verticesB, 4);
+        batcher.render(renderer);
+
+        assertEquals(Arrays.asList("setup state1", "batch state1 a [0, 3]", "batch state1 b [2]", "clear state1", "setup state2", "batch state2 b [1, 4]", "clear state2"), calls);
+        assertEquals(2, batcher.getStateCount());
+        assertEquals(3, batcher.getBatchCount());
+        assertEquals(5, batcher.getDrawCount());
+    }
+
+    @Test
+    public void emptyRenderDoesNothing() {
+        batcher.render(renderer);
+        assertTrue(calls.isEmpty());
+        assertEquals(0, batcher.getStateCount());
+        assertEquals(0, batcher.getBatchCount());
+        assertEquals(0, batcher.getDrawCount());
+    }
+
+    @Test
+    public void frameIndexesAreResetEachFrame() {
+        addDraw("state1", verticesA, 0);
+        addDraw("state2", verticesB, 1);
+        batcher.render(renderer);
+        calls.clear();
+
+        //State and vertex order is the order they were first added in this frame, not the last one.
+        addDraw("state2", verticesB, 0);
+        addDraw("state1", verticesA, 1);
+        batcher.render(renderer);
+        assertEquals(Arrays.asList("setup state2", "batch state2 b [0]", "clear state2", "setup state1", "batch state1 a [1]", "clear state1"), calls);
+        calls.clear();
+
+        //States not added this frame aren't set up.
+        addDraw("state1", verticesB, 0);
+        batcher.render(renderer);
+        assertEquals(Arrays.asList("setup state1", "batch state1 b [0]", "clear state1"), calls);
+        assertEquals(1, batcher.getStateCount());
+    }
+
+    @Test
+    public void drawsAreReusedInOrderEachFrame() {
+        FakeDraw first = batcher.add("state1", verticesA);
+        FakeDraw second = batcher.add("state1", verticesA);
+        assertNotSame(first, second);
+        batcher.render(renderer);
+
+        assertSame(first, batcher.add("state2", verticesB));
+        assertSame(second, batcher.add("state1", verticesA));
+        batcher.render(renderer);
+        assertEquals(2, drawsMade);
+
+        batcher.add("state1", verticesA);
+        batcher.add("state1", verticesA);
+        batcher.add("state1", verticesA);
+        batcher.render(renderer);
+        assertEquals(3, drawsMade);
+    }
+
+    @Test
+    public void removedVerticesCanBeAddedAgain() {
+        addDraw("state1", verticesA, 0);
+        batcher.render(renderer);
+        batcher.remove(verticesA);
+        calls.clear();
+
+        addDraw("state1", verticesB, 0);
+        addDraw("state1", verticesA, 1);
+        batcher.render(renderer);
+        assertEquals(Arrays.asList("setup state1", "batch state1 b [0]", "batch state1 a [1]", "clear state1"), calls);
+    }
+
+    @Test
+    public void addAndRenderDontAllocateOnceWarm() {
+        //Lots of draws over a few states and vertices, added in an interleaved order like entities would add them.
+        String[] states = { "state1", "state2", "state3" };
+        RenderableVertices[] vertexObjects = new RenderableVertices[8];
+        for (int i = 0; i < vertexObjects.length; ++i) {
+            vertexObjects[i] = new RenderableVertices("vertices" + i, FloatBuffer.allocate(0), true);
+        }
+        BatchRenderer<String, FakeDraw> countingRenderer = new BatchRenderer<String, FakeDraw>() {
+            @Override
+            public void setupState(String state) {
+            }
+
+            @Override
+            public void renderBatch(String state, RenderableVertices vertexObject, List<FakeDraw> draws) {
+                for (int i = 0; i < draws.size(); ++i) {
+                    draws.get(i).id++;
+                }
+            }
+
+            @Override
+            public void clearState(String state) {
+            }
+        };
+
+        long allocatedBytes = 0;
+        for (int frame = 0; frame < 20; ++frame) {
+            long startBytes = RenderFrameMetrics.getThreadAllocatedBytes();
+            for (int i = 0; i < 5000; ++i) {
+                batcher.add(states[i % states.length], vertexObjects[(i / 7) % vertexObjects.length]);
+            }
+            batcher.render(countingRenderer);
+            //The first frames fill the pools, so only count the later ones.
+            if (frame >= 10) {
+                allocatedBytes += RenderFrameMetrics.getThreadAllocatedBytes() - startBytes;
+            }
+        }
+        if (RenderFrameMetrics.getThreadAllocatedBytes() != -1) {
+            assertEquals(0, allocatedBytes);
+        }
+    }
+
+    private void addDraw(String state, RenderableVertices vertexObject, int id) {
+        batcher.add(state, vertexObject).id = id;
+    }
+
+    private static class FakeDraw {
+        private int id;
+    }
+
+    private class FakeRenderer implements BatchRenderer<String, FakeDraw> {
+        @Override
+        public void setupState(String state) {
+            calls.add("setup " + state);
+        }
+
+        @Override
+        public void renderBatch(String state, RenderableVertices vertexObject, List<FakeDraw> draws) {
+            List<Integer> ids = new ArrayList<>();
+            for (FakeDraw draw : draws) {
+                ids.add(draw.id);
+            }
+            calls.add("batch " + state + " " + vertexObject.name + " " + ids);
+        }
+
+        @Override
+        public void clearState(String state) {
+            calls.add("clear " + state);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package minecrafttransportsimulator.sound;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import minecrafttransportsimulator.entities.instances.EntityRadio;
+import minecrafttransportsimulator.mcinterface.IInterfaceSound;
+
+/**
+ * Tests for the LRU and user-counting logic of {@link SoundDataCache}.
+ * Sounds are decoded on the calling thread with fake decoders, and buffers are made by a fake sound interface.
+ *
+ * @author don_bruce
+ */
+public class SoundDataCacheTest {
+    private static final int SOUND_SIZE = 1000;
+
+    private final Map<String, Integer> soundSizes = new HashMap<>();
+    private final FakeSoundInterface soundInterface = new FakeSoundInterface();
+    private SoundDataCache cache;
+
+    @Before
+    public void setUp() {
+        soundSizes.put("test:a", SOUND_SIZE);
+        soundSizes.put("test:b", SOUND_SIZE);
+        soundSizes.put("test:c", SOUND_SIZE);
+        cache = new SoundDataCache(soundName -> soundSizes.containsKey(soundName) ? new FakeDecoder(soundSizes.get(soundName)) : null, Runnable::run);
+    }
+
+    @Test
+    public void firstRequestLoadsThenHits() {
+        assertEquals(SoundDataCache.BUFFER_LOADING, cache.getBuffer("test:a"));
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cache.getHits());
+
+        cache.update(soundInterface, Long.MAX_VALUE);
+        int bufferIndex = cache.getBuffer("test:a");
+        assertTrue(bufferIndex > 0);
+        assertEquals(bufferIndex, cache.getBuffer("test:a"));
+        assertEquals(1, cache.getMisses());
+        assertEquals(2, cache.getHits());
+        assertEquals(SOUND_SIZE, cache.getCachedBytes());
+        assertEquals(1, soundInterface.createdBuffers);
+    }
+
+    @Test
+    public void missingSoundIsMissing() {
+        cache.getBuffer("test:missing");
+        cache.update(soundInterface, Long.MAX_VALUE);
+        assertEquals(SoundDataCache.BUFFER_MISSING, cache.getBuffer("test:missing"));
+        assertEquals(0, cache.getCachedBytes());
+        assertEquals(0, soundInterface.createdBuffers);
+    }
+
+    @Test
+    public void overBudgetEvictsLeastRecentlyUsed() {
+        int bufferA = load("test:a");
+        load("test:b");
+        load("test:c");
+        cache.update(soundInterface, SOUND_SIZE * 2);
+
+        assertEquals(1, cache.getEvictions());
+        assertEquals(SOUND_SIZE * 2, cache.getCachedBytes());
+        assertEquals(1, soundInterface.deletedBuffers.size());
+        assertEquals(bufferA, (int) soundInterface.deletedBuffers.get(0));
+
+        //Evicted sounds are decoded again when next requested.
+        assertEquals(SoundDataCache.BUFFER_LOADING, cache.getBuffer("test:a"));
+    }
+
+    @Test
+    public void requestingSoundMakesItRecent() {
+        int bufferA = load("test:a");
+        int bufferB = load("test:b");
+        assertEquals(bufferA, cache.getBuffer("test:a"));
+        load("test:c");
+        cache.update(soundInterface, SOUND_SIZE * 2);
+
+        assertEquals(1, soundInterface.deletedBuffers.size());
+        assertEquals(bufferB, (int) soundInterface.deletedBuffers.get(0));
+        assertEquals(bufferA, cache.getBuffer("test:a"));
+    }
+
+    @Test
+    public void usedSoundsAreNotEvicted() {
+        int bufferA = load("test:a");
+        cache.addUser("test:a");
+        cache.addUser("test:a");
+        load("test:b");
+        cache.update(soundInterface, SOUND_SIZE);
+
+        //B is newer, but A is in use, so B goes.
+        assertEquals(1, cache.getEvictions());
+        assertEquals(bufferA, cache.getBuffer("test:a"));
+
+        //Still over budget, but A still has a user.
+        cache.removeUser("test:a");
+        cache.update(soundInterface, 0);
+        assertEquals(1, cache.getEvictions());
+        assertEquals(bufferA, cache.getBuffer("test:a"));
+
+        //Last user gone, so A can go now.
+        cache.removeUser("test:a");
+        cache.update(soundInterface, 0);
+        assertEquals(2, cache.getEvictions());
+        assertEquals(0, cache.getCachedBytes());
+    }
+
+    @Test
+    public void extraRemoveUserIsIgnored() {
+        load("test:a");
+        cache.removeUser("test:a");
+        cache.addUser("test:a");
+        cache.update(soundInterface, 0);
+        assertEquals(0, cache.getEvictions());
+    }
+
+    @Test
+    public void resetForgetsWithoutDeleting() {
+        load("test:a");
+        cache.reset();
+        assertEquals(0, cache.getCachedBytes());
+        assertEquals(0, cache.getSoundCount());
+        assertTrue(soundInterface.deletedBuffers.isEmpty());
+        assertEquals(SoundDataCache.BUFFER_LOADING, cache.getBuffer("test:a"));
+    }
+
+    @Test
+    public void resetDiscardsSoundsBeingDecoded() {
+        List<Runnable> decodeTasks = new ArrayList<>();
+        cache = new SoundDataCache(soundName -> new FakeDecoder(SOUND_SIZE), decodeTasks::add);
+        cache.getBuffer("test:a");
+        cache.reset();
+        decodeTasks.forEach(Runnable::run);
+        cache.update(soundInterface, Long.MAX_VALUE);
+        assertEquals(0, soundInterface.createdBuffers);
+        assertEquals(0, cache.getCachedBytes());
+    }
+
+    /**
+     * Requests the passed-in sound and updates the cache so it's loaded.  Returns its buffer.
+     */
+    private int load(String soundName) {
+        cache.getBuffer(soundName);
+        cache.update(soundInterface, Long.MAX_VALUE);
+        return cache.getBuffer(soundName);
+    }
+
+    private static class FakeDecoder implements IStreamDecoder {
+        private int remainingBytes;
+
+        private FakeDecoder(int size) {
+            this.remainingBytes = size;
+        }
+
+        @Override
+        public ByteBuffer readBlock() {
+            if (remainingBytes == 0) {
+                return null;
+            }
+            ByteBuffer block = ByteBuffer.allocate(remainingBytes);
+            remainingBytes = 0;
+            return block;
+        }
+
+        @Override
+        public void stop() {
+        }
+
+        @Override
+        public int getSampleRate() {
+            return 44100;
+        }
+    }
+
+    private static class FakeSoundInterface implements IInterfaceSound {
+        private int createdBuffers;
+        private final List<Integer> deletedBuffers = new ArrayList<>();
+
+        @Override
+        public int createBuffer(ByteBuffer buffer, IStreamDecoder decoder) {
+            return ++createdBuffers;
+        }
+
+        @Override
+        public void deleteBuffer(int bufferIndex) {
+            deletedBuffers.add(bufferIndex);
+        }
+
+        @Override
+        public void playQuickSound(SoundInstance sound) {
+        }
+
+        @Override
+        public void addRadioStation(RadioStation station) {
+        }
+
+        @Override
+        public void addRadioSound(SoundInstance sound, List<Integer> buffers) {
+        }
+
+        @Override
+        public void bindBuffer(SoundInstance sound, int bufferIndex) {
+        }
+
+        @Override
+        public int getFreeStationBuffer(Set<EntityRadio> playingRadios) {
+            return 0;
+        }
+
+        @Override
+        public SoundDataCache getSoundDataCache() {
+            return null;
+        }
+    }
+}
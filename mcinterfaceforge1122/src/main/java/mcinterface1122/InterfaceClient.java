@@ -23,6 +23,7 @@ import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.ScaledResolution;
 import net.minecraft.client.renderer.ActiveRenderInfo;
 import net.minecraft.client.util.ITooltipFlag;
+import net.minecraft.entity.Entity;
 import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.util.SoundCategory;
 import net.minecraft.util.math.BlockPos;
@@ -160,6 +161,26 @@ public class InterfaceClient implements IInterfaceClient {
 
     private static final Point3D mutablePosition = new Point3D();
 
+    @Override
+    public Point3D getCameraLookVector() {
+        //Custom cameras are applied directly to the OpenGL matrix, so we don't know where they are looking.
+        if (InterfaceEventsEntityRendering.adjustedCamera) {
+            return null;
+        }
+        Entity cameraEntity = Minecraft.getMinecraft().getRenderViewEntity();
+        float partialTicks = Minecraft.getMinecraft().getRenderPartialTicks();
+        double pitch = Math.toRadians(cameraEntity.prevRotationPitch + (cameraEntity.rotationPitch - cameraEntity.prevRotationPitch) * partialTicks);
+        double yaw = Math.toRadians(cameraEntity.prevRotationYaw + (cameraEntity.rotationYaw - cameraEntity.prevRotationYaw) * partialTicks);
+        mutableLookVector.set(-Math.sin(yaw) * Math.cos(pitch), -Math.sin(pitch), Math.cos(yaw) * Math.cos(pitch));
+        if (Minecraft.getMinecraft().gameSettings.thirdPersonView == 2) {
+            //Front-facing third-person camera looks back at the entity.
+            mutableLookVector.invert();
+        }
+        return mutableLookVector;
+    }
+
+    private static final Point3D mutableLookVector = new Point3D();
+
     @Override
     public void playBlockBreakSound(Point3D position) {
         BlockPos pos = new BlockPos(position.x, position.y, position.z);
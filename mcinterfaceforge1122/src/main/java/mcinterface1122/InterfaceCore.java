@@ -36,6 +36,11 @@ class InterfaceCore implements IInterfaceCore {
     public String getModName(String modID) {
         return Loader.instance().getIndexedModList().get(modID).getName();
     }
+
+    @Override
+    public String getModVersion(String modID) {
+        return Loader.instance().getIndexedModList().get(modID).getVersion();
+    }
     
     @Override
     public InputStream getPackResource(String resource) {
@@ -21,6 +21,7 @@ import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.systems.CameraSystem;
 import minecrafttransportsimulator.systems.CameraSystem.CameraMode;
 import minecrafttransportsimulator.systems.ConfigSystem;
+import minecrafttransportsimulator.systems.DebugInfoSystem;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.model.ModelPlayer;
 import net.minecraft.client.renderer.entity.RenderLivingBase;
@@ -65,6 +66,7 @@ public class InterfaceEventsEntityRendering {
     private static final Point3D cameraAdjustedPosition = new Point3D();
     private static final RotationMatrix cameraAdjustedOrientation = new RotationMatrix();
     private static final TransformationMatrix cameraAdjustments = new TransformationMatrix();
+    public static boolean adjustedCamera;
     private static int lastScreenWidth;
     private static int lastScreenHeight;
     private static float lastRiderYawHead;
@@ -82,6 +84,7 @@ public class InterfaceEventsEntityRendering {
             IWrapperPlayer player = WrapperPlayer.getWrapperFor((EntityPlayer) event.getEntity());
             cameraAdjustedPosition.set(0, 0, 0);
             cameraAdjustedOrientation.setToZero();
+            adjustedCamera = false;
             if (CameraSystem.adjustCamera(player, cameraAdjustedPosition, cameraAdjustedOrientation, (float) event.getRenderPartialTicks())) {
                 //Set helper to the current camera position.
                 EntityPlayer mcPlayer = ((WrapperPlayer) player).player;
@@ -121,6 +124,7 @@ public class InterfaceEventsEntityRendering {
                 event.setYaw(0);
                 event.setPitch(0);
                 event.setRoll(0);
+                adjustedCamera = true;
             }
         }
     }
@@ -167,6 +171,16 @@ public class InterfaceEventsEntityRendering {
         }
     }
 
+    /**
+     * Adds our stats to the debug screen, if it's open.
+     */
+    @SubscribeEvent
+    public static void onIVRenderDebugText(RenderGameOverlayEvent.Text event) {
+        if (Minecraft.getMinecraft().gameSettings.showDebugInfo) {
+            DebugInfoSystem.addDebugText(event.getLeft());
+        }
+    }
+
     /**
      * Pre-post methods for adjusting entity angles while seated.
      */
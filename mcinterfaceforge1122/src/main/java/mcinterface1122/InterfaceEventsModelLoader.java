@@ -99,6 +99,8 @@ public class InterfaceEventsModelLoader {
                         GlStateManager.enableRescaleNormal();
 
                         //Start master profiling section.
+                        world.renderFrameMetrics.beginPass(blendingEnabled);
+                        world.renderCullingStage.beginPass(blendingEnabled);
                         for (AEntityC_Renderable entity : allEntities) {
                             //Rendering system expects coordinates to be at center of entity when called, translate us so that's the case.
                             world.beginProfiling("MTSRendering", true);
@@ -108,6 +110,7 @@ public class InterfaceEventsModelLoader {
                             GL11.glPopMatrix();
                             world.endProfiling();
                         }
+                        world.renderFrameMetrics.endPass(blendingEnabled);
 
                         //Reset states.
                         GL11.glShadeModel(GL11.GL_FLAT);
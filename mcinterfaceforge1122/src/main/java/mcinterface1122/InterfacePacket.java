@@ -6,6 +6,8 @@ import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
 
 import io.netty.buffer.ByteBuf;
+import minecrafttransportsimulator.entities.components.AEntityB_Existing;
+import minecrafttransportsimulator.entities.instances.APart;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
 import minecrafttransportsimulator.mcinterface.IInterfacePacket;
 import minecrafttransportsimulator.mcinterface.IWrapperNBT;
@@ -16,6 +18,7 @@ import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.network.PacketBuffer;
 import net.minecraftforge.fml.common.FMLCommonHandler;
 import net.minecraftforge.fml.common.network.NetworkRegistry;
+import net.minecraftforge.fml.common.network.NetworkRegistry.TargetPoint;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessage;
 import net.minecraftforge.fml.common.network.simpleimpl.IMessageHandler;
 import net.minecraftforge.fml.common.network.simpleimpl.MessageContext;
@@ -62,6 +65,20 @@ class InterfacePacket implements IInterfacePacket {
         network.sendToAll(new WrapperPacket(packet));
     }
 
+    @Override
+    public void sendToAllTracking(APacketBase packet, AEntityB_Existing entity) {
+        if (entity instanceof APart) {
+            entity = ((APart) entity).masterEntity;
+        }
+        BuilderEntityExisting builder = BuilderEntityExisting.getBuilderFor(entity);
+        if (builder != null) {
+            network.sendToAllTracking(new WrapperPacket(packet), builder);
+        } else {
+            //Range is ignored for tracking points, only the chunk the point is in matters.
+            network.sendToAllTracking(new WrapperPacket(packet), new TargetPoint(((WrapperWorld) entity.world).world.provider.getDimension(), entity.position.x, entity.position.y, entity.position.z, 0));
+        }
+    }
+
     @Override
     public void sendToPlayer(APacketBase packet, IWrapperPlayer player) {
         network.sendTo(new WrapperPacket(packet), (EntityPlayerMP) ((WrapperPlayer) player).player);
@@ -61,6 +61,7 @@ public class InterfaceRender implements IInterfaceRender {
     private static final ResourceLocation MISSING_TEXTURE = new ResourceLocation("mts:textures/rendering/missing.png");
     private static final Map<RenderableVertices, Set<RenderableData>> objectMap = new HashMap<>();
     private static final Map<RenderableVertices, Integer> cachedIndexMap = new HashMap<>();
+    private static long vertexUploads;
     protected static int lastRenderPassActualPass;
 
     @Override
@@ -124,6 +125,7 @@ public class InterfaceRender implements IInterfaceRender {
                 GL11.glNewList(newIndex, GL11.GL_COMPILE);
                 renderVertices(data.vertexObject.vertices);
                 GL11.glEndList();
+                ++vertexUploads;
                 return newIndex;
             });
             GL11.glCallList(cachedVertexIndex);
@@ -145,6 +147,11 @@ public class InterfaceRender implements IInterfaceRender {
         }
     }
 
+    @Override
+    public long getVertexUploadCount() {
+        return vertexUploads;
+    }
+
     @Override
     public void deleteVertices(RenderableData data) {
         if (data.vertexObject.cacheVertices) {
@@ -10,6 +10,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
+import minecrafttransportsimulator.baseclasses.BlockCollisionCache;
 import minecrafttransportsimulator.baseclasses.BlockHitResult;
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.ColorRGB;
@@ -80,6 +81,8 @@ import net.minecraft.world.EnumSkyBlock;
 import net.minecraft.world.World;
 import net.minecraftforge.common.IPlantable;
 import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.world.BlockEvent;
+import net.minecraftforge.event.world.ChunkEvent;
 import net.minecraftforge.event.world.WorldEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
@@ -102,6 +105,7 @@ public class WrapperWorld extends AWrapperWorld {
     private final Map<UUID, Integer> ticksSincePlayerJoin = new HashMap<>();
     private final List<AxisAlignedBB> mutableCollidingAABBs = new ArrayList<>();
     private final Set<BlockPos> knownAirBlocks = new HashSet<>();
+    private final BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
 
     protected final World world;
     private final IWrapperNBT savedData;
@@ -265,7 +269,7 @@ public class WrapperWorld extends AWrapperWorld {
         BuilderEntityExisting builder = new BuilderEntityExisting(((WrapperWorld) entity.world).world);
         builder.loadedFromSavedNBT = true;
         builder.setPositionAndRotation(entity.position.x, entity.position.y, entity.position.z, 0, 0);
-        builder.entity = entity;
+        builder.setEntity(entity);
         world.spawnEntity(builder);
         addEntity(entity);
         return builder;
@@ -534,12 +538,17 @@ public class WrapperWorld extends AWrapperWorld {
         for (int i = (int) Math.floor(mcBox.minX); i < Math.ceil(mcBox.maxX); ++i) {
             for (int j = (int) Math.floor(mcBox.minY); j < Math.ceil(mcBox.maxY); ++j) {
                 for (int k = (int) Math.floor(mcBox.minZ); k < Math.ceil(mcBox.maxZ); ++k) {
-                    BlockPos pos = new BlockPos(i, j, k);
+                    BlockPos pos = mutablePos.setPos(i, j, k);
                     if (world.isBlockLoaded(pos)) {
                         IBlockState state = world.getBlockState(pos);
-                        if (state.getBlock().canCollideCheck(state, false) && state.getCollisionBoundingBox(world, pos) != null && state.getMaterial() != Material.LEAVES) {
+                        if (state.getMaterial() != Material.LEAVES) {
+                            double[] collisionBoxes = getCollisionBoxes(state, pos);
                             int oldCollidingBlockCount = mutableCollidingAABBs.size();
-                            state.addCollisionBoxToList(world, pos, mcBox, mutableCollidingAABBs, null, false);
+                            for (int l = 0; l < collisionBoxes.length; l += 6) {
+                                if (intersects(collisionBoxes, l, mcBox)) {
+                                    mutableCollidingAABBs.add(new AxisAlignedBB(collisionBoxes[l], collisionBoxes[l + 1], collisionBoxes[l + 2], collisionBoxes[l + 3], collisionBoxes[l + 4], collisionBoxes[l + 5]));
+                                }
+                            }
                             if (mutableCollidingAABBs.size() > oldCollidingBlockCount) {
                                 box.collidingBlockPositions.add(new Point3D(i, j, k));
                             }
@@ -625,19 +634,20 @@ public class WrapperWorld extends AWrapperWorld {
         for (int i = (int) Math.floor(mcBox.minX); i < Math.ceil(mcBox.maxX); ++i) {
             for (int j = (int) Math.floor(mcBox.minY); j < Math.ceil(mcBox.maxY); ++j) {
                 for (int k = (int) Math.floor(mcBox.minZ); k < Math.ceil(mcBox.maxZ); ++k) {
-                    BlockPos pos = new BlockPos(i, j, k);
+                    BlockPos pos = mutablePos.setPos(i, j, k);
                     if (!knownAirBlocks.contains(pos)) {
                         if (world.isBlockLoaded(pos)) {
                             IBlockState state = world.getBlockState(pos);
                             if (state.getMaterial() != Material.LEAVES) {
-                                if (state.getBlock().canCollideCheck(state, false) && state.getCollisionBoundingBox(world, pos) != null) {
-                                    int oldCollidingBlockCount = mutableCollidingAABBs.size();
-                                    state.addCollisionBoxToList(world, pos, mcBox, mutableCollidingAABBs, null, false);
-                                    if (mutableCollidingAABBs.size() > oldCollidingBlockCount) {
-                                        return true;
+                                double[] collisionBoxes = getCollisionBoxes(state, pos);
+                                if (collisionBoxes.length != 0) {
+                                    for (int l = 0; l < collisionBoxes.length; l += 6) {
+                                        if (intersects(collisionBoxes, l, mcBox)) {
+                                            return true;
+                                        }
                                     }
                                 } else {
-                                    knownAirBlocks.add(pos);
+                                    knownAirBlocks.add(pos.toImmutable());
                                 }
                                 if (box.collidesWithLiquids && state.getMaterial().isLiquid()) {
                                     if (mcBox.intersects(state.getBoundingBox(world, pos).offset(pos))) {
@@ -647,7 +657,7 @@ public class WrapperWorld extends AWrapperWorld {
                             } else if (breakLeaves) {
                                 world.destroyBlock(pos, false);
                             } else {
-                                knownAirBlocks.add(pos);
+                                knownAirBlocks.add(pos.toImmutable());
                             }
                         }
                     }
@@ -657,6 +667,42 @@ public class WrapperWorld extends AWrapperWorld {
         return false;
     }
 
+    /**
+     * Returns the collision boxes for the passed-in block.  These come from the cache if they can,
+     * as getting the block's boxes from MC is slow.  Boxes are min XYZ then max XYZ, in world coordinates.
+     */
+    private double[] getCollisionBoxes(IBlockState state, BlockPos pos) {
+        double[] collisionBoxes = blockCollisionCache.getBoxes(pos.getX(), pos.getY(), pos.getZ(), state);
+        if (collisionBoxes == null) {
+            if (state.getBlock().canCollideCheck(state, false) && state.getCollisionBoundingBox(world, pos) != null) {
+                //Get all boxes for the block.  Some blocks, like fences, have boxes outside their own space, so check around it too.
+                List<AxisAlignedBB> blockBoxes = new ArrayList<>();
+                state.addCollisionBoxToList(world, pos, new AxisAlignedBB(pos).grow(1), blockBoxes, null, false);
+                collisionBoxes = new double[blockBoxes.size() * 6];
+                int index = 0;
+                for (AxisAlignedBB blockBox : blockBoxes) {
+                    collisionBoxes[index++] = blockBox.minX;
+                    collisionBoxes[index++] = blockBox.minY;
+                    collisionBoxes[index++] = blockBox.minZ;
+                    collisionBoxes[index++] = blockBox.maxX;
+                    collisionBoxes[index++] = blockBox.maxY;
+                    collisionBoxes[index++] = blockBox.maxZ;
+                }
+            } else {
+                collisionBoxes = BlockCollisionCache.NO_BOXES;
+            }
+            blockCollisionCache.setBoxes(pos.getX(), pos.getY(), pos.getZ(), state, collisionBoxes);
+        }
+        return collisionBoxes;
+    }
+
+    /**
+     * Returns true if the collision box at the passed-in index intersects the passed-in MC box.
+     */
+    private static boolean intersects(double[] collisionBoxes, int index, AxisAlignedBB mcBox) {
+        return mcBox.minX < collisionBoxes[index + 3] && mcBox.maxX > collisionBoxes[index] && mcBox.minY < collisionBoxes[index + 4] && mcBox.maxY > collisionBoxes[index + 1] && mcBox.minZ < collisionBoxes[index + 5] && mcBox.maxZ > collisionBoxes[index + 2];
+    }
+
     @Override
     public int getRedstonePower(Point3D position) {
         return world.getRedstonePowerFromNeighbors(new BlockPos(position.x, position.y, position.z));
@@ -1069,6 +1115,29 @@ public class WrapperWorld extends AWrapperWorld {
         }
     }
 
+    /**
+     * Remove changed blocks from the collision cache.  Neighbors are removed too, as their shapes may depend on the block.
+     */
+    @SubscribeEvent
+    public void onIVNeighborNotify(BlockEvent.NeighborNotifyEvent event) {
+        //Need to check if it's our world, because Forge is stupid like that.
+        if (event.getWorld() == world) {
+            BlockPos pos = event.getPos();
+            blockCollisionCache.onBlockChanged(pos.getX(), pos.getY(), pos.getZ());
+        }
+    }
+
+    /**
+     * Remove unloaded chunks from the collision cache, as we won't be checking them anymore.
+     */
+    @SubscribeEvent
+    public void onIVChunkUnload(ChunkEvent.Unload event) {
+        //Need to check if it's our world, because Forge is stupid like that.
+        if (event.getWorld() == world) {
+            blockCollisionCache.onChunkUnloaded(event.getChunk().x, event.getChunk().z);
+        }
+    }
+
     /**
      * Remove all entities from our maps if we unload the world.  This will cause duplicates if we don't.
      * Also remove this wrapper from the created lists, as it's invalid.
@@ -3,6 +3,7 @@ package mcinterface1165;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import minecrafttransportsimulator.baseclasses.BoundingBox;
 import minecrafttransportsimulator.baseclasses.BoundingBoxHitResult;
@@ -51,6 +52,10 @@ public class BuilderEntityExisting extends ABuilderEntityBase {
      * Maps Entity class names to instances of the IItemEntityProvider class that creates them.
      **/
     protected static final Map<String, IItemEntityFactory> entityMap = new HashMap<>();
+    /**
+     * Maps entities to the builders that are built around them.  Used to find which players are tracking an entity.
+     **/
+    private static final Map<AEntityB_Existing, BuilderEntityExisting> entityBuilders = new ConcurrentHashMap<>();
 
     /**
      * Current entity we are built around.  This MAY be null if we haven't loaded NBT from the server yet.
@@ -73,6 +78,21 @@ public class BuilderEntityExisting extends ABuilderEntityBase {
         super(eType, world);
     }
 
+    /**
+     * Sets the entity this builder is built around.
+     */
+    protected void setEntity(AEntityB_Existing entity) {
+        this.entity = entity;
+        entityBuilders.put(entity, this);
+    }
+
+    /**
+     * Returns the builder that is built around the passed-in entity, or null if there isn't one.
+     */
+    public static BuilderEntityExisting getBuilderFor(AEntityB_Existing entity) {
+        return entityBuilders.get(entity);
+    }
+
     @Override
     public void baseTick() {
         super.baseTick();
@@ -131,7 +151,7 @@ public class BuilderEntityExisting extends ABuilderEntityBase {
                 WrapperWorld worldWrapper = WrapperWorld.getWrapperFor(level);
                 try {
                     WrapperNBT data = new WrapperNBT(lastLoadedNBT);
-                    entity = entityMap.get(lastLoadedNBT.getString("entityid")).restoreEntityFromData(worldWrapper, data);
+                    setEntity(entityMap.get(lastLoadedNBT.getString("entityid")).restoreEntityFromData(worldWrapper, data));
                     if (entity instanceof AEntityF_Multipart) {
                         ((AEntityF_Multipart<?>) entity).addPartsPostAddition(null, data);
                     }
@@ -157,6 +177,7 @@ public class BuilderEntityExisting extends ABuilderEntityBase {
         super.remove();
         //Notify internal entity of it being invalid.
         if (entity != null) {
+            entityBuilders.remove(entity);
             entity.remove();
         }
     }
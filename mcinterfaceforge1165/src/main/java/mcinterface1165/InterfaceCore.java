@@ -45,6 +45,11 @@ class InterfaceCore implements IInterfaceCore {
     public String getModName(String modID) {
         return ModList.get().getModContainerById(modID).get().getModInfo().getDisplayName();
     }
+
+    @Override
+    public String getModVersion(String modID) {
+        return ModList.get().getModContainerById(modID).get().getModInfo().getVersion().toString();
+    }
     
     @Override
     public InputStream getPackResource(String resource) {
@@ -14,6 +14,7 @@ import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.systems.CameraSystem;
 import minecrafttransportsimulator.systems.CameraSystem.CameraMode;
 import minecrafttransportsimulator.systems.ConfigSystem;
+import minecrafttransportsimulator.systems.DebugInfoSystem;
 import net.minecraft.client.MainWindow;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.ActiveRenderInfo;
@@ -140,6 +141,16 @@ public class InterfaceEventsEntityRendering {
         }
     }
 
+    /**
+     * Adds our stats to the debug screen, if it's open.
+     */
+    @SubscribeEvent
+    public static void onIVRenderDebugText(RenderGameOverlayEvent.Text event) {
+        if (Minecraft.getInstance().options.renderDebug) {
+            DebugInfoSystem.addDebugText(event.getLeft());
+        }
+    }
+
     /**
      * Pre-post methods for adjusting entity angles while seated.
      */
@@ -6,6 +6,8 @@ import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
 
 import io.netty.buffer.ByteBuf;
+import minecrafttransportsimulator.entities.components.AEntityB_Existing;
+import minecrafttransportsimulator.entities.instances.APart;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
 import minecrafttransportsimulator.mcinterface.IInterfacePacket;
 import minecrafttransportsimulator.mcinterface.IWrapperNBT;
@@ -15,6 +17,8 @@ import minecrafttransportsimulator.packets.components.APacketBase;
 import net.minecraft.entity.player.ServerPlayerEntity;
 import net.minecraft.network.PacketBuffer;
 import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.chunk.Chunk;
 import net.minecraftforge.fml.network.NetworkDirection;
 import net.minecraftforge.fml.network.NetworkEvent.Context;
 import net.minecraftforge.fml.network.NetworkRegistry;
@@ -61,6 +65,20 @@ class InterfacePacket implements IInterfacePacket {
         network.send(PacketDistributor.ALL.noArg(), new WrapperPacket(packet));
     }
 
+    @Override
+    public void sendToAllTracking(APacketBase packet, AEntityB_Existing entity) {
+        if (entity instanceof APart) {
+            entity = ((APart) entity).masterEntity;
+        }
+        BuilderEntityExisting builder = BuilderEntityExisting.getBuilderFor(entity);
+        if (builder != null) {
+            network.send(PacketDistributor.TRACKING_ENTITY.with(() -> builder), new WrapperPacket(packet));
+        } else {
+            Chunk chunk = ((WrapperWorld) entity.world).world.getChunkAt(new BlockPos(entity.position.x, entity.position.y, entity.position.z));
+            network.send(PacketDistributor.TRACKING_CHUNK.with(() -> chunk), new WrapperPacket(packet));
+        }
+    }
+
     @Override
     public void sendToPlayer(APacketBase packet, IWrapperPlayer player) {
         network.send(PacketDistributor.PLAYER.with(() -> (ServerPlayerEntity) ((WrapperPlayer) player).player), new WrapperPacket(packet));
@@ -4,17 +4,21 @@ import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import javax.imageio.ImageIO;
 
+import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL13;
 
 import com.mojang.blaze3d.matrix.MatrixStack;
 import com.mojang.blaze3d.platform.GlStateManager;
@@ -31,7 +35,10 @@ import minecrafttransportsimulator.mcinterface.IInterfaceRender;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.rendering.GIFParser.GIFImageFrame;
 import minecrafttransportsimulator.rendering.GIFParser.ParsedGIF;
+import minecrafttransportsimulator.rendering.RenderBatcher;
+import minecrafttransportsimulator.rendering.RenderBatcher.BatchRenderer;
 import minecrafttransportsimulator.rendering.RenderableData;
+import minecrafttransportsimulator.rendering.RenderableVertices;
 import net.minecraft.block.BlockState;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.BufferBuilder;
@@ -75,9 +82,11 @@ public class InterfaceRender implements IInterfaceRender {
     private static final List<GUIComponentItem> stacksToRender = new ArrayList<>();
 
     private static final Map<String, RenderType> renderTypes = new HashMap<>();
-    private static final Map<RenderableData, BufferData> buffers = new HashMap<>();
-    private static final Map<RenderType, List<RenderData>> queuedRenders = new HashMap<>();
+    private static final Map<RenderableVertices, BufferData> buffers = new HashMap<>();
+    private static final Map<RenderableVertices, Set<RenderableData>> bufferUsers = new HashMap<>();
+    private static final RenderBatcher<RenderType, RenderData> renderBatcher = new RenderBatcher<>(RenderData::new);
     private static final ConcurrentLinkedQueue<BufferData> removedRenders = new ConcurrentLinkedQueue<>();
+    private static long vertexUploads;
 
     private static RenderState.TextureState MISSING_STATE;
     private static RenderState.TextureState BLOCK_STATE;
@@ -86,6 +95,7 @@ public class InterfaceRender implements IInterfaceRender {
     public static Point3D renderCameraOffset = new Point3D();
     private static boolean renderingGUI;
     private static float[] matrixConvertArray = new float[16];
+    private static final FloatBuffer poseBuffer = FloatBuffer.allocate(16);
 
     @Override
     public float[] getBlockBreakTexture(AWrapperWorld world, Point3D position) {
@@ -121,6 +131,10 @@ public class InterfaceRender implements IInterfaceRender {
     
     @Override
     public void renderVertices(RenderableData data, boolean changedSinceLastRender) {
+        if (data.vertexObject.cacheVertices && !data.vertexObject.isLines && !renderingGUI) {
+            queueCachedVertices(data);
+            return;
+        }
         matrixStack.pushPose();
         Matrix4f matrix4f = convertMatrix4f(data.transform);
         MatrixStack.Entry stackEntry = matrixStack.last();
@@ -136,95 +150,122 @@ public class InterfaceRender implements IInterfaceRender {
             //Rewind buffer for next read.
             data.vertexObject.vertices.rewind();
         } else {
-            String typeID = data.texture + data.isTranslucent + data.lightingMode + data.enableBrightBlending;
-            final RenderType renderType;
-            if (data.vertexObject.cacheVertices && !renderingGUI) {
-            	//Get the render type and data buffer for this entity.
-                renderType = renderTypes.computeIfAbsent(typeID, k -> CustomRenderType.create("mts_entity", DefaultVertexFormats.NEW_ENTITY, 7, 2097152, true, data.isTranslucent, CustomRenderType.createForObject(data).createCompositeState(false)));
-                BufferData buffer = buffers.computeIfAbsent(data, k -> new BufferData(renderType, data));
-
-                //Reset buffer if it's not ready.
-                if (changedSinceLastRender) {
-                    buffer.builder.clear();
-                    buffer.isReady = false;
-                }
-                if (!buffer.isReady) {
-                    int index = 0;
-                    buffer.builder.begin(GL11.GL_QUADS, renderType.format());
-                    while (data.vertexObject.vertices.hasRemaining()) {
-                        //Need to parse these out first since our order differs.
-                        float normalX = data.vertexObject.vertices.get();
-                        float normalY = data.vertexObject.vertices.get();
-                        float normalZ = data.vertexObject.vertices.get();
-                        float texU = data.vertexObject.vertices.get();
-                        float texV = data.vertexObject.vertices.get();
-                        float posX = data.vertexObject.vertices.get();
-                        float posY = data.vertexObject.vertices.get();
-                        float posZ = data.vertexObject.vertices.get();
-
-                        //Add the vertex format bits.
-                        do {
-                            buffer.builder.vertex(posX, posY, posZ, data.color.red, data.color.green, data.color.blue, data.alpha, texU, texV, OverlayTexture.NO_OVERLAY, data.worldLightValue, normalX, normalY, normalZ);
-                        } while (++index == 3);
-                        if (index == 4) {
-                            index = 0;
-                        }
-                    }
-                    buffer.isReady = true;
-                    buffer.builder.end();
-                    buffer.buffer.upload(buffer.builder);
-                    data.vertexObject.vertices.rewind();
-                }
+            IVertexBuilder buffer = renderBuffer.getBuffer(getRenderType(data, 256));
 
-                //Add this buffer to the list to render later.
-                List<RenderData> renders = queuedRenders.get(renderType);
-                if (renders == null) {
-                    renders = new ArrayList<>();
-                    queuedRenders.put(renderType, renders);
-                }
-                renders.add(new RenderData(stackEntry.pose(), buffer.buffer));
-            } else {
-                renderType = renderTypes.computeIfAbsent(typeID, k -> CustomRenderType.create("mts_entity", DefaultVertexFormats.NEW_ENTITY, 7, 256, true, data.isTranslucent, CustomRenderType.createForObject(data).createCompositeState(false)));
-                IVertexBuilder buffer = renderBuffer.getBuffer(renderType);
-                
-                //Now populate the state we requested.
-                int index = 0;
-                while (data.vertexObject.vertices.hasRemaining()) {
-                    //Need to parse these out first since our order differs.
-                    float normalX = data.vertexObject.vertices.get();
-                    float normalY = data.vertexObject.vertices.get();
-                    float normalZ = data.vertexObject.vertices.get();
-                    float texU = data.vertexObject.vertices.get();
-                    float texV = data.vertexObject.vertices.get();
-                    float posX = data.vertexObject.vertices.get();
-                    float posY = data.vertexObject.vertices.get();
-                    float posZ = data.vertexObject.vertices.get();
-
-                    //Add the vertex.  Yes, we have to multiply this here on the CPU.  Yes, it's retarded because the GPU should be doing the matrix math.
-                    //Blaze3d my ass, this is SLOWER than DisplayLists!
-                    //We also need to add the 3rd vertex twice, since the buffer wants quads rather than tris.
-                    //Yes, we have to render 25% more data because Mojang doesn't wanna move to tris like literally every other game.
-                    //Yes, they're stupid.
-                    do {
-                        buffer.vertex(stackEntry.pose(), posX, posY, posZ);
-                        buffer.color(data.color.red, data.color.green, data.color.blue, data.alpha);
-                        buffer.uv(texU, texV);
-                        buffer.overlayCoords(OverlayTexture.NO_OVERLAY);
-                        buffer.uv2(data.worldLightValue);
-                        buffer.normal(stackEntry.normal(), normalX, normalY, normalZ);
-                        buffer.endVertex();
-                    } while (++index == 3);
-                    if (index == 4) {
-                        index = 0;
-                    }
+            //Now populate the state we requested.
+            int index = 0;
+            while (data.vertexObject.vertices.hasRemaining()) {
+                //Need to parse these out first since our order differs.
+                float normalX = data.vertexObject.vertices.get();
+                float normalY = data.vertexObject.vertices.get();
+                float normalZ = data.vertexObject.vertices.get();
+                float texU = data.vertexObject.vertices.get();
+                float texV = data.vertexObject.vertices.get();
+                float posX = data.vertexObject.vertices.get();
+                float posY = data.vertexObject.vertices.get();
+                float posZ = data.vertexObject.vertices.get();
+
+                //Add the vertex.  Yes, we have to multiply this here on the CPU.  Yes, it's retarded because the GPU should be doing the matrix math.
+                //Blaze3d my ass, this is SLOWER than DisplayLists!
+                //We also need to add the 3rd vertex twice, since the buffer wants quads rather than tris.
+                //Yes, we have to render 25% more data because Mojang doesn't wanna move to tris like literally every other game.
+                //Yes, they're stupid.
+                do {
+                    buffer.vertex(stackEntry.pose(), posX, posY, posZ);
+                    buffer.color(data.color.red, data.color.green, data.color.blue, data.alpha);
+                    buffer.uv(texU, texV);
+                    buffer.overlayCoords(OverlayTexture.NO_OVERLAY);
+                    buffer.uv2(data.worldLightValue);
+                    buffer.normal(stackEntry.normal(), normalX, normalY, normalZ);
+                    buffer.endVertex();
+                } while (++index == 3);
+                if (index == 4) {
+                    index = 0;
                 }
-                //Rewind buffer for next read.
-                data.vertexObject.vertices.rewind();
             }
+            //Rewind buffer for next read.
+            data.vertexObject.vertices.rewind();
         }
         matrixStack.popPose();
     }
 
+    /**
+     * Queues the cached vertices of the passed-in data to render later with all others that share their buffer.
+     * This is done for every cached object every frame, so nothing is allocated here once the buffer is built.
+     * The draw and its matrix come from the batcher's pool, and the matrix is made without touching the stack.
+     */
+    private static void queueCachedVertices(RenderableData data) {
+        RenderType renderType = getRenderType(data, 2097152);
+
+        //Buffers are shared by all data with the same vertices, as color and light are set when drawing.
+        BufferData buffer = buffers.get(data.vertexObject);
+        if (buffer == null) {
+            buffer = new BufferData(renderType, data);
+            buffers.put(data.vertexObject, buffer);
+        }
+        bufferUsers.computeIfAbsent(data.vertexObject, k -> new HashSet<>()).add(data);
+
+        //Build buffer if it's not ready.
+        if (!buffer.isReady) {
+            int index = 0;
+            buffer.builder.begin(GL11.GL_QUADS, renderType.format());
+            while (data.vertexObject.vertices.hasRemaining()) {
+                //Need to parse these out first since our order differs.
+                float normalX = data.vertexObject.vertices.get();
+                float normalY = data.vertexObject.vertices.get();
+                float normalZ = data.vertexObject.vertices.get();
+                float texU = data.vertexObject.vertices.get();
+                float texV = data.vertexObject.vertices.get();
+                float posX = data.vertexObject.vertices.get();
+                float posY = data.vertexObject.vertices.get();
+                float posZ = data.vertexObject.vertices.get();
+
+                //Add the vertex format bits.
+                //Color and light are set when drawing rather than here, so they can change without re-uploading.
+                do {
+                    buffer.builder.vertex(posX, posY, posZ, 1.0F, 1.0F, 1.0F, 1.0F, texU, texV, OverlayTexture.NO_OVERLAY, 0, normalX, normalY, normalZ);
+                    ++buffer.vertexCount;
+                } while (++index == 3);
+                if (index == 4) {
+                    index = 0;
+                }
+            }
+            buffer.isReady = true;
+            buffer.builder.end();
+            buffer.buffer.upload(buffer.builder);
+            ++vertexUploads;
+            data.vertexObject.vertices.rewind();
+        }
+
+        //Add this buffer to the batcher to render later with all others that share it.
+        RenderData renderData = renderBatcher.add(renderType, data.vertexObject);
+        renderData.buffer = buffer.buffer;
+        renderData.vertexCount = buffer.vertexCount;
+        renderData.red = data.color.red;
+        renderData.green = data.color.green;
+        renderData.blue = data.color.blue;
+        renderData.alpha = data.alpha;
+        renderData.lightValue = data.worldLightValue;
+        storePoseTransform(data.transform, renderData.matrix);
+    }
+
+    /**
+     * Returns the render type for the passed-in data, creating it if this is the first data with its render state.
+     */
+    private static RenderType getRenderType(RenderableData data, int bufferSize) {
+        RenderType renderType = renderTypes.get(data.renderStateKey);
+        if (renderType == null) {
+            renderType = CustomRenderType.create("mts_entity", DefaultVertexFormats.NEW_ENTITY, 7, bufferSize, true, data.isTranslucent, CustomRenderType.createForObject(data).createCompositeState(false));
+            renderTypes.put(data.renderStateKey, renderType);
+        }
+        return renderType;
+    }
+
+    @Override
+    public long getVertexUploadCount() {
+        return vertexUploads;
+    }
+
     @Override
     public void deleteVertices(RenderableData data) {
         if (data.vertexObject.cacheVertices) {
@@ -233,9 +274,18 @@ public class InterfaceRender implements IInterfaceRender {
             //Make sure we actually bound a buffer; just because the main system asks for a bound buffer,
     	    //doesn't mean we actually can give it one.  GUI models are one such case, as they don't work right
             //with bound buffers due to matrix differences.
-            BufferData buffer = buffers.remove(data);
-            if (buffer != null) {
-                removedRenders.add(buffer);
+            //Buffers are shared, so only remove the buffer if no data objects are using it.
+            Set<RenderableData> users = bufferUsers.get(data.vertexObject);
+            if (users != null) {
+                users.remove(data);
+                if (users.isEmpty()) {
+                    bufferUsers.remove(data.vertexObject);
+                    BufferData buffer = buffers.remove(data.vertexObject);
+                    renderBatcher.remove(data.vertexObject);
+                    if (buffer != null) {
+                        removedRenders.add(buffer);
+                    }
+                }
             }
     	}
     }
@@ -429,6 +479,25 @@ public class InterfaceRender implements IInterfaceRender {
         return new Matrix4f(matrixConvertArray);
     }
 
+    /**
+     * Puts the current pose multiplied by the passed-in transform into the passed-in buffer, in OpenGL order.
+     * This is the same as multiplying the pose by {@link #convertMatrix4f(TransformationMatrix)}, but doesn't create any matrices.
+     */
+    private static void storePoseTransform(TransformationMatrix transform, FloatBuffer buffer) {
+        //Pose is stored column-major, so each row is spread across the buffer.
+        matrixStack.last().pose().store(poseBuffer);
+        for (int row = 0; row < 4; ++row) {
+            float p0 = poseBuffer.get(row);
+            float p1 = poseBuffer.get(4 + row);
+            float p2 = poseBuffer.get(8 + row);
+            float p3 = poseBuffer.get(12 + row);
+            buffer.put(row, (float) (p0 * transform.m00 + p1 * transform.m10 + p2 * transform.m20 + p3 * transform.m30));
+            buffer.put(4 + row, (float) (p0 * transform.m01 + p1 * transform.m11 + p2 * transform.m21 + p3 * transform.m31));
+            buffer.put(8 + row, (float) (p0 * transform.m02 + p1 * transform.m12 + p2 * transform.m22 + p3 * transform.m32));
+            buffer.put(12 + row, (float) (p0 * transform.m03 + p1 * transform.m13 + p2 * transform.m23 + p3 * transform.m33));
+        }
+    }
+
     /**
      * Event that's called to setup the client.  We register our render wrapper
      * class here.
@@ -472,6 +541,8 @@ public class InterfaceRender implements IInterfaceRender {
         ConcurrentLinkedQueue<AEntityC_Renderable> allEntities = world.renderableEntities;
         if (allEntities != null) {
             world.beginProfiling("MTSRendering_Setup", true);
+            world.renderFrameMetrics.beginPass(blendingEnabled);
+            world.renderCullingStage.beginPass(blendingEnabled);
 
             //NOTE: this operation occurs on a ConcurrentLinkedQueue.  Therefore, updates will
             //not occur one after another.  Sanitize your inputs!
@@ -490,27 +561,14 @@ public class InterfaceRender implements IInterfaceRender {
             //Now do the actual render.
             world.beginProfiling("MTSRendering_Execution", false);
             renderBuffers();
+            world.renderFrameMetrics.endPass(blendingEnabled);
             world.endProfiling();
         }
     }
 
     private static void renderBuffers() {
         //Call order is CRITICAL and will lead to random JME faults with no stacktrace if modified!
-        for (Entry<RenderType, List<RenderData>> renderEntry : queuedRenders.entrySet()) {
-            RenderType renderType = renderEntry.getKey();
-            List<RenderData> datas = renderEntry.getValue();
-            if (!datas.isEmpty()) {
-                renderType.setupRenderState();
-                for (RenderData data : datas) {
-                    data.buffer.bind();
-                    renderType.format().setupBufferState(0L);
-                    data.buffer.draw(data.matrix, GL11.GL_QUADS);
-                }
-                renderType.format().clearBufferState();
-                renderType.clearRenderState();
-                datas.clear();
-            }
-        }
+        renderBatcher.render(BUFFER_RENDERER);
         VertexBuffer.unbind();
         if (!removedRenders.isEmpty()) {
             removedRenders.forEach(render -> render.buffer.close());
@@ -582,19 +640,62 @@ public class InterfaceRender implements IInterfaceRender {
         }
     }
 
-    private static class RenderData {
-        private final Matrix4f matrix;
-        private final VertexBuffer buffer;
+    /**
+     * Renderer for batched buffers.  Each batch is a single buffer, so it only needs to be bound once.
+     * Each draw is still its own draw call with its own matrix, as the fixed-function pipeline has no instancing.
+     */
+    private static final BatchRenderer<RenderType, RenderData> BUFFER_RENDERER = new BatchRenderer<RenderType, RenderData>() {
+        @Override
+        public void setupState(RenderType renderType) {
+            renderType.setupRenderState();
+        }
 
-        private RenderData(Matrix4f matrix, VertexBuffer buffer) {
-            this.matrix = new Matrix4f(matrix);
-            this.buffer = buffer;
+        @Override
+        public void renderBatch(RenderType renderType, RenderableVertices vertexObject, List<RenderData> datas) {
+            datas.get(0).buffer.bind();
+            renderType.format().setupBufferState(0L);
+            //Color and lightmap are per-draw, not per-vertex.  Turn off their arrays so the current values are used instead.
+            GlStateManager._disableClientState(GL11.GL_COLOR_ARRAY);
+            GlStateManager._glClientActiveTexture(GL13.GL_TEXTURE2);
+            GlStateManager._disableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+            GlStateManager._glClientActiveTexture(GL13.GL_TEXTURE0);
+            for (RenderData data : datas) {
+                RenderSystem.color4f(data.red, data.green, data.blue, data.alpha);
+                RenderSystem.glMultiTexCoord2f(GL13.GL_TEXTURE2, data.lightValue & 0xFFFF, data.lightValue >> 16 & 0xFFFF);
+                //Same as the buffer's own draw, but with our matrix, which is already in the form OpenGL wants.
+                RenderSystem.pushMatrix();
+                GL11.glLoadMatrixf(data.matrix);
+                RenderSystem.drawArrays(GL11.GL_QUADS, 0, data.vertexCount);
+                RenderSystem.popMatrix();
+            }
         }
+
+        @Override
+        public void clearState(RenderType renderType) {
+            renderType.format().clearBufferState();
+            RenderSystem.color4f(1.0F, 1.0F, 1.0F, 1.0F);
+            renderType.clearRenderState();
+        }
+    };
+
+    /**
+     * A queued draw.  These are pooled by the batcher and filled in for each draw, so they are never made per-frame.
+     */
+    private static class RenderData {
+        private final FloatBuffer matrix = BufferUtils.createFloatBuffer(16);
+        private VertexBuffer buffer;
+        private int vertexCount;
+        private float red;
+        private float green;
+        private float blue;
+        private float alpha;
+        private int lightValue;
     }
 
     private static class BufferData {
         final BufferBuilder builder;
         final VertexBuffer buffer;
+        int vertexCount;
         boolean isReady;
 
         private BufferData() {
@@ -168,6 +168,17 @@ public class InterfaceClient implements IInterfaceClient {
 
     private static final Point3D mutablePosition = new Point3D();
 
+    @Override
+    public Point3D getCameraLookVector() {
+        //Camera angles are set from the camera setup event, so include any changes made by custom cameras.
+        double pitch = Math.toRadians(Minecraft.getInstance().gameRenderer.getMainCamera().getXRot());
+        double yaw = Math.toRadians(Minecraft.getInstance().gameRenderer.getMainCamera().getYRot());
+        mutableLookVector.set(-Math.sin(yaw) * Math.cos(pitch), -Math.sin(pitch), Math.cos(yaw) * Math.cos(pitch));
+        return mutableLookVector;
+    }
+
+    private static final Point3D mutableLookVector = new Point3D();
+
     @Override
     public void playBlockBreakSound(Point3D position) {
         BlockPos pos = BlockPos.containing(position.x, position.y, position.z);
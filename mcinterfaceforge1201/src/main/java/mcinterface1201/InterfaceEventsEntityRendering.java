@@ -8,6 +8,7 @@ import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.client.event.CustomizeGuiOverlayEvent;
 import net.minecraftforge.client.event.RenderArmEvent;
 import net.minecraftforge.client.event.RenderGuiOverlayEvent;
 import net.minecraftforge.client.event.RenderHandEvent;
@@ -27,6 +28,7 @@ import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.systems.CameraSystem;
 import minecrafttransportsimulator.systems.CameraSystem.CameraMode;
 import minecrafttransportsimulator.systems.ConfigSystem;
+import minecrafttransportsimulator.systems.DebugInfoSystem;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
@@ -141,6 +143,14 @@ public class InterfaceEventsEntityRendering {
         }
     }
 
+    /**
+     * Adds our stats to the debug screen.  This event is only fired when the debug screen is open.
+     */
+    @SubscribeEvent
+    public static void onIVRenderDebugText(CustomizeGuiOverlayEvent.DebugText event) {
+        DebugInfoSystem.addDebugText(event.getLeft());
+    }
+
     /**
      * Pre-post methods for adjusting entity angles while seated.
      */
@@ -6,15 +6,19 @@ import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
 
 import io.netty.buffer.ByteBuf;
+import minecrafttransportsimulator.entities.components.AEntityB_Existing;
+import minecrafttransportsimulator.entities.instances.APart;
 import minecrafttransportsimulator.mcinterface.AWrapperWorld;
 import minecrafttransportsimulator.mcinterface.IInterfacePacket;
 import minecrafttransportsimulator.mcinterface.IWrapperNBT;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.packets.components.APacketBase;
+import net.minecraft.core.BlockPos;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraftforge.network.NetworkDirection;
 import net.minecraftforge.network.NetworkEvent.Context;
 import net.minecraftforge.network.NetworkRegistry;
@@ -61,6 +65,20 @@ class InterfacePacket implements IInterfacePacket {
         network.send(PacketDistributor.ALL.noArg(), new WrapperPacket(packet));
     }
 
+    @Override
+    public void sendToAllTracking(APacketBase packet, AEntityB_Existing entity) {
+        if (entity instanceof APart) {
+            entity = ((APart) entity).masterEntity;
+        }
+        BuilderEntityExisting builder = BuilderEntityExisting.getBuilderFor(entity);
+        if (builder != null) {
+            network.send(PacketDistributor.TRACKING_ENTITY.with(() -> builder), new WrapperPacket(packet));
+        } else {
+            LevelChunk chunk = ((WrapperWorld) entity.world).world.getChunkAt(BlockPos.containing(entity.position.x, entity.position.y, entity.position.z));
+            network.send(PacketDistributor.TRACKING_CHUNK.with(() -> chunk), new WrapperPacket(packet));
+        }
+    }
+
     @Override
     public void sendToPlayer(APacketBase packet, IWrapperPlayer player) {
         network.send(PacketDistributor.PLAYER.with(() -> (ServerPlayer) ((WrapperPlayer) player).player), new WrapperPacket(packet));
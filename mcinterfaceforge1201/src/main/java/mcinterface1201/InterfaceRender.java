@@ -4,6 +4,7 @@ import com.mojang.blaze3d.platform.GlStateManager;
 import com.mojang.blaze3d.platform.NativeImage;
 import com.mojang.blaze3d.systems.RenderSystem;
 import com.mojang.blaze3d.vertex.*;
+import mcinterface1201.mixin.client.VertexBufferAccessorMixin;
 import minecrafttransportsimulator.baseclasses.Point3D;
 import minecrafttransportsimulator.baseclasses.TransformationMatrix;
 import minecrafttransportsimulator.entities.components.AEntityC_Renderable;
@@ -14,13 +15,17 @@ import minecrafttransportsimulator.mcinterface.IInterfaceRender;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.rendering.GIFParser.GIFImageFrame;
 import minecrafttransportsimulator.rendering.GIFParser.ParsedGIF;
+import minecrafttransportsimulator.rendering.RenderBatcher;
+import minecrafttransportsimulator.rendering.RenderBatcher.BatchRenderer;
 import minecrafttransportsimulator.rendering.RenderableData;
+import minecrafttransportsimulator.rendering.RenderableVertices;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.renderer.LightTexture;
 import net.minecraft.client.renderer.MultiBufferSource;
 import net.minecraft.client.renderer.RenderStateShard;
 import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.ShaderInstance;
 import net.minecraft.client.renderer.culling.Frustum;
 import net.minecraft.client.renderer.entity.EntityRenderer;
 import net.minecraft.client.renderer.entity.EntityRendererProvider;
@@ -36,17 +41,27 @@ import net.minecraft.world.level.LightLayer;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.client.event.EntityRenderersEvent;
+import net.minecraftforge.client.event.RegisterShadersEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 import org.joml.Matrix4f;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL31;
+import org.lwjgl.opengl.GL33;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.*;
-import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
@@ -64,9 +79,21 @@ public class InterfaceRender implements IInterfaceRender {
     private static final List<GUIComponentItem> stacksToRender = new ArrayList<>();
 
     private static final Map<String, RenderType> renderTypes = new HashMap<>();
-    private static final Map<RenderableData, BufferData> buffers = new HashMap<>();
-    private static final Map<RenderType, List<RenderData>> queuedRenders = new HashMap<>();
+    private static final Map<RenderableVertices, BufferData> buffers = new HashMap<>();
+    private static final Map<RenderableVertices, Set<RenderableData>> bufferUsers = new HashMap<>();
+    private static final RenderBatcher<RenderType, RenderData> renderBatcher = new RenderBatcher<>(RenderData::new);
     private static final ConcurrentLinkedQueue<BufferData> removedRenders = new ConcurrentLinkedQueue<>();
+    private static long vertexUploads;
+
+    /** Bytes per instance in the instance buffer: the model-view matrix, then color, then block and sky light.**/
+    private static final int INSTANCE_BYTES = (16 + 4 + 2) * 4;
+    /** Instanced shader for batches, or null if it didn't load or the driver can't draw instanced.**/
+    private static ShaderInstance instancedShader;
+    private static int instanceMatrixAttribute;
+    private static int instanceColorAttribute;
+    private static int instanceLightAttribute;
+    private static int instanceBuffer;
+    private static ByteBuffer instanceData = ByteBuffer.allocateDirect(INSTANCE_BYTES * 256).order(ByteOrder.nativeOrder());
 
     private static RenderStateShard.TextureStateShard MISSING_STATE;
     private static RenderStateShard.TextureStateShard BLOCK_STATE;
@@ -75,6 +102,7 @@ public class InterfaceRender implements IInterfaceRender {
     public static Point3D renderCameraOffset = new Point3D();
     private static boolean renderingGUI;
     private static float[] matrixConvertArray = new float[16];
+    private static final Matrix4f transformMatrix = new Matrix4f();
 
     @Override
     public float[] getBlockBreakTexture(AWrapperWorld world, Point3D position) {
@@ -110,6 +138,10 @@ public class InterfaceRender implements IInterfaceRender {
     
     @Override
     public void renderVertices(RenderableData data, boolean changedSinceLastRender) {
+        if (data.vertexObject.cacheVertices && !data.vertexObject.isLines && !renderingGUI) {
+            queueCachedVertices(data);
+            return;
+        }
         matrixStack.pushPose();
         Matrix4f matrix4f = convertMatrix4f(data.transform);
         PoseStack.Pose stackEntry = matrixStack.last();
@@ -125,94 +157,119 @@ public class InterfaceRender implements IInterfaceRender {
             //Rewind buffer for next read.
             data.vertexObject.vertices.rewind();
         } else {
-            String typeID = data.texture + data.isTranslucent + data.lightingMode + data.enableBrightBlending;
-            final RenderType renderType;
-            if (data.vertexObject.cacheVertices && !renderingGUI) {
-            	//Get the render type and data buffer for this entity.
-                renderType = renderTypes.computeIfAbsent(typeID, k -> CustomRenderType.create("mts_entity", DefaultVertexFormat.NEW_ENTITY, VertexFormat.Mode.QUADS, 2097152, true, data.isTranslucent, CustomRenderType.createForObject(data).createCompositeState(false)));
-                BufferData buffer = buffers.computeIfAbsent(data, k -> new BufferData(renderType, data));
-
-                //Reset buffer if it's not ready.
-                if (changedSinceLastRender) {
-                    buffer.builder.clear();
-                    buffer.isReady = false;
-                }
-                if (!buffer.isReady) {
-                    int index = 0;
-                    buffer.builder.begin(VertexFormat.Mode.QUADS, renderType.format());
-                    while (data.vertexObject.vertices.hasRemaining()) {
-                        //Need to parse these out first since our order differs.
-                        float normalX = data.vertexObject.vertices.get();
-                        float normalY = data.vertexObject.vertices.get();
-                        float normalZ = data.vertexObject.vertices.get();
-                        float texU = data.vertexObject.vertices.get();
-                        float texV = data.vertexObject.vertices.get();
-                        float posX = data.vertexObject.vertices.get();
-                        float posY = data.vertexObject.vertices.get();
-                        float posZ = data.vertexObject.vertices.get();
-
-                        //Add the vertex format bits.
-                        do {
-                            buffer.builder.vertex(posX, posY, posZ, data.color.red, data.color.green, data.color.blue, data.alpha, texU, texV, OverlayTexture.NO_OVERLAY, data.worldLightValue, normalX, normalY, normalZ);
-                        } while (++index == 3);
-                        if (index == 4) {
-                            index = 0;
-                        }
-                    }
-                    buffer.isReady = true;
-                    buffer.buffer.upload(buffer.builder.end());
-                    data.vertexObject.vertices.rewind();
-                }
+            VertexConsumer buffer = renderBuffer.getBuffer(getRenderType(data, 256));
 
-                //Add this buffer to the list to render later.
-                List<RenderData> renders = queuedRenders.get(renderType);
-                if (renders == null) {
-                    renders = new ArrayList<>();
-                    queuedRenders.put(renderType, renders);
-                }
-                renders.add(new RenderData(stackEntry.pose(), buffer.buffer));
-            } else {
-                renderType = renderTypes.computeIfAbsent(typeID, k -> CustomRenderType.create("mts_entity", DefaultVertexFormat.NEW_ENTITY, VertexFormat.Mode.QUADS, 256, true, data.isTranslucent, CustomRenderType.createForObject(data).createCompositeState(false)));
-                VertexConsumer buffer = renderBuffer.getBuffer(renderType);
-                
-                //Now populate the state we requested.
-                int index = 0;
-                while (data.vertexObject.vertices.hasRemaining()) {
-                    //Need to parse these out first since our order differs.
-                    float normalX = data.vertexObject.vertices.get();
-                    float normalY = data.vertexObject.vertices.get();
-                    float normalZ = data.vertexObject.vertices.get();
-                    float texU = data.vertexObject.vertices.get();
-                    float texV = data.vertexObject.vertices.get();
-                    float posX = data.vertexObject.vertices.get();
-                    float posY = data.vertexObject.vertices.get();
-                    float posZ = data.vertexObject.vertices.get();
-
-                    //Add the vertex.  Yes, we have to multiply this here on the CPU.  Yes, it's retarded because the GPU should be doing the matrix math.
-                    //Blaze3d my ass, this is SLOWER than DisplayLists!
-                    //We also need to add the 3rd vertex twice, since the buffer wants quads rather than tris.
-                    //Yes, we have to render 25% more data because Mojang doesn't wanna move to tris like literally every other game.
-                    //Yes, they're stupid.
-                    do {
-                        buffer.vertex(stackEntry.pose(), posX, posY, posZ);
-                        buffer.color(data.color.red, data.color.green, data.color.blue, data.alpha);
-                        buffer.uv(texU, texV);
-                        buffer.overlayCoords(OverlayTexture.NO_OVERLAY);
-                        buffer.uv2(data.worldLightValue);
-                        buffer.normal(stackEntry.normal(), normalX, normalY, normalZ);
-                        buffer.endVertex();
-                    } while (++index == 3);
-                    if (index == 4) {
-                        index = 0;
-                    }
+            //Now populate the state we requested.
+            int index = 0;
+            while (data.vertexObject.vertices.hasRemaining()) {
+                //Need to parse these out first since our order differs.
+                float normalX = data.vertexObject.vertices.get();
+                float normalY = data.vertexObject.vertices.get();
+                float normalZ = data.vertexObject.vertices.get();
+                float texU = data.vertexObject.vertices.get();
+                float texV = data.vertexObject.vertices.get();
+                float posX = data.vertexObject.vertices.get();
+                float posY = data.vertexObject.vertices.get();
+                float posZ = data.vertexObject.vertices.get();
+
+                //Add the vertex.  Yes, we have to multiply this here on the CPU.  Yes, it's retarded because the GPU should be doing the matrix math.
+                //Blaze3d my ass, this is SLOWER than DisplayLists!
+                //We also need to add the 3rd vertex twice, since the buffer wants quads rather than tris.
+                //Yes, we have to render 25% more data because Mojang doesn't wanna move to tris like literally every other game.
+                //Yes, they're stupid.
+                do {
+                    buffer.vertex(stackEntry.pose(), posX, posY, posZ);
+                    buffer.color(data.color.red, data.color.green, data.color.blue, data.alpha);
+                    buffer.uv(texU, texV);
+                    buffer.overlayCoords(OverlayTexture.NO_OVERLAY);
+                    buffer.uv2(data.worldLightValue);
+                    buffer.normal(stackEntry.normal(), normalX, normalY, normalZ);
+                    buffer.endVertex();
+                } while (++index == 3);
+                if (index == 4) {
+                    index = 0;
                 }
-                //Rewind buffer for next read.
-                data.vertexObject.vertices.rewind();
             }
+            //Rewind buffer for next read.
+            data.vertexObject.vertices.rewind();
         }
         matrixStack.popPose();
     }
 
+    /**
+     * Queues the cached vertices of the passed-in data to render later with all others that share their buffer.
+     * This is done for every cached object every frame, so nothing is allocated here once the buffer is built.
+     * The draw and its matrix come from the batcher's pool, and the matrix is made without touching the stack.
+     */
+    private static void queueCachedVertices(RenderableData data) {
+        RenderType renderType = getRenderType(data, 2097152);
+
+        //Buffers are shared by all data with the same vertices, as color and light are set when drawing.
+        BufferData buffer = buffers.get(data.vertexObject);
+        if (buffer == null) {
+            buffer = new BufferData(renderType, data);
+            buffers.put(data.vertexObject, buffer);
+        }
+        bufferUsers.computeIfAbsent(data.vertexObject, k -> new HashSet<>()).add(data);
+
+        //Build buffer if it's not ready.
+        if (!buffer.isReady) {
+            int index = 0;
+            buffer.builder.begin(VertexFormat.Mode.QUADS, renderType.format());
+            while (data.vertexObject.vertices.hasRemaining()) {
+                //Need to parse these out first since our order differs.
+                float normalX = data.vertexObject.vertices.get();
+                float normalY = data.vertexObject.vertices.get();
+                float normalZ = data.vertexObject.vertices.get();
+                float texU = data.vertexObject.vertices.get();
+                float texV = data.vertexObject.vertices.get();
+                float posX = data.vertexObject.vertices.get();
+                float posY = data.vertexObject.vertices.get();
+                float posZ = data.vertexObject.vertices.get();
+
+                //Add the vertex format bits.
+                //Color and light are set when drawing rather than here, so they can change without re-uploading.
+                do {
+                    buffer.builder.vertex(posX, posY, posZ, 1.0F, 1.0F, 1.0F, 1.0F, texU, texV, OverlayTexture.NO_OVERLAY, 0, normalX, normalY, normalZ);
+                } while (++index == 3);
+                if (index == 4) {
+                    index = 0;
+                }
+            }
+            buffer.isReady = true;
+            buffer.buffer.upload(buffer.builder.end());
+            ++vertexUploads;
+            data.vertexObject.vertices.rewind();
+        }
+
+        //Add this buffer to the batcher to render later with all others that share it.
+        RenderData renderData = renderBatcher.add(renderType, data.vertexObject);
+        renderData.buffer = buffer.buffer;
+        renderData.red = data.color.red;
+        renderData.green = data.color.green;
+        renderData.blue = data.color.blue;
+        renderData.alpha = data.alpha;
+        renderData.lightValue = data.worldLightValue;
+        renderData.matrix.set(matrixStack.last().pose()).mul(convertMatrix4f(data.transform, transformMatrix));
+    }
+
+    /**
+     * Returns the render type for the passed-in data, creating it if this is the first data with its render state.
+     */
+    private static RenderType getRenderType(RenderableData data, int bufferSize) {
+        RenderType renderType = renderTypes.get(data.renderStateKey);
+        if (renderType == null) {
+            renderType = CustomRenderType.create("mts_entity", DefaultVertexFormat.NEW_ENTITY, VertexFormat.Mode.QUADS, bufferSize, true, data.isTranslucent, CustomRenderType.createForObject(data).createCompositeState(false));
+            renderTypes.put(data.renderStateKey, renderType);
+        }
+        return renderType;
+    }
+
+    @Override
+    public long getVertexUploadCount() {
+        return vertexUploads;
+    }
+
     @Override
     public void deleteVertices(RenderableData data) {
         if (data.vertexObject.cacheVertices) {
@@ -221,9 +278,18 @@ public class InterfaceRender implements IInterfaceRender {
             //Make sure we actually bound a buffer; just because the main system asks for a bound buffer,
     	    //doesn't mean we actually can give it one.  GUI models are one such case, as they don't work right
             //with bound buffers due to matrix differences.
-            BufferData buffer = buffers.remove(data);
-            if (buffer != null) {
-                removedRenders.add(buffer);
+            //Buffers are shared, so only remove the buffer if no data objects are using it.
+            Set<RenderableData> users = bufferUsers.get(data.vertexObject);
+            if (users != null) {
+                users.remove(data);
+                if (users.isEmpty()) {
+                    bufferUsers.remove(data.vertexObject);
+                    BufferData buffer = buffers.remove(data.vertexObject);
+                    renderBatcher.remove(data.vertexObject);
+                    if (buffer != null) {
+                        removedRenders.add(buffer);
+                    }
+                }
             }
     	}
     }
@@ -398,7 +464,13 @@ public class InterfaceRender implements IInterfaceRender {
      * Converts internal matrix to new external matrix.
      */
     protected static Matrix4f convertMatrix4f(TransformationMatrix transform) {
-        Matrix4f matrix4f = new Matrix4f();
+        return convertMatrix4f(transform, new Matrix4f());
+    }
+
+    /**
+     * Like {@link #convertMatrix4f(TransformationMatrix)}, but sets the passed-in matrix rather than making a new one.
+     */
+    protected static Matrix4f convertMatrix4f(TransformationMatrix transform, Matrix4f matrix4f) {
         matrix4f.m00((float) transform.m00);
         matrix4f.m01((float) transform.m01);
         matrix4f.m02((float) transform.m02);
@@ -454,6 +526,33 @@ public class InterfaceRender implements IInterfaceRender {
         event.registerEntityRenderer(BuilderEntityLinkedSeat.E_TYPE3.get(), BlankRender::new);
     }
 
+    /**
+     * Event that's called to register shaders.  We register our instanced shader here, which draws
+     * a whole batch in one call.  If it doesn't load, or the driver doesn't have OpenGL 3.3 for
+     * per-instance attributes, batches are drawn with one call per draw instead.
+     */
+    @SubscribeEvent
+    public static void registerShaders(RegisterShadersEvent event) {
+        try {
+            event.registerShader(new ShaderInstance(event.getResourceProvider(), new ResourceLocation(InterfaceLoader.MODID, "mts_entity_instanced"), DefaultVertexFormat.NEW_ENTITY), shader -> {
+                instancedShader = null;
+                if (GL.getCapabilities().OpenGL33) {
+                    instanceMatrixAttribute = GL20.glGetAttribLocation(shader.getId(), "InstanceModelViewMat");
+                    instanceColorAttribute = GL20.glGetAttribLocation(shader.getId(), "InstanceColor");
+                    instanceLightAttribute = GL20.glGetAttribLocation(shader.getId(), "InstanceLight");
+                    if (instanceMatrixAttribute >= 0 && instanceColorAttribute >= 0 && instanceLightAttribute >= 0) {
+                        if (instanceBuffer == 0) {
+                            instanceBuffer = GL15.glGenBuffers();
+                        }
+                        instancedShader = shader;
+                    }
+                }
+            });
+        } catch (IOException e) {
+            InterfaceManager.coreInterface.logError("Could not load the instanced shader, models will be drawn one at a time.  " + e.getMessage());
+        }
+    }
+
     public static void doRenderCall(PoseStack stack, MultiBufferSource buffer, boolean blendingEnabled, float partialTicks) {
         matrixStack = stack;
         renderBuffer = buffer;
@@ -461,6 +560,8 @@ public class InterfaceRender implements IInterfaceRender {
         ConcurrentLinkedQueue<AEntityC_Renderable> allEntities = world.renderableEntities;
         if (allEntities != null) {
             world.beginProfiling("MTSRendering_Setup", true);
+            world.renderFrameMetrics.beginPass(blendingEnabled);
+            world.renderCullingStage.beginPass(blendingEnabled);
 
             //NOTE: this operation occurs on a ConcurrentLinkedQueue.  Therefore, updates will
             //not occur one after another.  Sanitize your inputs!
@@ -479,27 +580,14 @@ public class InterfaceRender implements IInterfaceRender {
             //Now do the actual render.
             world.beginProfiling("MTSRendering_Execution", false);
             renderBuffers();
+            world.renderFrameMetrics.endPass(blendingEnabled);
             world.endProfiling();
         }
     }
 
     private static void renderBuffers() {
         //Call order is CRITICAL and will lead to random JME faults with no stacktrace if modified!
-        for (Entry<RenderType, List<RenderData>> renderEntry : queuedRenders.entrySet()) {
-            RenderType renderType = renderEntry.getKey();
-            List<RenderData> datas = renderEntry.getValue();
-            if (!datas.isEmpty()) {
-                renderType.setupRenderState();
-                for (RenderData data : datas) {
-                    data.buffer.bind();
-                    renderType.format().setupBufferState();
-                    data.buffer.drawWithShader(data.matrix, RenderSystem.getProjectionMatrix(), RenderSystem.getShader());
-                }
-                renderType.format().clearBufferState();
-                renderType.clearRenderState();
-                datas.clear();
-            }
-        }
+        renderBatcher.render(BUFFER_RENDERER);
         VertexBuffer.unbind();
         if (!removedRenders.isEmpty()) {
             removedRenders.forEach(render -> render.buffer.close());
@@ -571,14 +659,148 @@ public class InterfaceRender implements IInterfaceRender {
         }
     }
 
-    private static class RenderData {
-        private final Matrix4f matrix;
-        private final VertexBuffer buffer;
+    /**
+     * Renderer for batched buffers.  Each batch is a single buffer, so it only needs to be bound once.
+     * Batches are drawn in one instanced call with our shader, which takes the matrix, color, and light of
+     * each draw from an instance buffer.  If we don't have that shader, each draw is its own draw call,
+     * as MC's entity shaders take one model-view matrix per call.
+     */
+    private static final BatchRenderer<RenderType, RenderData> BUFFER_RENDERER = new BatchRenderer<RenderType, RenderData>() {
+        @Override
+        public void setupState(RenderType renderType) {
+            if (instancedShader != null) {
+                //Our shader has no blend mode, and applying it would turn blending off if another mode was applied last.
+                //Apply it before the state so it's the last mode when we draw, and the state's transparency is kept.
+                instancedShader.apply();
+                instancedShader.clear();
+            }
+            renderType.setupRenderState();
+        }
+
+        @Override
+        public void renderBatch(RenderType renderType, RenderableVertices vertexObject, List<RenderData> datas) {
+            VertexBuffer buffer = datas.get(0).buffer;
+            buffer.bind();
+            //Format pointers are set for the bound array buffer, which may be another buffer, so bind ours first.
+            GlStateManager._glBindBuffer(GL15.GL_ARRAY_BUFFER, ((VertexBufferAccessorMixin) buffer).get_vertexBufferId());
+            renderType.format().setupBufferState();
+            if (instancedShader != null) {
+                renderInstanced(buffer, datas);
+                return;
+            }
 
-        private RenderData(Matrix4f matrix, VertexBuffer buffer) {
-            this.matrix = new Matrix4f(matrix);
-            this.buffer = buffer;
+            //Color and lightmap are per-draw, not per-vertex.  Color is applied by the shader's color modulator.
+            //Lightmap is set as the value of its attribute, which is used for all vertices once its array is off.
+            int lightmapAttribute = renderType.format().getElementAttributeNames().indexOf("UV2");
+            GlStateManager._disableVertexAttribArray(lightmapAttribute);
+            for (RenderData data : datas) {
+                GL30.glVertexAttribI2i(lightmapAttribute, data.lightValue & 0xFFFF, data.lightValue >> 16 & 0xFFFF);
+                RenderSystem.setShaderColor(data.red, data.green, data.blue, data.alpha);
+                data.buffer.drawWithShader(data.matrix, RenderSystem.getProjectionMatrix(), RenderSystem.getShader());
+            }
         }
+
+        @Override
+        public void clearState(RenderType renderType) {
+            renderType.format().clearBufferState();
+            RenderSystem.setShaderColor(1.0F, 1.0F, 1.0F, 1.0F);
+            renderType.clearRenderState();
+        }
+    };
+
+    /**
+     * Draws all the passed-in draws of the bound buffer in one call with the instanced shader.
+     * Their matrices, colors, and light are packed into the instance buffer, which is re-uploaded
+     * for each batch, and set as per-instance attributes of the buffer for the call.
+     */
+    private static void renderInstanced(VertexBuffer buffer, List<RenderData> datas) {
+        int instanceCount = datas.size();
+        if (instanceData.capacity() < instanceCount * INSTANCE_BYTES) {
+            instanceData = ByteBuffer.allocateDirect(Integer.highestOneBit(instanceCount * INSTANCE_BYTES) << 1).order(ByteOrder.nativeOrder());
+        }
+        instanceData.clear();
+        for (int i = 0; i < instanceCount; ++i) {
+            RenderData data = datas.get(i);
+            int offset = i * INSTANCE_BYTES;
+            data.matrix.get(offset, instanceData);
+            instanceData.putFloat(offset + 64, data.red);
+            instanceData.putFloat(offset + 68, data.green);
+            instanceData.putFloat(offset + 72, data.blue);
+            instanceData.putFloat(offset + 76, data.alpha);
+            instanceData.putInt(offset + 80, data.lightValue & 0xFFFF);
+            instanceData.putInt(offset + 84, data.lightValue >> 16 & 0xFFFF);
+        }
+        instanceData.limit(instanceCount * INSTANCE_BYTES);
+        GlStateManager._glBindBuffer(GL15.GL_ARRAY_BUFFER, instanceBuffer);
+        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, instanceData, GL15.GL_STREAM_DRAW);
+
+        //Matrices are 4 attributes, one per column.
+        for (int i = 0; i < 4; ++i) {
+            GL20.glEnableVertexAttribArray(instanceMatrixAttribute + i);
+            GL20.glVertexAttribPointer(instanceMatrixAttribute + i, 4, GL11.GL_FLOAT, false, INSTANCE_BYTES, i * 16L);
+            GL33.glVertexAttribDivisor(instanceMatrixAttribute + i, 1);
+        }
+        GL20.glEnableVertexAttribArray(instanceColorAttribute);
+        GL20.glVertexAttribPointer(instanceColorAttribute, 4, GL11.GL_FLOAT, false, INSTANCE_BYTES, 64L);
+        GL33.glVertexAttribDivisor(instanceColorAttribute, 1);
+        GL20.glEnableVertexAttribArray(instanceLightAttribute);
+        GL30.glVertexAttribIPointer(instanceLightAttribute, 2, GL11.GL_INT, INSTANCE_BYTES, 80L);
+        GL33.glVertexAttribDivisor(instanceLightAttribute, 1);
+
+        //Same uniforms MC sets when drawing a buffer with a shader, less the model-view matrix, which is per-instance.
+        //As with drawing one at a time, this matrix is the whole transform, so MC's model-view isn't applied.
+        ShaderInstance shader = instancedShader;
+        shader.setSampler("Sampler0", RenderSystem.getShaderTexture(0));
+        shader.setSampler("Sampler2", RenderSystem.getShaderTexture(2));
+        if (shader.PROJECTION_MATRIX != null) {
+            shader.PROJECTION_MATRIX.set(RenderSystem.getProjectionMatrix());
+        }
+        if (shader.INVERSE_VIEW_ROTATION_MATRIX != null) {
+            shader.INVERSE_VIEW_ROTATION_MATRIX.set(RenderSystem.getInverseViewRotationMatrix());
+        }
+        if (shader.COLOR_MODULATOR != null) {
+            shader.COLOR_MODULATOR.set(RenderSystem.getShaderColor());
+        }
+        if (shader.FOG_START != null) {
+            shader.FOG_START.set(RenderSystem.getShaderFogStart());
+        }
+        if (shader.FOG_END != null) {
+            shader.FOG_END.set(RenderSystem.getShaderFogEnd());
+        }
+        if (shader.FOG_COLOR != null) {
+            shader.FOG_COLOR.set(RenderSystem.getShaderFogColor());
+        }
+        if (shader.FOG_SHAPE != null) {
+            shader.FOG_SHAPE.set(RenderSystem.getShaderFogShape().getIndex());
+        }
+        RenderSystem.setupShaderLights(shader);
+        shader.apply();
+        VertexBufferAccessorMixin bufferAccessor = (VertexBufferAccessorMixin) buffer;
+        GL31.glDrawElementsInstanced(bufferAccessor.get_mode().asGLMode, bufferAccessor.get_indexCount(), bufferAccessor.invoke_getIndexType().asGLType, 0L, instanceCount);
+        shader.clear();
+
+        //Turn the instance attributes back off, as they are part of the buffer's state, which is also used without them.
+        for (int i = 0; i < 4; ++i) {
+            GL33.glVertexAttribDivisor(instanceMatrixAttribute + i, 0);
+            GL20.glDisableVertexAttribArray(instanceMatrixAttribute + i);
+        }
+        GL33.glVertexAttribDivisor(instanceColorAttribute, 0);
+        GL20.glDisableVertexAttribArray(instanceColorAttribute);
+        GL33.glVertexAttribDivisor(instanceLightAttribute, 0);
+        GL20.glDisableVertexAttribArray(instanceLightAttribute);
+    }
+
+    /**
+     * A queued draw.  These are pooled by the batcher and filled in for each draw, so they are never made per-frame.
+     */
+    private static class RenderData {
+        private final Matrix4f matrix = new Matrix4f();
+        private VertexBuffer buffer;
+        private float red;
+        private float green;
+        private float blue;
+        private float alpha;
+        private int lightValue;
     }
 
     private static class BufferData {
@@ -6,8 +6,8 @@ import minecrafttransportsimulator.mcinterface.IInterfaceSound;
 import minecrafttransportsimulator.mcinterface.IWrapperPlayer;
 import minecrafttransportsimulator.mcinterface.InterfaceManager;
 import minecrafttransportsimulator.sound.IStreamDecoder;
-import minecrafttransportsimulator.sound.OGGDecoder;
 import minecrafttransportsimulator.sound.RadioStation;
+import minecrafttransportsimulator.sound.SoundDataCache;
 import minecrafttransportsimulator.sound.SoundInstance;
 import minecrafttransportsimulator.systems.ConfigSystem;
 import minecrafttransportsimulator.systems.LanguageSystem;
@@ -21,10 +21,10 @@ import org.lwjgl.BufferUtils;
 import org.lwjgl.openal.AL10;
 import org.lwjgl.openal.ALC;
 
-import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
 import java.util.*;
+import java.util.function.Predicate;
 
 /**
  * Interface for the sound system.  This is responsible for playing sound from vehicles/interactions.
@@ -40,10 +40,14 @@ public class InterfaceSound implements IInterfaceSound {
     private static boolean isSystemPaused;
 
     /**
-     * Map of String-based file-names to Integer pointers to buffer locations.  Used for loading sounds into
-     * memory to prevent the need to load them every time they are played.
+     * Cache of buffers for sounds loaded from jars.  Used to prevent the need to decode sounds every time they are played.
      **/
-    private static final Map<String, Integer> dataSourceBuffers = new HashMap<>();
+    private static final SoundDataCache soundDataCache = new SoundDataCache(SoundDataCache::createJarDecoder);
+
+    /**
+     * List of sounds waiting for their data to be decoded before they can start playing.
+     **/
+    private static final List<SoundInstance> pendingSounds = new ArrayList<>();
 
     /**
      * List of sounds currently playing.  Queued for updates every tick.
@@ -106,10 +110,30 @@ public class InterfaceSound implements IInterfaceSound {
 
         //If the client world is null, or we don't have a player we need to stop all sounds.
         if (InterfaceManager.clientInterface.getClientWorld() == null || player == null) {
-            queuedSounds.clear();
+            removeQueuedSounds(sound -> true);
             for (SoundInstance sound : playingSounds) {
                 sound.stopSound = true;
             }
+            for (SoundInstance sound : pendingSounds) {
+                sound.stopSound = true;
+            }
+        }
+
+        //Make any decoded sound data into buffers, and start any sounds that were waiting for it.
+        soundDataCache.update(InterfaceManager.soundInterface, ConfigSystem.client.controlSettings.soundCacheSize.value * 1024L * 1024L);
+        if (!pendingSounds.isEmpty()) {
+            Iterator<SoundInstance> pendingIterator = pendingSounds.iterator();
+            while (pendingIterator.hasNext()) {
+                SoundInstance sound = pendingIterator.next();
+                int dataBufferIndex = sound.stopSound ? SoundDataCache.BUFFER_MISSING : soundDataCache.getBuffer(sound.soundPlayingName);
+                if (dataBufferIndex != SoundDataCache.BUFFER_LOADING) {
+                    pendingIterator.remove();
+                    sound.entity.sounds.remove(sound);
+                    if (dataBufferIndex != SoundDataCache.BUFFER_MISSING && sourceGetFailures < 10) {
+                        bindQuickSound(sound, dataBufferIndex);
+                    }
+                }
+            }
         }
 
         //Start playing all queued sounds.
@@ -177,6 +201,9 @@ public class InterfaceSound implements IInterfaceSound {
                     IntBuffer sourceBuffer = BufferUtils.createIntBuffer(1);
                     sourceBuffer.put(sound.sourceIndex).flip();
                     AL10.alDeleteSources(sourceBuffer);
+                    if (sound.radio == null) {
+                        soundDataCache.removeUser(sound.soundPlayingName);
+                    }
 
                     //Delete from playing list, and entity that has this sound.
                     iterator.remove();
@@ -193,7 +220,7 @@ public class InterfaceSound implements IInterfaceSound {
         //If the sound system was reset, blow out all saved data points.
         if (soundSystemReset) {
             InterfaceManager.coreInterface.logError("Had an invalid sound name.  Was the sound system reset?  Clearing all sounds, playing or not!");
-            dataSourceBuffers.clear();
+            soundDataCache.reset();
             for (SoundInstance sound : playingSounds) {
                 sound.entity.sounds.remove(sound);
             }
@@ -205,50 +232,86 @@ public class InterfaceSound implements IInterfaceSound {
     @Override
     public void playQuickSound(SoundInstance sound) {
         if (ALC.getFunctionProvider() != null && sourceGetFailures < 10) {
-            //First get the IntBuffer pointer to where this sound data is stored.
-            Integer dataBufferPointer = loadOGGJarSound(sound.soundPlayingName);
-            if (dataBufferPointer != null) {
-                //Set the sound's source buffer index.
-                IntBuffer sourceBuffer = BufferUtils.createIntBuffer(1);
-                AL10.alGetError();
-                AL10.alGenSources(sourceBuffer);
-                if (AL10.alGetError() != AL10.AL_NO_ERROR) {
-                    AL10.alDeleteBuffers(dataBufferPointer);
-                    if (++sourceGetFailures == 10) {
-                        InterfaceManager.clientInterface.getClientPlayer().displayChatMessage(LanguageSystem.SYSTEM_SOUNDSLOT);
-                        ///Kill off the sound that's furthest from the player to make room if we have a sound we can remove.
-                        //This keeps the sounds going, even with limited slots.
-                        if (!playingSounds.isEmpty()) {
-                            SoundInstance furthestSound = null;
-                            Point3D playerPosition = InterfaceManager.clientInterface.getClientPlayer().getPosition();
-                            for (SoundInstance testSound : playingSounds) {
-                                if (furthestSound == null || playerPosition.isFirstCloserThanSecond(testSound.position, furthestSound.position)) {
-                                    furthestSound = testSound;
-                                }
-                            }
-                            sourceGetFailures = 0;
-                            //Manually stop sound and remove from iterator.
-                            //This makes the source entity think that it's still playing and won't re-add it.
-                            AL10.alSourcei(furthestSound.sourceIndex, AL10.AL_BUFFER, AL10.AL_NONE);
-                            sourceBuffer = BufferUtils.createIntBuffer(1);
-                            sourceBuffer.put(furthestSound.sourceIndex).flip();
-                            AL10.alDeleteSources(sourceBuffer);
-                            playingSounds.remove(furthestSound);
+            //First get the pointer to where this sound data is stored.
+            //If the data is still being decoded, hold the sound until it's ready.
+            //We add the sound to the entity now so it knows the sound is going to play.
+            int dataBufferIndex = soundDataCache.getBuffer(sound.soundPlayingName);
+            if (dataBufferIndex == SoundDataCache.BUFFER_LOADING) {
+                pendingSounds.add(sound);
+                sound.entity.sounds.add(sound);
+            } else if (dataBufferIndex != SoundDataCache.BUFFER_MISSING) {
+                bindQuickSound(sound, dataBufferIndex);
+            }
+        }
+    }
+
+    /**
+     * Gets a source for the passed-in sound, binds the passed-in buffer to it, and queues it to play.
+     */
+    private static void bindQuickSound(SoundInstance sound, int dataBufferIndex) {
+        //Set the sound's source buffer index.
+        IntBuffer sourceBuffer = BufferUtils.createIntBuffer(1);
+        AL10.alGetError();
+        AL10.alGenSources(sourceBuffer);
+        if (AL10.alGetError() != AL10.AL_NO_ERROR) {
+            if (++sourceGetFailures == 10) {
+                InterfaceManager.clientInterface.getClientPlayer().displayChatMessage(LanguageSystem.SYSTEM_SOUNDSLOT);
+                ///Kill off the sound that's furthest from the player to make room if we have a sound we can remove.
+                //This keeps the sounds going, even with limited slots.
+                if (!playingSounds.isEmpty()) {
+                    SoundInstance furthestSound = null;
+                    Point3D playerPosition = InterfaceManager.clientInterface.getClientPlayer().getPosition();
+                    for (SoundInstance testSound : playingSounds) {
+                        if (furthestSound == null || playerPosition.isFirstCloserThanSecond(testSound.position, furthestSound.position)) {
+                            furthestSound = testSound;
                         }
                     }
-                    return;
+                    sourceGetFailures = 0;
+                    //Manually stop sound and remove from iterator.
+                    //This makes the source entity think that it's still playing and won't re-add it.
+                    AL10.alSourcei(furthestSound.sourceIndex, AL10.AL_BUFFER, AL10.AL_NONE);
+                    sourceBuffer = BufferUtils.createIntBuffer(1);
+                    sourceBuffer.put(furthestSound.sourceIndex).flip();
+                    AL10.alDeleteSources(sourceBuffer);
+                    playingSounds.remove(furthestSound);
+                    if (furthestSound.radio == null) {
+                        soundDataCache.removeUser(furthestSound.soundPlayingName);
+                    }
                 }
-                sound.sourceIndex = sourceBuffer.get(0);
+            }
+            return;
+        }
+        sound.sourceIndex = sourceBuffer.get(0);
 
-                //Set properties and bind data buffer to source.
-                AL10.alGetError();
-                AL10.alSourcei(sound.sourceIndex, AL10.AL_LOOPING, sound.soundDef != null && sound.soundDef.looping ? AL10.AL_TRUE : AL10.AL_FALSE);
-                AL10.alSource3f(sound.sourceIndex, AL10.AL_POSITION, (float) sound.entity.position.x, (float) sound.entity.position.y, (float) sound.entity.position.z);
-                AL10.alSourcei(sound.sourceIndex, AL10.AL_BUFFER, dataBufferPointer);
+        //Set properties and bind data buffer to source.
+        AL10.alGetError();
+        AL10.alSourcei(sound.sourceIndex, AL10.AL_LOOPING, sound.soundDef != null && sound.soundDef.looping ? AL10.AL_TRUE : AL10.AL_FALSE);
+        AL10.alSource3f(sound.sourceIndex, AL10.AL_POSITION, (float) sound.entity.position.x, (float) sound.entity.position.y, (float) sound.entity.position.z);
+        AL10.alSourcei(sound.sourceIndex, AL10.AL_BUFFER, dataBufferIndex);
+        soundDataCache.addUser(sound.soundPlayingName);
+
+        //Done setting up buffer.  Queue sound to start playing.
+        queuedSounds.add(sound);
+        sound.entity.sounds.add(sound);
+    }
 
-                //Done setting up buffer.  Queue sound to start playing.
-                queuedSounds.add(sound);
-                sound.entity.sounds.add(sound);
+    /**
+     * Removes all queued sounds that match the filter.  These sounds have a source and are a user of their
+     * sound data, but haven't started playing, so they need to be cleaned up here as the playing loop won't see them.
+     */
+    private static void removeQueuedSounds(Predicate<SoundInstance> filter) {
+        Iterator<SoundInstance> iterator = queuedSounds.iterator();
+        while (iterator.hasNext()) {
+            SoundInstance sound = iterator.next();
+            if (filter.test(sound)) {
+                IntBuffer sourceBuffer = BufferUtils.createIntBuffer(1);
+                sourceBuffer.put(sound.sourceIndex).flip();
+                AL10.alDeleteSources(sourceBuffer);
+                if (sound.radio == null) {
+                    soundDataCache.removeUser(sound.soundPlayingName);
+                }
+                iterator.remove();
+                sound.entity.sounds.remove(sound);
             }
         }
     }
@@ -342,50 +405,16 @@ public class InterfaceSound implements IInterfaceSound {
         }
     }
 
-    /**
-     * Loads an OGG file in its entirety using the {@link InterfaceOGGDecoder}.
-     * The sound is then stored in a dataBuffer keyed by soundName located in {@link #dataSourceBuffers}.
-     * The pointer to the dataBuffer is returned for convenience as it allows for transparent sound caching.
-     * If a sound with the same name is passed-in at a later time, it is assumed to be the same and rather
-     * than re-parse the sound the system will simply return the same pointer index to be bound.
-     */
-    private static Integer loadOGGJarSound(String soundName) {
-        if (dataSourceBuffers.containsKey(soundName)) {
-            //Already parsed the data.  Return the buffer.
-            return dataSourceBuffers.get(soundName);
-        } else {
-            //Need to parse the data.  Do so now.
-            String soundDomain = soundName.substring(0, soundName.indexOf(':'));
-            String soundPath = soundName.substring(soundDomain.length() + 1);
-            InputStream soundStream = InterfaceManager.coreInterface.getPackResource("/assets/" + soundDomain + "/sounds/" + soundPath + ".ogg");
-            if (soundStream != null) {
-                //Create decoder and decode whole file.
-                OGGDecoder decoder = new OGGDecoder(soundStream);
-                ByteBuffer decodedData = ByteBuffer.allocateDirect(0);
-                ByteBuffer blockRead;
-                while ((blockRead = decoder.readBlock()) != null) {
-                    decodedData = ByteBuffer.allocateDirect(decodedData.capacity() + blockRead.limit()).put(decodedData).put(blockRead);
-                    decodedData.rewind();
-                }
-
-                //Generate an IntBuffer to store a pointer to the data buffer.
-                IntBuffer dataBufferPointers = BufferUtils.createIntBuffer(1);
-                AL10.alGenBuffers(dataBufferPointers);
-
-                //Bind the decoder output buffer to the data buffer pointer.
-                AL10.alBufferData(dataBufferPointers.get(0), AL10.AL_FORMAT_MONO16, decodedData, decoder.getSampleRate());
-
-                //Done parsing.  Map the dataBuffer(s) to the soundName and return the index.
-                dataSourceBuffers.put(soundName, dataBufferPointers.get(0));
-                return dataSourceBuffers.get(soundName);
-            } else {
-                return null;
-            }
-        }
+    @Override
+    public SoundDataCache getSoundDataCache() {
+        return soundDataCache;
     }
 
     public static void stopAllSounds() {
-        queuedSounds.clear();
+        removeQueuedSounds(sound -> true);
+        for (SoundInstance sound : pendingSounds) {
+            sound.stopSound = true;
+        }
         for (SoundInstance sound : playingSounds) {
             if (sound.radio != null) {
                 sound.radio.stop();
@@ -422,7 +451,12 @@ public class InterfaceSound implements IInterfaceSound {
     @SubscribeEvent
     public static void onIVWorldUnload(LevelEvent.Unload event) {
         if (event.getLevel().isClientSide()) {
-            queuedSounds.removeIf(soundInstance -> event.getLevel() == ((WrapperWorld) soundInstance.entity.world).world);
+            removeQueuedSounds(soundInstance -> event.getLevel() == ((WrapperWorld) soundInstance.entity.world).world);
+            for (SoundInstance sound : pendingSounds) {
+                if (event.getLevel() == ((WrapperWorld) sound.entity.world).world) {
+                    sound.stopSound = true;
+                }
+            }
             for (SoundInstance sound : playingSounds) {
                 if (event.getLevel() == ((WrapperWorld) sound.entity.world).world) {
                     if (sound.radio != null) {
@@ -55,7 +55,6 @@ import net.minecraft.world.level.storage.DimensionDataStorage;
 import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.HitResult;
 import net.minecraft.world.phys.Vec3;
-import net.minecraft.world.phys.shapes.BooleanOp;
 import net.minecraft.world.phys.shapes.Shapes;
 import net.minecraft.world.phys.shapes.VoxelShape;
 import net.minecraftforge.common.IPlantable;
@@ -63,6 +62,8 @@ import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.capabilities.ForgeCapabilities;
 import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.TickEvent.Phase;
+import net.minecraftforge.event.level.BlockEvent;
+import net.minecraftforge.event.level.ChunkEvent;
 import net.minecraftforge.event.level.LevelEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.util.ObfuscationReflectionHelper;
@@ -90,6 +91,7 @@ public class WrapperWorld extends AWrapperWorld {
     private static Map<UUID, BuilderEntityRenderForwarder> playerFollowers = new HashMap<>();
     private final List<AABB> mutableCollidingAABBs = new ArrayList<>();
     private final Set<BlockPos> knownAirBlocks = new HashSet<>();
+    private final BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
 
 
     protected final Level world;
@@ -271,7 +273,7 @@ public class WrapperWorld extends AWrapperWorld {
         BuilderEntityExisting builder = new BuilderEntityExisting(BuilderEntityExisting.E_TYPE2.get(), ((WrapperWorld) entity.world).world);
         builder.loadedFromSavedNBT = true;
         builder.setPos(entity.position.x, entity.position.y, entity.position.z);
-        builder.entity = entity;
+        builder.setEntity(entity);
         world.addFreshEntity(builder);
         addEntity(entity);
         return builder;
@@ -532,18 +534,19 @@ public class WrapperWorld extends AWrapperWorld {
     @Override
     public void updateBoundingBoxCollisions(BoundingBox box, Point3D collisionMotion, boolean ignoreIfGreater) {
         AABB mcBox = WrapperWorld.convert(box);
-        VoxelShape mcShape = Shapes.create(mcBox);
         box.collidingBlockPositions.clear();
         mutableCollidingAABBs.clear();
         for (int i = (int) Math.floor(mcBox.minX); i < Math.ceil(mcBox.maxX); ++i) {
             for (int j = (int) Math.floor(mcBox.minY); j < Math.ceil(mcBox.maxY); ++j) {
                 for (int k = (int) Math.floor(mcBox.minZ); k < Math.ceil(mcBox.maxZ); ++k) {
-                    BlockPos pos = new BlockPos(i, j, k);
-                    if (!world.isEmptyBlock(pos)) {
-                        BlockState state = world.getBlockState(pos);
-                        VoxelShape collisionShape = state.getCollisionShape(world, pos).move(i, j, k);
-                        if (!collisionShape.isEmpty() && Shapes.joinIsNotEmpty(mcShape, collisionShape, BooleanOp.AND) && !state.is(BlockTags.LEAVES)) {
-                            mutableCollidingAABBs.addAll(collisionShape.toAabbs());
+                    BlockPos pos = mutablePos.set(i, j, k);
+                    BlockState state = world.getBlockState(pos);
+                    if (!state.isAir()) {
+                        double[] collisionBoxes = getCollisionBoxes(state, pos);
+                        if (intersectsAny(collisionBoxes, mcBox) && !state.is(BlockTags.LEAVES)) {
+                            for (int l = 0; l < collisionBoxes.length; l += 6) {
+                                mutableCollidingAABBs.add(new AABB(collisionBoxes[l], collisionBoxes[l + 1], collisionBoxes[l + 2], collisionBoxes[l + 3], collisionBoxes[l + 4], collisionBoxes[l + 5]));
+                            }
                             box.collidingBlockPositions.add(new Point3D(i, j, k));
                         }
                         if (box.collidesWithLiquids && state.liquid()) {
@@ -624,20 +627,18 @@ public class WrapperWorld extends AWrapperWorld {
         }
         mutableCollidingAABBs.clear();
         AABB mcBox = WrapperWorld.convertWithOffset(box, offset.x, offset.y, offset.z);
-        VoxelShape mcShape = Shapes.create(mcBox);
         for (int i = (int) Math.floor(mcBox.minX); i < Math.ceil(mcBox.maxX); ++i) {
             for (int j = (int) Math.floor(mcBox.minY); j < Math.ceil(mcBox.maxY); ++j) {
                 for (int k = (int) Math.floor(mcBox.minZ); k < Math.ceil(mcBox.maxZ); ++k) {
-                    BlockPos pos = new BlockPos(i, j, k);
+                    BlockPos pos = mutablePos.set(i, j, k);
                     if (!knownAirBlocks.contains(pos)) {
                         if (world.isLoaded(pos)) {
                             BlockState state = world.getBlockState(pos);
-                            VoxelShape collisionShape = state.getCollisionShape(world, pos).move(i, j, k);
                             if (!state.is(BlockTags.LEAVES)) {
-                                if (collisionShape != null && !collisionShape.isEmpty() && Shapes.joinIsNotEmpty(mcShape, collisionShape, BooleanOp.AND)) {
+                                if (intersectsAny(getCollisionBoxes(state, pos), mcBox)) {
                                     return true;
                                 } else {
-                                    knownAirBlocks.add(pos);
+                                    knownAirBlocks.add(pos.immutable());
                                 }
                                 if (box.collidesWithLiquids && state.liquid()) {
                                     if (mcBox.intersects(Shapes.block().bounds().move(pos))) {
@@ -647,7 +648,7 @@ public class WrapperWorld extends AWrapperWorld {
                             } else if (breakLeaves) {
                                 world.destroyBlock(pos, false);
                             } else {
-                                knownAirBlocks.add(pos);
+                                knownAirBlocks.add(pos.immutable());
                             }
                         }
                     }
@@ -657,6 +658,46 @@ public class WrapperWorld extends AWrapperWorld {
         return false;
     }
 
+    /**
+     * Returns the collision boxes for the passed-in block.  These come from the cache if they can,
+     * as getting the block's shape from MC is slow.  Boxes are min XYZ then max XYZ, in world coordinates.
+     */
+    private double[] getCollisionBoxes(BlockState state, BlockPos pos) {
+        double[] collisionBoxes = blockCollisionCache.getBoxes(pos.getX(), pos.getY(), pos.getZ(), state);
+        if (collisionBoxes == null) {
+            VoxelShape collisionShape = state.getCollisionShape(world, pos);
+            if (collisionShape.isEmpty()) {
+                collisionBoxes = BlockCollisionCache.NO_BOXES;
+            } else {
+                List<AABB> shapeBoxes = collisionShape.toAabbs();
+                collisionBoxes = new double[shapeBoxes.size() * 6];
+                int index = 0;
+                for (AABB shapeBox : shapeBoxes) {
+                    collisionBoxes[index++] = shapeBox.minX + pos.getX();
+                    collisionBoxes[index++] = shapeBox.minY + pos.getY();
+                    collisionBoxes[index++] = shapeBox.minZ + pos.getZ();
+                    collisionBoxes[index++] = shapeBox.maxX + pos.getX();
+                    collisionBoxes[index++] = shapeBox.maxY + pos.getY();
+                    collisionBoxes[index++] = shapeBox.maxZ + pos.getZ();
+                }
+            }
+            blockCollisionCache.setBoxes(pos.getX(), pos.getY(), pos.getZ(), state, collisionBoxes);
+        }
+        return collisionBoxes;
+    }
+
+    /**
+     * Returns true if any of the passed-in collision boxes intersect the passed-in MC box.
+     */
+    private static boolean intersectsAny(double[] collisionBoxes, AABB mcBox) {
+        for (int i = 0; i < collisionBoxes.length; i += 6) {
+            if (mcBox.minX < collisionBoxes[i + 3] && mcBox.maxX > collisionBoxes[i] && mcBox.minY < collisionBoxes[i + 4] && mcBox.maxY > collisionBoxes[i + 1] && mcBox.minZ < collisionBoxes[i + 5] && mcBox.maxZ > collisionBoxes[i + 2]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public int getRedstonePower(Point3D position) {
         return world.getBestNeighborSignal(BlockPos.containing(position.x, position.y, position.z));
@@ -1084,6 +1125,29 @@ public class WrapperWorld extends AWrapperWorld {
         }
     }
 
+    /**
+     * Remove changed blocks from the collision cache.  Neighbors are removed too, as their shapes may depend on the block.
+     */
+    @SubscribeEvent
+    public void onIVNeighborNotify(BlockEvent.NeighborNotifyEvent event) {
+        //Need to check if it's our world, because Forge is stupid like that.
+        if (event.getLevel() == world) {
+            BlockPos pos = event.getPos();
+            blockCollisionCache.onBlockChanged(pos.getX(), pos.getY(), pos.getZ());
+        }
+    }
+
+    /**
+     * Remove unloaded chunks from the collision cache, as we won't be checking them anymore.
+     */
+    @SubscribeEvent
+    public void onIVChunkUnload(ChunkEvent.Unload event) {
+        //Need to check if it's our world, because Forge is stupid like that.
+        if (event.getLevel() == world) {
+            blockCollisionCache.onChunkUnloaded(event.getChunk().getPos().x, event.getChunk().getPos().z);
+        }
+    }
+
     /**
      * Remove all entities from our maps if we unload the world.  This will cause duplicates if we don't.
      * Also remove this wrapper from the created lists, as it's invalid.
@@ -0,0 +1,22 @@
+package mcinterface1201.mixin.client;
+
+import com.mojang.blaze3d.vertex.VertexBuffer;
+import com.mojang.blaze3d.vertex.VertexFormat;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+import org.spongepowered.asm.mixin.gen.Invoker;
+
+@Mixin(VertexBuffer.class)
+public interface VertexBufferAccessorMixin {
+    @Accessor("vertexBufferId")
+    public int get_vertexBufferId();
+
+    @Accessor("indexCount")
+    public int get_indexCount();
+
+    @Accessor("mode")
+    public VertexFormat.Mode get_mode();
+
+    @Invoker("getIndexType")
+    public VertexFormat.IndexType invoke_getIndexType();
+}